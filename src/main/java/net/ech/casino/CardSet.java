@@ -0,0 +1,293 @@
+//
+// CardSet.java
+//
+
+package net.ech.casino;
+
+/**
+ * A set of distinct cards packed into a long.	Each suit occupies a
+ * 16-bit lane, and within a lane each rank occupies the bit of the same
+ * number, so that the card of rank r and suit s is bit
+ * <code>(s - MinSuit) * 16 + r</code>.	 Bits 0 and 1 of each lane are
+ * unused by the standard ranks; bit 0 of the diamonds lane holds the
+ * joker.
+ * <p>
+ * Union, intersection and difference are the bitwise operators; this
+ * class provides them by name along with membership, per-suit rank
+ * masks, per-rank counts and conversion to and from the byte encoding.
+ * A set holds at most one of each card, so it cannot describe a hand
+ * dealt from a multi-deck shoe.
+ *
+ * @see net.ech.casino.Card
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class CardSet implements CardConstants
+{
+	/**
+	 * The empty set.
+	 */
+	public final static long Empty = 0L;
+
+	/**
+	 * The bit that holds the joker.
+	 */
+	public final static long JokerBit = 1L;
+
+	/**
+	 * The bits of a suit lane that hold the standard ranks.
+	 */
+	public final static int RankMask = ((1 << (MaxRank + 1)) - 1) & ~((1 << MinRank) - 1);
+
+	/**
+	 * The 52 cards of a standard deck.
+	 */
+	public final static long StandardDeck = lanes (RankMask);
+
+	/**
+	 * The 52 cards of a standard deck plus the joker.
+	 */
+	public final static long JokerDeck = StandardDeck | JokerBit;
+
+	private final static int LaneBits = 16;
+
+	// The low bit of each lane; shifted left by a rank, it selects that
+	// rank in every suit.
+	private final static long RankLanes = 0x0001000100010001L;
+
+	/**
+	 * Do not instantiate.	A card set value is a long.
+	 */
+	private CardSet ()
+	{
+	}
+
+	/**
+	 * Get the bit that holds the given card.
+	 * @return the singleton set, or Empty if the card is not valid.
+	 */
+	public static long of (byte card)
+	{
+		if (card == Joker)
+			return JokerBit;
+		if (!Card.isValid (card))
+			return Empty;
+		return 1L << ((Card.suitOf (card) - MinSuit) * LaneBits + Card.rankOf (card));
+	}
+
+	/**
+	 * Create a set from an array of card values.	Invalid card values,
+	 * including NilCard, are ignored.
+	 */
+	public static long valueOf (byte[] cards)
+	{
+		return valueOf (cards, 0, cards.length);
+	}
+
+	/**
+	 * Create a set from a range of an array of card values.	Invalid
+	 * card values, including NilCard, are ignored.
+	 */
+	public static long valueOf (byte[] cards, int off, int len)
+	{
+		long set = Empty;
+		for (int i = off; i < off + len; ++i)
+		{
+			set |= of (cards[i]);
+		}
+		return set;
+	}
+
+	/**
+	 * Create a set from a String of two-character card encodings.
+	 * @see net.ech.casino.Card#parseHand
+	 */
+	public static long parse (String handString)
+	{
+		return valueOf (Card.parseHand (handString));
+	}
+
+	/**
+	 * Add a card to a set.
+	 */
+	public static long add (long set, byte card)
+	{
+		return set | of (card);
+	}
+
+	/**
+	 * Remove a card from a set.
+	 */
+	public static long remove (long set, byte card)
+	{
+		return set & ~of (card);
+	}
+
+	/**
+	 * Return true iff the set contains the card.
+	 */
+	public static boolean contains (long set, byte card)
+	{
+		long bit = of (card);
+		return bit != Empty && (set & bit) != 0;
+	}
+
+	/**
+	 * Return true iff the first set contains every card of the second.
+	 */
+	public static boolean containsAll (long set, long subset)
+	{
+		return (subset & ~set) == 0;
+	}
+
+	/**
+	 * The cards in either set.
+	 */
+	public static long union (long a, long b)
+	{
+		return a | b;
+	}
+
+	/**
+	 * The cards in both sets.
+	 */
+	public static long intersection (long a, long b)
+	{
+		return a & b;
+	}
+
+	/**
+	 * The cards in the first set but not the second.
+	 */
+	public static long difference (long a, long b)
+	{
+		return a & ~b;
+	}
+
+	/**
+	 * Get the number of cards in a set.
+	 */
+	public static int size (long set)
+	{
+		return Long.bitCount (set);
+	}
+
+	/**
+	 * Return true iff the set contains the joker.
+	 */
+	public static boolean hasJoker (long set)
+	{
+		return (set & JokerBit) != 0;
+	}
+
+	/**
+	 * Get the ranks of the given suit present in a set, as a mask in
+	 * which bit r stands for rank r.
+	 */
+	public static int suitRanks (long set, byte suit)
+	{
+		return (int) (set >>> ((suit - MinSuit) * LaneBits)) & RankMask;
+	}
+
+	/**
+	 * Get the number of cards of the given suit in a set.
+	 */
+	public static int suitCount (long set, byte suit)
+	{
+		return Integer.bitCount (suitRanks (set, suit));
+	}
+
+	/**
+	 * Get the ranks present in a set in any suit, as a mask in which bit r
+	 * stands for rank r.  The joker is not included.
+	 */
+	public static int ranks (long set)
+	{
+		long folded = set | (set >>> 32);
+		return (int) (folded | (folded >>> LaneBits)) & RankMask;
+	}
+
+	/**
+	 * Get the number of cards of the given rank in a set (zero to four).
+	 */
+	public static int rankCount (long set, byte rank)
+	{
+		return Long.bitCount (set & (RankLanes << rank));
+	}
+
+	/**
+	 * Get the set containing every suit of each rank in a rank mask.
+	 */
+	public static long lanes (int rankMask)
+	{
+		return (rankMask & RankMask) * RankLanes;
+	}
+
+	/**
+	 * Get the representative of a set among all the sets that differ
+	 * from it only by a permutation of suits.  Two sets have the same
+	 * canonical set iff some renaming of suits turns one into the other.
+	 * The canonical set is not in general a subset of the original; it
+	 * serves as a key, for example in a cache of decisions that do not
+	 * depend on suit.
+	 */
+	public static long canonical (long set)
+	{
+		long a = set & (0xffffL & ~JokerBit);
+		long b = (set >>> LaneBits) & 0xffffL;
+		long c = (set >>> (2 * LaneBits)) & 0xffffL;
+		long d = set >>> (3 * LaneBits);
+		long t;
+
+		// Sort the lanes in descending order.
+		if (a < b) { t = a; a = b; b = t; }
+		if (c < d) { t = c; c = d; d = t; }
+		if (a < c) { t = a; a = c; c = t; }
+		if (b < d) { t = b; b = d; d = t; }
+		if (b < c) { t = b; b = c; c = t; }
+
+		return (set & JokerBit) | a | (b << LaneBits) | (c << (2 * LaneBits)) | (d << (3 * LaneBits));
+	}
+
+	/**
+	 * Create an array of the card values in a set, ordered by suit and
+	 * then by rank, with the joker (if any) first.
+	 */
+	public static byte[] toCards (long set)
+	{
+		byte[] cards = new byte [size (set)];
+		toCards (set, cards, 0);
+		return cards;
+	}
+
+	/**
+	 * Store the card values in a set into an array, ordered by suit and
+	 * then by rank, with the joker (if any) first.
+	 * @return the number of card values stored
+	 */
+	public static int toCards (long set, byte[] dst, int off)
+	{
+		int n = 0;
+		for (long bits = set; bits != 0; bits &= bits - 1)
+		{
+			dst[off + n++] = cardAt (Long.numberOfTrailingZeros (bits));
+		}
+		return n;
+	}
+
+	private static byte cardAt (int bit)
+	{
+		if (bit == 0)
+			return Joker;
+		return Card.value ((byte) (bit % LaneBits), (byte) (MinSuit + bit / LaneBits));
+	}
+
+	/**
+	 * Return a string encoding of a card set.
+	 */
+	public static String toString (long set)
+	{
+		return Card.toString (toCards (set));
+	}
+}
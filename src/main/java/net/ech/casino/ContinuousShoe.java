@@ -0,0 +1,156 @@
+//
+// ContinuousShoe.java
+//
+
+package net.ech.casino;
+
+/**
+ * A ContinuousShoe models a continuous shuffling machine.	The cards
+ * dealt in a round go back into the machine when the game discards them
+ * at the end of the round, and each draw picks a card uniformly at
+ * random from those currently in the machine.	Apart from loading the
+ * machine the first time, there is never a shuffle: isShufflePending
+ * is true only until the machine is loaded.
+ * <p>
+ * The cut range does not apply.  Stacked cards are drawn first after
+ * the machine is loaded, as with an ordinary shoe.
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class ContinuousShoe extends Shoe
+{
+	// The cards in the machine occupy the first count elements.
+	private byte[] cards;
+	private int count;
+	private Randomizer random;
+	private int stackIndex;
+
+	/**
+	 * Constructor.
+	 * @param numberOfDecks		Number of standard decks in the machine.
+	 */
+	public ContinuousShoe (int numberOfDecks)
+	{
+		super (numberOfDecks);
+	}
+
+	/**
+	 * Constructor.
+	 * @param numberOfDecks		Number of decks in the machine.
+	 * @param theDeck			The deck to use for card composition.
+	 */
+	public ContinuousShoe (int numberOfDecks, Deck theDeck)
+	{
+		super (numberOfDecks, theDeck);
+	}
+
+	/**
+	 * @return whether the machine has yet to be loaded.
+	 */
+	public boolean isShufflePending ()
+	{
+		return cards == null;
+	}
+
+	/**
+	 * Get the number of cards out of the machine.
+	 */
+	public int getNumberOfCardsDealt ()
+	{
+		return cards == null ? 0 : cards.length - count;
+	}
+
+	/**
+	 * Get the number of cards in the machine.
+	 */
+	public int getNumberOfCardsInMachine ()
+	{
+		return count;
+	}
+
+	/**
+	 * Load the machine with all of its cards, including any that are out
+	 * of the machine, and use the given randomizer for future draws.
+	 * The number of cards to shuffle is immaterial.
+	 */
+	public void shuffle (int n, Randomizer random)
+	{
+		cards = new byte [getSize()];
+		compose (getDeck(), getNumberOfDecks(), cards);
+		count = cards.length;
+		stackIndex = 0;
+		this.random = random;
+	}
+
+	/**
+	 * Draw one card at random from the machine.
+	 * @return the card dealt
+	 * @exception IllegalStateException if the machine is empty
+	 */
+	public byte draw ()
+	{
+		if (count == 0)
+			throw new IllegalStateException ("continuous shuffler is empty");
+
+		int ix = -1;
+		byte[] stackedCards = getStackedCards ();
+		if (stackedCards != null && stackIndex < stackedCards.length)
+		{
+			byte stacked = stackedCards[stackIndex++];
+			if (stacked != NilCard)
+			{
+				ix = find (stacked);
+				if (ix < 0)
+				{
+					throw new RuntimeException ("stackTheDeck: " +
+						Card.toString (stacked) + " not found");
+				}
+			}
+		}
+		if (ix < 0)
+		{
+			ix = random.roll (0, count - 1);
+		}
+
+		// Fill the hole with the last card in the machine.
+		byte card = cards[ix];
+		cards[ix] = cards[--count];
+		return card;
+	}
+
+	private int find (byte card)
+	{
+		for (int i = 0; i < count; ++i)
+		{
+			if (cards[i] == card)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Return a card to the machine.
+	 * @exception IllegalStateException if the machine is already full
+	 */
+	public void discard (byte card)
+	{
+		if (cards != null)
+		{
+			if (count == cards.length)
+				throw new IllegalStateException ("continuous shuffler is full");
+			cards[count++] = card;
+		}
+	}
+
+	/**
+	 * Make a backup copy of this shoe.	 The copy has its own cards.
+	 */
+	public Shoe copy ()
+	{
+		ContinuousShoe copy = (ContinuousShoe) super.copy ();
+		if (cards != null)
+			copy.cards = (byte[]) cards.clone ();
+		return copy;
+	}
+}
@@ -9,6 +9,14 @@ package net.ech.casino;
  * information related to scoring is included.	A PokerScore
  * can be compared to other PokerScores, and can be formatted for
  * presentation to the player.
+ * <p>
+ * A score is also available as a packed int, for code that evaluates
+ * many hands and cannot afford an object per hand.  The int holds a
+ * category code in bits 20-23 and up to five ranks in the 4-bit fields
+ * below it, in decreasing order of significance, with zero for a rank
+ * that is absent.  Packed scores compare correctly as ints.  The static
+ * methods of this class build, decode and format packed scores, and a
+ * PokerScore object is a view of a packed score.
  * 
  * @version 1.0
  * @author James Echmalian, ech@ech.net
@@ -30,14 +38,105 @@ public class PokerScore
 	public final static byte TwoPair			= 30;
 	public final static byte Pair				= 20;
 
-	// A hand score is effectively just an array of bytes in decreasing
-	// order of significance!
+	// A hand score is effectively just an array of nibbles in decreasing
+	// order of significance!	For a high card hand, the first rank is
+	// the primary; otherwise the category code stands for the primary.
 	//
-	private byte primary;
-	private byte rank;
-	private byte kicker1 = (byte) -1;
-	private byte kicker2 = (byte) -1;
-	private byte kicker3 = (byte) -1;
+	private final static int CategoryShift = 20;
+	private final static int RankBits = 4;
+	private final static int RankFields = 5;
+
+	private int score;
+
+	//===================================================================
+	// Packed score methods.
+	//===================================================================
+
+	/**
+	 * Build a packed score with no kickers.
+	 * @param primary	the primary hand type code, or the high rank of
+	 *					a high card hand
+	 * @param rank		the rank of the hand
+	 */
+	public static int build (int primary, int rank)
+	{
+		return build (primary, rank, NilRank, NilRank, NilRank);
+	}
+
+	/**
+	 * Build a packed score.  Kickers must be in descending order.
+	 * @param primary	the primary hand type code, or the high rank of
+	 *					a high card hand
+	 * @param rank		the rank of the hand
+	 * @param kicker1	the first kicker, or NilRank
+	 * @param kicker2	the second kicker, or NilRank
+	 * @param kicker3	the third kicker, or NilRank
+	 */
+	public static int build (int primary, int rank, int kicker1,
+							 int kicker2, int kicker3)
+	{
+		if (primary < Pair)
+		{
+			// The primary is the first rank.
+			return (primary << 16) | (rank << 12) | (kicker1 << 8) |
+				   (kicker2 << 4) | kicker3;
+		}
+
+		return ((primary / 10 - 1) << CategoryShift) |
+			   (rank << 16) | (kicker1 << 12) | (kicker2 << 8) | (kicker3 << 4);
+	}
+
+	/**
+	 * Get the primary type of hand from a packed score.
+	 */
+	public static int primaryOf (int score)
+	{
+		int category = score >>> CategoryShift;
+		return category == 0 ? field (score, 0) : (category + 1) * 10;
+	}
+
+	/**
+	 * Get a rank from a packed score.	Rank 0 is the rank of the hand, or
+	 * the high card of a high card hand.  The rest are kickers, or the
+	 * lesser pair of a two pair and the pair of a full house.
+	 * @return the rank, or NilRank if absent
+	 */
+	public static int rankOf (int score, int index)
+	{
+		if (index < 0 || index >= RankFields - ((score >>> CategoryShift) == 0 ? 0 : 1))
+			throw new ArrayIndexOutOfBoundsException (index);
+		return field (score, index);
+	}
+
+	private static int field (int score, int index)
+	{
+		return (score >>> ((RankFields - 1 - index) * RankBits)) & 0xf;
+	}
+
+	/**
+	 * Produce a human-readable String representation of a packed score.
+	 * @see #format(int)
+	 */
+	public static String format (int score, int detail)
+	{
+		return valueOf (score).format (detail);
+	}
+
+	/**
+	 * Produce a human-readable String representation of a packed score.
+	 */
+	public static String toString (int score)
+	{
+		return format (score, 0);
+	}
+
+	/**
+	 * Get a PokerScore view of a packed score.
+	 */
+	public static PokerScore valueOf (int score)
+	{
+		return new PokerScore (score);
+	}
 
 	//===================================================================
 	// Factory methods.
@@ -48,7 +147,7 @@ public class PokerScore
 	 */
 	public static PokerScore makeFiveOfAKind (byte rank)
 	{
-		return new PokerScore (FiveOfAKind, rank);
+		return new PokerScore (build (FiveOfAKind, rank));
 	}
 
 	/**
@@ -56,9 +155,8 @@ public class PokerScore
 	 */
 	public static PokerScore makeStraightFlush (byte highRank)
 	{
-		PokerScore ps = new PokerScore (StraightFlush, highRank);
-		ps.setKickers (highRank - 1, highRank - 2, highRank - 3);
-		return ps;
+		return new PokerScore (build (StraightFlush, highRank, highRank - 1,
+									  highRank - 2, highRank - 3));
 	}
 
 	/**
@@ -69,9 +167,7 @@ public class PokerScore
 	 */
 	public static PokerScore makeAceLowStraightFlush ()
 	{
-		PokerScore ps = new PokerScore (StraightFlush, Ace);
-		ps.setKickers (Five, Four, Three);
-		return ps;
+		return new PokerScore (build (StraightFlush, Ace, Five, Four, Three));
 	}
 
 	/**
@@ -79,7 +175,7 @@ public class PokerScore
 	 */
 	public static PokerScore makeFourOfAKind (byte rank)
 	{
-		return new PokerScore (FourOfAKind, rank);
+		return new PokerScore (build (FourOfAKind, rank));
 	}
 
 	/**
@@ -89,9 +185,8 @@ public class PokerScore
 	 */
 	public static PokerScore makeFullHouse (byte tripleRank, byte pairRank)
 	{
-		PokerScore ps = new PokerScore (FullHouse, tripleRank);
-		ps.kicker1 = pairRank;
-		return ps;
+		return new PokerScore (build (FullHouse, tripleRank, pairRank,
+									  NilRank, NilRank));
 	}
 
 	/**
@@ -99,9 +194,7 @@ public class PokerScore
 	 */
 	public static PokerScore makeFlush (byte r1, byte r2, byte r3, byte r4)
 	{
-		PokerScore ps = new PokerScore (Flush, r1);
-		ps.setKickers (r2, r3, r4);
-		return ps;
+		return new PokerScore (build (Flush, r1, r2, r3, r4));
 	}
 
 	/**
@@ -109,9 +202,8 @@ public class PokerScore
 	 */
 	public static PokerScore makeStraight (byte highRank)
 	{
-		PokerScore ps = new PokerScore (Straight, highRank);
-		ps.setKickers (highRank - 1, highRank - 2, highRank - 3);
-		return ps;
+		return new PokerScore (build (Straight, highRank, highRank - 1,
+									  highRank - 2, highRank - 3));
 	}
 
 	/**
@@ -121,9 +213,7 @@ public class PokerScore
 	 */
 	public static PokerScore makeAceLowStraight ()
 	{
-		PokerScore ps = new PokerScore (Straight, Ace);
-		ps.setKickers (Five, Four, Three);
-		return ps;
+		return new PokerScore (build (Straight, Ace, Five, Four, Three));
 	}
 
 	/**
@@ -131,7 +221,7 @@ public class PokerScore
 	 */
 	public static PokerScore makeThreeOfAKind (byte rank)
 	{
-		return new PokerScore (ThreeOfAKind, rank);
+		return new PokerScore (build (ThreeOfAKind, rank));
 	}
 
 	/**
@@ -140,10 +230,7 @@ public class PokerScore
 	 */
 	public static PokerScore makeTwoPair (byte rank1, byte rank2, byte kicker)
 	{
-		PokerScore ps = new PokerScore (TwoPair, rank1);
-		ps.kicker1 = rank2;
-		ps.kicker2 = kicker;
-		return ps;
+		return new PokerScore (build (TwoPair, rank1, rank2, kicker, NilRank));
 	}
 
 	/**
@@ -151,7 +238,7 @@ public class PokerScore
 	 */
 	public static PokerScore makePair (byte rank)
 	{
-		return new PokerScore (Pair, rank);
+		return new PokerScore (build (Pair, rank));
 	}
 
 	/**
@@ -161,9 +248,7 @@ public class PokerScore
 	public static PokerScore makePair (byte rank, byte kicker1, byte kicker2,
 									   byte kicker3)
 	{
-		PokerScore ps = new PokerScore (Pair, rank);
-		ps.setKickers (kicker1, kicker2, kicker3);
-		return ps;
+		return new PokerScore (build (Pair, rank, kicker1, kicker2, kicker3));
 	}
 
 	/**
@@ -171,7 +256,7 @@ public class PokerScore
 	 */
 	public static PokerScore makeHighCard (byte rank, byte kicker)
 	{
-		return new PokerScore (rank, kicker);
+		return new PokerScore (build (rank, kicker));
 	}
 
 	/**
@@ -182,9 +267,7 @@ public class PokerScore
 										   byte kicker2, byte kicker3,
 										   byte kicker4)
 	{
-		PokerScore ps = new PokerScore (rank, kicker1);
-		ps.setKickers (kicker2, kicker3, kicker4);
-		return ps;
+		return new PokerScore (build (rank, kicker1, kicker2, kicker3, kicker4));
 	}
 
 	//===================================================================
@@ -192,17 +275,17 @@ public class PokerScore
 	/**
 	 * Constructor is private.	Use a factory method.
 	 */
-	private PokerScore (byte primary, byte rank)
+	private PokerScore (int score)
 	{
-		this.primary = primary;
-		this.rank = rank;
+		this.score = score;
 	}
 
-	private void setKickers (int k1, int k2, int k3)
+	/**
+	 * Get the packed form of this score.
+	 */
+	public int intValue ()
 	{
-		kicker1 = (byte) k1;
-		kicker2 = (byte) k2;
-		kicker3 = (byte) k3;
+		return score;
 	}
 
 	/**
@@ -210,26 +293,44 @@ public class PokerScore
 	 */
 	public byte getPrimary ()
 	{
-		return primary;
+		return (byte) primaryOf (score);
 	}
 
 	/** 
 	 * Get a rank.
+	 * @see #rankOf
 	 */
 	public byte getRank (int index)
 	{
-		if (primary < Pair) --index;
-		switch (index)
-		{
-		case -1:
-			return primary;
-		case 0:
-			return rank;
-		case 1:
-			return kicker1;
-		default:
-			throw new ArrayIndexOutOfBoundsException (index);
-		}
+		return (byte) rankOf (score, index);
+	}
+
+	// The elements of the score in their original byte form.
+	private byte rank ()
+	{
+		return element (1);
+	}
+
+	private byte kicker1 ()
+	{
+		return element (2);
+	}
+
+	private byte kicker2 ()
+	{
+		return element (3);
+	}
+
+	private byte kicker3 ()
+	{
+		return element (4);
+	}
+
+	private byte element (int index)
+	{
+		if (index == 0)
+			return getPrimary ();
+		return (byte) field (score, (score >>> CategoryShift) == 0 ? index : index - 1);
 	}
 
 	/**
@@ -259,17 +360,20 @@ public class PokerScore
 	{
 		if (that instanceof PokerScore)
 		{
-			PokerScore thatScore = (PokerScore) that;
-			return thatScore.primary == primary &&
-				   thatScore.rank == rank &&
-				   thatScore.kicker1 == kicker1 &&
-				   thatScore.kicker2 == kicker2 &&
-				   thatScore.kicker3 == kicker3;
+			return ((PokerScore) that).score == score;
 		}
 
 		return false;
 	}
 
+	/**
+	 * Hash this score consistently with equals.
+	 */
+	public int hashCode ()
+	{
+		return score;
+	}
+
 	/**
 	 * Compare this score to another.
 	 * @param that		the object to compare to this object 
@@ -277,16 +381,7 @@ public class PokerScore
 	 */
 	public int compareTo (Object that)
 	{
-		PokerScore thatScore = (PokerScore) that;
-		int diff = primary - thatScore.primary;
-		if (diff != 0) return diff;
-		diff = rank - thatScore.rank;
-		if (diff != 0) return diff;
-		diff = kicker1 - thatScore.kicker1;
-		if (diff != 0) return diff;
-		diff = kicker2 - thatScore.kicker2;
-		if (diff != 0) return diff;
-		return kicker3 - thatScore.kicker3;
+		return score - ((PokerScore) that).score;
 	}
 
 	/**
@@ -295,16 +390,11 @@ public class PokerScore
 	 */
 	public int howDiffers (PokerScore that)
 	{
-		if (primary != that.primary)
-			return 1;
-		if (rank != that.rank)
-			return 2;
-		if (kicker1 != that.kicker1)
-			return 3;
-		if (kicker2 != that.kicker2)
-			return 4;
-		if (kicker3 != that.kicker3)
-			return 5;
+		for (int i = 0; i < RankFields; ++i)
+		{
+			if (element (i) != that.element (i))
+				return i + 1;
+		}
 		return 0;
 	}
 
@@ -317,8 +407,8 @@ public class PokerScore
 	 */
 	public String dump ()
 	{
-		return "[" + primary + " " + rank + " " + kicker1 + " " +
-				kicker2 + " " + kicker3 + "]";
+		return "[" + getPrimary () + " " + rank () + " " + kicker1 () + " " +
+				kicker2 () + " " + kicker3 () + "]";
 	}
 
 	/**
@@ -342,12 +432,12 @@ public class PokerScore
 	 */
 	public String format (int detail)
 	{
-		switch (primary)
+		switch (getPrimary ())
 		{
 		case FiveOfAKind:
 			return formatTuple ("five");
 		case StraightFlush:
-			if (rank == Ace)
+			if (rank () == Ace)
 				return "royal flush";
 			else
 				return formatStraight ("straight flush", detail);
@@ -372,13 +462,13 @@ public class PokerScore
 
 	private String formatStraight (String title, int detail)
 	{
-		if (rank == Ace && kicker1 == Five)
+		if (rank () == Ace && kicker1 () == Five)
 			return "ace-low " + title;
 
 		if (detail <= 1)
 			return title;
 
-		return title + ", " + rankString (rank) + " high";
+		return title + ", " + rankString (rank ()) + " high";
 	}
 
 	private String formatFlush (int detail)
@@ -388,21 +478,21 @@ public class PokerScore
 		if (detail > 1)
 		{
 			buf.append (", ");
-			buf.append (rankString (rank));
+			buf.append (rankString (rank ()));
 			if (detail > 2)
 			{
 				buf.append (", ");
-				buf.append (rankString (kicker1));
+				buf.append (rankString (kicker1 ()));
 			}
 			if (detail > 3)
 			{
 				buf.append (", ");
-				buf.append (rankString (kicker2));
+				buf.append (rankString (kicker2 ()));
 			}
 			if (detail > 4)
 			{
 				buf.append (", ");
-				buf.append (rankString (kicker3));
+				buf.append (rankString (kicker3 ()));
 			}
 			buf.append (" high");
 		}
@@ -416,9 +506,9 @@ public class PokerScore
 			return "full house";
 
 		StringBuilder buf = new StringBuilder ();
-		appendRankString (rank, true, buf);
+		appendRankString (rank (), true, buf);
 		buf.append (" full of ");
-		appendRankString (kicker1, true, buf);
+		appendRankString (kicker1 (), true, buf);
 		return buf.toString ();
 	}
 
@@ -426,14 +516,14 @@ public class PokerScore
 	{
 		StringBuilder buf = new StringBuilder ();
 
-		appendRankString (rank, true, buf);
+		appendRankString (rank (), true, buf);
 		buf.append (" over ");
-		appendRankString (kicker1, true, buf);
+		appendRankString (kicker1 (), true, buf);
 
 		if (detail >= 4)
 		{
 			buf.append (", ");
-			appendRankString (kicker2, false, buf);
+			appendRankString (kicker2 (), false, buf);
 			buf.append (" kicker");
 		}
 
@@ -445,7 +535,7 @@ public class PokerScore
 		StringBuilder buf = new StringBuilder ();
 		buf.append (prefix);
 		buf.append (' ');
-		appendRankString (rank, true, buf);
+		appendRankString (rank (), true, buf);
 		return buf.toString ();
 	}
 
@@ -454,7 +544,7 @@ public class PokerScore
 		StringBuilder buf = new StringBuilder ();
 
 		buf.append ("pair of ");
-		appendRankString (rank, true, buf);
+		appendRankString (rank (), true, buf);
 
 		if (detail == 0)
 			detail = defaultDetail ();
@@ -462,18 +552,18 @@ public class PokerScore
 		if (detail >= 3)
 		{
 			buf.append (", ");
-			appendRankString (kicker1, false, buf);
+			appendRankString (kicker1 (), false, buf);
 
 			if (detail >= 4)
 			{
 				buf.append (", ");
-				appendRankString (kicker2, false, buf);
+				appendRankString (kicker2 (), false, buf);
 			}
 
 			if (detail >= 5)
 			{
 				buf.append (", ");
-				appendRankString (kicker3, false, buf);
+				appendRankString (kicker3 (), false, buf);
 			}
 
 			buf.append (" kicker");
@@ -489,7 +579,7 @@ public class PokerScore
 	{
 		StringBuilder buf = new StringBuilder ();
 
-		appendRankString (primary, false, buf);
+		appendRankString (getPrimary (), false, buf);
 		buf.append (" high");
 
 		if (detail == 0)
@@ -498,28 +588,28 @@ public class PokerScore
 		if (detail >= 2)
 		{
 			buf.append (", ");
-			appendRankString (rank, false, buf);
+			appendRankString (rank (), false, buf);
 
-			if (detail >= 3 && kicker1 >= 0)
+			if (detail >= 3 && kicker1 () != NilRank)
 			{
 				buf.append (", ");
-				appendRankString (kicker1, false, buf);
+				appendRankString (kicker1 (), false, buf);
 
-				if (detail >= 4 && kicker2 >= 0)
+				if (detail >= 4 && kicker2 () != NilRank)
 				{
 					buf.append (", ");
-					appendRankString (kicker2, false, buf);
+					appendRankString (kicker2 (), false, buf);
 
-					if (detail >= 5 && kicker3 >= 0)
+					if (detail >= 5 && kicker3 () != NilRank)
 					{
 						buf.append (", ");
-						appendRankString (kicker3, false, buf);
+						appendRankString (kicker3 (), false, buf);
 					}
 				}
 			}
 
 			buf.append (" kicker");
-			if (detail >= 3 && kicker1 >= 0)
+			if (detail >= 3 && kicker1 () != NilRank)
 				buf.append ('s');
 		}
 
@@ -528,11 +618,11 @@ public class PokerScore
 
 	private int defaultDetail ()
 	{
-		if (kicker3 > Ten)
+		if (kicker3 () > Ten)
 			return 5;
-		if (kicker2 > Ten)
+		if (kicker2 () > Ten)
 			return 4;
-		if (kicker1 > Ten)
+		if (kicker1 () > Ten)
 			return 3;
 		//if (rank > Ten)
 			return 2;
@@ -0,0 +1,228 @@
+//
+// PokerScoreTable.java
+//
+
+package net.ech.casino;
+
+/**
+ * A PokerScoreTable scores five-card poker hands by table lookup.  The
+ * tables hold packed PokerScores and are filled once, at construction,
+ * from a reference scorer that embodies the rules of a particular game
+ * (how the joker plays, how an ace-low straight ranks, and so on), so
+ * that a lookup always agrees with the reference.
+ * <p>
+ * A hand of five distinct ranks is looked up directly by its rank mask,
+ * in one table for flushes and one for other hands, and likewise a
+ * hand of four distinct ranks plus the joker.	Any other hand is looked
+ * up by the product of one prime per rank, which identifies the ranks
+ * of the hand without regard to order.	 A lookup reads the cards once,
+ * allocates nothing, and touches one or two table entries.	 A hand that
+ * the tables do not cover (two jokers, or a paired flush from more than
+ * one deck) goes to the reference scorer.
+ * <p>
+ * A table is immutable once constructed and may be shared by any number
+ * of threads.
+ *
+ * @see net.ech.casino.PokerScore
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class PokerScoreTable implements CardConstants
+{
+	/**
+	 * A function from five cards to a packed score.
+	 */
+	public interface Scorer
+	{
+		/**
+		 * Score the five cards of a hand starting at the given index.
+		 * @return the packed score
+		 */
+		public int score (byte[] hand, int off);
+	}
+
+	// One prime per rank, indexed by rank.
+	private final static int[] Primes =
+	{
+		0, 0, 2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41
+	};
+
+	private final static int MaskSize = 1 << NumberOfRanks;
+	private final static int HashBits = 14;		// 4901 products
+
+	private final Scorer scorer;
+
+	// Indexed by rank mask, shifted so that the deuce is bit 0.
+	private final int[] flushes = new int [MaskSize];
+	private final int[] uniques = new int [MaskSize];
+	private final int[] jokerFlushes = new int [MaskSize];
+	private final int[] jokerUniques = new int [MaskSize];
+
+	// Open-addressed table keyed by prime product.
+	private final int[] productKeys = new int [1 << HashBits];
+	private final int[] productScores = new int [1 << HashBits];
+
+	/**
+	 * Constructor.	 Build the tables by scoring one representative hand
+	 * of each kind.
+	 * @param scorer	the reference scorer
+	 */
+	public PokerScoreTable (Scorer scorer)
+	{
+		this.scorer = scorer;
+
+		byte[] hand = new byte [5];
+
+		// Distinct ranks, with and without the joker.
+		for (int mask = 0; mask < MaskSize; ++mask)
+		{
+			int n = Integer.bitCount (mask);
+			if (n == 4 || n == 5)
+			{
+				int i = 0;
+				for (int r = 0; r < NumberOfRanks; ++r)
+				{
+					if ((mask & (1 << r)) != 0)
+						hand[i++] = Card.value ((byte) (MinRank + r), Spades);
+				}
+				if (n == 4)
+					hand[4] = Joker;
+
+				int[] flushTable = n == 5 ? flushes : jokerFlushes;
+				int[] uniqueTable = n == 5 ? uniques : jokerUniques;
+				flushTable[mask] = scorer.score (hand, 0);
+				hand[0] = Card.value (Card.rankOf (hand[0]), Diamonds);
+				uniqueTable[mask] = scorer.score (hand, 0);
+			}
+		}
+
+		// Repeated ranks: every multiset of five ranks with a repeat, with
+		// the joker standing in for a fifth ace.
+		int[] ranks = new int [5];
+		for (ranks[0] = MinRank; ranks[0] <= MaxRank; ++ranks[0])
+		for (ranks[1] = ranks[0]; ranks[1] <= MaxRank; ++ranks[1])
+		for (ranks[2] = ranks[1]; ranks[2] <= MaxRank; ++ranks[2])
+		for (ranks[3] = ranks[2]; ranks[3] <= MaxRank; ++ranks[3])
+		for (ranks[4] = ranks[3]; ranks[4] <= MaxRank; ++ranks[4])
+		{
+			int product = 1;
+			int same = 0;
+			boolean repeat = false;
+			for (int i = 0; i < 5; ++i)
+			{
+				product *= Primes[ranks[i]];
+				same = (i > 0 && ranks[i] == ranks[i - 1]) ? same + 1 : 0;
+				repeat |= same > 0;
+				hand[i] = Card.value ((byte) ranks[i], (byte) (MinSuit + same));
+			}
+			if (!repeat)
+				continue;
+			if (same == 4)
+			{
+				if (ranks[4] != Ace)
+					continue;
+				hand[4] = Joker;
+			}
+			put (product, scorer.score (hand, 0));
+		}
+	}
+
+	private static int hash (int product)
+	{
+		return (product * 0x9e3779b1) >>> (32 - HashBits);
+	}
+
+	private void put (int product, int score)
+	{
+		int ix = hash (product);
+		while (productKeys[ix] != 0)
+			ix = (ix + 1) & ((1 << HashBits) - 1);
+		productKeys[ix] = product;
+		productScores[ix] = score;
+	}
+
+	/**
+	 * Get the prime that stands for a rank in the product of a hand.
+	 */
+	public static int primeOf (int rank)
+	{
+		return Primes[rank];
+	}
+
+	/**
+	 * Score five cards of a hand.
+	 * @param hand	the cards
+	 * @param off	the index of the first of the five cards
+	 * @return the packed score, as the reference scorer would give it
+	 */
+	public int score (byte[] hand, int off)
+	{
+		int mask = 0;
+		int product = 1;
+		int jokers = 0;
+		int or = 0;
+		int and = 0xff;
+		for (int i = off; i < off + 5; ++i)
+		{
+			int card = hand[i];
+			if (card == Joker)
+			{
+				++jokers;
+				continue;
+			}
+			int rank = card & 0xf;
+			mask |= 1 << rank;
+			product *= Primes[rank];
+			or |= card;
+			and &= card;
+		}
+
+		int score = lookup (mask, product, ((or ^ and) & 0xf0) == 0, jokers);
+		return score >= 0 ? score : scorer.score (hand, off);
+	}
+
+	/**
+	 * Look up a five-card hand by its digest, for a caller that digests
+	 * many overlapping hands at once.
+	 * @param mask		bit r is set for each rank r among the cards other
+	 *					than jokers
+	 * @param product	the product of <code>primeOf</code> the rank of each
+	 *					card other than a joker
+	 * @param flush		whether the cards other than jokers are all of one
+	 *					suit
+	 * @param jokers	the number of jokers
+	 * @return the packed score, or -1 if the tables do not cover the hand
+	 */
+	public int lookup (int mask, int product, boolean flush, int jokers)
+	{
+		mask >>>= MinRank;
+
+		switch (jokers)
+		{
+		case 0:
+			if (Integer.bitCount (mask) == 5)
+				return flush ? flushes[mask] : uniques[mask];
+			break;
+		case 1:
+			if (Integer.bitCount (mask) == 4)
+				return flush ? jokerFlushes[mask] : jokerUniques[mask];
+			product *= Primes[Ace];
+			break;
+		default:
+			return -1;
+		}
+
+		if (!flush)
+		{
+			for (int ix = hash (product); productKeys[ix] != 0;
+				 ix = (ix + 1) & ((1 << HashBits) - 1))
+			{
+				if (productKeys[ix] == product)
+					return productScores[ix];
+			}
+		}
+
+		return -1;
+	}
+}
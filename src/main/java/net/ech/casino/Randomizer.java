@@ -23,6 +23,19 @@ public class Randomizer
 	// the internal generator
 	private RandomNumberGenerator generator;
 
+	// Shuffles draw their random words in chunks of this size, into
+	// scratch space kept per thread.
+	private final static int CHUNK_SIZE = 64;
+	private final static ThreadLocal<int[]> chunks =
+		new ThreadLocal<int[]> ()
+		{
+			@Override
+			protected int[] initialValue ()
+			{
+				return new int [CHUNK_SIZE];
+			}
+		};
+
 	/**
 	 * Constructor.	 Set the internal generator to an instance of
 	 * java.util.Random, seeded by the system clock.
@@ -69,36 +82,146 @@ public class Randomizer
 		return generator.nextLong ();
 	}
 
+	/**
+	 * Fill a range of an array with random 32-bit integers.
+	 * @param dst		the array to fill
+	 * @param off		the index of the first element to fill
+	 * @param len		the number of elements to fill
+	 */
+	public void nextInts (int[] dst, int off, int len)
+	{
+		generator.nextInts (dst, off, len);
+	}
+
+	/**
+	 * Fill a range of an array with random 64-bit integers.
+	 * @param dst		the array to fill
+	 * @param off		the index of the first element to fill
+	 * @param len		the number of elements to fill
+	 */
+	public void nextLongs (long[] dst, int off, int len)
+	{
+		generator.nextLongs (dst, off, len);
+	}
+
 	/**
 	 * Generate a new random number in the range (lo..hi), inclusize.
+	 * Every value in the range is exactly equally likely.
 	 * @param lo		the lower limit of the range
 	 * @param hi		the upper limit of the range
 	 * @return a random integer
-	 * @exception IllegalArgumentException if lo >= hi
-	 * @exception IllegalArgumentException if range exceeds 2^16-1
+	 * @exception IllegalArgumentException if lo > hi
 	 */
 	public final int roll (int lo, int hi)
 	{
-		int rand = nextInt ();
-		int range = hi - lo + 1;
-		if (range < 1)
-			throw new IllegalArgumentException (lo + ">=" + hi);
-		short sRange = (short) range;
-		if (sRange != range)
-			throw new IllegalArgumentException ("roll range limit exceeded");
+		return lo + bounded (nextInt (), checkRange (lo, hi));
+	}
+
+	/**
+	 * Fill an array with random numbers in the range (lo..hi), inclusive.
+	 * The random words are generated in a single block.  The result is 
+	 * the same as that of dst.length successive calls to roll, except in
+	 * the rare event that a word must be rejected to keep a roll unbiased;
+	 * its replacement is then drawn after the block.  The distribution
+	 * is the same either way.
+	 * @param lo		the lower limit of the range
+	 * @param hi		the upper limit of the range
+	 * @param dst		the array to fill
+	 * @exception IllegalArgumentException if lo > hi
+	 */
+	public final void rollMany (int lo, int hi, int[] dst)
+	{
+		long range = checkRange (lo, hi);
+		nextInts (dst, 0, dst.length);
+		for (int i = 0; i < dst.length; ++i)
+		{
+			dst[i] = lo + bounded (dst[i], range);
+		}
+	}
 
-		// Improved modulus operation is less sensitive to the modularity
-		// of the number produced by the internal generator.
-		short off = (short)
-			(((rand >>> 16) * range + (((rand & 0xFFFF) * range) >>> 16)) >>> 16); 
+	/**
+	 * Generate a new random number in the range (lo..hi), inclusive.
+	 * Every value in the range is exactly equally likely.
+	 * @param lo		the lower limit of the range
+	 * @param hi		the upper limit of the range
+	 * @return a random long integer
+	 * @exception IllegalArgumentException if lo > hi
+	 */
+	public final long rollLong (long lo, long hi)
+	{
+		if (lo > hi)
+			throw new IllegalArgumentException (lo + ">" + hi);
 
-		return lo + off;
+		// A range of zero stands for the full 2^64.
+		long range = hi - lo + 1;
+		long rand = nextLong ();
+		if (range == 0)
+			return rand;
+
+		// As in bounded, below, but with a 128-bit product.
+		long low = rand * range;
+		if (Long.compareUnsigned (low, range) < 0)
+		{
+			long threshold = Long.remainderUnsigned (-range, range);
+			while (Long.compareUnsigned (low, threshold) < 0)
+			{
+				rand = nextLong ();
+				low = rand * range;
+			}
+		}
+
+		return lo + multiplyHighUnsigned (rand, range);
+	}
+
+	//
+	// Validate the range of a roll.  The result lies in 1..2^32.
+	//
+	private static long checkRange (int lo, int hi)
+	{
+		if (lo > hi)
+			throw new IllegalArgumentException (lo + ">" + hi);
+		return (long) hi - lo + 1;
+	}
+
+	//
+	// Map a random word to 0..range-1 by taking the high half of
+	// the 64-bit product of the word and the range (D. Lemire, "Fast
+	// Random Integer Generation in an Interval", 2019).  The low half
+	// of the product shows whether the word falls into the small
+	// leftover part of the 2^32 words that would bias the result; such
+	// a word is rejected and replaced by a fresh one.	The remainder
+	// needed to test for the leftover part is computed only when the
+	// low half is small enough for it to matter.
+	//
+	private int bounded (int rand, long range)
+	{
+		long product = (rand & 0xFFFFFFFFL) * range;
+		if ((product & 0xFFFFFFFFL) < range)
+		{
+			long threshold = ((1L << 32) - range) % range;
+			while ((product & 0xFFFFFFFFL) < threshold)
+			{
+				product = (nextInt () & 0xFFFFFFFFL) * range;
+			}
+		}
+		return (int) (product >>> 32);
+	}
+
+	//
+	// The high 64 bits of the unsigned 128-bit product of x and y.
+	//
+	private static long multiplyHighUnsigned (long x, long y)
+	{
+		long x0 = x & 0xFFFFFFFFL, x1 = x >>> 32;
+		long y0 = y & 0xFFFFFFFFL, y1 = y >>> 32;
+		long t = x1 * y0 + ((x0 * y0) >>> 32);
+		long w1 = x0 * y1 + (t & 0xFFFFFFFFL);
+		return x1 * y1 + (t >>> 32) + (w1 >>> 32);
 	}
 
 	/**
 	 * Shuffle an array of integers. 
 	 * @param cards		the array of integers to shuffle
-	 * @exception IllegalArgumentException if length of array exceeds 2^16-1
 	 */
 	public final void shuffle (int[] cards)
 	{
@@ -111,16 +234,42 @@ public class Randomizer
 	 * from the entire array. 
 	 * @param cards		the array of integers to shuffle
 	 * @param limit		the number of integers to shuffle
-	 * @exception IllegalArgumentException if length of array exceeds 2^16-1
 	 */
 	public final void shuffle (int[] cards, int limit)
 	{
-		int top = cards.length - 1;
-		limit = Math.min (limit, top);
+		limit = Math.min (limit, cards.length - 1);
+		int[] words = chunks.get ();
+		for (int i = 0; i < limit; i += CHUNK_SIZE)
+		{
+			int len = Math.min (CHUNK_SIZE, limit - i);
+			nextInts (words, 0, len);
+			for (int j = 0; j < len; ++j)
+			{
+				int index = i + j + bounded (words[j], cards.length - i - j);
+				int temp = cards[index];
+				cards[index] = cards[i + j];
+				cards[i + j] = temp;
+			}
+		}
+	}
+
+	/**
+	 * Shuffle the first n values of an array of integers, consuming
+	 * one pre-generated random word per value.  A word is replaced by a
+	 * fresh one only in the rare event that it must be rejected to keep
+	 * the shuffle unbiased.
+	 * @param cards		the array of integers to shuffle
+	 * @param limit		the number of integers to shuffle
+	 * @param words		random words, as generated by nextInts
+	 * @param off		the index of the first word to consume
+	 */
+	public final void shuffle (int[] cards, int limit, int[] words, int off)
+	{
+		limit = Math.min (limit, cards.length - 1);
 
 		for (int i = 0; i < limit; ++i)
 		{
-			int index = roll (i, top);
+			int index = i + bounded (words[off + i], cards.length - i);
 			int temp = cards[index];
 			cards[index] = cards[i];
 			cards[i] = temp;
@@ -130,7 +279,6 @@ public class Randomizer
 	/**
 	 * Shuffle an array of bytes. 
 	 * @param cards		the array of bytes to shuffle
-	 * @exception IllegalArgumentException if length of array exceeds 2^16-1
 	 */
 	public final void shuffle (byte[] cards)
 	{
@@ -143,16 +291,42 @@ public class Randomizer
 	 * from the entire array. 
 	 * @param cards		the array of bytes to shuffle
 	 * @param limit		the number of integers to shuffle
-	 * @exception IllegalArgumentException if length of array exceeds 2^16-1
 	 */
 	public final void shuffle (byte[] cards, int limit)
 	{
-		int top = cards.length - 1;
-		limit = Math.min (limit, top);
+		limit = Math.min (limit, cards.length - 1);
+		int[] words = chunks.get ();
+		for (int i = 0; i < limit; i += CHUNK_SIZE)
+		{
+			int len = Math.min (CHUNK_SIZE, limit - i);
+			nextInts (words, 0, len);
+			for (int j = 0; j < len; ++j)
+			{
+				int index = i + j + bounded (words[j], cards.length - i - j);
+				byte temp = cards[index];
+				cards[index] = cards[i + j];
+				cards[i + j] = temp;
+			}
+		}
+	}
+
+	/**
+	 * Shuffle the first n values of an array of bytes, consuming
+	 * one pre-generated random word per value.  A word is replaced by a
+	 * fresh one only in the rare event that it must be rejected to keep
+	 * the shuffle unbiased.
+	 * @param cards		the array of bytes to shuffle
+	 * @param limit		the number of bytes to shuffle
+	 * @param words		random words, as generated by nextInts
+	 * @param off		the index of the first word to consume
+	 */
+	public final void shuffle (byte[] cards, int limit, int[] words, int off)
+	{
+		limit = Math.min (limit, cards.length - 1);
 
 		for (int i = 0; i < limit; ++i)
 		{
-			int index = roll (i, top);
+			int index = i + bounded (words[off + i], cards.length - i);
 			byte temp = cards[index];
 			cards[index] = cards[i];
 			cards[i] = temp;
@@ -10,7 +10,8 @@ package net.ech.casino;
  * utilizes Card/CardConstants' card encoding scheme, but composition
  * may be specialized.	A Shoe maintains a shufflePoint property, representing
  * the position of a "cut" marker card in the shoe as used in some casinos,
- * but does not enforce reshuffling.
+ * but does not enforce reshuffling.  A Shoe may shuffle eagerly, all at
+ * once, or lazily, one card at a time as the cards are drawn.
  *
  * @author James Echmalian, ech@ech.net
  * @version 1.1
@@ -28,6 +29,17 @@ public class Shoe implements CardConstants, Cloneable
 	private int index;
 	private int cut;
 
+	// Optional source of ready-shuffled shoes:
+	private ShoeSupply supply;
+	private boolean customShuffle;		// supply bypassed: see setSupply
+
+	// Lazy shuffling:
+	private boolean lazy;
+	private int lazyLimit;				// cards to shuffle on draw
+	private Randomizer lazyRandom;
+	private int lazyReserved;			// stacked cards held at the back
+	private boolean ownArray;			// array not shared with a copy
+
 	// For testing:
 	private byte[] stackedCards;
 
@@ -74,6 +86,14 @@ public class Shoe implements CardConstants, Cloneable
 		return numberOfDecks;
 	}
 
+	/**
+	 * @return the deck used for card composition.
+	 */
+	public Deck getDeck ()
+	{
+		return theDeck;
+	}
+
 	/**
 	 * @return the number of cards in this shoe.
 	 */
@@ -100,6 +120,75 @@ public class Shoe implements CardConstants, Cloneable
 		return index;
 	}
 
+	/**
+	 * Draw shuffled shoes from a supply of ready-shuffled shoes whenever
+	 * one is available, instead of shuffling on the caller's thread.
+	 * Stacked shoes are always shuffled inline.  So are the shoes of a
+	 * subclass that overrides the shuffling algorithm (the protected
+	 * shuffle method), since the supply's shoes are not shuffled by it.
+	 * @param supply	a supply of shoes of this composition, or null.
+	 * @exception IllegalArgumentException if the supply's shoes are not
+	 *			  composed like this shoe
+	 */
+	public void setSupply (ShoeSupply supply)
+	{
+		if (supply != null && !supply.matches (numberOfDecks, theDeck))
+		{
+			throw new IllegalArgumentException ("shoe supply does not match");
+		}
+		this.supply = supply;
+		this.customShuffle = supply != null && overridesShuffle ();
+	}
+
+	//
+	// Does this shoe's class override shuffle (byte[], int, Randomizer)?
+	//
+	private boolean overridesShuffle ()
+	{
+		for (Class<?> c = getClass (); c != Shoe.class; c = c.getSuperclass ())
+		{
+			try
+			{
+				c.getDeclaredMethod ("shuffle", byte[].class, int.class, Randomizer.class);
+				return true;
+			}
+			catch (NoSuchMethodException e)
+			{
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the supply of ready-shuffled shoes, or null.
+	 */
+	public ShoeSupply getSupply ()
+	{
+		return supply;
+	}
+
+	/**
+	 * Select lazy shuffling.  A lazy shoe defers the work of shuffling to
+	 * draw, which performs one Fisher-Yates step per card dealt, choosing
+	 * the card at random from those not yet dealt.  A shuffle is then a 
+	 * constant time reset, and the random numbers drawn and the cards 
+	 * moved are proportional to the cards actually dealt before the cut.
+	 * The distribution of the cards is that of the eager shuffle.
+	 * Takes effect at the next shuffle.
+	 */
+	public void setLazy (boolean lazy)
+	{
+		this.lazy = lazy;
+	}
+
+	/**
+	 * @return whether this shoe shuffles lazily.
+	 */
+	public boolean isLazy ()
+	{
+		return lazy;
+	}
+
 	/**
 	 * Specify the cards that are to appear at the top of the shoe after
 	 * a shuffle.  This is for testing only!
@@ -136,7 +225,10 @@ public class Shoe implements CardConstants, Cloneable
 	}
 
 	/**
-	 * Randomize the order of the top n cards in the shoe.
+	 * Randomize the order of the top n cards in the shoe.	If a supply
+	 * of ready-shuffled shoes is attached and has one available, take that
+	 * instead.	 (A fully shuffled shoe is as good as one whose top n cards
+	 * are shuffled.)
 	 */
 	public void shuffle (int n, Randomizer random)
 	{
@@ -149,13 +241,53 @@ public class Shoe implements CardConstants, Cloneable
 		// Create new card array each time, so that copied shoes,
 		// which are shallow copies, remain valid.
 		//
-		array = new byte [getSize()];
+		byte[] ready = null;
+		if (supply != null && stackedCards == null && !customShuffle)
+		{
+			ready = supply.poll ();
+		}
 
-		// Fill card array with initial values.
-		compose ();
+		lazyLimit = 0;
+		lazyRandom = null;
+		lazyReserved = 0;
+
+		if (ready != null)
+		{
+			array = ready;
+			ownArray = false;
+		}
+		else if (lazy)
+		{
+			// Any arrangement of a full shoe is a fine starting point for
+			// a full shuffle, so a lazy shoe may keep the array it owns.
+			// A partial shuffle must start from the composed order.
+			if (array == null || !ownArray || n < getSize())
+			{
+				array = new byte [getSize()];
+				compose (theDeck, numberOfDecks, array);
+				ownArray = true;
+			}
 
-		// Shuffle.
-		shuffle (array, n, random);
+			// Shuffle on draw.
+			lazyLimit = Math.min (n, array.length - 1);
+			lazyRandom = random;
+
+			if (stackedCards != null)
+			{
+				reserveStackedCards ();
+			}
+		}
+		else
+		{
+			array = new byte [getSize()];
+			ownArray = false;
+
+			// Fill card array with initial values.
+			compose (theDeck, numberOfDecks, array);
+
+			// Shuffle.
+			shuffle (array, n, random);
+		}
 
 		// Reset.
 		index = 0;
@@ -187,7 +319,7 @@ public class Shoe implements CardConstants, Cloneable
 	//
 	// Fill card array with initial values.
 	//
-	private void compose ()
+	static void compose (Deck theDeck, int numberOfDecks, byte[] array)
 	{
 		int i = 0;
 		for (int d = 0; d < numberOfDecks; ++d)
@@ -195,7 +327,7 @@ public class Shoe implements CardConstants, Cloneable
 			theDeck.copyCards (array, i);
 			i += theDeck.getSize();
 		}
-		if (i != getSize())
+		if (i != array.length)
 			throw new RuntimeException ("failed to fully initialize shoe");
 	}
 
@@ -232,9 +364,40 @@ public class Shoe implements CardConstants, Cloneable
 		}
 	}
 
+	//
+	// Lazy shuffle: move the stacked cards to the back of the shoe, out
+	// of reach of the random draw, until their positions come up.
+	//
+	private void reserveStackedCards ()
+	{
+		int end = array.length;
+		for (int i = 0; i < stackedCards.length; ++i)
+		{
+			byte card = stackedCards[i];
+			if (card == NilCard)
+				continue;
+
+			int found = find (array, 0, end, card);
+			if (found < 0)
+			{
+				throw new RuntimeException ("stackTheDeck: " +
+					Card.toString (card) + " not found");
+			}
+
+			swap (array, found, --end);
+		}
+		lazyReserved = array.length - end;
+		lazyLimit = Math.max (lazyLimit, Math.min (stackedCards.length, array.length));
+	}
+
 	private static int find (byte[] array, int startix, byte value)
 	{
-		for (int i = startix; i < array.length; ++i)
+		return find (array, startix, array.length, value);
+	}
+
+	private static int find (byte[] array, int startix, int endix, byte value)
+	{
+		for (int i = startix; i < endix; ++i)
 		{
 			if (array[i] == value)
 				return i;
@@ -255,19 +418,75 @@ public class Shoe implements CardConstants, Cloneable
 	 */
 	public byte draw ()
 	{
+		if (index < lazyLimit)
+		{
+			shuffleNext ();
+		}
 		return array[index++];
 	}
 
+	//
+	// Lazy shuffle: bring a card chosen from the undealt cards to the
+	// top of the shoe.  Stacked cards take precedence, as they do in
+	// the eager shuffle.  The random choice excludes the stacked cards
+	// reserved at the back for later positions.
+	//
+	private void shuffleNext ()
+	{
+		if (stackedCards != null && index < stackedCards.length &&
+			stackedCards[index] != NilCard)
+		{
+			// Release the card from the reserve, then bring it up.
+			int boundary = array.length - lazyReserved;
+			swap (array, boundary, find (array, boundary, stackedCards[index]));
+			--lazyReserved;
+			swap (array, index, boundary);
+		}
+		else
+		{
+			swap (array, index, lazyRandom.roll (index, array.length - 1 - lazyReserved));
+		}
+	}
+
+	/**
+	 * Return a card from the table to the shoe after the round in which 
+	 * it was dealt.  A discrete shoe keeps its discards out of play until
+	 * the next shuffle, so this default implementation does nothing.
+	 */
+	public void discard (byte card)
+	{
+	}
+
+	/**
+	 * Return the stacked cards, if any.
+	 */
+	byte[] getStackedCards ()
+	{
+		return stackedCards;
+	}
+
 	/**
 	 * Make a backup copy (shallow) of this shoe.
 	 */
 	public Shoe copy ()
 	{
 		// Let the default clone() do a shallow copy, which is what
-		// we want.
+		// we want, except that a lazy shoe shuffles its array in place
+		// and so must not share it.
 		try
 		{
-			return (Shoe) clone ();
+			Shoe copy = (Shoe) clone ();
+			if (lazyLimit > 0)
+			{
+				copy.array = (byte[]) array.clone ();
+				copy.ownArray = true;
+			}
+			else
+			{
+				ownArray = false;
+				copy.ownArray = false;
+			}
+			return copy;
 		}
 		catch (CloneNotSupportedException e)
 		{
@@ -0,0 +1,188 @@
+//
+// ShoeSupply.java
+//
+
+package net.ech.casino;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A ShoeSupply keeps a bounded pool of composed and fully shuffled
+ * shoes of one configuration (deck type and number of decks), filled by
+ * background worker threads.  A Shoe with an attached supply takes its
+ * next shuffle from the pool in constant time, and shuffles inline only
+ * when the pool is empty.	One supply may serve any number of shoes of
+ * its configuration.
+ * <p>
+ * Each worker owns one of the Randomizers passed to the constructor,
+ * which therefore must not be used elsewhere.
+ *
+ * @see net.ech.casino.Shoe#setSupply
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class ShoeSupply
+{
+	private Deck theDeck;
+	private int numberOfDecks;
+	private BlockingQueue<byte[]> pool;
+	private Randomizer[] randomizers;
+	private Thread[] workers;
+
+	// Statistics:
+	private AtomicLong hitCount = new AtomicLong ();
+	private AtomicLong missCount = new AtomicLong ();
+
+	/**
+	 * Constructor.
+	 * @param numberOfDecks		Number of decks per shoe.
+	 * @param theDeck			The deck to use for card composition.
+	 * @param capacity			The maximum number of shoes to keep ready.
+	 * @param randomizers		One randomizer per worker thread.
+	 */
+	public ShoeSupply (int numberOfDecks, Deck theDeck, int capacity, Randomizer... randomizers)
+	{
+		if (numberOfDecks < 1 || capacity < 1 || randomizers.length < 1)
+			throw new IllegalArgumentException ();
+
+		this.numberOfDecks = numberOfDecks;
+		this.theDeck = theDeck;
+		this.pool = new ArrayBlockingQueue<byte[]> (capacity);
+		this.randomizers = randomizers.clone ();
+	}
+
+	/**
+	 * @return the number of decks (packs) in each shoe.
+	 */
+	public int getNumberOfDecks ()
+	{
+		return numberOfDecks;
+	}
+
+	/**
+	 * @return the number of cards in each shoe.
+	 */
+	public int getSize ()
+	{
+		return numberOfDecks * theDeck.getSize();
+	}
+
+	/**
+	 * @return the number of shoes ready to be taken.
+	 */
+	public int getAvailable ()
+	{
+		return pool.size ();
+	}
+
+	/**
+	 * @return the number of shuffles served from the pool.
+	 */
+	public long getHitCount ()
+	{
+		return hitCount.get ();
+	}
+
+	/**
+	 * @return the number of shuffles that found the pool empty.
+	 */
+	public long getMissCount ()
+	{
+		return missCount.get ();
+	}
+
+	/**
+	 * Start the worker threads.  Has no effect if already started.
+	 */
+	public synchronized void start ()
+	{
+		if (workers == null)
+		{
+			workers = new Thread [randomizers.length];
+			for (int i = 0; i < workers.length; ++i)
+			{
+				final Randomizer random = randomizers[i];
+				workers[i] = new Thread (new Runnable ()
+				{
+					public void run ()
+					{
+						fill (random);
+					}
+				}, "ShoeSupply-" + i);
+				workers[i].setDaemon (true);
+				workers[i].start ();
+			}
+		}
+	}
+
+	/**
+	 * Stop the worker threads.	 Shoes already in the pool remain
+	 * available.
+	 */
+	public synchronized void stop ()
+	{
+		if (workers != null)
+		{
+			for (int i = 0; i < workers.length; ++i)
+			{
+				workers[i].interrupt ();
+			}
+			workers = null;
+		}
+	}
+
+	//
+	// Worker loop: compose and shuffle shoes until interrupted, waiting
+	// whenever the pool is full.
+	//
+	private void fill (Randomizer random)
+	{
+		try
+		{
+			while (!Thread.currentThread ().isInterrupted ())
+			{
+				byte[] array = new byte [getSize()];
+				Shoe.compose (theDeck, numberOfDecks, array);
+				random.shuffle (array);
+				pool.put (array);
+			}
+		}
+		catch (InterruptedException e)
+		{
+		}
+	}
+
+	/**
+	 * Take a shuffled shoe from the pool without waiting.
+	 * @return a new shuffled card array, or null if none is ready.
+	 */
+	byte[] poll ()
+	{
+		byte[] array = pool.poll ();
+		(array == null ? missCount : hitCount).incrementAndGet ();
+		return array;
+	}
+
+	/**
+	 * Return whether this supply's shoes are composed as described: the
+	 * same number of decks, each holding the same cards.
+	 */
+	boolean matches (int numberOfDecks, Deck theDeck)
+	{
+		if (this.numberOfDecks != numberOfDecks ||
+			this.theDeck.getSize () != theDeck.getSize ())
+		{
+			return false;
+		}
+
+		byte[] mine = this.theDeck.copyCards ();
+		byte[] theirs = theDeck.copyCards ();
+		Arrays.sort (mine);
+		Arrays.sort (theirs);
+		return Arrays.equals (mine, theirs);
+	}
+}
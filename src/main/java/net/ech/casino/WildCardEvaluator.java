@@ -0,0 +1,415 @@
+//
+// WildCardEvaluator.java
+//
+
+package net.ech.casino;
+
+/**
+ * A WildCardEvaluator scores five-card poker hands that may hold wild
+ * cards (jokers, or deuces in deuces wild) by table lookup.  A hand is
+ * given as the cards that are not wild plus the number of wild cards;
+ * the tables hold, for each such combination, the best hand that the wild
+ * cards can complete, so that no substitution is tried at lookup time.
+ * <p>
+ * There are two sets of rules:
+ * <ul>
+ * <li><code>Standard</code>: a wild card plays as any card, and an
+ *	   ace-low straight is the lowest straight.
+ * <li><code>PaiGow</code>: a wild card plays as an ace, or to complete a
+ *	   straight or a straight flush.  In a flush it is an ace, even if the
+ *	   flush already holds the ace.  An ace-low straight ranks just below
+ *	   the ace-high straight.  These are the rules by which pai gow has
+ *	   always scored the joker.
+ * </ul>
+ * Scores are packed PokerScores; five of a kind ranks above a straight
+ * flush.  The tables are built once, at class initialization, and may
+ * be shared by any number of threads.
+ *
+ * @see net.ech.casino.PokerScore
+ * @see net.ech.casino.PokerScoreTable
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class WildCardEvaluator implements CardConstants
+{
+	/**
+	 * A wild card plays as any card.
+	 */
+	public final static WildCardEvaluator Standard = new WildCardEvaluator (false);
+
+	/**
+	 * The joker plays as an ace or to complete a straight, flush or
+	 * straight flush.
+	 */
+	public final static WildCardEvaluator PaiGow = new WildCardEvaluator (true);
+
+	private final static int CardsInHand = 5;
+	private final static int MaskSize = 1 << NumberOfRanks;
+	private final static int HashBits = 14;		// 6188 products
+
+	// Whether the ranks of a mask, shifted so that the deuce is bit 0,
+	// can be completed to a straight by wild cards.
+	private final static boolean[] Straights = new boolean [MaskSize];
+
+	static
+	{
+		// Each of the ten straights, the wheel included, and every subset.
+		for (int high = Five; high <= MaxRank; ++high)
+		{
+			int straight = high == Five ? (0xf | (1 << (Ace - MinRank))) : (0x1f << (high - 4 - MinRank));
+			for (int mask = straight; ; mask = (mask - 1) & straight)
+			{
+				Straights[mask] = true;
+				if (mask == 0)
+					break;
+			}
+		}
+	}
+
+	private final boolean paiGow;
+
+	// Hands of distinct natural ranks, indexed by rank mask, shifted so
+	// that the deuce is bit 0.  The number of wild cards is five less the
+	// number of ranks.
+	private final int[] flushes = new int [MaskSize];
+	private final int[] uniques = new int [MaskSize];
+
+	// Hands with a repeated natural rank, keyed by the product of one prime
+	// per natural card.  The product gives the number of natural cards, and
+	// so the number of wild cards.
+	private final int[] productKeys = new int [1 << HashBits];
+	private final int[] productScores = new int [1 << HashBits];
+
+	/**
+	 * Constructor.  Use Standard or PaiGow.
+	 */
+	private WildCardEvaluator (boolean paiGow)
+	{
+		this.paiGow = paiGow;
+
+		for (int mask = 0; mask < MaskSize; ++mask)
+		{
+			if (Integer.bitCount (mask) <= CardsInHand)
+			{
+				long counts = 0;
+				for (int r = 0; r < NumberOfRanks; ++r)
+				{
+					if ((mask & (1 << r)) != 0)
+						counts += 1L << ((MinRank + r) * 4);
+				}
+				int wilds = CardsInHand - Integer.bitCount (mask);
+				flushes[mask] = complete (counts, true, wilds);
+				uniques[mask] = complete (counts, false, wilds);
+			}
+		}
+
+		// Every multiset of up to five ranks with a repeat.
+		int[] ranks = new int [CardsInHand];
+		addRepeats (ranks, 0, MinRank);
+	}
+
+	private void addRepeats (int[] ranks, int n, int minRank)
+	{
+		if (n >= 2)
+		{
+			long counts = 0;
+			int product = 1;
+			boolean repeat = false;
+			for (int i = 0; i < n; ++i)
+			{
+				counts += 1L << (ranks[i] * 4);
+				product *= PokerScoreTable.primeOf (ranks[i]);
+				repeat |= i > 0 && ranks[i] == ranks[i - 1];
+			}
+			if (repeat)
+				put (product, complete (counts, false, CardsInHand - n));
+		}
+		if (n < CardsInHand)
+		{
+			for (int rank = minRank; rank <= MaxRank; ++rank)
+			{
+				ranks[n] = rank;
+				addRepeats (ranks, n + 1, rank);
+			}
+		}
+	}
+
+	private static int hash (int product)
+	{
+		return (product * 0x9e3779b1) >>> (32 - HashBits);
+	}
+
+	private void put (int product, int score)
+	{
+		int ix = hash (product);
+		while (productKeys[ix] != 0)
+			ix = (ix + 1) & ((1 << HashBits) - 1);
+		productKeys[ix] = product;
+		productScores[ix] = score;
+	}
+
+	//
+	// Building the tables: the best completion of natural cards, given by
+	// 4-bit rank counts, with the given number of wild cards.
+	//
+
+	private int complete (long counts, boolean suited, int wilds)
+	{
+		if (paiGow)
+		{
+			// As aces...
+			int best = score (counts + ((long) wilds << (Ace * 4)), suited);
+
+			// ...or to complete a straight.
+			return Math.max (best, completeStraight (counts, suited, wilds, MinRank));
+		}
+
+		return completeAny (counts, suited, wilds, MinRank);
+	}
+
+	// Standard: try every multiset of ranks for the wild cards.  A flush
+	// takes five distinct ranks.
+	private int completeAny (long counts, boolean suited, int wilds, int minRank)
+	{
+		if (wilds == 0)
+			return score (counts, suited && distinctRanks (counts) == CardsInHand);
+
+		int best = -1;
+		for (int rank = minRank; rank <= MaxRank; ++rank)
+			best = Math.max (best, completeAny (counts + (1L << (rank * 4)), suited, wilds - 1, rank));
+		return best;
+	}
+
+	// Pai gow: the best straight or straight flush, or -1.
+	private int completeStraight (long counts, boolean suited, int wilds, int minRank)
+	{
+		if (wilds == 0)
+		{
+			int score = score (counts, suited);
+			int primary = PokerScore.primaryOf (score);
+			return primary == PokerScore.Straight || primary == PokerScore.StraightFlush ? score : -1;
+		}
+
+		int best = -1;
+		for (int rank = minRank; rank <= MaxRank; ++rank)
+		{
+			if (count (counts, rank) == 0)
+				best = Math.max (best, completeStraight (counts + (1L << (rank * 4)), suited, wilds - 1, rank));
+		}
+		return best;
+	}
+
+	// Score five natural cards.
+	private int score (long counts, boolean flush)
+	{
+		if (findRank (counts, 5, 0) != NilRank)
+			return PokerScore.build (PokerScore.FiveOfAKind, findRank (counts, 5, 0));
+
+		int straightRank = NilRank;
+		boolean aceLow = false;
+		if (distinctRanks (counts) == CardsInHand)
+		{
+			int high = findRank (counts, 0, 0);
+			int low = findRank (counts, 0, 4);
+			if (high - low == 4)
+				straightRank = high;
+			else if (high == Ace && findRank (counts, 0, 1) == Five)
+				aceLow = true;
+		}
+
+		if (flush && (straightRank != NilRank || aceLow))
+			return straight (PokerScore.StraightFlush, straightRank, aceLow);
+
+		int quad = findRank (counts, 4, 0);
+		if (quad != NilRank)
+			return PokerScore.build (PokerScore.FourOfAKind, quad);
+
+		int triple = findRank (counts, 3, 0);
+		int pair = findRank (counts, 2, 0);
+		if (triple != NilRank && pair != NilRank)
+			return PokerScore.build (PokerScore.FullHouse, triple, pair, NilRank, NilRank);
+
+		if (flush)
+			return PokerScore.build (PokerScore.Flush,
+									 findRank (counts, 0, 0),
+									 findRank (counts, 0, 1),
+									 findRank (counts, 0, 2),
+									 findRank (counts, 0, 3));
+
+		if (straightRank != NilRank || aceLow)
+			return straight (PokerScore.Straight, straightRank, aceLow);
+
+		if (triple != NilRank)
+			return PokerScore.build (PokerScore.ThreeOfAKind, triple);
+
+		int pair2 = findRank (counts, 2, 1);
+		if (pair2 != NilRank)
+			return PokerScore.build (PokerScore.TwoPair, pair, pair2, findRank (counts, 1, 0), NilRank);
+
+		if (pair != NilRank)
+			return PokerScore.build (PokerScore.Pair, pair,
+									 findRank (counts, 1, 0),
+									 findRank (counts, 1, 1),
+									 findRank (counts, 1, 2));
+
+		return PokerScore.build (findRank (counts, 0, 0),
+								 findRank (counts, 0, 1),
+								 findRank (counts, 0, 2),
+								 findRank (counts, 0, 3),
+								 findRank (counts, 0, 4));
+	}
+
+	private int straight (int primary, int high, boolean aceLow)
+	{
+		if (!aceLow)
+			return PokerScore.build (primary, high, high - 1, high - 2, high - 3);
+		if (paiGow)
+			return PokerScore.build (primary, Ace, Five, Four, Three);
+		return PokerScore.build (primary, Five, Four, Three, Deuce);
+	}
+
+	private static int count (long counts, int rank)
+	{
+		return (int) (counts >>> (rank * 4)) & 0xf;
+	}
+
+	private static int distinctRanks (long counts)
+	{
+		int n = 0;
+		for (int rank = MinRank; rank <= MaxRank; ++rank)
+		{
+			if (count (counts, rank) > 0)
+				++n;
+		}
+		return n;
+	}
+
+	//
+	// Return the nth highest rank that occurs exactly m times, or any
+	// number of times if m is zero.  Return NilRank if there is none.
+	//
+	private static int findRank (long counts, int m, int n)
+	{
+		for (int rank = MaxRank; rank >= MinRank; --rank)
+		{
+			int c = count (counts, rank);
+			if ((m == 0 ? c > 0 : c == m) && n-- == 0)
+				return rank;
+		}
+		return NilRank;
+	}
+
+	//
+	// Lookup.
+	//
+
+	/**
+	 * Score a five-card hand in which jokers are wild.
+	 * @param hand	the cards
+	 * @param off	the index of the first of the five cards
+	 * @return the packed score
+	 */
+	public int score (byte[] hand, int off)
+	{
+		return score (hand, off, false);
+	}
+
+	/**
+	 * Score a five-card hand in which jokers, and perhaps deuces, are wild.
+	 * @param hand	the cards
+	 * @param off	the index of the first of the five cards
+	 * @param deucesWild	whether deuces are wild
+	 * @return the packed score
+	 */
+	public int score (byte[] hand, int off, boolean deucesWild)
+	{
+		int mask = 0;
+		int product = 1;
+		int wilds = 0;
+		int or = 0;
+		int and = 0xff;
+		for (int i = off; i < off + CardsInHand; ++i)
+		{
+			int card = hand[i];
+			int rank = card & 0xf;
+			if (card == Joker || (deucesWild && rank == Deuce))
+			{
+				++wilds;
+				continue;
+			}
+			mask |= 1 << rank;
+			product *= PokerScoreTable.primeOf (rank);
+			or |= card;
+			and &= card;
+		}
+
+		return lookup (mask, product, ((or ^ and) & 0xf0) == 0, wilds);
+	}
+
+	/**
+	 * Score a five-card hand given as a set of natural cards and a number
+	 * of wild cards.
+	 * @param naturals	the cards that are not wild; with the wild cards,
+	 *					five in all
+	 * @param wilds		the number of wild cards
+	 * @return the packed score
+	 */
+	public int score (long naturals, int wilds)
+	{
+		int mask = CardSet.ranks (naturals);
+		int product = 1;
+		int suits = 0;
+		for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+		{
+			int lane = CardSet.suitRanks (naturals, suit);
+			if (lane != 0)
+				++suits;
+			for (int bits = lane; bits != 0; bits &= bits - 1)
+				product *= PokerScoreTable.primeOf (Integer.numberOfTrailingZeros (bits));
+		}
+		return lookup (mask, product, suits == 1, wilds);
+	}
+
+	/**
+	 * Look up a five-card hand by its digest, for a caller that digests
+	 * many overlapping hands at once.
+	 * @param mask		bit r is set for each rank r among the natural cards
+	 * @param product	the product of <code>PokerScoreTable.primeOf</code>
+	 *					the rank of each natural card
+	 * @param suited	whether the natural cards are all of one suit
+	 * @param wilds		the number of wild cards
+	 * @return the packed score of the best hand the wild cards complete
+	 * @exception IllegalArgumentException if the hand is not five cards
+	 *			  that can be dealt from one deck plus wild cards
+	 */
+	public int lookup (int mask, int product, boolean suited, int wilds)
+	{
+		mask >>>= MinRank;
+
+		if (Integer.bitCount (mask) + wilds == CardsInHand)
+			return suited ? flushes[mask] : uniques[mask];
+
+		if (!suited)
+		{
+			for (int ix = hash (product); productKeys[ix] != 0;
+				 ix = (ix + 1) & ((1 << HashBits) - 1))
+			{
+				if (productKeys[ix] == product)
+					return productScores[ix];
+			}
+		}
+
+		throw new IllegalArgumentException ("not a five-card hand");
+	}
+
+	/**
+	 * Tell whether wild cards can complete a straight from natural cards
+	 * of the given ranks, all different, in a five-card hand.
+	 * @param mask		bit r is set for each rank r among the natural cards
+	 */
+	public static boolean completesStraight (int mask)
+	{
+		return Straights[mask >>> MinRank];
+	}
+}
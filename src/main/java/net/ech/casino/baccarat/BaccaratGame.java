@@ -65,6 +65,16 @@ public class BaccaratGame extends TableGame implements Constants
 		return (BaccaratMachine) getMachine ();
 	}
 
+	/**
+	 * Replace the shoe, for example with a ContinuousShoe, which takes
+	 * back the cards of each hand before the next is dealt.  The new
+	 * shoe's cut range is the caller's to set.
+	 */
+	public void setShoe (Shoe shoe)
+	{
+		this.shoe = shoe;
+	}
+
 	/**
 	 * Get the amount last bet on the bank hand.
 	 */
@@ -292,6 +302,10 @@ public class BaccaratGame extends TableGame implements Constants
 		this.playerBet = playerBet;
 		this.bankBet = bankBet;
 		this.tieBet = tieBet;
+
+		// Return the last hand's cards to the shoe.
+		discard (playerHand);
+		discard (bankHand);
 		playerHand = new Hand ();
 		bankHand = new Hand ();
 
@@ -331,6 +345,12 @@ public class BaccaratGame extends TableGame implements Constants
 			bankHand.hit (shoe.draw());
 	}
 
+	private void discard (Hand hand)
+	{
+		for (int i = 0; i < hand.getSize (); ++i)
+			shoe.discard (hand.getCard (i));
+	}
+
 	private int bankStaysOn (byte playerCard3)
 	{
 		if (playerCard3 == NilCard)
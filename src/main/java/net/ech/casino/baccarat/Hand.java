@@ -33,6 +33,24 @@ public class Hand implements Constants
 		++length;
 	}
 
+	/**
+	 * Return the size of this hand.
+	 */
+	public int getSize ()
+	{
+		return length;
+	}
+
+	/** 
+	 * @return the byte code of the indexed card.
+	 */
+	public byte getCard (int index)
+	{
+		if (index >= length)
+			throw new ArrayIndexOutOfBoundsException (index + " >= " + length);
+		return cards[index];
+	}
+
 	/**
 	 * Get the final score of this hand.
 	 */
@@ -32,8 +32,11 @@ public class BlackjackGame extends TableGame implements Constants
 	private boolean insured;
 	private boolean surrendered;
 
-	// Optional card counter.
-	private CardListener cardListener;
+	// Card counters, and the cards shown to them this round.
+	private final CardMultiplexer cardObservers = new CardMultiplexer ();
+	private final java.util.List<ListenerAdapter> cardListeners = new java.util.ArrayList<ListenerAdapter> ();
+	private byte[] shownCards = new byte [16];
+	private int nShownCards;
 
 	//=================================================================
 	// INITIALIZATION
@@ -89,6 +92,15 @@ public class BlackjackGame extends TableGame implements Constants
 		return shoe.getNumberOfCardsDealt ();
 	}
 
+	/**
+	 * @return the moves that are legal at this stage of the game, as a
+	 * bit array of DealOk, StandOk, HitOk and so on.
+	 */
+	public int getMoveFlags ()
+	{
+		return moveFlags;
+	}
+
 	/**
 	 * @return whether it is legal to request a new deal at this stage
 	 * of the game.
@@ -390,14 +402,37 @@ public class BlackjackGame extends TableGame implements Constants
 	//=================================================================
 
 	/**
-	 * Register a card listener (counter).
+	 * Register a card observer (counter).  Any number may be registered.
+	 */
+	public void addCardObserver (CardObserver observer)
+	{
+		cardObservers.add (observer);
+	}
+
+	/**
+	 * Unregister a card observer (counter).
+	 */
+	public void removeCardObserver (CardObserver observer)
+	{
+		cardObservers.remove (observer);
+	}
+
+	/**
+	 * Register a card listener (counter).  Any number may be registered;
+	 * each is sent a new CardEvent for each card, so a CardObserver is to
+	 * be preferred.
+	 * @exception java.util.TooManyListenersException never now; declared
+	 *			  for callers written when one listener was the limit
 	 */
 	public void addCardListener (CardListener listener)
 		throws java.util.TooManyListenersException
 	{
-		if (cardListener != null)
-			throw new java.util.TooManyListenersException ();
-		this.cardListener = listener;
+		ListenerAdapter adapter = new ListenerAdapter (listener);
+		synchronized (cardListeners)
+		{
+			cardListeners.add (adapter);
+		}
+		cardObservers.add (adapter);
 	}
 
 	/**
@@ -405,22 +440,69 @@ public class BlackjackGame extends TableGame implements Constants
 	 */
 	public void removeCardListener (CardListener listener)
 	{
-		if (cardListener == listener)
-			this.cardListener = null;
+		synchronized (cardListeners)
+		{
+			for (int i = 0; i < cardListeners.size (); ++i)
+			{
+				ListenerAdapter adapter = cardListeners.get (i);
+				if (adapter.listener == listener)
+				{
+					cardListeners.remove (i);
+					cardObservers.remove (adapter);
+					return;
+				}
+			}
+		}
 	}
 
 	private void fireCardShown (byte cardValue)
 	{
-		CardListener cardListener = this.cardListener;
-		if (cardListener != null)
-			cardListener.cardShown (new CardEvent (this, cardValue));
+		if (cardObservers.isEmpty ())
+			return;
+		if (nShownCards == shownCards.length)
+		{
+			byte[] more = new byte [shownCards.length * 2];
+			System.arraycopy (shownCards, 0, more, 0, nShownCards);
+			shownCards = more;
+		}
+		shownCards[nShownCards++] = cardValue;
+		cardObservers.cardShown (cardValue);
 	}
 
 	private void fireShuffle ()
 	{
-		CardListener cardListener = this.cardListener;
-		if (cardListener != null)
-			cardListener.shuffle (new CardEvent (this));
+		cardObservers.shuffle ();
+	}
+
+	private void fireRoundOver ()
+	{
+		cardObservers.roundOver (shownCards, nShownCards);
+		nShownCards = 0;
+	}
+
+	// A CardListener, seen as a CardObserver.
+	private class ListenerAdapter implements CardObserver
+	{
+		final CardListener listener;
+
+		ListenerAdapter (CardListener listener)
+		{
+			this.listener = listener;
+		}
+
+		public void shuffle ()
+		{
+			listener.shuffle (new CardEvent (BlackjackGame.this));
+		}
+
+		public void cardShown (byte card)
+		{
+			listener.cardShown (new CardEvent (BlackjackGame.this, card));
+		}
+
+		public void roundOver (byte[] cards, int count)
+		{
+		}
 	}
 
 	//=================================================================
@@ -716,6 +798,8 @@ public class BlackjackGame extends TableGame implements Constants
 			// Now that transaction has succeeded, let the card
 			// counter do its thing.
 			//
+			if (move == Deal)
+				nShownCards = 0;
 			if (shuffled)
 				fireShuffle ();
 
@@ -729,6 +813,7 @@ public class BlackjackGame extends TableGame implements Constants
 				for (int i = 0; i < dealerHand.getSize (); ++i)
 					if (i != 1)
 						fireCardShown (dealerHand.getCard (i));
+				fireRoundOver ();
 			}
 		}
 
@@ -775,6 +860,14 @@ public class BlackjackGame extends TableGame implements Constants
 
 	private void doClear ()
 	{
+		// Return the cards on the table to the shoe.
+		if (shoe != null)
+		{
+			for (int i = 0; i < nPlayerHands; ++i)
+				discard (playerHands[i]);
+			discard (dealerHand);
+		}
+
 		playerHands[0] = new PlayerHand (BlackjackGame.this);
 		for (int i = 1; i < playerHands.length; ++i)
 			playerHands[i] = null;
@@ -788,6 +881,15 @@ public class BlackjackGame extends TableGame implements Constants
 		currentPlayerHand = 0;
 	}
 
+	private void discard (Hand hand)
+	{
+		if (hand != null)
+		{
+			for (int i = 0; i < hand.getSize (); ++i)
+				shoe.discard (hand.getCard (i));
+		}
+	}
+
 	private void shuffle ()
 	{
 		shoe.shuffle (getRandomizer ());
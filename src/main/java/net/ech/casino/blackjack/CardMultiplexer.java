@@ -0,0 +1,96 @@
+//
+// CardMultiplexer.java
+//
+
+package net.ech.casino.blackjack;
+
+/**
+ * A CardMultiplexer passes the cards shown at a table on to any number
+ * of observers, in the order they were added.  The list of observers is
+ * copied when it changes, so that passing on a card allocates nothing
+ * and an observer may be added or removed during a call.
+ * 
+ * @version 1.0
+ * @author James Echmalian, ech@ech.net
+ */
+public class CardMultiplexer implements CardObserver
+{
+	private final static CardObserver[] None = new CardObserver [0];
+
+	private volatile CardObserver[] observers = None;
+
+	/**
+	 * Constructor.
+	 */
+	public CardMultiplexer ()
+	{
+	}
+
+	/**
+	 * Add an observer.
+	 */
+	public synchronized void add (CardObserver observer)
+	{
+		if (observer == null)
+			throw new NullPointerException ();
+		CardObserver[] more = new CardObserver [observers.length + 1];
+		System.arraycopy (observers, 0, more, 0, observers.length);
+		more[observers.length] = observer;
+		observers = more;
+	}
+
+	/**
+	 * Remove an observer.  Does nothing if it was not added.
+	 */
+	public synchronized void remove (CardObserver observer)
+	{
+		for (int i = 0; i < observers.length; ++i)
+		{
+			if (observers[i] == observer)
+			{
+				CardObserver[] fewer = new CardObserver [observers.length - 1];
+				System.arraycopy (observers, 0, fewer, 0, i);
+				System.arraycopy (observers, i + 1, fewer, i, fewer.length - i);
+				observers = fewer;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return whether there are no observers.
+	 */
+	public boolean isEmpty ()
+	{
+		return observers.length == 0;
+	}
+
+	/**
+	 * Get the number of observers.
+	 */
+	public int size ()
+	{
+		return observers.length;
+	}
+
+	public void shuffle ()
+	{
+		CardObserver[] observers = this.observers;
+		for (int i = 0; i < observers.length; ++i)
+			observers[i].shuffle ();
+	}
+
+	public void cardShown (byte card)
+	{
+		CardObserver[] observers = this.observers;
+		for (int i = 0; i < observers.length; ++i)
+			observers[i].cardShown (card);
+	}
+
+	public void roundOver (byte[] cards, int count)
+	{
+		CardObserver[] observers = this.observers;
+		for (int i = 0; i < observers.length; ++i)
+			observers[i].roundOver (cards, count);
+	}
+}
@@ -0,0 +1,38 @@
+//
+// CardObserver.java
+//
+
+package net.ech.casino.blackjack;
+
+/**
+ * A CardObserver watches the visible cards at a blackjack table, as a
+ * CardListener does, but is told of each card as a primitive and with
+ * no event object, so that counting costs no allocation.  Any number of
+ * observers may watch one table.
+ * 
+ * @see net.ech.casino.blackjack.CardMultiplexer
+ *
+ * @version 1.0
+ * @author James Echmalian, ech@ech.net
+ */
+public interface CardObserver
+{
+	/**
+	 * The shoe was shuffled.
+	 */
+	public void shuffle ();
+
+	/**
+	 * A card was turned up.
+	 */
+	public void cardShown (byte card);
+
+	/**
+	 * The round is over.
+	 * @param cards		the cards turned up during the round, in the order
+	 *					shown; the array is reused and is good only for
+	 *					the length of the call
+	 * @param count		the number of cards
+	 */
+	public void roundOver (byte[] cards, int count);
+}
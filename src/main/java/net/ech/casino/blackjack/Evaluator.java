@@ -0,0 +1,666 @@
+//
+// Evaluator.java
+//
+
+package net.ech.casino.blackjack;
+
+import java.util.HashMap;
+import java.util.Map;
+import net.ech.casino.Card;
+import net.ech.casino.Shoe;
+
+/**
+ * An Evaluator computes the expected value of each play of a blackjack
+ * hand, exactly, for the cards left in a shoe and the rules of a machine.
+ * <p>
+ * Cards are counted by face value.  Hands are played out over every
+ * sequence of cards the shoe can give, with the machine deciding, hand by
+ * hand, what the player may do and what a hand is paid.  The dealer's
+ * chances of finishing on each total are worked out once for each up card
+ * and each set of cards removed from the shoe, and kept; so the dealer's
+ * play under a composition is reckoned once however many player hands
+ * share it.  The value of playing on a hand is kept the same way, since
+ * one set of cards is reached by many orders of drawing it, and so are
+ * the dealer's chances from each set of cards the dealer may hold.
+ * Values are per unit of the original bet, and are conditional on the
+ * dealer not having blackjack, since the hand ends before the player
+ * plays if the dealer does.
+ * <p>
+ * The evaluator is exact for stand, hit, double down and surrender.
+ * Against an ace or a ten, the hole card was dealt before the player
+ * drew, so each card the player draws is weighed given that the hole
+ * card does not make blackjack, not simply by its count in the shoe.  For
+ * a split, each split hand is played against the composition left after
+ * the deal, less the cards that hand draws, so that the hands do not see
+ * each other's draws; pairs are resplit up to the machine's maximum
+ * number of hands.  The dealer is taken to hit or stand by total and
+ * softness alone, as every machine does; the rule is read from the
+ * machine's dealerMustHit.  Cards of ten are represented by tens, and
+ * suits are assigned in turn, so a bonus that depends on faces or suits
+ * is not seen.
+ * <p>
+ * An Evaluator changes its composition while it works and is not safe
+ * for concurrent use.
+ *
+ * @see net.ech.casino.blackjack.BlackjackMachine
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class Evaluator implements Constants
+{
+	private final static int Values = 10;
+	private final static int MaxTotal = 32;
+
+	// Cache keys are packed counts, which Long hashes poorly; multiplying
+	// by an odd number spreads them and keeps them distinct.
+	private final static long Scatter = 0x9e3779b97f4a7c15L;
+
+	private final BlackjackMachine machine;
+
+	// Counts of the cards of each face value, one to ten, in the shoe as
+	// given and as the evaluator works.
+	private final int[] shoe = new int [Values + 1];
+	private final int[] counts = new int [Values + 1];
+	private int total;
+	private int shoeTotal;
+
+	// Values of the best play of undoubled hands, by the cards removed
+	// from the shoe, the up card and the split.
+	private final Map<Long, Double> playCache = new HashMap<Long, Double> ();
+
+	// Dealer outcomes, by up card and the cards removed from the shoe.
+	private final Map<Long, double[]> dealerCache = new HashMap<Long, double[]> ();
+
+	// Outcomes of the dealer's hands that must hit, by the cards drawn,
+	// while one up card and composition are worked out.
+	private final Map<Long, double[]> drawCache = new HashMap<Long, double[]> ();
+
+	// The dealer's rule, by low total, soft and two cards: 0 if not yet
+	// known, 1 to hit, 2 to stand.
+	private final byte[] dealerRule = new byte [MaxTotal * 4];
+	private final byte[] dealerCards = new byte [Hand.MaxCards];
+
+	/**
+	 * Constructor, for a full shoe of the machine.
+	 */
+	public Evaluator (BlackjackMachine machine)
+	{
+		this (machine, compositionOf (machine.createNewShoe ()));
+	}
+
+	/**
+	 * Constructor.
+	 * @param machine		the rules
+	 * @param composition	the number of cards of each face value, by
+	 *						face value from 1 (ace) to 10
+	 */
+	public Evaluator (BlackjackMachine machine, int[] composition)
+	{
+		if (composition.length != Values + 1)
+			throw new IllegalArgumentException ("composition by face value 1 to 10");
+		this.machine = machine;
+		for (int v = 1; v <= Values; ++v)
+		{
+			shoe[v] = composition[v];
+			counts[v] = composition[v];
+			total += composition[v];
+		}
+		shoeTotal = total;
+	}
+
+	/**
+	 * Get the number of cards of each face value in a full shoe.
+	 * @return counts by face value from 1 (ace) to 10
+	 */
+	public static int[] compositionOf (Shoe shoe)
+	{
+		int[] composition = new int [Values + 1];
+		byte[] cards = shoe.getDeck ().copyCards ();
+		for (int i = 0; i < cards.length; ++i)
+			composition[Card.faceValueOf (cards[i])] += shoe.getNumberOfDecks ();
+		return composition;
+	}
+
+	//=================================================================
+	// Queries
+	//=================================================================
+
+	/**
+	 * Get the chances of the dealer finishing on each score, given no
+	 * dealer blackjack.
+	 * @param upCard	the dealer's up card
+	 * @param seen		other cards known to be out of the shoe
+	 * @return chances by score: index 0 for bust, else the total
+	 */
+	public double[] getDealerProbabilities (byte upCard, byte[] seen)
+	{
+		remove (seen);
+		int up = Card.faceValueOf (upCard);
+		remove (up);
+		try
+		{
+			return (double[]) dealer (up).clone ();
+		}
+		finally
+		{
+			restore (up);
+			restore (seen);
+		}
+	}
+
+	/**
+	 * Get the expected value of each play of a hand.
+	 * @param playerCards	the player's first two cards
+	 * @param upCard		the dealer's up card
+	 * @return values by move: Stand, Hit, Split, DoubleDown and Surrender;
+	 *		   NaN for a move the rules do not allow
+	 * @exception IllegalArgumentException if the shoe does not hold the
+	 *			  cards
+	 */
+	public double[] getValues (byte[] playerCards, byte upCard)
+	{
+		double[] values = new double [Surrender + 1];
+		java.util.Arrays.fill (values, Double.NaN);
+
+		remove (playerCards);
+		int up = Card.faceValueOf (upCard);
+		remove (up);
+		try
+		{
+			PlayerHand hand = new PlayerHand (null);
+			for (int i = 0; i < playerCards.length; ++i)
+				hand.hit (playerCards[i]);
+
+			// Values below are weighed by the chance of no blackjack; see
+			// stand.
+			double given = noBlackjack (up);
+			values[Stand] = stand (hand, up) / given;
+			if (isPlayable (hand))
+			{
+				if (machine.playerMaySurrender (hand))
+					values[Surrender] = -0.5;
+				if (machine.playerMayHit (hand))
+				{
+					values[Hit] = hit (hand, up) / given;
+					if (machine.playerMayDoubleDown (hand))
+						values[DoubleDown] = doubleDown (hand, up) / given;
+					if (machine.getMaximumHands () > 1 && machine.playerMaySplit (hand))
+						values[Split] = 2 * split (hand.getCard (0), up, 2) / given;
+				}
+			}
+		}
+		finally
+		{
+			restore (up);
+			restore (playerCards);
+		}
+		return values;
+	}
+
+	/**
+	 * Get the play with the highest expected value.
+	 * @return one of Stand, Hit, Split, DoubleDown and Surrender
+	 */
+	public int getBestMove (byte[] playerCards, byte upCard)
+	{
+		return bestOf (getValues (playerCards, upCard));
+	}
+
+	/**
+	 * Get the move with the highest value.
+	 */
+	static int bestOf (double[] values)
+	{
+		int best = Stand;
+		for (int move = Stand; move < values.length; ++move)
+		{
+			if (values[move] > values[best])
+				best = move;
+		}
+		return best;
+	}
+
+	//=================================================================
+	// The player
+	//=================================================================
+
+	// Whether the player has a choice to make, as BlackjackGame sees it.
+	private boolean isPlayable (PlayerHand hand)
+	{
+		return hand.getScore () != BUST && machine.playerVersusDealer (hand, 21) < 0;
+	}
+
+	// The value of the best play of a hand from here on, weighed as by
+	// stand.
+	private double play (PlayerHand hand, int up)
+	{
+		Long key = hand.isDoubled () ? null : playKey (hand, up);
+		Double cached = key == null ? null : playCache.get (key);
+		if (cached != null)
+			return cached.doubleValue ();
+
+		double best = stand (hand, up);
+		if (isPlayable (hand))
+		{
+			if (machine.playerMaySurrender (hand))
+				best = Math.max (best, -0.5 * betOf (hand) * noBlackjack (up));
+			if (machine.playerMayHit (hand))
+			{
+				best = Math.max (best, hit (hand, up));
+				if (machine.playerMayDoubleDown (hand))
+					best = Math.max (best, doubleDown (hand, up));
+			}
+		}
+
+		if (key != null)
+			playCache.put (key, Double.valueOf (best));
+		return best;
+	}
+
+	// The cards removed and the up card, as for the dealer; then the
+	// value of the card a split hand began with, and the number of its
+	// pair cards out of the shoe in the other hands.  Together these fix
+	// the hand and the shoe.
+	private Long playKey (PlayerHand hand, int up)
+	{
+		Long removed = cacheKey (up);
+		if (removed == null)
+			return null;
+		long key = removed.longValue () << 7;
+		if (hand.isSplit ())
+		{
+			int others = shoeTotal - total - 1 - hand.getSize ();
+			key |= (Card.faceValueOf (hand.getCard (0)) << 3) | others;
+		}
+		return Long.valueOf (key * Scatter);
+	}
+
+	private double hit (PlayerHand hand, int up)
+	{
+		double value = 0;
+		int n = total;
+		for (int v = 1; v <= Values; ++v)
+		{
+			int count = counts[v];
+			if (count > 0)
+			{
+				remove (v);
+				value += count * play (withCard (hand, v, false), up);
+				restore (v);
+			}
+		}
+		return value / n;
+	}
+
+	private double doubleDown (PlayerHand hand, int up)
+	{
+		double value = 0;
+		int n = total;
+		for (int v = 1; v <= Values; ++v)
+		{
+			int count = counts[v];
+			if (count > 0)
+			{
+				remove (v);
+				value += count * play (withCard (hand, v, true), up);
+				restore (v);
+			}
+		}
+		return value / n;
+	}
+
+	// The value of one split hand begun with the given card, with the
+	// given number of hands in play, resplitting where that is better.
+	private double split (byte card, int up, int hands)
+	{
+		PlayerHand first = new PlayerHand (null, 0, card);
+		double value = 0;
+		int n = total;
+		for (int v = 1; v <= Values; ++v)
+		{
+			int count = counts[v];
+			if (count > 0)
+			{
+				remove (v);
+				PlayerHand hand = withCard (first, v, false);
+				double best = play (hand, up);
+				if (hands < machine.getMaximumHands () && isPlayable (hand) &&
+					machine.playerMayHit (hand) && machine.playerMaySplit (hand))
+				{
+					best = Math.max (best, 2 * split (card, up, hands + 1));
+				}
+				value += count * best;
+				restore (v);
+			}
+		}
+		return value / n;
+	}
+
+	// The value of standing, times the chance that the dealer has no
+	// blackjack given the cards now out.  The hole card was dealt before
+	// the player drew, so the player's draws must be weighed given no
+	// blackjack too.  Since the hole card is as likely to be any unseen
+	// card as the player's draws are, the chance of a run of draws given
+	// no blackjack is its plain chance, times the chance of no blackjack
+	// after those draws, over that chance after the deal.  Each leaf
+	// takes the first factor here, and getValues divides out the second.
+	private double stand (PlayerHand hand, int up)
+	{
+		double given = noBlackjack (up);
+
+		// A busted hand loses whatever the dealer does.
+		if (hand.getScore () == BUST && machine.playerVersusDealer (hand, BUST) < 0)
+			return -betOf (hand) * given;
+
+		double[] dealer = dealer (up);
+		double value = 0;
+		for (int score = 0; score <= 21; ++score)
+		{
+			if (dealer[score] != 0)
+			{
+				int cmp = machine.playerVersusDealer (hand, score);
+				double net;
+				if (cmp == 0)
+					net = machine.getBonus (hand, false);
+				else if (cmp > 0)
+					net = 1 + machine.getBonus (hand, true);
+				else
+					net = -1;
+				value += dealer[score] * net;
+			}
+		}
+		return value * betOf (hand) * given;
+	}
+
+	private static int betOf (PlayerHand hand)
+	{
+		return hand.isDoubled () ? 2 : 1;
+	}
+
+	// A copy of a hand, plus a card of the given face value, doubled if
+	// asked.  Suits are given in turn.
+	private static PlayerHand withCard (PlayerHand hand, int value, boolean doubled)
+	{
+		int size = hand.getSize ();
+		PlayerHand copy;
+		int i;
+		if (hand.isSplit ())
+		{
+			copy = new PlayerHand (null, 0, hand.getCard (0));
+			i = 1;
+		}
+		else
+		{
+			copy = new PlayerHand (null);
+			i = 0;
+		}
+		for (; i < size; ++i)
+			copy.hit (hand.getCard (i));
+		copy.hit (cardOf (value, size));
+		if (doubled || hand.isDoubled ())
+			copy.doubleDown ();
+		return copy;
+	}
+
+	private static byte cardOf (int value, int index)
+	{
+		byte rank = value == 1 ? Ace : (byte) value;
+		return Card.value (rank, (byte) (MinSuit + index % NumberOfSuits));
+	}
+
+	//=================================================================
+	// The dealer
+	//=================================================================
+
+	// The dealer's outcomes for the shoe as it stands, the up card out.
+	private double[] dealer (int up)
+	{
+		Long key = cacheKey (up);
+		if (key != null)
+			key = Long.valueOf (key.longValue () * Scatter);
+		double[] outcomes = key == null ? null : dealerCache.get (key);
+		if (outcomes != null)
+			return outcomes;
+
+		outcomes = new double [22];
+		dealerCards[0] = cardOf (up, 0);
+
+		// The hole card, given no blackjack.
+		int excluded = blackjackHoleCard (up);
+		int n = total - (excluded == 0 ? 0 : counts[excluded]);
+		for (int v = 1; v <= Values; ++v)
+		{
+			int count = counts[v];
+			if (count > 0 && v != excluded)
+			{
+				remove (v);
+				dealerCards[1] = cardOf (v, 1);
+				settle (2, up + v, up == 1 || v == 1, 1L << (4 * v - 4), (double) count / n, outcomes);
+				restore (v);
+			}
+		}
+		drawCache.clear ();
+
+		if (key != null)
+			dealerCache.put (key, outcomes);
+		return outcomes;
+	}
+
+	// The value of the hole card that makes blackjack with the up card, or
+	// zero if none does.
+	private static int blackjackHoleCard (int up)
+	{
+		return up == 1 ? Values : up == Values ? 1 : 0;
+	}
+
+	// The chance that the hole card does not make blackjack, for the shoe
+	// as it stands.
+	private double noBlackjack (int up)
+	{
+		int excluded = blackjackHoleCard (up);
+		return excluded == 0 ? 1.0 : (double) (total - counts[excluded]) / total;
+	}
+
+	// Add the outcomes of a dealer hand, with the given chance, to a
+	// total.
+	private void settle (int size, int low, boolean soft, long drawn, double chance, double[] outcomes)
+	{
+		if (dealerHits (size, low, soft))
+		{
+			double[] after = draw (size, low, soft, drawn);
+			for (int score = 0; score < after.length; ++score)
+				outcomes[score] += chance * after[score];
+		}
+		else
+		{
+			int high = soft && low <= 11 ? low + 10 : low;
+			outcomes[high > 21 ? BUST : high] += chance;
+		}
+	}
+
+	// The outcomes of a dealer hand that must hit.  Hands that hold the
+	// same cards in another order come to the same outcomes, so they are
+	// kept, by the cards the dealer has drawn, until the up card changes.
+	private double[] draw (int size, int low, boolean soft, long drawn)
+	{
+		Long key = Long.valueOf (drawn * Scatter);
+		double[] outcomes = drawCache.get (key);
+		if (outcomes != null)
+			return outcomes;
+
+		outcomes = new double [22];
+		int n = total;
+		for (int v = 1; v <= Values; ++v)
+		{
+			int count = counts[v];
+			if (count > 0)
+			{
+				remove (v);
+				dealerCards[size] = cardOf (v, size);
+				settle (size + 1, low + v, soft || v == 1, drawn + (1L << (4 * v - 4)),
+						(double) count / n, outcomes);
+				restore (v);
+			}
+		}
+
+		drawCache.put (key, outcomes);
+		return outcomes;
+	}
+
+	private boolean dealerHits (int size, int low, boolean soft)
+	{
+		if (low >= MaxTotal)
+			return false;
+		int ix = (low << 2) | (soft ? 2 : 0) | (size == 2 ? 1 : 0);
+		if (dealerRule[ix] == 0)
+		{
+			Hand hand = new Hand ();
+			for (int i = 0; i < size; ++i)
+				hand.hit (dealerCards[i]);
+			dealerRule[ix] = (byte) (machine.dealerMustHit (hand) ? 1 : 2);
+		}
+		return dealerRule[ix] == 1;
+	}
+
+	// Four bits for each face value removed, and four for the up card;
+	// null if too many of a value are out to fit.
+	private Long cacheKey (int up)
+	{
+		long key = up;
+		for (int v = 1; v <= Values; ++v)
+		{
+			int removed = shoe[v] - counts[v];
+			if (removed > 15)
+				return null;
+			key = (key << 4) | removed;
+		}
+		return Long.valueOf (key);
+	}
+
+	//=================================================================
+	// The shoe
+	//=================================================================
+
+	private void remove (int value)
+	{
+		if (counts[value] == 0)
+			throw new IllegalArgumentException ("no card of value " + value + " left");
+		--counts[value];
+		--total;
+	}
+
+	private void restore (int value)
+	{
+		++counts[value];
+		++total;
+	}
+
+	private void remove (byte[] cards)
+	{
+		for (int i = 0; i < cards.length; ++i)
+		{
+			try
+			{
+				remove (Card.faceValueOf (cards[i]));
+			}
+			catch (IllegalArgumentException e)
+			{
+				while (--i >= 0)
+					restore (Card.faceValueOf (cards[i]));
+				throw e;
+			}
+		}
+	}
+
+	private void restore (byte[] cards)
+	{
+		for (int i = 0; i < cards.length; ++i)
+			restore (Card.faceValueOf (cards[i]));
+	}
+
+	//=================================================================
+	// Command line: a strategy table.
+	//=================================================================
+
+	/**
+	 * Print the best play of every two-card hand against every up card.
+	 * Usage: java net.ech.casino.blackjack.Evaluator [-decks n] [-h17]
+	 * [-nodas] [-class name]
+	 */
+	public static void main (String[] args)
+		throws Exception
+	{
+		int decks = 6;
+		boolean hitsSoft17 = false;
+		boolean doubleAfterSplit = true;
+		String className = null;
+		for (int i = 0; i < args.length; ++i)
+		{
+			if (args[i].equalsIgnoreCase ("-decks") && i + 1 < args.length)
+				decks = Integer.parseInt (args[++i]);
+			else if (args[i].equalsIgnoreCase ("-h17"))
+				hitsSoft17 = true;
+			else if (args[i].equalsIgnoreCase ("-nodas"))
+				doubleAfterSplit = false;
+			else if (args[i].equalsIgnoreCase ("-class") && i + 1 < args.length)
+				className = args[++i];
+			else
+			{
+				System.err.println ("Usage: java net.ech.casino.blackjack.Evaluator [-decks n] [-h17] [-nodas] [-class name]");
+				System.exit (2);
+			}
+		}
+
+		BlackjackMachine machine;
+		if (className != null)
+		{
+			machine = BlackjackMachine.forName (className);
+		}
+		else
+		{
+			CasinoBlackjack casino = new CasinoBlackjack (decks);
+			casino.setDoubleAfterSplit (doubleAfterSplit);
+			machine = casino;
+		}
+		if (hitsSoft17)
+			machine.setDealerHitsSoft17 (true);
+
+		long start = System.nanoTime ();
+		Evaluator evaluator = new Evaluator (machine);
+		System.out.println ("      2  3  4  5  6  7  8  9  T  A");
+		for (int total = 5; total <= 20; ++total)
+		{
+			// Hard 20 can only be a pair of tens, played as if it could
+			// not be split, as TableStrategy does.
+			int low = total <= 11 ? 2 : total - 10;
+			int other = total - low;
+			printRow (evaluator, "H" + total, cardOf (low, 0), cardOf (other, 1), low == other);
+		}
+		for (int other = 2; other <= 9; ++other)
+			printRow (evaluator, "A" + other, cardOf (1, 0), cardOf (other, 1), false);
+		for (int pair = 2; pair <= Values; ++pair)
+			printRow (evaluator, pair + "," + pair, cardOf (pair, 0), cardOf (pair, 1), false);
+		printRow (evaluator, "A,A", cardOf (1, 0), cardOf (1, 1), false);
+		System.out.println ("in " + (System.nanoTime () - start) / 1000000 / 1000.0 + " s");
+	}
+
+	private static void printRow (Evaluator evaluator, String label, byte card0, byte card1,
+								  boolean noSplit)
+	{
+		StringBuilder buf = new StringBuilder (label);
+		while (buf.length () < 5)
+			buf.append (' ');
+		for (int up = 2; up <= Values + 1; ++up)
+		{
+			byte upCard = cardOf (up > Values ? 1 : up, 2);
+			double[] values = evaluator.getValues (new byte[] { card0, card1 }, upCard);
+			if (noSplit)
+				values[Split] = Double.NaN;
+			int move = bestOf (values);
+			buf.append ("  ");
+			buf.append ("?SHPDR".charAt (move));
+		}
+		System.out.println (buf);
+	}
+}
@@ -20,6 +20,10 @@ public class Hand implements Constants, Cloneable
 	private int size;
 	private boolean firstCardDown;
 
+	// Kept as cards are added, so that scoring does not scan the cards.
+	private int lowTotal;
+	private int aceCount;
+
 	/**
 	 * Constructor.
 	 */
@@ -90,23 +94,7 @@ public class Hand implements Constants, Cloneable
 	 */
 	public int getHighTotal ()
 	{
-		int total = 0;
-		int aceCount = 0;
-
-		for (int i = 0; i < size; ++i)
-		{
-			int faceValue = Card.faceValueOf (cards[i]);
-			total += faceValue;
-			if (faceValue == 1)
-			{
-				++aceCount;
-			}
-		}
-
-		if (aceCount > 0 && total <= 11)
-			total += 10;
-
-		return total;
+		return aceCount > 0 && lowTotal <= 11 ? lowTotal + 10 : lowTotal;
 	}
 
 	/**
@@ -115,14 +103,7 @@ public class Hand implements Constants, Cloneable
 	 */
 	public int getLowTotal ()
 	{
-		int total = 0;
-
-		for (int i = 0; i < size; ++i)
-		{
-			total += Card.faceValueOf (cards[i]);
-		}
-
-		return total;
+		return lowTotal;
 	}
 
 	/** 
@@ -131,7 +112,7 @@ public class Hand implements Constants, Cloneable
 	 */
 	public boolean isSoft ()
 	{
-		return getHighTotal () != getLowTotal ();
+		return aceCount > 0 && lowTotal <= 11;
 	}
 
 	/**
@@ -143,6 +124,21 @@ public class Hand implements Constants, Cloneable
 			throw new RuntimeException ("BLACKJACK HAND OVERFLOW");
 
 		cards[size++] = card;
+		int faceValue = Card.faceValueOf (card);
+		lowTotal += faceValue;
+		if (faceValue == 1)
+			++aceCount;
+	}
+
+	/**
+	 * Empty this hand, for reuse.
+	 */
+	void clear ()
+	{
+		size = 0;
+		firstCardDown = false;
+		lowTotal = 0;
+		aceCount = 0;
 	}
 
 	/**
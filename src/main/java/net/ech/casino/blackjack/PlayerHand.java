@@ -34,7 +34,7 @@ public class PlayerHand extends Hand
 	/**
 	 * Constructor for split hands only.
 	 */
-	private PlayerHand (BlackjackGame myGame, int id, byte card)
+	PlayerHand (BlackjackGame myGame, int id, byte card)
 	{
 		this (myGame);
 		this.id = id;
@@ -42,6 +42,21 @@ public class PlayerHand extends Hand
 		hit (card);
 	}
 
+	/**
+	 * Empty this hand and clear its attributes, for reuse by a simulator.
+	 */
+	void reset (int id, boolean split)
+	{
+		clear ();
+		this.id = id;
+		this.split = split;
+		surrendered = false;
+		doubled = false;
+		closed = false;
+		win = 0;
+		vsDealer = 0;
+	}
+
 	/**
 	 * Get the hand id.	 The first hand dealt to the player has id
 	 * zero.  If the hand is split, the new hand created gets the
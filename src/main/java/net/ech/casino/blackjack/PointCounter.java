@@ -0,0 +1,96 @@
+//
+// PointCounter.java
+//
+
+package net.ech.casino.blackjack;
+
+import net.ech.casino.Card;
+
+/**
+ * A balanced or unbalanced point count: each card shown adds the tag of
+ * its rank to a running count.  The true count divides the running count
+ * by the decks left, as a ShoeHistogram watching the same table has them.
+ * 
+ * @version 1.0
+ * @author James Echmalian, ech@ech.net
+ */
+public class PointCounter implements Constants, CardObserver
+{
+	// Tags by rank, 0 to Ace.
+	private final static int[] HiLo =    { 0, 0, 1, 1, 1, 1, 1, 0, 0, 0,-1,-1,-1,-1,-1 };
+	private final static int[] KO =      { 0, 0, 1, 1, 1, 1, 1, 1, 0, 0,-1,-1,-1,-1,-1 };
+	private final static int[] OmegaII = { 0, 0, 1, 1, 2, 2, 2, 1, 0,-1,-2,-2,-2,-2, 0 };
+
+	private final int[] tags = new int [16];
+	private final int initialCount;
+	private int count;
+
+	/**
+	 * Constructor.
+	 * @param tags			tags by rank, from index 2 (deuce) to 14 (ace)
+	 * @param initialCount	the running count after a shuffle
+	 */
+	public PointCounter (int[] tags, int initialCount)
+	{
+		System.arraycopy (tags, 0, this.tags, 0, Math.min (tags.length, this.tags.length));
+		this.initialCount = initialCount;
+		this.count = initialCount;
+	}
+
+	/**
+	 * The Hi-Lo count.
+	 */
+	public static PointCounter hiLo ()
+	{
+		return new PointCounter (HiLo, 0);
+	}
+
+	/**
+	 * The Knock-Out count, which is unbalanced; it starts from 4 less 4
+	 * for each deck, so that it ends at 4.
+	 */
+	public static PointCounter knockOut (int decks)
+	{
+		return new PointCounter (KO, 4 - 4 * decks);
+	}
+
+	/**
+	 * The Omega II count.
+	 */
+	public static PointCounter omegaII ()
+	{
+		return new PointCounter (OmegaII, 0);
+	}
+
+	/**
+	 * Get the running count.
+	 */
+	public int getRunningCount ()
+	{
+		return count;
+	}
+
+	/**
+	 * Get the running count per deck left.
+	 * @param histogram		the cards left; if none, the running count
+	 */
+	public double getTrueCount (ShoeHistogram histogram)
+	{
+		double decks = histogram.getRemainingDecks ();
+		return decks > 0 ? count / decks : count;
+	}
+
+	public void shuffle ()
+	{
+		count = initialCount;
+	}
+
+	public void cardShown (byte card)
+	{
+		count += tags[Card.rankOf (card)];
+	}
+
+	public void roundOver (byte[] cards, int count)
+	{
+	}
+}
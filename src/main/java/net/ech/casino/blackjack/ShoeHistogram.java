@@ -0,0 +1,109 @@
+//
+// ShoeHistogram.java
+//
+
+package net.ech.casino.blackjack;
+
+import net.ech.casino.Card;
+import net.ech.casino.Shoe;
+
+/**
+ * A ShoeHistogram keeps, as cards are shown, the number of cards of each
+ * rank and face value not yet seen since the last shuffle.  Every query
+ * is a field or array read, so a counter may ask for a true count or a
+ * remaining composition on every card.
+ * <p>
+ * A card that is dealt but not shown, such as the dealer's hole card
+ * before the end of the round, is counted as remaining.
+ * 
+ * @version 1.0
+ * @author James Echmalian, ech@ech.net
+ */
+public class ShoeHistogram implements Constants, CardObserver
+{
+	private final int[] fullByRank = new int [16];
+	private final int[] fullByValue = new int [11];
+	private final int fullSize;
+	private final int deckSize;
+
+	private final int[] byRank = new int [16];
+	private final int[] byValue = new int [11];
+	private int size;
+
+	/**
+	 * Constructor.
+	 * @param shoe		a shoe of the composition to follow
+	 */
+	public ShoeHistogram (Shoe shoe)
+	{
+		byte[] cards = shoe.getDeck ().copyCards ();
+		for (int i = 0; i < cards.length; ++i)
+		{
+			fullByRank[Card.rankOf (cards[i])] += shoe.getNumberOfDecks ();
+			fullByValue[Card.faceValueOf (cards[i])] += shoe.getNumberOfDecks ();
+		}
+		deckSize = cards.length;
+		fullSize = deckSize * shoe.getNumberOfDecks ();
+		shuffle ();
+	}
+
+	/**
+	 * Get the number of cards of a rank not yet seen.
+	 * @param rank		a rank, Deuce to Ace
+	 */
+	public int getRemaining (int rank)
+	{
+		return byRank[rank];
+	}
+
+	/**
+	 * Get the number of cards of a face value not yet seen.
+	 * @param faceValue		1 for aces, 10 for tens and court cards
+	 */
+	public int getRemainingOfValue (int faceValue)
+	{
+		return byValue[faceValue];
+	}
+
+	/**
+	 * Get the number of cards not yet seen.
+	 */
+	public int getRemainingCards ()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the number of decks not yet seen, as a fraction.
+	 */
+	public double getRemainingDecks ()
+	{
+		return (double) size / deckSize;
+	}
+
+	/**
+	 * Get the number of cards seen since the shuffle.
+	 */
+	public int getCardsSeen ()
+	{
+		return fullSize - size;
+	}
+
+	public void shuffle ()
+	{
+		System.arraycopy (fullByRank, 0, byRank, 0, byRank.length);
+		System.arraycopy (fullByValue, 0, byValue, 0, byValue.length);
+		size = fullSize;
+	}
+
+	public void cardShown (byte card)
+	{
+		--byRank[Card.rankOf (card)];
+		--byValue[Card.faceValueOf (card)];
+		--size;
+	}
+
+	public void roundOver (byte[] cards, int count)
+	{
+	}
+}
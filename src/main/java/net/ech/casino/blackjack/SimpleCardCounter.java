@@ -13,7 +13,7 @@ import net.ech.casino.*;
  * @version 1.1
  * @author James Echmalian, ech@ech.net
  */
-public class SimpleCardCounter implements Constants, CardListener
+public class SimpleCardCounter implements Constants, CardListener, CardObserver
 {
 	private int count;
 
@@ -38,7 +38,7 @@ public class SimpleCardCounter implements Constants, CardListener
 	 */
 	public void shuffle (CardEvent e)
 	{
-		count = 0;
+		shuffle ();
 	}
 
 	/**
@@ -46,10 +46,24 @@ public class SimpleCardCounter implements Constants, CardListener
 	 */
 	public void cardShown (CardEvent e)
 	{
-		int rank = Card.rankOf (e.getCard ());
+		cardShown (e.getCard ());
+	}
+
+	public void shuffle ()
+	{
+		count = 0;
+	}
+
+	public void cardShown (byte card)
+	{
+		int rank = Card.rankOf (card);
 		if (rank >= 2 && rank <= 6)
 			++count;
 		else if (rank == Ace || rank >= 10)
 			--count;
 	}
+
+	public void roundOver (byte[] cards, int count)
+	{
+	}
 }
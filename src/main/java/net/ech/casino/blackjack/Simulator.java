@@ -0,0 +1,484 @@
+//
+// Simulator.java
+//
+
+package net.ech.casino.blackjack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import net.ech.casino.Randomizer;
+import net.ech.casino.Shoe;
+import net.ech.math.XoshiroGenerator;
+
+/**
+ * Plays a Strategy against a BlackjackMachine for a great many rounds,
+ * across as many threads as asked, and reports the result.
+ * <p>
+ * Rounds are played as BlackjackGame plays them, with the machine
+ * deciding what the player may do and what each hand is paid, but
+ * without a casino: no transactions, no saved state and no card events,
+ * and the hands and shoe are reused from round to round.  Each worker
+ * has its own shoe and its own stream of random numbers, split from one
+ * seeded generator, so a run is repeatable for a given seed and number
+ * of workers.  Insurance is never bought and every bet is one unit.
+ * <p>
+ * The machine and strategy are shared by the workers and must not
+ * change during a run.
+ * <p>
+ * Usage: java net.ech.casino.blackjack.Simulator [options]
+ * <pre>
+ *	-class name			a BlackjackMachine class (default CasinoBlackjack)
+ *	-decks n			decks in the shoe of a CasinoBlackjack (default 6)
+ *	-h17				the dealer hits soft 17
+ *	-strategy name		a Strategy, as for Strategy.forName, or "table"
+ *						for a TableStrategy worked out for the machine
+ *	-rounds n			rounds to play (default 10,000,000)
+ *	-threads n			workers (default the number of processors)
+ *	-seed n				seed of the random number generator
+ * </pre>
+ *
+ * @see net.ech.casino.blackjack.BlackjackGame
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class Simulator implements Constants
+{
+	private final BlackjackMachine machine;
+	private final Strategy strategy;
+
+	/**
+	 * Constructor.
+	 */
+	public Simulator (BlackjackMachine machine, Strategy strategy)
+	{
+		this.machine = machine;
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Results of play: the player's net win per round, moves chosen and
+	 * hands won, pushed and lost.
+	 */
+	public static class Tally
+	{
+		private long rounds;
+		private long hands;
+		private double wagered;
+		private double net;
+		private double netSquared;
+		private long[] moves = new long [Insurance + 1];
+		private long wins;
+		private long pushes;
+		private long losses;
+		private long blackjacks;
+
+		void add (Tally that)
+		{
+			rounds += that.rounds;
+			hands += that.hands;
+			wagered += that.wagered;
+			net += that.net;
+			netSquared += that.netSquared;
+			for (int move = 0; move < moves.length; ++move)
+				moves[move] += that.moves[move];
+			wins += that.wins;
+			pushes += that.pushes;
+			losses += that.losses;
+			blackjacks += that.blackjacks;
+		}
+
+		/**
+		 * Get the number of rounds played.
+		 */
+		public long getRounds ()
+		{
+			return rounds;
+		}
+
+		/**
+		 * Get the number of hands played, counting each hand of a split.
+		 */
+		public long getHands ()
+		{
+			return hands;
+		}
+
+		/**
+		 * Get the total wagered, in units, with doubles and splits.
+		 */
+		public double getWagered ()
+		{
+			return wagered;
+		}
+
+		/**
+		 * Get the player's total net win, in units.
+		 */
+		public double getNet ()
+		{
+			return net;
+		}
+
+		/**
+		 * Get the number of times a move was chosen.
+		 * @param move	Stand, Hit, Split, DoubleDown or Surrender
+		 */
+		public long getMoveCount (int move)
+		{
+			return moves[move];
+		}
+
+		public long getWins ()
+		{
+			return wins;
+		}
+
+		public long getPushes ()
+		{
+			return pushes;
+		}
+
+		public long getLosses ()
+		{
+			return losses;
+		}
+
+		/**
+		 * Get the number of hands that were blackjacks.
+		 */
+		public long getBlackjacks ()
+		{
+			return blackjacks;
+		}
+
+		/**
+		 * Get the house edge: the player's expected loss per round, as a
+		 * fraction of the initial bet.
+		 */
+		public double getHouseEdge ()
+		{
+			return -net / rounds;
+		}
+
+		/**
+		 * Get the standard deviation of the player's net win per round.
+		 */
+		public double getStandardDeviation ()
+		{
+			double mean = net / rounds;
+			return Math.sqrt (Math.max (0, netSquared / rounds - mean * mean));
+		}
+
+		/**
+		 * Get the half-width of a confidence interval for the house edge.
+		 * @param z		standard normal deviates, e.g. 1.96 for 95%
+		 */
+		public double getConfidence (double z)
+		{
+			return z * getStandardDeviation () / Math.sqrt (rounds);
+		}
+	}
+
+	/**
+	 * Play a number of rounds.
+	 * @param rounds	the number of rounds, divided among the workers
+	 * @param threads	the number of workers
+	 * @param seed		the seed of the random number generator
+	 */
+	public Tally run (long rounds, int threads, long seed)
+		throws InterruptedException
+	{
+		XoshiroGenerator generator = new XoshiroGenerator (seed);
+		List<Callable<Tally>> workers = new ArrayList<Callable<Tally>> ();
+		for (int i = 0; i < threads; ++i)
+		{
+			long share = rounds / threads + (i < rounds % threads ? 1 : 0);
+			workers.add (new Worker (share, generator.split ()));
+		}
+
+		ForkJoinPool pool = new ForkJoinPool (threads);
+		try
+		{
+			Tally total = new Tally ();
+			for (Future<Tally> result : pool.invokeAll (workers))
+				total.add (result.get ());
+			return total;
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause ();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new RuntimeException (cause);
+		}
+		finally
+		{
+			pool.shutdown ();
+		}
+	}
+
+	/**
+	 * One worker's table: a shoe, a dealer hand and the player's hands,
+	 * all reused.
+	 */
+	private class Worker implements Callable<Tally>
+	{
+		private final long rounds;
+		private final Randomizer random;
+		private final Shoe shoe = machine.createNewShoe ();
+		private final Hand dealerHand = new Hand ();
+		private final PlayerHand[] playerHands = new PlayerHand [machine.getMaximumHands ()];
+		private int nPlayerHands;
+		private final Tally tally = new Tally ();
+
+		Worker (long rounds, XoshiroGenerator generator)
+		{
+			this.rounds = rounds;
+			this.random = new Randomizer (generator);
+			for (int i = 0; i < playerHands.length; ++i)
+				playerHands[i] = new PlayerHand (null);
+		}
+
+		public Tally call ()
+		{
+			for (long r = 0; r < rounds; ++r)
+				playRound ();
+			return tally;
+		}
+
+		private void playRound ()
+		{
+			shoe.shuffleIfPending (random);
+
+			nPlayerHands = 1;
+			playerHands[0].reset (0, false);
+			dealerHand.clear ();
+			playerHands[0].hit (shoe.draw ());
+			dealerHand.hit (shoe.draw ());
+			playerHands[0].hit (shoe.draw ());
+			dealerHand.hit (shoe.draw ());
+
+			if (dealerHand.getScore () != BLACKJACK)
+				playHands ();
+
+			// Dealer's turn, if any hand depends on it.
+			if (dealerMayPlay ())
+			{
+				while (machine.dealerMustHit (dealerHand))
+					dealerHand.hit (shoe.draw ());
+			}
+
+			closePlayerHands ();
+		}
+
+		// The player's turn, as BlackjackGame.updateState offers it.
+		private void playHands ()
+		{
+			int dealerRank = dealerHand.getCardRank (1);
+			for (int current = 0; current < nPlayerHands; )
+			{
+				PlayerHand playerHand = playerHands[current];
+				boolean isPlayable = playerHand.getScore () != BUST &&
+					machine.playerVersusDealer (playerHand, 21) < 0;
+				boolean hitOk = isPlayable && machine.playerMayHit (playerHand);
+				boolean surrenderOk = isPlayable && machine.playerMaySurrender (playerHand);
+				if (!hitOk && !surrenderOk)
+				{
+					++current;
+					continue;
+				}
+
+				int moveFlags = StandOk;
+				if (hitOk)
+				{
+					moveFlags |= HitOk;
+					if (machine.playerMayDoubleDown (playerHand))
+						moveFlags |= DoubleDownOk;
+					if (nPlayerHands < playerHands.length && machine.playerMaySplit (playerHand))
+						moveFlags |= SplitOk;
+				}
+				if (surrenderOk)
+					moveFlags |= SurrenderOk;
+
+				int move = strategy.nextMove (playerHand, dealerRank, moveFlags);
+				if (move < 0 || move > Surrender || (moveFlags & (1 << move)) == 0)
+					throw new IllegalStateException ("strategy chose move " + move +
+						" on " + playerHand + " against " + dealerRank);
+				++tally.moves[move];
+
+				switch (move)
+				{
+				case Stand:
+					++current;
+					break;
+				case Hit:
+					playerHand.hit (shoe.draw ());
+					break;
+				case DoubleDown:
+					playerHand.doubleDown ();
+					playerHand.hit (shoe.draw ());
+					break;
+				case Surrender:
+					playerHand.surrender ();
+					++current;
+					break;
+				case Split:
+					split (current);
+					break;
+				}
+			}
+		}
+
+		// Split a hand in place, sliding the later hands up, and hit both
+		// halves, as BlackjackGame does.
+		private void split (int current)
+		{
+			PlayerHand playerHand = playerHands[current];
+			byte card0 = playerHand.getCard (0);
+			byte card1 = playerHand.getCard (1);
+
+			PlayerHand spare = playerHands[nPlayerHands];
+			for (int i = nPlayerHands - 1; i > current; --i)
+				playerHands[i + 1] = playerHands[i];
+			playerHands[current + 1] = spare;
+			++nPlayerHands;
+
+			playerHand.reset (playerHand.getId (), true);
+			playerHand.hit (card0);
+			spare.reset (nPlayerHands - 1, true);
+			spare.hit (card1);
+
+			playerHand.hit (shoe.draw ());
+			spare.hit (shoe.draw ());
+		}
+
+		private boolean dealerMayPlay ()
+		{
+			for (int i = 0; i < nPlayerHands; ++i)
+			{
+				if (playerHands[i].getScore () != 0 &&
+					machine.playerVersusDealer (playerHands[i], 21) <= 0)
+					return true;
+			}
+			return false;
+		}
+
+		// Pay each hand as BlackjackGame.closePlayerHands does.
+		private void closePlayerHands ()
+		{
+			int dealerScore = dealerHand.getScore ();
+			double net = 0;
+			for (int i = 0; i < nPlayerHands; ++i)
+			{
+				PlayerHand playerHand = playerHands[i];
+				int bet = playerHand.isDoubled () ? 2 : 1;
+				int cmp = machine.playerVersusDealer (playerHand, dealerScore);
+
+				double mult = 0.0;
+				if (playerHand.isSurrendered ())
+					mult = 0.5;
+				else if (cmp == 0)
+					mult = 1 + machine.getBonus (playerHand, false);
+				else if (cmp >= 0)
+					mult = 2 + machine.getBonus (playerHand, true);
+				net += bet * (mult - 1);
+
+				tally.wagered += bet;
+				if (cmp > 0)
+					++tally.wins;
+				else if (cmp == 0)
+					++tally.pushes;
+				else
+					++tally.losses;
+				if (playerHand.getScore () == BLACKJACK)
+					++tally.blackjacks;
+			}
+
+			++tally.rounds;
+			tally.hands += nPlayerHands;
+			tally.net += net;
+			tally.netSquared += net * net;
+		}
+	}
+
+	//=================================================================
+	// Command line.
+	//=================================================================
+
+	public static void main (String[] args)
+		throws Exception
+	{
+		String className = null;
+		int decks = 6;
+		boolean hitsSoft17 = false;
+		String strategyName = null;
+		long rounds = 10000000;
+		int threads = Runtime.getRuntime ().availableProcessors ();
+		long seed = System.nanoTime ();
+
+		for (int i = 0; i < args.length; ++i)
+		{
+			String arg = args[i];
+			if (arg.equalsIgnoreCase ("-class") && i + 1 < args.length)
+				className = args[++i];
+			else if (arg.equalsIgnoreCase ("-decks") && i + 1 < args.length)
+				decks = Integer.parseInt (args[++i]);
+			else if (arg.equalsIgnoreCase ("-h17"))
+				hitsSoft17 = true;
+			else if (arg.equalsIgnoreCase ("-strategy") && i + 1 < args.length)
+				strategyName = args[++i];
+			else if (arg.equalsIgnoreCase ("-rounds") && i + 1 < args.length)
+				rounds = Long.parseLong (args[++i]);
+			else if (arg.equalsIgnoreCase ("-threads") && i + 1 < args.length)
+				threads = Integer.parseInt (args[++i]);
+			else if (arg.equalsIgnoreCase ("-seed") && i + 1 < args.length)
+				seed = Long.parseLong (args[++i]);
+			else
+			{
+				System.err.println ("Usage: java net.ech.casino.blackjack.Simulator [-class name] [-decks n]");
+				System.err.println ("		[-h17] [-strategy name] [-rounds n] [-threads n] [-seed n]");
+				System.exit (2);
+			}
+		}
+
+		BlackjackMachine machine = className != null
+			? BlackjackMachine.forName (className) : new CasinoBlackjack (decks);
+		if (hitsSoft17)
+			machine.setDealerHitsSoft17 (true);
+		Strategy strategy = "table".equalsIgnoreCase (strategyName)
+			? new TableStrategy (machine) : Strategy.forName (strategyName);
+		Simulator simulator = new Simulator (machine, strategy);
+
+		long start = System.nanoTime ();
+		Tally tally = simulator.run (rounds, threads, seed);
+		double seconds = (System.nanoTime () - start) / 1e9;
+
+		System.out.println ("Rounds:        " + tally.getRounds () + " in " +
+			Math.round (seconds * 1000) / 1000.0 + " s on " + threads + " threads, seed " + seed);
+		System.out.println ("House edge:    " + percent (tally.getHouseEdge ()) + "% +/- " +
+			percent (tally.getConfidence (1.96)) + "% (95%)");
+		System.out.println ("Std deviation: " + Math.round (tally.getStandardDeviation () * 1e4) / 1e4);
+		System.out.println ("Average bet:   " + Math.round (tally.getWagered () / tally.getRounds () * 1e4) / 1e4);
+		System.out.println ("Hands:         won " + percent ((double) tally.getWins () / tally.getHands ()) +
+			"%, pushed " + percent ((double) tally.getPushes () / tally.getHands ()) +
+			"%, lost " + percent ((double) tally.getLosses () / tally.getHands ()) +
+			"%, blackjack " + percent ((double) tally.getBlackjacks () / tally.getHands ()) + "%");
+		String[] names = { "Stand", "Hit", "Split", "DoubleDown", "Surrender" };
+		for (int move = Stand; move <= Surrender; ++move)
+		{
+			System.out.println ("  " + names[move - Stand] + ": " + tally.getMoveCount (move) +
+				" (" + Math.round ((double) tally.getMoveCount (move) / tally.getRounds () * 1e4) / 1e4 +
+				" per round)");
+		}
+	}
+
+	private static String percent (double fraction)
+	{
+		return String.valueOf (Math.round (fraction * 1e6) / 1e4);
+	}
+}
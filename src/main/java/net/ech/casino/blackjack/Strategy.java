@@ -45,17 +45,27 @@ public class Strategy implements Constants
 	 */
 	public int nextMove (BlackjackGame game)
 	{
-		int dealerRank = game.getRankOfExposedDealerCard ();
-		PlayerHand phand = game.getCurrentPlayerHand ();
+		return nextMove (game.getCurrentPlayerHand (),
+						 game.getRankOfExposedDealerCard (), game.getMoveFlags ());
+	}
+
+	/**
+	 * Choose a move without a game, as a simulator does.
+	 * @param phand			the hand to play
+	 * @param dealerRank	the rank of the dealer's exposed card
+	 * @param moveFlags		the moves allowed, as StandOk, HitOk and so on
+	 */
+	public int nextMove (PlayerHand phand, int dealerRank, int moveFlags)
+	{
 		int playerScore = phand.getScore ();
 
-		if (game.isDoubleDownOk () && shouldDoubleDown (game))
+		if ((moveFlags & DoubleDownOk) != 0 && shouldDoubleDown (phand, dealerRank))
 			return DoubleDown;
 		
-		if (game.isSplitOk () && shouldSplit (game))
+		if ((moveFlags & SplitOk) != 0 && shouldSplit (phand, dealerRank))
 			return Split;
 
-		if (game.isHitOk ())
+		if ((moveFlags & HitOk) != 0)
 		{
 			int[] table = phand.isSoft () ? softHitTable : hitTable;
 			if (playerScore < table[dealerRank])
@@ -75,7 +85,7 @@ public class Strategy implements Constants
 	//
 	private int[] hitTable =
 	{
-		0, 17, 14, 13, 12, 12, 12, 17, 17, 17, 17, 17, 17, 17
+		0, 17, 14, 13, 12, 12, 12, 17, 17, 17, 17, 17, 17, 17, 17
 	};
 
 	//
@@ -86,7 +96,7 @@ public class Strategy implements Constants
 	//
 	private int[] softHitTable =
 	{
-		0, 17, 17, 17, 17, 17, 17, 17, 17, 17, 18, 18, 18, 18
+		0, 17, 17, 17, 17, 17, 17, 17, 17, 17, 18, 18, 18, 18, 17
 	};
 
 	//
@@ -95,11 +105,9 @@ public class Strategy implements Constants
 	// 2 - 9					  10 - 11
 	// 5 - 6					  9 or soft 13-18
 	//
-	protected boolean shouldDoubleDown (BlackjackGame game)
+	protected boolean shouldDoubleDown (PlayerHand phand, int dealerRank)
 	{
-		PlayerHand phand = game.getCurrentPlayerHand ();
 		int playerScore = phand.getScore ();
-		int dealerRank = game.getRankOfExposedDealerCard ();
 
 		if (phand.isSoft ())
 		{
@@ -133,11 +141,8 @@ public class Strategy implements Constants
 	// any but 10			  8
 	// any					  A
 	//
-	protected boolean shouldSplit (BlackjackGame game)
+	protected boolean shouldSplit (PlayerHand phand, int dealerRank)
 	{
-		int dealerRank = game.getRankOfExposedDealerCard ();
-
-		PlayerHand phand = game.getCurrentPlayerHand ();
 		switch (phand.getCardRank (0))
 		{
 		case Ace:
@@ -178,11 +183,9 @@ class BetterDoubleDownStrategy extends Strategy
 	// soft 16					  4 - 6
 	// soft 17, 18				  2 - 7
 	//
-	protected boolean shouldDoubleDown (BlackjackGame game)
+	protected boolean shouldDoubleDown (PlayerHand phand, int dealerRank)
 	{
-		PlayerHand phand = game.getCurrentPlayerHand ();
 		int playerScore = phand.getScore ();
-		int dealerRank = game.getRankOfExposedDealerCard ();
 
 		if (phand.isSoft ())
 		{
@@ -225,11 +228,9 @@ class LessDoubleDownStrategy extends Strategy
 	// Test Al's theory about restricting double down only on 
 	// a player's 9, 10, 11.
 	//
-	protected boolean shouldDoubleDown (BlackjackGame game)
+	protected boolean shouldDoubleDown (PlayerHand phand, int dealerRank)
 	{
-		PlayerHand phand = game.getCurrentPlayerHand ();
 		int playerScore = phand.getScore ();
-		int dealerRank = game.getRankOfExposedDealerCard ();
 
 		if (!phand.isSoft ())
 		{
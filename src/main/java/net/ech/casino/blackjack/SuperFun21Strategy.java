@@ -15,28 +15,27 @@ public class SuperFun21Strategy extends Strategy
 	/**
 	 * Choose the next move.  Never called at deal time.
 	 */
-	public int nextMove (BlackjackGame game)
+	public int nextMove (PlayerHand playerHand, int dealerRank, int moveFlags)
 	{
-		PlayerHand playerHand = game.getCurrentPlayerHand();
-		int dealerRank = game.getRankOfExposedDealerCard();
+		boolean hitOk = (moveFlags & HitOk) != 0;
 
-		if (game.isSplitOk() && shouldSplit (playerHand, dealerRank))
+		if ((moveFlags & SplitOk) != 0 && shouldSplit (playerHand, dealerRank))
 			return Split;
 
-		if (game.isSurrenderOk() && shouldSurrender (playerHand, dealerRank))
+		if ((moveFlags & SurrenderOk) != 0 && shouldSurrender (playerHand, dealerRank))
 			return Surrender;
 
-		if (game.isDoubleDownOk() && shouldDouble (playerHand, dealerRank))
+		if ((moveFlags & DoubleDownOk) != 0 && shouldDouble (playerHand, dealerRank))
 			return DoubleDown;
 
-		if (game.isHitOk() && shouldHit (playerHand, dealerRank))
+		if (hitOk && shouldHit (playerHand, dealerRank))
 			return Hit;
 
 		if (shouldStand (playerHand, dealerRank))
 			return Stand;
 
 		// Default: hit up to 17, hit soft 17.
-		if (game.isHitOk() &&
+		if (hitOk &&
 			(playerHand.getScore() < 17 ||
 			(playerHand.getScore() == 17 && playerHand.isSoft())))
 		{
@@ -46,7 +45,7 @@ public class SuperFun21Strategy extends Strategy
 		return Stand;
 	}
 
-	private boolean shouldSplit (PlayerHand playerHand, int dealerRank)
+	protected boolean shouldSplit (PlayerHand playerHand, int dealerRank)
 	{
 		int splitRank = playerHand.getCardRank(0);
 		if (splitRank == 8 || splitRank == Ace)
@@ -0,0 +1,248 @@
+//
+// TableStrategy.java
+//
+
+package net.ech.casino.blackjack;
+
+import net.ech.casino.Card;
+
+/**
+ * A basic strategy worked out for a machine, and compiled into a table
+ * with one entry for each kind of hand, dealer's up card and set of
+ * moves allowed.  Choosing a move is a single table read.
+ * <p>
+ * The table is built with an Evaluator, from the values of the two-card
+ * hands of a full shoe.  The row for a hard total weighs every two-card
+ * hand of that total by its chance of being dealt, so that the strategy
+ * depends on the total and not on the cards that make it; soft totals
+ * and pairs each have one hand.  A hand of more cards is played as a
+ * two-card hand of the same total.  Where a move is allowed that the
+ * two-card hand may not make, such as doubling on three cards, the move
+ * is not taken.  A bonus that the evaluator does not see, one for suits
+ * or for a number of cards, is not played for.
+ * <p>
+ * The table is read-only once built, so a TableStrategy may be shared by
+ * any number of threads.
+ *
+ * @see net.ech.casino.blackjack.Evaluator
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class TableStrategy extends Strategy
+{
+	// Rows: hard totals from 0, soft totals from SoftRow, pairs by face
+	// value from PairRow.  Columns: dealer's rank, 0 to 14.  Then one
+	// entry for each set of the moves Hit, Split, DoubleDown and
+	// Surrender, taken from the move flags.
+	private final static int SoftRow = 32;
+	private final static int PairRow = 64;
+	private final static int Rows = PairRow + 12;
+	private final static int Ranks = Ace + 1;
+	private final static int Options = 16;
+
+	private final byte[] moves = new byte [Rows * Ranks * Options];
+
+	/**
+	 * Constructor.  Works out the strategy for a full shoe of the machine;
+	 * this takes some seconds.
+	 */
+	public TableStrategy (BlackjackMachine machine)
+	{
+		this (new Evaluator (machine),
+			  Evaluator.compositionOf (machine.createNewShoe ()));
+	}
+
+	/**
+	 * Constructor.
+	 * @param evaluator		an evaluator of the machine and shoe
+	 * @param composition	the composition of the evaluator's shoe, by
+	 *						face value, as weights for the hands
+	 */
+	public TableStrategy (Evaluator evaluator, int[] composition)
+	{
+		java.util.Arrays.fill (moves, (byte) Stand);
+		for (int up = 1; up <= 10; ++up)
+		{
+			byte upCard = cardOf (up, Spades);
+
+			for (int total = 4; total <= 20; ++total)
+				fill (total, up, hardValues (evaluator, composition, total, upCard));
+			for (int other = 1; other <= 9; ++other)
+			{
+				double[] values = evaluator.getValues (
+					new byte[] { cardOf (1, Diamonds), cardOf (other, Clubs) }, upCard);
+				if (other == 1)
+				{
+					fill (PairRow + 11, up, values);
+					values[Split] = Double.NaN;
+				}
+				fill (SoftRow + 11 + other, up, values);
+			}
+			for (int pair = 2; pair <= 10; ++pair)
+			{
+				fill (PairRow + pair, up, evaluator.getValues (
+					new byte[] { cardOf (pair, Diamonds), cardOf (pair, Clubs) }, upCard));
+			}
+		}
+	}
+
+	// The values of the two-card hands of a hard total, each weighed by
+	// its chance; NaN for a move not open to every one of them.
+	private static double[] hardValues (Evaluator evaluator, int[] composition,
+										int total, byte upCard)
+	{
+		double[] sum = new double [Surrender + 1];
+		double weight = 0;
+		int up = Card.faceValueOf (upCard);
+		for (int a = 2; a <= 10 && a <= total - a; ++a)
+		{
+			int b = total - a;
+			if (b > 10)
+				continue;
+			double w = a == b
+				? (double) (composition[a] - (a == up ? 1 : 0)) * (composition[a] - 1 - (a == up ? 1 : 0))
+				: 2.0 * (composition[a] - (a == up ? 1 : 0)) * (composition[b] - (b == up ? 1 : 0));
+			if (w <= 0)
+				continue;
+
+			double[] values = evaluator.getValues (
+				new byte[] { cardOf (a, Diamonds), cardOf (b, Clubs) }, upCard);
+			for (int move = Stand; move <= Surrender; ++move)
+				sum[move] += w * values[move];
+			weight += w;
+		}
+
+		for (int move = Stand; move <= Surrender; ++move)
+			sum[move] /= weight;
+		sum[Split] = Double.NaN;
+		return sum;
+	}
+
+	// Fill a row's entries for an up card, for every set of moves allowed.
+	private void fill (int row, int up, double[] values)
+	{
+		for (int options = 0; options < Options; ++options)
+		{
+			int best = Stand;
+			for (int move = Hit; move <= Surrender; ++move)
+			{
+				if ((options & (1 << (move - Hit))) != 0 && values[move] > values[best])
+					best = move;
+			}
+			if (up == 10)
+			{
+				for (int rank = Ten; rank <= King; ++rank)
+					moves[indexOf (row, rank, options)] = (byte) best;
+			}
+			else
+			{
+				moves[indexOf (row, up == 1 ? Ace : up, options)] = (byte) best;
+			}
+		}
+	}
+
+	private static int indexOf (int row, int dealerRank, int options)
+	{
+		return (row * Ranks + dealerRank) * Options + options;
+	}
+
+	private static byte cardOf (int value, byte suit)
+	{
+		return Card.value (value == 1 ? Ace : (byte) value, suit);
+	}
+
+	/**
+	 * Choose a move by table.
+	 */
+	public int nextMove (PlayerHand phand, int dealerRank, int moveFlags)
+	{
+		int row;
+		if ((moveFlags & SplitOk) != 0)
+			row = PairRow + Card.faceValueOf (phand.getCard (0)) + (phand.getCardRank (0) == Ace ? 10 : 0);
+		else if (phand.isSoft ())
+			row = SoftRow + phand.getScore ();
+		else
+			row = phand.getScore ();
+		return moves[indexOf (row, dealerRank, (moveFlags >> Hit) & (Options - 1))];
+	}
+
+	/**
+	 * Get the move for a kind of hand, up card and set of moves.
+	 * @param total			the hand's total, or the face value of one card
+	 *						of a pair (11 for aces)
+	 * @param soft			whether the total is soft
+	 * @param pair			whether the hand is a pair that may be split
+	 * @param dealerRank	the rank of the dealer's up card
+	 * @param moveFlags		the moves allowed, as StandOk, HitOk and so on
+	 */
+	public int getMove (int total, boolean soft, boolean pair, int dealerRank, int moveFlags)
+	{
+		int row = pair ? PairRow + total : soft ? SoftRow + total : total;
+		return moves[indexOf (row, dealerRank, (moveFlags >> Hit) & (Options - 1))];
+	}
+
+	//=================================================================
+	// Command line: print the table.
+	//=================================================================
+
+	/**
+	 * Print the strategy for the first two cards.
+	 * Usage: java net.ech.casino.blackjack.TableStrategy [-decks n] [-h17]
+	 * [-class name]
+	 */
+	public static void main (String[] args)
+		throws Exception
+	{
+		int decks = 6;
+		boolean hitsSoft17 = false;
+		String className = null;
+		for (int i = 0; i < args.length; ++i)
+		{
+			if (args[i].equalsIgnoreCase ("-decks") && i + 1 < args.length)
+				decks = Integer.parseInt (args[++i]);
+			else if (args[i].equalsIgnoreCase ("-h17"))
+				hitsSoft17 = true;
+			else if (args[i].equalsIgnoreCase ("-class") && i + 1 < args.length)
+				className = args[++i];
+			else
+			{
+				System.err.println ("Usage: java net.ech.casino.blackjack.TableStrategy [-decks n] [-h17] [-class name]");
+				System.exit (2);
+			}
+		}
+
+		BlackjackMachine machine = className != null
+			? BlackjackMachine.forName (className) : new CasinoBlackjack (decks);
+		if (hitsSoft17)
+			machine.setDealerHitsSoft17 (true);
+
+		long start = System.nanoTime ();
+		TableStrategy strategy = new TableStrategy (machine);
+		int all = StandOk | HitOk | SplitOk | DoubleDownOk | SurrenderOk;
+		System.out.println ("      2  3  4  5  6  7  8  9  T  A");
+		for (int total = 5; total <= 20; ++total)
+			printRow (strategy, "H" + total, total, false, false, all);
+		for (int total = 13; total <= 20; ++total)
+			printRow (strategy, "A" + (total - 11), total, true, false, all);
+		for (int pair = 2; pair <= 11; ++pair)
+			printRow (strategy, pair == 11 ? "A,A" : pair + "," + pair, pair, false, true, all);
+		System.out.println ("in " + (System.nanoTime () - start) / 1000000 / 1000.0 + " s");
+	}
+
+	private static void printRow (TableStrategy strategy, String label,
+								  int total, boolean soft, boolean pair, int moveFlags)
+	{
+		StringBuilder buf = new StringBuilder (label);
+		while (buf.length () < 5)
+			buf.append (' ');
+		for (int rank = 2; rank <= Ace; ++rank)
+		{
+			if (rank > Ten && rank < Ace)
+				continue;
+			buf.append ("  ");
+			buf.append ("?SHPDR".charAt (strategy.getMove (total, soft, pair, rank, moveFlags)));
+		}
+		System.out.println (buf);
+	}
+}
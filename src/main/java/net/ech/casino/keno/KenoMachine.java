@@ -295,7 +295,9 @@ public class KenoMachine extends CreditsMachine
 	 */
 	public int[] roll (Randomizer random)
 	{
-		 // Create an index array and shuffle it.
+		 // Create an index array and shuffle it.  Shuffling only the
+		 // first nrolled numbers would pick the same numbers, but would
+		 // consume less randomness and so change every later draw.
 		 byte[] temp = new byte [size];
 		 for (byte i = 1; i <= size; ++i)
 			 temp[i - 1] = i;
@@ -0,0 +1,677 @@
+//
+// Analyzer.java
+//
+
+package net.ech.casino.paigow;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import net.ech.casino.Card;
+import net.ech.casino.CardSet;
+
+/**
+ * Computes the exact return of pai gow poker to a player who sets every
+ * hand by a house way, against a dealer who sets every hand by a house
+ * way, by playing every player hand against every dealer hand that
+ * can be dealt with it.
+ * <p>
+ * Player hands are enumerated up to a renaming of suits: each canonical
+ * hand stands for all the hands in its orbit, and counts that many
+ * times.  The dealer's setting of each canonical hand is worked out
+ * once, in advance.  Player hands are spread over a fork-join pool; each
+ * task keeps its own tallies, which are merged as the tasks finish.
+ * <p>
+ * Dealer hands are not enumerated one by one.  A hand that cannot make a
+ * flush (five cards of a suit, or four and the joker) sets the same way
+ * as any other hand of the same ranks, so the dealer hands are counted
+ * by their ranks: for each way to choose seven ranks, with the joker as
+ * a rank of its own, the number of such dealer hands left after the
+ * player's cards is a product of binomial coefficients, and all of them
+ * are scored as one hand of those ranks whose suits are spread so that
+ * it has no flush.  That miscounts only the dealer hands that can make a
+ * flush, about one in twenty-five, which are then enumerated and, where
+ * their own setting scores otherwise, moved from the outcome of their
+ * ranks to their own.
+ * <p>
+ * A full run counts about 8.25e15 pairs of hands.  One core of a
+ * current machine plays about 14 player hands a second, so the 6,972,147
+ * canonical player hands take about 140 core-hours; enumerating every
+ * dealer hand would take about 3,400.  The run proceeds in blocks of
+ * player hands; after each block, the
+ * running tallies are written to a checkpoint file, if one is given, and
+ * a run started with the same checkpoint file and options resumes after
+ * the last block written.  A range of player hands may be given, so that
+ * a run may be split among machines.
+ * <p>
+ * Usage: java net.ech.casino.paigow.Analyzer [options]
+ * <pre>
+ *	-way wong|base			the house way for both hands (default wong)
+ *	-banker					the player is the banker
+ *	-commission rate		the commission on wins (default that of
+ *							PaiGowMachine)
+ *	-from index				the first canonical player hand (default 0)
+ *	-to index				the canonical player hand after the last
+ *							(default CanonicalHand.Size)
+ *	-block count			player hands per checkpoint (default 64)
+ *	-checkpoint file		where to save and resume
+ * </pre>
+ *
+ * @see net.ech.casino.paigow.CanonicalHand
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class Analyzer implements Constants
+{
+	private final HouseWay playersWay;
+	private final HouseWay dealersWay;
+	private final boolean banker;
+	private final long deck;
+
+	// The dealer's five-card and two-card scores, by canonical hand.
+	private int[] dealerFive;
+	private int[] dealerTwo;
+
+	// By canonical hand, the canonical hand of the same ranks spread over
+	// the suits so as to make no flush.
+	private int[] plain;
+
+	// Each way to choose the ranks of a dealer hand, as entries of rank
+	// << 3 | count, the joker as rank 0; and the plain hand of each.
+	private int[][] patterns;
+	private int[] patternHands;
+
+	// Binomial coefficients C(n, k) for n and k up to four.
+	private final static int[][] Choose = {
+		{ 1, 0, 0, 0, 0 },
+		{ 1, 1, 0, 0, 0 },
+		{ 1, 2, 1, 0, 0 },
+		{ 1, 3, 3, 1, 0 },
+		{ 1, 4, 6, 4, 1 }
+	};
+
+	/**
+	 * Constructor.
+	 * @param playersWay	sets the player's hands
+	 * @param dealersWay	sets the dealer's hands
+	 * @param banker		whether the player is the banker, and so wins
+	 *						ties
+	 */
+	public Analyzer (HouseWay playersWay, HouseWay dealersWay, boolean banker)
+	{
+		this (playersWay, dealersWay, banker, CardSet.JokerDeck);
+	}
+
+	/**
+	 * Constructor.  The deck may be smaller than the pai gow deck, so long
+	 * as every suit in it holds the same ranks.
+	 */
+	Analyzer (HouseWay playersWay, HouseWay dealersWay, boolean banker, long deck)
+	{
+		for (byte suit = Clubs; suit <= Spades; ++suit)
+		{
+			if (CardSet.suitRanks (deck, suit) != CardSet.suitRanks (deck, Diamonds))
+				throw new IllegalArgumentException ("deck is not symmetric in suits");
+		}
+		this.playersWay = playersWay;
+		this.dealersWay = dealersWay;
+		this.banker = banker;
+		this.deck = deck;
+	}
+
+	/**
+	 * Win, loss and push counts.
+	 */
+	public static class Tally
+	{
+		private long wins;
+		private long losses;
+		private long pushes;
+
+		/**
+		 * Constructor.
+		 */
+		public Tally ()
+		{
+		}
+
+		/**
+		 * Constructor.
+		 */
+		public Tally (long wins, long losses, long pushes)
+		{
+			this.wins = wins;
+			this.losses = losses;
+			this.pushes = pushes;
+		}
+
+		public long getWins ()
+		{
+			return wins;
+		}
+
+		public long getLosses ()
+		{
+			return losses;
+		}
+
+		public long getPushes ()
+		{
+			return pushes;
+		}
+
+		/**
+		 * Get the number of pairs of hands counted.
+		 */
+		public long getTotal ()
+		{
+			return wins + losses + pushes;
+		}
+
+		/**
+		 * Add another tally, each count the given number of times.
+		 */
+		public void add (Tally that, long weight)
+		{
+			wins += that.wins * weight;
+			losses += that.losses * weight;
+			pushes += that.pushes * weight;
+		}
+
+		/**
+		 * Get the commission paid per unit bet.
+		 */
+		public double getCommission (double commissionRate)
+		{
+			return commissionRate * wins / getTotal ();
+		}
+
+		/**
+		 * Get the house edge: the player's expected loss per unit bet, net
+		 * of commission.
+		 */
+		public double getHouseEdge (double commissionRate)
+		{
+			return (losses - wins * (1 - commissionRate)) / getTotal ();
+		}
+	}
+
+	/**
+	 * Work out the dealer's setting of every canonical hand.  Must be
+	 * called before analyze.
+	 */
+	public void prepare ()
+	{
+		dealerFive = new int [CanonicalHand.Size];
+		dealerTwo = new int [CanonicalHand.Size];
+		plain = new int [CanonicalHand.Size];
+		ForkJoinPool.commonPool ().invoke (new Range (new Task ()
+		{
+			public Tally run (int index)
+			{
+				byte[] hand = new byte [CardsInHand];
+				CanonicalHand.valueOf (index, hand);
+				long set = CardSet.valueOf (hand);
+				if (CardSet.containsAll (deck, set))
+				{
+					dealersWay.set (hand);
+					dealerFive[index] = HandInfo.score5Int (hand, 0);
+					dealerTwo[index] = HandInfo.score2Int (hand[CardsInFiveHand], hand[CardsInFiveHand + 1]);
+					plain[index] = CanonicalHand.indexOf (plainHand (set));
+				}
+				return null;
+			}
+		}, 0, CanonicalHand.Size, 1 << 12));
+
+		List<int[]> found = new ArrayList<int[]> ();
+		addPatterns (CardSet.hasJoker (deck) ? 0 : MinRank, CardsInHand, new int [CardsInHand], 0, found);
+		patterns = found.toArray (new int [found.size ()][]);
+		patternHands = new int [patterns.length];
+		for (int i = 0; i < patterns.length; ++i)
+		{
+			long set = CardSet.Empty;
+			int suit = 0;
+			for (int entry : patterns[i])
+			{
+				byte rank = (byte) (entry >>> 3);
+				if (rank == 0)
+					set |= CardSet.JokerBit;
+				else
+				{
+					for (int count = entry & 7; count > 0; --count)
+						set = CardSet.add (set, Card.value (rank, (byte) (MinSuit + suit++ % NumberOfSuits)));
+				}
+			}
+			patternHands[i] = plain[CanonicalHand.indexOf (set)];
+		}
+	}
+
+	// Add every way to choose the given number of cards from the ranks of
+	// the deck, from the given rank on (the joker being rank 0).
+	private void addPatterns (int rank, int left, int[] entries, int size, List<int[]> found)
+	{
+		if (left == 0)
+		{
+			found.add (Arrays.copyOf (entries, size));
+			return;
+		}
+		if (rank > MaxRank)
+			return;
+
+		int copies = rank == 0 ? 1 : CardSet.rankCount (deck, (byte) rank);
+		int next = rank == 0 ? MinRank : rank + 1;
+		addPatterns (next, left, entries, size, found);
+		for (int count = 1; count <= copies && count <= left; ++count)
+		{
+			entries[size] = rank << 3 | count;
+			addPatterns (next, left - count, entries, size + 1, found);
+		}
+	}
+
+	// A set of the same ranks, and the joker if any, with suits given in
+	// turn, so that no suit holds more than two cards.
+	private static long plainHand (long set)
+	{
+		long result = set & CardSet.JokerBit;
+		int suit = 0;
+		for (byte rank = MinRank; rank <= MaxRank; ++rank)
+		{
+			for (int count = CardSet.rankCount (set, rank); count > 0; --count)
+				result = CardSet.add (result, Card.value (rank, (byte) (MinSuit + suit++ % NumberOfSuits)));
+		}
+		return result;
+	}
+
+	/**
+	 * Play a range of canonical player hands against every dealer hand.
+	 * @return the tallies, each player hand counted once for every hand in
+	 *		   its orbit
+	 */
+	public Tally analyze (int from, int to)
+	{
+		return ForkJoinPool.commonPool ().invoke (new Range (new Task ()
+		{
+			public Tally run (int index)
+			{
+				return analyze (index);
+			}
+		}, from, to, 1));
+	}
+
+	/**
+	 * Play one canonical player hand against every dealer hand.
+	 * @return the tallies, counted once for every hand in the orbit of the
+	 *		   player hand; all zero if the hand is not in the deck
+	 */
+	Tally analyze (int index)
+	{
+		Tally result = new Tally ();
+		byte[] hand = new byte [CardsInHand];
+		CanonicalHand.valueOf (index, hand);
+		long playerSet = CardSet.valueOf (hand);
+		if (!CardSet.containsAll (deck, playerSet))
+			return result;
+
+		playersWay.set (hand);
+		int five = HandInfo.score5Int (hand, 0);
+		int two = HandInfo.score2Int (hand[CardsInFiveHand], hand[CardsInFiveHand + 1]);
+
+		long rest = CardSet.difference (deck, playerSet);
+		Tally tally = new Tally ();
+
+		// Every dealer hand, by its ranks, as if it could not make a flush.
+		int[] left = new int [MaxRank + 1];
+		left[0] = CardSet.hasJoker (rest) ? 1 : 0;
+		for (byte rank = MinRank; rank <= MaxRank; ++rank)
+			left[rank] = CardSet.rankCount (rest, rank);
+		for (int i = 0; i < patterns.length; ++i)
+		{
+			long ways = 1;
+			for (int entry : patterns[i])
+				ways *= Choose[left[entry >>> 3]][entry & 7];
+			if (ways != 0)
+				count (five, two, patternHands[i], ways, tally);
+		}
+
+		// The dealer hands that can make a flush, by the flush suit, which
+		// holds more than half the other cards and so is the only one.
+		long joker = rest & CardSet.JokerBit;
+		for (int jokers = 0; jokers <= (joker == 0 ? 0 : 1); ++jokers)
+		{
+			int others = CardsInHand - jokers;
+			for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+			{
+				long suited = CardSet.Empty;
+				for (int ranks = CardSet.suitRanks (rest, suit); ranks != 0; ranks &= ranks - 1)
+					suited = CardSet.add (suited, Card.value ((byte) Integer.numberOfTrailingZeros (ranks), suit));
+				long[] inSuit = cardsOf (suited);
+				long[] offSuit = cardsOf (CardSet.difference (rest, suited | CardSet.JokerBit));
+				for (int k = CardsInFiveHand - jokers; k <= others && k <= inSuit.length; ++k)
+					dealFlush (inSuit, 0, k, offSuit, others - k, jokers == 0 ? 0 : joker, five, two, tally);
+			}
+		}
+
+		result.add (tally, CanonicalHand.orbitSize (index));
+		return result;
+	}
+
+	// The cards of a set, one to a set.
+	private static long[] cardsOf (long set)
+	{
+		long[] cards = new long [CardSet.size (set)];
+		for (int i = 0; i < cards.length; ++i)
+		{
+			cards[i] = Long.lowestOneBit (set);
+			set &= set - 1;
+		}
+		return cards;
+	}
+
+	// Deal the dealer the rest of the flush suit from suited[start...],
+	// then the rest of the hand from the other suits.
+	private void dealFlush (long[] suited, int start, int left, long[] others, int othersLeft, long set,
+							int five, int two, Tally tally)
+	{
+		if (left == 0)
+		{
+			deal (others, 0, othersLeft, set, five, two, tally);
+			return;
+		}
+		for (int i = start; i <= suited.length - left; ++i)
+			dealFlush (suited, i + 1, left - 1, others, othersLeft, set | suited[i], five, two, tally);
+	}
+
+	// Deal the dealer the rest of a hand from cards[start...].  Where the
+	// hand, which can make a flush, sets otherwise than a hand of its
+	// ranks that cannot, move its count.
+	private void deal (long[] cards, int start, int left, long set, int five, int two, Tally tally)
+	{
+		if (left == 0)
+		{
+			int index = CanonicalHand.indexOf (set);
+			int plainIndex = plain[index];
+			if (dealerFive[index] != dealerFive[plainIndex] || dealerTwo[index] != dealerTwo[plainIndex])
+			{
+				count (five, two, plainIndex, -1, tally);
+				count (five, two, index, 1, tally);
+			}
+			return;
+		}
+
+		for (int i = start; i <= cards.length - left; ++i)
+			deal (cards, i + 1, left - 1, set | cards[i], five, two, tally);
+	}
+
+	// Tally the given number of dealer hands that set as a canonical hand.
+	private void count (int five, int two, int index, long hands, Tally tally)
+	{
+		int fiveResult = compare (five, dealerFive[index]);
+		int twoResult = compare (two, dealerTwo[index]);
+		if (fiveResult > 0 && twoResult > 0)
+			tally.wins += hands;
+		else if (fiveResult < 0 && twoResult < 0)
+			tally.losses += hands;
+		else
+			tally.pushes += hands;
+	}
+
+	// Copies go to the banker.
+	private int compare (int player, int dealer)
+	{
+		if (player != dealer)
+			return player > dealer ? 1 : -1;
+		return banker ? 1 : -1;
+	}
+
+	/**
+	 * Something to do for each of a range of canonical hands.
+	 */
+	private interface Task
+	{
+		/**
+		 * @return tallies, or null for none
+		 */
+		Tally run (int index);
+	}
+
+	/**
+	 * A range of canonical hands, split in halves until small, with the
+	 * tallies of the halves merged.
+	 */
+	private static class Range extends RecursiveTask<Tally>
+	{
+		private final Task task;
+		private final int from;
+		private final int to;
+		private final int chunk;
+
+		Range (Task task, int from, int to, int chunk)
+		{
+			this.task = task;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected Tally compute ()
+		{
+			Tally result = new Tally ();
+			if (to - from <= chunk)
+			{
+				for (int index = from; index < to; ++index)
+				{
+					Tally tally = task.run (index);
+					if (tally != null)
+						result.add (tally, 1);
+				}
+			}
+			else
+			{
+				int mid = (from + to) >>> 1;
+				Range upper = new Range (task, mid, to, chunk);
+				upper.fork ();
+				result.add (new Range (task, from, mid, chunk).compute (), 1);
+				result.add (upper.join (), 1);
+			}
+			return result;
+		}
+	}
+
+	//=======================================================================
+	// Command line.
+	//=======================================================================
+
+	public static void main (String[] args)
+		throws IOException
+	{
+		String way = "wong";
+		boolean banker = false;
+		double commissionRate = new PaiGowMachine ().getCommissionRate ();
+		int from = 0;
+		int to = CanonicalHand.Size;
+		int block = 64;
+		File checkpoint = null;
+
+		for (int i = 0; i < args.length; ++i)
+		{
+			String arg = args[i];
+			if (arg.equalsIgnoreCase ("-way") && i + 1 < args.length)
+				way = args[++i];
+			else if (arg.equalsIgnoreCase ("-banker"))
+				banker = true;
+			else if (arg.equalsIgnoreCase ("-commission") && i + 1 < args.length)
+				commissionRate = Double.parseDouble (args[++i]);
+			else if (arg.equalsIgnoreCase ("-from") && i + 1 < args.length)
+				from = Integer.parseInt (args[++i]);
+			else if (arg.equalsIgnoreCase ("-to") && i + 1 < args.length)
+				to = Integer.parseInt (args[++i]);
+			else if (arg.equalsIgnoreCase ("-block") && i + 1 < args.length)
+				block = Integer.parseInt (args[++i]);
+			else if (arg.equalsIgnoreCase ("-checkpoint") && i + 1 < args.length)
+				checkpoint = new File (args[++i]);
+			else
+				usage ();
+		}
+		if (from < 0 || to > CanonicalHand.Size || from >= to || block <= 0)
+			usage ();
+
+		HouseWay playersWay = makeHouseWay (way, banker);
+		HouseWay dealersWay = makeHouseWay (way, !banker);
+		if (playersWay == null)
+			usage ();
+		Analyzer analyzer = new Analyzer (playersWay, dealersWay, banker);
+
+		// The options that must match for a checkpoint to be resumed.
+		String config = way + (banker ? " banker " : " player ") + from + "-" + to;
+
+		Tally total = new Tally ();
+		int next = from;
+		if (checkpoint != null && checkpoint.exists ())
+		{
+			Properties props = load (checkpoint);
+			if (!config.equals (props.getProperty ("config")))
+			{
+				System.err.println (checkpoint + " is for " + props.getProperty ("config") +
+					", not " + config);
+				System.exit (2);
+			}
+			next = Integer.parseInt (props.getProperty ("next"));
+			total = new Tally (Long.parseLong (props.getProperty ("wins")),
+							   Long.parseLong (props.getProperty ("losses")),
+							   Long.parseLong (props.getProperty ("pushes")));
+			System.out.println ("Resuming at " + next + " from " + checkpoint);
+		}
+
+		long start = System.nanoTime ();
+		if (next < to)
+		{
+			analyzer.prepare ();
+			System.out.println ("Set " + CanonicalHand.Size + " dealer hands in " +
+				seconds (System.nanoTime () - start) + " s");
+		}
+
+		start = System.nanoTime ();
+		int first = next;
+		while (next < to)
+		{
+			int end = Math.min (to, next + block);
+			total.add (analyzer.analyze (next, end), 1);
+			next = end;
+
+			if (checkpoint != null)
+				save (checkpoint, config, next, total);
+
+			// Progress, in canonical player hands.
+			long nanos = System.nanoTime () - start;
+			double rate = (next - first) * 1e9 / nanos;
+			System.out.println (next + "/" + to +
+				" (" + percent ((double) (next - from) / (to - from)) + "%)" +
+				", " + Math.round (rate * 1000) / 1000.0 + " player hands/s" +
+				", " + Math.round (rate * total.getTotal () / (next - from)) + " pairs/s" +
+				", about " + Math.round ((to - next) / rate) + " s to go" +
+				", house edge so far " + percent (total.getHouseEdge (commissionRate)) + "%");
+		}
+
+		report (total, commissionRate, from == 0 && to == CanonicalHand.Size);
+	}
+
+	private static HouseWay makeHouseWay (String way, boolean banker)
+	{
+		if (way.equalsIgnoreCase ("wong"))
+			return new WongWay (banker);
+		if (way.equalsIgnoreCase ("base"))
+			return new HouseWay (banker);
+		return null;
+	}
+
+	private static void report (Tally total, double commissionRate, boolean complete)
+	{
+		System.out.println ();
+		if (!complete)
+			System.out.println ("Partial results, for the given range of player hands only.");
+		System.out.println ("Pairs of hands:  " + total.getTotal ());
+		System.out.println ("Player wins:     " + total.getWins () + " (" +
+			percent ((double) total.getWins () / total.getTotal ()) + "%)");
+		System.out.println ("Player losses:   " + total.getLosses () + " (" +
+			percent ((double) total.getLosses () / total.getTotal ()) + "%)");
+		System.out.println ("Pushes:          " + total.getPushes () + " (" +
+			percent ((double) total.getPushes () / total.getTotal ()) + "%)");
+		System.out.println ("Commission:      " + percent (total.getCommission (commissionRate)) + "% of bets");
+		System.out.println ("House edge:      " + percent (total.getHouseEdge (commissionRate)) + "%");
+	}
+
+	private static Properties load (File file)
+		throws IOException
+	{
+		Properties props = new Properties ();
+		InputStream in = new FileInputStream (file);
+		try
+		{
+			props.load (in);
+		}
+		finally
+		{
+			in.close ();
+		}
+		return props;
+	}
+
+	// Write a new checkpoint beside the old, then replace the old, so that
+	// a run stopped while writing leaves the old one whole.
+	private static void save (File file, String config, int next, Tally total)
+		throws IOException
+	{
+		Properties props = new Properties ();
+		props.setProperty ("config", config);
+		props.setProperty ("next", String.valueOf (next));
+		props.setProperty ("wins", String.valueOf (total.getWins ()));
+		props.setProperty ("losses", String.valueOf (total.getLosses ()));
+		props.setProperty ("pushes", String.valueOf (total.getPushes ()));
+
+		File temp = new File (file.getPath () + ".tmp");
+		OutputStream out = new FileOutputStream (temp);
+		try
+		{
+			props.store (out, "pai gow analyzer checkpoint");
+		}
+		finally
+		{
+			out.close ();
+		}
+		if (!temp.renameTo (file))
+		{
+			file.delete ();
+			if (!temp.renameTo (file))
+				throw new IOException ("cannot replace " + file);
+		}
+	}
+
+	private static String seconds (long nanos)
+	{
+		return String.valueOf (nanos / 1000000 / 1000.0);
+	}
+
+	private static String percent (double fraction)
+	{
+		return String.valueOf (Math.round (fraction * 1e6) / 1e4);
+	}
+
+	private static void usage ()
+	{
+		System.err.println ("Usage: java net.ech.casino.paigow.Analyzer [-way wong|base] [-banker]");
+		System.err.println ("		[-commission rate] [-from index] [-to index] [-block count]");
+		System.err.println ("		[-checkpoint file]");
+		System.exit (2);
+	}
+}
@@ -0,0 +1,358 @@
+//
+// CanonicalHand.java
+//
+
+package net.ech.casino.paigow;
+
+import net.ech.casino.Card;
+import net.ech.casino.CardSet;
+
+/**
+ * CanonicalHand numbers the seven-card hands of the 53-card pai gow deck
+ * up to a renaming of suits.  Hands that differ only by a permutation of
+ * suits set the same way, so a table indexed by canonical hand holds one
+ * entry where a table of all hands would hold as many as 24.
+ * <p>
+ * A hand is canonicalized by ordering its suits by the number of cards
+ * of each suit and then by the ranks held in each suit; the canonical
+ * hand gives the first suit in that order the diamonds, the second the
+ * clubs, and so on.  The index of a hand is computed from the counts and
+ * rank sets by the combinatorial number system, so that every index from
+ * 0 to Size - 1 stands for exactly one canonical hand.
+ *
+ * @see net.ech.casino.paigow.HouseWayTable
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class CanonicalHand implements Constants
+{
+	private final static int RankBits = NumberOfRanks;
+	private final static int MaxCount = 7;
+
+	// Binomial coefficients, large enough for colex ranks of multisets,
+	// MaxCount + 1 to a row.
+	private final static int MaxN = 1800;
+	private final static int[] Binomial = new int [MaxN * (MaxCount + 1)];
+
+	// The colex rank of each rank set among the sets of its size, and the
+	// rank sets of each size in order of colex rank.
+	private final static int[] SubsetRank = new int [1 << RankBits];
+	private final static int[][] Subsets = new int [MaxCount + 1][];
+
+	// The suit-count configurations, in index order.  A configuration is
+	// the suit counts in non-increasing order plus the joker flag.  The
+	// index of a hand within its configuration is the sum over the four
+	// suits, in canonical order, of a weight times a binomial coefficient
+	// C(x + k - 1, k), where x is the colex rank of the suit's rank set and
+	// k the number of suits from this one to the end of its group of suits
+	// with equal counts.
+	private final static int[] ConfigOfKey = new int [1 << 10];
+	private final static int[][] configCounts;
+	private final static boolean[] configJoker;
+	private final static int[] configOffset;
+	private final static int[] configWeight;
+	private final static int[] configK;
+
+	/**
+	 * The number of canonical hands.
+	 */
+	public final static int Size;
+
+	static
+	{
+		for (int n = 0; n < MaxN; ++n)
+		{
+			Binomial[n * (MaxCount + 1)] = 1;
+			for (int k = 1; k <= MaxCount && k <= n; ++k)
+				Binomial[n * (MaxCount + 1) + k] = choose (n - 1, k - 1) + choose (n - 1, k);
+		}
+
+		for (int c = 0; c <= MaxCount; ++c)
+			Subsets[c] = new int [choose (RankBits, c)];
+		for (int mask = 0; mask < (1 << RankBits); ++mask)
+		{
+			int c = Integer.bitCount (mask);
+			if (c > MaxCount)
+				continue;
+			int rank = 0;
+			int k = 0;
+			for (int bits = mask; bits != 0; bits &= bits - 1)
+				rank += choose (Integer.numberOfTrailingZeros (bits), ++k);
+			SubsetRank[mask] = rank;
+			Subsets[c][rank] = mask;
+		}
+
+		java.util.Arrays.fill (ConfigOfKey, -1);
+		int[][] counts = new int [64][];
+		boolean[] joker = new boolean [64];
+		int[] offset = new int [65];
+		int n = 0;
+		for (int j = 0; j <= 1; ++j)
+		{
+			int total = CardsInHand - j;
+			for (int c0 = total; c0 >= 0; --c0)
+			for (int c1 = Math.min (c0, total - c0); c1 >= 0; --c1)
+			for (int c2 = Math.min (c1, total - c0 - c1); c2 >= 0; --c2)
+			{
+				int c3 = total - c0 - c1 - c2;
+				if (c3 > c2)
+					continue;
+				counts[n] = new int[] { c0, c1, c2, c3 };
+				joker[n] = j != 0;
+				ConfigOfKey[key (counts[n], j != 0)] = n;
+				offset[n + 1] = offset[n] + configSize (counts[n]);
+				++n;
+			}
+		}
+		configCounts = new int [n][];
+		configJoker = new boolean [n];
+		configOffset = new int [n + 1];
+		System.arraycopy (counts, 0, configCounts, 0, n);
+		System.arraycopy (joker, 0, configJoker, 0, n);
+		System.arraycopy (offset, 0, configOffset, 0, n + 1);
+		Size = configOffset[n];
+
+		configWeight = new int [n * 4];
+		configK = new int [n * 4];
+		for (int config = 0; config < n; ++config)
+		{
+			int[] c = configCounts[config];
+			int weight = 1;
+			for (int j = 4; j > 0; )
+			{
+				int i = j;
+				while (i > 0 && c[i - 1] == c[j - 1])
+					--i;
+				for (int p = i; p < j; ++p)
+				{
+					configWeight[config * 4 + p] = weight;
+					configK[config * 4 + p] = j - p;
+				}
+				weight *= groupSize (c[i], j - i);
+				j = i;
+			}
+		}
+	}
+
+	/**
+	 * Do not instantiate.
+	 */
+	private CanonicalHand ()
+	{
+	}
+
+	// The count of the fourth suit follows from the others.
+	private static int key (int[] counts, boolean joker)
+	{
+		return key (counts[0], counts[1], counts[2], joker);
+	}
+
+	private static int key (int c0, int c1, int c2, boolean joker)
+	{
+		return (joker ? 1 << 9 : 0) | (c0 << 6) | (c1 << 3) | c2;
+	}
+
+	private static int choose (int n, int k)
+	{
+		return Binomial[n * (MaxCount + 1) + k];
+	}
+
+	// The number of multisets of m rank sets of c ranks each.
+	private static int groupSize (int c, int m)
+	{
+		return choose (choose (RankBits, c) + m - 1, m);
+	}
+
+	private static int configSize (int[] counts)
+	{
+		int size = 1;
+		for (int i = 0; i < counts.length; )
+		{
+			int j = i;
+			while (j < counts.length && counts[j] == counts[i])
+				++j;
+			size *= groupSize (counts[i], j - i);
+			i = j;
+		}
+		return size;
+	}
+
+	/**
+	 * Get the index of the canonical form of a hand.
+	 * @param hand	seven distinct cards, of which at most one is the joker
+	 * @return an index from 0 to Size - 1
+	 */
+	public static int indexOf (byte[] hand)
+	{
+		return indexOf (hand, null);
+	}
+
+	/**
+	 * Get the index of the canonical form of a hand, and the renaming of
+	 * suits that turns the hand into its canonical form.
+	 * @param hand	seven distinct cards, of which at most one is the joker
+	 * @param suitMap	if not null, receives at index s the canonical suit
+	 *					of suit s; must have room for the highest suit
+	 * @return an index from 0 to Size - 1
+	 */
+	public static int indexOf (byte[] hand, byte[] suitMap)
+	{
+		return indexOf (CardSet.valueOf (hand, 0, CardsInHand), suitMap);
+	}
+
+	/**
+	 * Get the index of the canonical form of a hand given as a CardSet.
+	 * @param set	seven cards, of which at most one is the joker
+	 * @return an index from 0 to Size - 1
+	 */
+	public static int indexOf (long set)
+	{
+		return indexOf (set, null);
+	}
+
+	/**
+	 * Get the index of the canonical form of a hand given as a CardSet,
+	 * and the renaming of suits that turns the hand into its canonical
+	 * form.
+	 * @param set	seven cards, of which at most one is the joker
+	 * @param suitMap	if not null, receives at index s the canonical suit
+	 *					of suit s; must have room for the highest suit
+	 * @return an index from 0 to Size - 1
+	 */
+	public static int indexOf (long set, byte[] suitMap)
+	{
+		// A CardSet has a 16-bit lane of rank bits per suit, with the joker
+		// in bit 0.
+		boolean joker = CardSet.hasJoker (set);
+		int rankMask = CardSet.RankMask;
+
+		// Sort keys of (count, colex rank, suit) in descending order.  Of
+		// two suits that hold the same ranks, the lower comes first, so
+		// that a canonical hand is its own canonical form.  The sorting
+		// network compiles to conditional moves; with branches, a random
+		// hand would mispredict about half of them.
+		long k0 = sortKey ((int) set & rankMask, 3);
+		long k1 = sortKey ((int) (set >>> 16) & rankMask, 2);
+		long k2 = sortKey ((int) (set >>> 32) & rankMask, 1);
+		long k3 = sortKey ((int) (set >>> 48) & rankMask, 0);
+		long t;
+		t = Math.max (k0, k1); k1 = Math.min (k0, k1); k0 = t;
+		t = Math.max (k2, k3); k3 = Math.min (k2, k3); k2 = t;
+		t = Math.max (k0, k2); k2 = Math.min (k0, k2); k0 = t;
+		t = Math.max (k1, k3); k3 = Math.min (k1, k3); k1 = t;
+		t = Math.max (k1, k2); k2 = Math.min (k1, k2); k1 = t;
+
+		if (suitMap != null)
+		{
+			suitMap[Spades - (int) (k0 & 3)] = Diamonds;
+			suitMap[Spades - (int) (k1 & 3)] = Clubs;
+			suitMap[Spades - (int) (k2 & 3)] = Hearts;
+			suitMap[Spades - (int) (k3 & 3)] = Spades;
+		}
+
+		int config = ConfigOfKey[key ((int) (k0 >>> 32), (int) (k1 >>> 32), (int) (k2 >>> 32), joker)];
+		int base = config * 4;
+		return configOffset[config] +
+			configWeight[base] * term (k0, configK[base]) +
+			configWeight[base + 1] * term (k1, configK[base + 1]) +
+			configWeight[base + 2] * term (k2, configK[base + 2]) +
+			configWeight[base + 3] * term (k3, configK[base + 3]);
+	}
+
+	private static int term (long sortKey, int k)
+	{
+		int x = (int) (sortKey & 0xffffffffL) >>> 2;
+		return choose (x + k - 1, k);
+	}
+
+	// The lane holds rank bits from MinRank up.
+	private static long sortKey (int lane, int tieBreak)
+	{
+		lane >>>= MinRank;
+		return ((long) Integer.bitCount (lane) << 32) | ((long) SubsetRank[lane] << 2) | tieBreak;
+	}
+
+	/**
+	 * Get the number of hands whose canonical form is the hand of the given
+	 * index.  This is 24, the number of renamings of suits, divided by the
+	 * number of renamings that leave the hand as it is; those exchange
+	 * suits that hold the same ranks.
+	 * @param index	a number from 0 to Size - 1
+	 */
+	public static int orbitSize (int index)
+	{
+		byte[] hand = new byte [CardsInHand];
+		valueOf (index, hand);
+		long set = CardSet.valueOf (hand);
+
+		// Of a group of m suits with the same ranks, the i-th divides by i,
+		// for m! in all.
+		int size = 4 * 3 * 2;
+		for (byte s = Clubs; s <= Spades; ++s)
+		{
+			int same = 1;
+			for (byte t = Diamonds; t < s; ++t)
+			{
+				if (CardSet.suitRanks (set, t) == CardSet.suitRanks (set, s))
+					++same;
+			}
+			size /= same;
+		}
+		return size;
+	}
+
+	/**
+	 * Get the canonical hand of the given index.
+	 * @param index	a number from 0 to Size - 1
+	 * @param hand	receives the seven cards, in ascending order of value
+	 */
+	public static void valueOf (int index, byte[] hand)
+	{
+		if (index < 0 || index >= Size)
+			throw new IllegalArgumentException ("index out of range: " + index);
+
+		int config = configCounts.length - 1;
+		while (configOffset[config] > index)
+			--config;
+		int[] counts = configCounts[config];
+		int rest = index - configOffset[config];
+
+		// Unpack the groups, last first.
+		int[] lanes = new int [4];
+		for (int j = 4; j > 0; )
+		{
+			int i = j;
+			while (i > 0 && counts[i - 1] == counts[j - 1])
+				--i;
+			int m = j - i;
+			int size = groupSize (counts[i], m);
+			int rank = rest % size;
+			rest /= size;
+
+			// Colex unranking; the k-th smallest element is x + k - 1
+			// for the rank set of colex rank x.
+			for (int k = m; k >= 1; --k)
+			{
+				int a = k - 1;
+				while (choose (a + 1, k) <= rank)
+					++a;
+				rank -= choose (a, k);
+				lanes[i + m - k] = Subsets[counts[i]][a - k + 1];
+			}
+			j = i;
+		}
+
+		int n = 0;
+		for (int s = 0; s < 4; ++s)
+		{
+			for (int bits = lanes[s]; bits != 0; bits &= bits - 1)
+			{
+				hand[n++] = Card.value ((byte) (MinRank + Integer.numberOfTrailingZeros (bits)),
+										(byte) (Diamonds + s));
+			}
+		}
+		if (configJoker[config])
+			hand[n++] = Joker;
+	}
+}
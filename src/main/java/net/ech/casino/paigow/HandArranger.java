@@ -73,7 +73,7 @@ class HandArranger implements Constants
 			// Conservative Way: Always play the straight flush in the high 
 			// hand.  If player is holding extra straight cards, play the 
 			// highest two other cards in the low hand.
-			System.out.println("The player has a ace low straight flush.");
+			// System.out.println("The player has a ace low straight flush.");
 			int[] notsf = new int[2];
 			int nsfindex = 0;
 			int sfStart = sh.getSFStartIndex();
@@ -90,8 +90,8 @@ class HandArranger implements Constants
 			}
 
 			// Put remaining non-straight flush cards into the notsf array.
-			System.out.println("nsfindex: " + nsfindex);
-			System.out.println("sfStart: " + sfStart + " sfEnd: " + sfEnd);
+			// System.out.println("nsfindex: " + nsfindex);
+			// System.out.println("sfStart: " + sfStart + " sfEnd: " + sfEnd);
 			for (int i = 0; i < highCardIndex; i++) {
 				if (nsfindex < 2 && (i < sfStart || i > sfEnd)) { 
 					notsf[nsfindex] = i;
@@ -103,7 +103,7 @@ class HandArranger implements Constants
 				// If the longest straight flush is equal to the number of
 				// cards in the hand then put the highest straight flush
 				// cards into the low hand.
-				System.out.println("whole hand is a straight flush.");
+				// System.out.println("whole hand is a straight flush.");
 				int tempindex1 = highCardIndex - sh.getAce();
 				int tempindex2 = highCardIndex - 1 - sh.getAce();
 				switchCards(hand, cardIndex, tempindex1,
@@ -115,7 +115,7 @@ class HandArranger implements Constants
 				// If longest straight flush is 6 cards then put the
 				// highest straight flush card and the card that isn't
 				// part of the straight flush into the low hand.
-				System.out.println("All but one card is in straight flush.");
+				// System.out.println("All but one card is in straight flush.");
 				int tempindex1 = highCardIndex - sh.getAce();
 				int tempindex2 = notsf[0];
 				if (tempindex1 == tempindex2)
@@ -6,6 +6,7 @@ package net.ech.casino.paigow;
 
 import net.ech.casino.Card;
 import net.ech.casino.PokerScore;
+import net.ech.casino.WildCardEvaluator;
 
 /**
  * A HandInfo object is a digested pai gow poker hand.
@@ -22,18 +23,7 @@ public class HandInfo implements Constants
 	 */
 	public static PokerScore score2 (byte[] hand, int start)
 	{
-		byte rank0 = Card.rankOf (hand[start + 0]);
-		byte rank1 = Card.rankOf (hand[start + 1]);
-
-		if (rank0 == NilRank /* joker */) rank0 = Ace;
-		if (rank1 == NilRank /* joker */) rank1 = Ace;
-
-		if (rank0 == rank1)
-			return PokerScore.makePair (rank0);
-		else if (rank0 > rank1)
-			return PokerScore.makeHighCard (rank0, rank1);
-		else 
-			return PokerScore.makeHighCard (rank1, rank0);
+		return PokerScore.valueOf (score2Int (hand, start));
 	}
 
 	/**
@@ -41,57 +31,57 @@ public class HandInfo implements Constants
 	 */
 	public static PokerScore score5 (byte[] hand, int start)
 	{
-		HandInfo info = new HandInfo (hand, start);
-
-		if (info.hasTuple (5))
-			return PokerScore.makeFiveOfAKind (Ace);
-
-		if (isFlush (hand, start))
-		{
-			// Look for ace-low straight first, in case of jo-2-3-4-5.
-			if (info.isAceLowStraight ())
-				return PokerScore.makeAceLowStraightFlush ();
-
-			if (info.isStraight ())
-				return PokerScore.makeStraightFlush (info.getStraightRank ());
-
-			return PokerScore.makeFlush (info.getRank (0), info.getRank(1),
-										 info.getRank (2), info.getRank(3));
-		}
-
-		if (info.hasTuple (4))
-			return PokerScore.makeFourOfAKind (info.getRank (4, 0));
-
-		if (info.hasTuple (3) && info.hasTuple (2))
-			return PokerScore.makeFullHouse (info.getRank (3, 0),
-											 info.getRank (2, 0));
+		return PokerScore.valueOf (score5Int (hand, start));
+	}
 
-		// Look for ace-low straight first, in case of jo-2-3-4-5.
-		if (info.isAceLowStraight ())
-			return PokerScore.makeAceLowStraight ();
+	/**
+	 * Score a two-card hand without allocating any objects.
+	 * @return the packed score, equivalent to that of <code>score2</code>
+	 * @see net.ech.casino.PokerScore#build
+	 */
+	public static int score2Int (byte[] hand, int start)
+	{
+		return score2Int (hand[start + 0], hand[start + 1]);
+	}
 
-		if (info.isStraight ())
-			return PokerScore.makeStraight (info.getStraightRank ());
+	/**
+	 * Score a two-card hand given as two cards.
+	 */
+	static int score2Int (byte card0, byte card1)
+	{
+		byte rank0 = Card.rankOf (card0);
+		byte rank1 = Card.rankOf (card1);
 
-		if (info.hasTuple (3))
-			return PokerScore.makeThreeOfAKind (info.getRank (3, 0));
+		if (rank0 == NilRank /* joker */) rank0 = Ace;
+		if (rank1 == NilRank /* joker */) rank1 = Ace;
 
-		if (info.getPairCount () == 2)
-			return PokerScore.makeTwoPair (info.getRank (2, 0),
-										   info.getRank (2, 1),
-										   info.getRank (1, 0));
+		if (rank0 == rank1)
+			return PokerScore.build (PokerScore.Pair, rank0);
+		else if (rank0 > rank1)
+			return PokerScore.build (rank0, rank1);
+		else 
+			return PokerScore.build (rank1, rank0);
+	}
 
-		if (info.getPairCount () > 0)
-			return PokerScore.makePair (info.getRank (2, 0),
-										info.getRank (1, 0),
-										info.getRank (1, 1),
-										info.getRank (1, 2));
+	/**
+	 * Score a five-card hand by table lookup, without allocating any
+	 * objects.
+	 * @return the packed score, equivalent to that of <code>score5</code>
+	 * @see net.ech.casino.PokerScore#build
+	 */
+	public static int score5Int (byte[] hand, int start)
+	{
+		return WildCardEvaluator.PaiGow.score (hand, start);
+	}
 
-		return PokerScore.makeHighCard (info.getRank (0),
-										info.getRank (1),
-										info.getRank (2),
-										info.getRank (3),
-										info.getRank (4));
+	/**
+	 * Look up a five-card hand by its digest.
+	 * @return the packed score
+	 * @see net.ech.casino.WildCardEvaluator#lookup
+	 */
+	static int lookup5 (int mask, int product, boolean flush, int jokers)
+	{
+		return WildCardEvaluator.PaiGow.lookup (mask, product, flush, jokers);
 	}
 
 	/**
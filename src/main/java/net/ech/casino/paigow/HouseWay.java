@@ -10,31 +10,61 @@ import net.ech.casino.PokerScore;
 /**
  * Class HouseWay implements common-sense rules for setting hands,
  * and lets the subclass add strategy.
+ * <p>
+ * A HouseWay holds no per-hand state, so one instance may set hands for
+ * any number of threads at once.  The scratch space for setting a hand
+ * lives in a SettingScorer, which the caller may supply; otherwise each
+ * thread gets one of its own.
+ * <p>
+ * A HouseWay may be given a HouseWayCache, in which case the strategy
+ * is applied once per shape of hand: a hand whose cards differ from one
+ * already set only by a renaming of suits is set the same way.
  * 
  * @version 1.1
  * @author James Echmalian, ech@ech.net
  */
 public class HouseWay implements Constants
 {
-	private boolean banker;
-	private boolean working;
+	private final boolean banker;
+	private final HouseWayCache cache;
 
-	// Temporary hack, until this class and WongWay get better structured.
-	protected byte[] hand;
+	// Scratch space for callers that do not supply their own.
+	private final static ThreadLocal<SettingScorer> scorers =
+		new ThreadLocal<SettingScorer> ()
+		{
+			@Override
+			protected SettingScorer initialValue ()
+			{
+				return new SettingScorer ();
+			}
+		};
 
 	/**
 	 * Constructor.
 	 */
 	public HouseWay ()
 	{
+		this (false);
 	}
 
 	/**
 	 * Constructor.
 	 */
 	public HouseWay (boolean banker)
+	{
+		this (banker, null);
+	}
+
+	/**
+	 * Constructor.
+	 * @param banker	whether hands are set for the banker
+	 * @param cache		where to remember decisions, or null; not to be
+	 *					shared with any other house way
+	 */
+	public HouseWay (boolean banker, HouseWayCache cache)
 	{
 		this.banker = banker;
+		this.cache = cache;
 	}
 
 	/**
@@ -45,93 +75,94 @@ public class HouseWay implements Constants
 		return banker;
 	}
 
+	/**
+	 * Get the cache of decisions, or null if there is none.
+	 */
+	public HouseWayCache getCache ()
+	{
+		return cache;
+	}
+
 	/**
 	 * Set this hand the "house" way.
 	 */
 	public void set (byte[] hand)
 	{
-		if (working)
-		{
-			throw new RuntimeException ("HouseWay is not synchronized");
-		}
-
-		working = true;
-		try
-		{
-			this.hand = hand;
-			work();
-		}
-		finally
-		{
-			working = false;
-		}
+		set (hand, scorers.get ());
 	}
 
-	private void work ()
+	/**
+	 * Set this hand the "house" way, using the given scratch space.
+	 * @param hand		the seven cards, rearranged in place
+	 * @param scorer	scratch space, not in use by any other thread
+	 */
+	public void set (byte[] hand, SettingScorer scorer)
 	{
-		// Make a list of all possible settings.
-		Setting[] settings = Setting.getAllSettings ();
-		ScoredSetting[] scoredSettings =
-			new ScoredSetting [settings.length];
+		// Score all settings, dropping fouls and dominated settings.
+		int n = scorer.score (hand);
 
-		// Score each setting.	Keep only the non-foul settings.
-		int n = 0;
-		for (int i = 0; i < settings.length; ++i)
+		int setting;
+		if (n == 1)
 		{
-			byte[] setHand = settings[i].set (hand);
-			PokerScore fiveScore = HandInfo.score5 (setHand, 0);
-			PokerScore twoScore = HandInfo.score2 (setHand, CardsInFiveHand);
-			if (fiveScore.compareTo (twoScore) > 0)
-				scoredSettings[n++] = new ScoredSetting (settings[i], 
-														  fiveScore,
-														  twoScore);
+			setting = scorer.getCandidate (0);
 		}
-		if (n == 0)
-			throw new RuntimeException ("No non-foul settings!!!");
-
-		// Purge "dominated" settings.	A dominated setting is one that
-		// another setting beats or equals in both hands.
-		//
-		for (int i = 0; i < n; ++i)
+		else if (cache != null)
 		{
-			ScoredSetting si = scoredSettings[i];
-			if (si == null)
-				continue;
-
-			for (int j = i + 1; j < n; ++j)
+			// The candidates have distinct five-card scores, and a renaming
+			// of suits changes no score, so the five-card score of the
+			// setting chosen identifies it for every hand of this shape.
+			long key = CardSet.canonical (CardSet.valueOf (hand));
+			int five = cache.get (key);
+			setting = five == HouseWayCache.Missing ? -1 : findCandidate (scorer, five);
+			if (setting < 0)
 			{
-				ScoredSetting sj = scoredSettings[j];
-				if (sj == null)
-					continue;
-
-				int cmp5 = sj.fiveScore.compareTo (si.fiveScore);
-				int cmp2 = sj.twoScore.compareTo (si.twoScore);
-				if (cmp5 >= 0 && cmp2 >= 0)
-				{
-					scoredSettings[i] = null;
-					break;
-				}
-				if (cmp5 <= 0 && cmp2 <= 0)
-				{
-					scoredSettings[j] = null;
-				}
+				setting = chooseSetting (hand, scorer);
+				cache.put (key, scorer.getFiveScore (setting));
 			}
 		}
+		else
+		{
+			setting = chooseSetting (hand, scorer);
+		}
 
-		// Compaction.
-		scoredSettings = compact(scoredSettings);
-		if (scoredSettings.length == 0)
-			throw new RuntimeException ("All settings dominated!!!");
-
-		ScoredSetting finalSetting =
-			scoredSettings.length == 1 ? scoredSettings[0] : applyStrategy (scoredSettings);
-
-		byte[] finalHand = finalSetting.set (hand);
+		scorer.arrange (hand, setting);
 
 		// Final touch: sort the hand by descending rank.
-		sortHand (finalHand, finalSetting.fiveScore);
+		sortHand (hand, scorer.getFiveScore (setting));
+	}
+
+	/**
+	 * Of the candidates found by the scorer, pick the one to use.  There
+	 * are at least two.  By default, build ScoredSettings and let
+	 * applyStrategy choose; a subclass may override this method to choose
+	 * from the packed scores directly.
+	 * @param hand		the seven cards, as dealt
+	 * @param scorer	the scores and candidates of the hand
+	 * @return the index of the setting
+	 */
+	protected int chooseSetting (byte[] hand, SettingScorer scorer)
+	{
+		int n = scorer.getCandidateCount ();
+		ScoredSetting[] scoredSettings = new ScoredSetting [n];
+		for (int i = 0; i < n; ++i)
+		{
+			int s = scorer.getCandidate (i);
+			scoredSettings[i] = new ScoredSetting (s, 
+				PokerScore.valueOf (scorer.getFiveScore (s)),
+				PokerScore.valueOf (scorer.getTwoScore (s)));
+		}
+		return applyStrategy (hand, scoredSettings).index;
+	}
 
-		System.arraycopy (finalHand, 0, hand, 0, CardsInHand);
+	private static int findCandidate (SettingScorer scorer, int fiveScore)
+	{
+		for (int i = 0; i < scorer.getCandidateCount (); ++i)
+		{
+			int s = scorer.getCandidate (i);
+			if (scorer.getFiveScore (s) == fiveScore)
+				return s;
+		}
+		return -1;
 	}
 
 	/**
@@ -139,8 +170,10 @@ public class HouseWay implements Constants
 	 *
 	 * Subclass must override this method to apply more sophisticated
 	 * strategy.
+	 * @param hand	the seven cards, as dealt
+	 * @param ss	the candidate settings
 	 */
-	protected ScoredSetting applyStrategy (ScoredSetting[] ss)
+	protected ScoredSetting applyStrategy (byte[] hand, ScoredSetting[] ss)
 	{
 		// Default strategy: pick the setting with the highest two-card hand.
 		return best2Hand(ss);
@@ -185,7 +218,7 @@ public class HouseWay implements Constants
 	/**
 	 * Sort a 5/2 hand.
 	 */
-	private static void sortHand (byte[] hand, PokerScore fiveScore)
+	static void sortHand (byte[] hand, int fiveScore)
 	{
 		// Bubble it for starters.
 		for (int pass = 0; pass < CardsInFiveHand - 1; ++pass)
@@ -196,12 +229,12 @@ public class HouseWay implements Constants
 		sortPair (hand, CardsInFiveHand);
 
 		// Fix up the order of straights.
-		switch (fiveScore.getPrimary ())
+		switch (PokerScore.primaryOf (fiveScore))
 		{
 		case PokerScore.Straight:
 		case PokerScore.StraightFlush:
-			if (fiveScore.equals (PokerScore.makeAceLowStraight ()) ||
-				fiveScore.equals (PokerScore.makeAceLowStraightFlush ()))
+			if (PokerScore.rankOf (fiveScore, 0) == Ace &&
+				PokerScore.rankOf (fiveScore, 1) == Five)
 			{
 				// It's	   A-5-4-3-2 
 				// Make it 5-4-3-2-A 
@@ -263,19 +296,21 @@ public class HouseWay implements Constants
 	 */
 	protected static class ScoredSetting extends Setting
 	{
+		int index;
 		PokerScore fiveScore;
 		PokerScore twoScore;
 
-		ScoredSetting (Setting setting, PokerScore fiveScore,
+		ScoredSetting (int index, PokerScore fiveScore,
 					   PokerScore twoScore)
 		{
-			super (setting);
+			super (Setting.get (index));
+			this.index = index;
 			this.fiveScore = fiveScore;
 			this.twoScore = twoScore;
 		}
 	}
 
-	protected boolean handContainsJoker ()
+	protected static boolean containsJoker (byte[] hand)
 	{
 		for (int i = 0; i < hand.length; ++i)
 		{
@@ -0,0 +1,116 @@
+//
+// HouseWayBenchmark.java
+//
+
+package net.ech.casino.paigow;
+
+import java.util.zip.CRC32;
+
+/**
+ * Checks and times WongWay.  First WongWay sets every canonical hand, as
+ * banker and as player, and the CRC-32 of the hands as set is compared
+ * with that of the WongWay that chose from ScoredSettings, before it was
+ * moved onto packed scores.  Then WongWay is timed setting a sample of
+ * canonical hands, and the mean time per hand is reported in
+ * nanoseconds.  The base HouseWay, which still builds a ScoredSetting per
+ * candidate, is timed alongside for comparison.
+ * <p>
+ * On the machine where WongWay was moved onto packed scores, the
+ * ScoredSetting WongWay took about 820 ns per hand on this sample and
+ * the packed one about 725 ns.
+ * <p>
+ * Usage: java net.ech.casino.paigow.HouseWayBenchmark [passes]
+ * <p>
+ * The exit status is zero only if the digests agree.
+ */
+public class HouseWayBenchmark implements Constants
+{
+	// Every Stride-th canonical hand is timed.
+	private final static int Stride = 7;
+
+	// The CRC-32 of every canonical hand as set by the ScoredSetting
+	// WongWay, banker then player.
+	final static long ReferenceDigest = 0x3a14e762L;
+
+	public static void main (String[] args)
+	{
+		int passes = args.length > 0 ? Integer.parseInt (args[0]) : 3;
+
+		HouseWay[] baseWays = { new HouseWay (true), new HouseWay (false) };
+		HouseWay[] wongWays = { new WongWay (true), new WongWay (false) };
+		SettingScorer scorer = new SettingScorer ();
+
+		long digest = digest (wongWays, 1, scorer);
+		System.out.println ("Digest of " + CanonicalHand.Size + " hands: " +
+			(digest == ReferenceDigest ? "agrees" : "DIFFERS") + " (" + Long.toHexString (digest) + ")");
+
+		byte[][] sample = new byte [CanonicalHand.Size / Stride][CardsInHand];
+		for (int i = 0; i < sample.length; ++i)
+			CanonicalHand.valueOf (i * Stride, sample[i]);
+
+		System.out.println (pad ("pass", 8) + pad ("HouseWay ns", 16) + "WongWay ns");
+		for (int pass = 1; pass <= passes; ++pass)
+		{
+			double base = run (baseWays, sample, scorer);
+			double wong = run (wongWays, sample, scorer);
+			System.out.println (pad (String.valueOf (pass), 8) + pad (format (base), 16) + format (wong));
+		}
+
+		if (digest != ReferenceDigest)
+			System.exit (1);
+	}
+
+	/**
+	 * The CRC-32 of every stride-th canonical hand as set by the given
+	 * house ways in turn.
+	 */
+	static long digest (HouseWay[] ways, int stride, SettingScorer scorer)
+	{
+		CRC32 crc = new CRC32 ();
+		byte[] hand = new byte [CardsInHand];
+		for (int index = 0; index < CanonicalHand.Size; index += stride)
+		{
+			for (int b = 0; b < ways.length; ++b)
+			{
+				CanonicalHand.valueOf (index, hand);
+				ways[b].set (hand, scorer);
+				crc.update (hand, 0, CardsInHand);
+			}
+		}
+		return crc.getValue ();
+	}
+
+	private static long sink;
+
+	// The mean time, in nanoseconds, to set a hand.
+	private static double run (HouseWay[] ways, byte[][] sample, SettingScorer scorer)
+	{
+		byte[] hand = new byte [CardsInHand];
+		long start = System.nanoTime ();
+		int acc = 0;
+		for (int i = 0; i < sample.length; ++i)
+		{
+			for (int b = 0; b < ways.length; ++b)
+			{
+				System.arraycopy (sample[i], 0, hand, 0, CardsInHand);
+				ways[b].set (hand, scorer);
+				acc += hand[CardsInFiveHand];
+			}
+		}
+		sink += acc;
+		return (double) (System.nanoTime () - start) / (sample.length * ways.length);
+	}
+
+	private static String format (double n)
+	{
+		return String.valueOf (Math.round (n * 10) / 10.0);
+	}
+
+	private static String pad (String s, int width)
+	{
+		StringBuilder buf = new StringBuilder (s);
+		while (buf.length () < width)
+			buf.append (' ');
+		return buf.toString ();
+	}
+}
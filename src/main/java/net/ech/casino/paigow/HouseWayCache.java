@@ -0,0 +1,212 @@
+//
+// HouseWayCache.java
+//
+
+package net.ech.casino.paigow;
+
+/**
+ * A HouseWayCache remembers the decisions of a house way, keyed by the
+ * suit-canonical set of the seven cards, so that a hand of the same
+ * shape as one already seen is set by lookup rather than by applying
+ * the strategy again.
+ * <p>
+ * The cache is bounded and set-associative: a key may occupy one of
+ * four slots in the set its hash selects, and a new key evicts the
+ * least recently used of the four.	 Sets are guarded by a fixed number
+ * of locks, so that threads setting different hands seldom contend,
+ * and a lookup allocates nothing.
+ * <p>
+ * A cache holds the decisions of one house way.  The banker's and the
+ * player's ways differ, so each needs a cache of its own.
+ *
+ * @see net.ech.casino.paigow.HouseWay
+ * @see net.ech.casino.CardSet#canonical
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class HouseWayCache
+{
+	/**
+	 * The value returned by get for a key not in the cache.
+	 */
+	public final static int Missing = -1;
+
+	private final static int Ways = 4;
+	private final static int MaxStripes = 64;
+
+	private final int setMask;
+	private final long[] keys;
+	private final int[] values;
+
+	// Per-lock counters, updated under the lock.
+	private final Object[] locks;
+	private final long[] hits;
+	private final long[] misses;
+	private final long[] evictions;
+
+	/**
+	 * Constructor.
+	 * @param capacity	the maximum number of entries, rounded up to a
+	 *					power of two no less than 4
+	 */
+	public HouseWayCache (int capacity)
+	{
+		if (capacity <= 0)
+			throw new IllegalArgumentException ("capacity must be positive");
+
+		int sets = Integer.highestOneBit ((capacity - 1) | (Ways - 1)) * 2 / Ways;
+		setMask = sets - 1;
+		keys = new long [sets * Ways];
+		values = new int [sets * Ways];
+
+		int stripes = Math.min (sets, MaxStripes);
+		locks = new Object [stripes];
+		for (int i = 0; i < stripes; ++i)
+			locks[i] = new Object ();
+		hits = new long [stripes];
+		misses = new long [stripes];
+		evictions = new long [stripes];
+	}
+
+	/**
+	 * Get the maximum number of entries.
+	 */
+	public int getCapacity ()
+	{
+		return keys.length;
+	}
+
+	/**
+	 * Look up a decision.
+	 * @param key	a canonical card set, not empty
+	 * @return the value stored for the key, or Missing
+	 */
+	public int get (long key)
+	{
+		int set = setOf (key);
+		int stripe = set % locks.length;
+		synchronized (locks[stripe])
+		{
+			int base = set * Ways;
+			for (int i = base; i < base + Ways; ++i)
+			{
+				if (keys[i] == key)
+				{
+					int value = values[i];
+					moveToFront (base, i, key, value);
+					++hits[stripe];
+					return value;
+				}
+			}
+			++misses[stripe];
+			return Missing;
+		}
+	}
+
+	/**
+	 * Store a decision, evicting the least recently used entry of its set
+	 * if the set is full.
+	 * @param key	a canonical card set, not empty
+	 * @param value	any value but Missing
+	 */
+	public void put (long key, int value)
+	{
+		int set = setOf (key);
+		int stripe = set % locks.length;
+		synchronized (locks[stripe])
+		{
+			int base = set * Ways;
+			int i = base;
+			while (i < base + Ways - 1 && keys[i] != key && keys[i] != 0)
+				++i;
+			if (keys[i] != key && keys[i] != 0)
+				++evictions[stripe];
+			moveToFront (base, i, key, value);
+		}
+	}
+
+	/**
+	 * Remove all entries.  The counters are kept.
+	 */
+	public void clear ()
+	{
+		for (int stripe = 0; stripe < locks.length; ++stripe)
+		{
+			synchronized (locks[stripe])
+			{
+				for (int set = stripe; set <= setMask; set += locks.length)
+				{
+					for (int i = set * Ways; i < (set + 1) * Ways; ++i)
+						keys[i] = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the number of lookups that found their key.
+	 */
+	public long getHitCount ()
+	{
+		return sum (hits);
+	}
+
+	/**
+	 * Get the number of lookups that did not find their key.
+	 */
+	public long getMissCount ()
+	{
+		return sum (misses);
+	}
+
+	/**
+	 * Get the number of entries evicted to make room for others.
+	 */
+	public long getEvictionCount ()
+	{
+		return sum (evictions);
+	}
+
+	/**
+	 * Get the fraction of lookups that found their key, or 0 if there have
+	 * been none.
+	 */
+	public double getHitRate ()
+	{
+		long h = getHitCount ();
+		long total = h + getMissCount ();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	private int setOf (long key)
+	{
+		return (int) ((key * 0x9e3779b97f4a7c15L) >>> 32) & setMask;
+	}
+
+	// Shift the entries ahead of slot i back by one and put the given
+	// entry in the first slot of the set.
+	private void moveToFront (int base, int i, long key, int value)
+	{
+		for (; i > base; --i)
+		{
+			keys[i] = keys[i - 1];
+			values[i] = values[i - 1];
+		}
+		keys[base] = key;
+		values[base] = value;
+	}
+
+	private long sum (long[] counters)
+	{
+		long total = 0;
+		for (int stripe = 0; stripe < locks.length; ++stripe)
+		{
+			synchronized (locks[stripe])
+			{
+				total += counters[stripe];
+			}
+		}
+		return total;
+	}
+}
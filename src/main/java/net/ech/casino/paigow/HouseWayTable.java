@@ -0,0 +1,226 @@
+//
+// HouseWayTable.java
+//
+
+package net.ech.casino.paigow;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import net.ech.casino.Card;
+
+/**
+ * A HouseWayTable sets pai gow hands by table lookup.  The table holds,
+ * for each canonical hand and for banker and player, the index of the
+ * setting that the house way chooses, so that setting a hand takes the
+ * computation of its index plus one read.
+ * <p>
+ * The table is built offline by HouseWayTableGenerator and is usually
+ * memory-mapped from a file.  It is read-only and may be shared by any
+ * number of threads.
+ * <p>
+ * A table file consists of a 12-byte header (the magic number, the
+ * format version and the number of canonical hands, each a big-endian
+ * int) followed by two bytes per canonical hand, in order of index: the
+ * banker's setting and then the player's.
+ *
+ * @see net.ech.casino.paigow.CanonicalHand
+ * @see net.ech.casino.paigow.HouseWayTableGenerator
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class HouseWayTable implements Constants
+{
+	/**
+	 * The first four bytes of a table file: "PGHW".
+	 */
+	public final static int Magic = 0x50474857;
+
+	/**
+	 * The format version.
+	 */
+	public final static int Version = 1;
+
+	private final static int HeaderSize = 12;
+
+	private final ByteBuffer buffer;
+	private final HouseWay bankersWay = new TableHouseWay (true);
+	private final HouseWay playersWay = new TableHouseWay (false);
+
+	// Scratch space for set, one per thread.
+	private final static ThreadLocal<Scratch> scratches =
+		new ThreadLocal<Scratch> ()
+		{
+			@Override
+			protected Scratch initialValue ()
+			{
+				return new Scratch ();
+			}
+		};
+
+	/**
+	 * Constructor.
+	 * @param buffer	the contents of a table file
+	 * @exception IllegalArgumentException if the buffer does not hold a
+	 *			  table of this version
+	 */
+	public HouseWayTable (ByteBuffer buffer)
+	{
+		if (buffer.capacity () != imageSize () ||
+			buffer.getInt (0) != Magic ||
+			buffer.getInt (4) != Version ||
+			buffer.getInt (8) != CanonicalHand.Size)
+		{
+			throw new IllegalArgumentException ("not a house way table");
+		}
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Map a table file into memory.
+	 */
+	public static HouseWayTable open (File file)
+		throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile (file, "r");
+		try
+		{
+			FileChannel channel = raf.getChannel ();
+			ByteBuffer buffer = channel.map (FileChannel.MapMode.READ_ONLY, 0, channel.size ());
+			try
+			{
+				return new HouseWayTable (buffer);
+			}
+			catch (IllegalArgumentException e)
+			{
+				throw new IOException (file + ": " + e.getMessage ());
+			}
+		}
+		finally
+		{
+			raf.close ();
+		}
+	}
+
+	/**
+	 * Get the number of bytes in a table file.
+	 */
+	static int imageSize ()
+	{
+		return HeaderSize + 2 * CanonicalHand.Size;
+	}
+
+	/**
+	 * Create the contents of a table file with the header filled in and
+	 * every entry zero.
+	 */
+	static byte[] newImage ()
+	{
+		byte[] image = new byte [imageSize ()];
+		ByteBuffer.wrap (image).putInt (Magic).putInt (Version).putInt (CanonicalHand.Size);
+		return image;
+	}
+
+	/**
+	 * Get the position of an entry in a table file.
+	 */
+	static int offsetOf (int index, boolean banker)
+	{
+		return HeaderSize + 2 * index + (banker ? 0 : 1);
+	}
+
+	/**
+	 * Get the setting chosen for a canonical hand.
+	 * @param index		the index of the canonical hand
+	 * @param banker	whether the hand is set for the banker
+	 * @return the index of the setting among those of the canonical hand
+	 */
+	public int getSetting (int index, boolean banker)
+	{
+		return buffer.get (offsetOf (index, banker));
+	}
+
+	/**
+	 * Get a house way that sets hands by this table.
+	 */
+	public HouseWay getHouseWay (boolean banker)
+	{
+		return banker ? bankersWay : playersWay;
+	}
+
+	/**
+	 * Set a hand the way the table says.
+	 * @param hand		the seven cards, rearranged in place
+	 * @param banker	whether the hand is set for the banker
+	 */
+	public void set (byte[] hand, boolean banker)
+	{
+		Scratch scratch = scratches.get ();
+		byte[] suitMap = scratch.suitMap;
+		byte[] renamed = scratch.renamed;
+		byte[] canonical = scratch.canonical;
+		byte[] result = scratch.result;
+
+		// Rename the suits to get the canonical hand, in order.
+		int index = CanonicalHand.indexOf (hand, suitMap);
+		for (int i = 0; i < CardsInHand; ++i)
+			renamed[i] = rename (hand[i], suitMap);
+		System.arraycopy (renamed, 0, canonical, 0, CardsInHand);
+		Arrays.sort (canonical);
+
+		// Find the cards of the two-card hand, and move them to the end.
+		Setting setting = Setting.get (getSetting (index, banker));
+		byte two1 = canonical[setting.getIndex1 ()];
+		byte two2 = canonical[setting.getIndex2 ()];
+		int n = 0;
+		for (int i = 0; i < CardsInHand; ++i)
+		{
+			if (renamed[i] == two1)
+				result[CardsInFiveHand] = hand[i];
+			else if (renamed[i] == two2)
+				result[CardsInFiveHand + 1] = hand[i];
+			else
+				result[n++] = hand[i];
+		}
+
+		System.arraycopy (result, 0, hand, 0, CardsInHand);
+		HouseWay.sortHand (hand, HandInfo.score5Int (hand, 0));
+	}
+
+	private static byte rename (byte card, byte[] suitMap)
+	{
+		return card == Joker ? card : Card.value (Card.rankOf (card), suitMap[Card.suitOf (card)]);
+	}
+
+	/**
+	 * The arrays that set needs, reused from hand to hand.
+	 */
+	private static class Scratch
+	{
+		final byte[] suitMap = new byte [Spades + 1];
+		final byte[] renamed = new byte [CardsInHand];
+		final byte[] canonical = new byte [CardsInHand];
+		final byte[] result = new byte [CardsInHand];
+	}
+
+	/**
+	 * A house way backed by the table.
+	 */
+	private class TableHouseWay extends HouseWay
+	{
+		TableHouseWay (boolean banker)
+		{
+			super (banker);
+		}
+
+		@Override
+		public void set (byte[] hand, SettingScorer scorer)
+		{
+			HouseWayTable.this.set (hand, isBanker ());
+		}
+	}
+}
@@ -0,0 +1,207 @@
+//
+// HouseWayTableGenerator.java
+//
+
+package net.ech.casino.paigow;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.ech.casino.Card;
+
+/**
+ * Builds a HouseWayTable file by setting every canonical hand with
+ * WongWay, as banker and as player, and then checks the file by mapping
+ * it and setting every canonical hand both ways again: once by the table
+ * and once by WongWay.  The two passes run on a fork-join pool.
+ * <p>
+ * Usage: java net.ech.casino.paigow.HouseWayTableGenerator table-file
+ * <p>
+ * The exit status is zero only if the table was written and every entry
+ * agrees with WongWay.
+ *
+ * @see net.ech.casino.paigow.HouseWayTable
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class HouseWayTableGenerator implements Constants
+{
+	// The number of hands set by one fork-join task.
+	private final static int Chunk = 1 << 12;
+
+	private final WongWay bankersWay = new WongWay (true);
+	private final WongWay playersWay = new WongWay (false);
+
+	public static void main (String[] args)
+		throws IOException
+	{
+		if (args.length != 1)
+		{
+			System.err.println ("Usage: java net.ech.casino.paigow.HouseWayTableGenerator table-file");
+			System.exit (2);
+		}
+		File file = new File (args[0]);
+		HouseWayTableGenerator generator = new HouseWayTableGenerator ();
+
+		long start = System.nanoTime ();
+		byte[] image = generator.generate ();
+		OutputStream out = new FileOutputStream (file);
+		try
+		{
+			out.write (image);
+		}
+		finally
+		{
+			out.close ();
+		}
+		System.out.println ("Wrote " + CanonicalHand.Size + " hands to " + file +
+			" in " + seconds (start) + " s");
+
+		start = System.nanoTime ();
+		int failures = generator.verify (HouseWayTable.open (file), 0, CanonicalHand.Size);
+		System.out.println ("Verified in " + seconds (start) + " s: " + failures + " failures");
+		if (failures != 0)
+			System.exit (1);
+	}
+
+	private static String seconds (long start)
+	{
+		return String.valueOf ((System.nanoTime () - start) / 1000000 / 1000.0);
+	}
+
+	/**
+	 * Set every canonical hand and return the contents of a table file.
+	 */
+	public byte[] generate ()
+	{
+		final byte[] image = HouseWayTable.newImage ();
+		ForkJoinPool.commonPool ().invoke (new Range (new Task ()
+		{
+			public void run (int index)
+			{
+				decide (index, image);
+			}
+		}, 0, CanonicalHand.Size));
+		return image;
+	}
+
+	/**
+	 * Set a canonical hand as banker and as player, and store the settings
+	 * in the contents of a table file.
+	 */
+	void decide (int index, byte[] image)
+	{
+		byte[] hand = new byte [CardsInHand];
+		CanonicalHand.valueOf (index, hand);
+		image[HouseWayTable.offsetOf (index, true)] = (byte) settingOf (hand, bankersWay);
+		image[HouseWayTable.offsetOf (index, false)] = (byte) settingOf (hand, playersWay);
+	}
+
+	// Set a copy of the hand and work out which setting was chosen from
+	// where the cards of the two-card hand came from.
+	private static int settingOf (byte[] hand, HouseWay houseWay)
+	{
+		byte[] set = (byte[]) hand.clone ();
+		houseWay.set (set);
+		int index1 = indexOf (hand, set[CardsInFiveHand]);
+		int index2 = indexOf (hand, set[CardsInFiveHand + 1]);
+		for (int s = 0; s < Setting.NumberOfSettings; ++s)
+		{
+			Setting setting = Setting.get (s);
+			if (setting.getIndex1 () == Math.min (index1, index2) &&
+				setting.getIndex2 () == Math.max (index1, index2))
+				return s;
+		}
+		throw new IllegalStateException ("no setting for " + Card.toString (set));
+	}
+
+	private static int indexOf (byte[] hand, byte card)
+	{
+		for (int i = 0; i < hand.length; ++i)
+		{
+			if (hand[i] == card)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Check a range of a table against WongWay.
+	 * @return the number of canonical hands that the table does not set
+	 *		   as WongWay does, as banker or as player
+	 */
+	public int verify (final HouseWayTable table, int from, int to)
+	{
+		final AtomicInteger failures = new AtomicInteger ();
+		ForkJoinPool.commonPool ().invoke (new Range (new Task ()
+		{
+			public void run (int index)
+			{
+				byte[] hand = new byte [CardsInHand];
+				CanonicalHand.valueOf (index, hand);
+				if (CanonicalHand.indexOf (hand) != index ||
+					!sameSetting (hand, bankersWay, table.getHouseWay (true)) ||
+					!sameSetting (hand, playersWay, table.getHouseWay (false)))
+				{
+					failures.incrementAndGet ();
+				}
+			}
+		}, from, to));
+		return failures.get ();
+	}
+
+	private static boolean sameSetting (byte[] hand, HouseWay expected, HouseWay actual)
+	{
+		byte[] expectedHand = (byte[]) hand.clone ();
+		expected.set (expectedHand);
+		byte[] actualHand = (byte[]) hand.clone ();
+		actual.set (actualHand);
+		return Arrays.equals (expectedHand, actualHand);
+	}
+
+	/**
+	 * Something to do for each of a range of canonical hands.
+	 */
+	private interface Task
+	{
+		void run (int index);
+	}
+
+	/**
+	 * A range of canonical hands, split in halves until small.
+	 */
+	private static class Range extends RecursiveAction
+	{
+		private final Task task;
+		private final int from;
+		private final int to;
+
+		Range (Task task, int from, int to)
+		{
+			this.task = task;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute ()
+		{
+			if (to - from <= Chunk)
+			{
+				for (int index = from; index < to; ++index)
+					task.run (index);
+			}
+			else
+			{
+				int mid = (from + to) >>> 1;
+				invokeAll (new Range (task, from, mid), new Range (task, mid, to));
+			}
+		}
+	}
+}
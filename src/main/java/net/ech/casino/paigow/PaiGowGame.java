@@ -20,6 +20,10 @@ public class PaiGowGame extends TableGame implements Constants
 	 */
 	static final long serialVersionUID = 3088029775366991903L;
 
+	// House ways, shared by all games.
+	private final static WongWay bankersWay = new WongWay (true);
+	private final static WongWay playersWay = new WongWay (false);
+
 	// Machine settings.
 	private float commissionRate;
 
@@ -379,6 +383,14 @@ public class PaiGowGame extends TableGame implements Constants
 		}
 	}
 
+	private HouseWay getHouseWay (boolean banker)
+	{
+		HouseWayTable table = getPaiGowMachine ().getHouseWayTable ();
+		if (table != null)
+			return table.getHouseWay (banker);
+		return banker ? bankersWay : playersWay;
+	}
+
 	private class HouseWayPlay extends PaiGowPlay
 	{
 		protected void validate ()
@@ -390,7 +402,7 @@ public class PaiGowGame extends TableGame implements Constants
 
 		protected void computePlay ()
 		{
-			new WongWay (playerIsBanker).set (playerHand);
+			getHouseWay (playerIsBanker).set (playerHand);
 		}
 
 		protected void transact ()
@@ -428,7 +440,7 @@ public class PaiGowGame extends TableGame implements Constants
 			playerHand = (byte[]) hand.clone ();
 
 			// Set the dealer's hand.
-			new WongWay (!playerIsBanker).set (dealerHand);
+			getHouseWay (!playerIsBanker).set (dealerHand);
 
 			// Evaluate hands.
 			PokerScore playerFPS = HandInfo.score5 (playerHand, 0);
@@ -17,6 +17,9 @@ public class PaiGowMachine extends TableMachine implements Constants
 	// House rake:
 	private float commissionRate = 0.05f;
 
+	// Precomputed house way, if any.
+	private HouseWayTable houseWayTable;
+
 	/**
 	 * Constructor.
 	 */
@@ -40,6 +43,23 @@ public class PaiGowMachine extends TableMachine implements Constants
 		return commissionRate;
 	}
 
+	/**
+	 * Set the table by which the house sets hands.  If null (the
+	 * default), hands are set by WongWay directly.
+	 */
+	public void setHouseWayTable (HouseWayTable houseWayTable)
+	{
+		this.houseWayTable = houseWayTable;
+	}
+
+	/**
+	 * Get the table by which the house sets hands, or null.
+	 */
+	public HouseWayTable getHouseWayTable ()
+	{
+		return houseWayTable;
+	}
+
 	/**
 	 * Start a new game.
 	 * @return a new game handler to manage the game in progress.
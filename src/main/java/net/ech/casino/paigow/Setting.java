@@ -23,6 +23,11 @@ public class Setting implements Constants
 		new Setting (5, 6),
 	};
 
+	/**
+	 * The number of ways to set a hand.
+	 */
+	public final static int NumberOfSettings = 21;
+
 	/**
 	 * Get the full enumeration of 21 Settings as an array.
 	 */
@@ -53,13 +58,46 @@ public class Setting implements Constants
 		this.index2 = (byte) index2;
 	}
 
+	/**
+	 * Get one of the Settings by its index in the full enumeration.
+	 */
+	static Setting get (int index)
+	{
+		return allSettings[index];
+	}
+
+	/**
+	 * Get the index of the first card of the 2nd highest hand.
+	 */
+	int getIndex1 ()
+	{
+		return index1;
+	}
+
+	/**
+	 * Get the index of the second card of the 2nd highest hand.
+	 */
+	int getIndex2 ()
+	{
+		return index2;
+	}
+
 	/**
 	 * Set the given hand according to this Setting.
 	 */
 	public byte[] set (byte[] hand)
 	{
 		byte[] result = new byte [CardsInHand];
+		set (hand, result);
+		return result;
+	}
 
+	/**
+	 * Set the given hand according to this Setting into the given
+	 * array, which must not be the hand itself.
+	 */
+	public void set (byte[] hand, byte[] result)
+	{
 		int hix = 0;
 		for (int i = 0; i < (CardsInHand - 2); ++i)
 		{
@@ -70,8 +108,6 @@ public class Setting implements Constants
 		}
 		result[CardsInHand - 2] = hand[index1];
 		result[CardsInHand - 1] = hand[index2];
-
-		return result;
 	}
 
 	@Override
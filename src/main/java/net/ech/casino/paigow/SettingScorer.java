@@ -0,0 +1,222 @@
+//
+// SettingScorer.java
+//
+
+package net.ech.casino.paigow;
+
+import net.ech.casino.Card;
+import net.ech.casino.PokerScoreTable;
+
+/**
+ * A SettingScorer scores all 21 settings of a pai gow hand and narrows
+ * them down to the candidates among which a house way must choose: the
+ * settings that are not fouls and that no other setting dominates.
+ * <p>
+ * Scores are packed PokerScores, indexed by position in the enumeration
+ * of <code>Setting.getAllSettings</code>.	The seven cards are digested
+ * once into a profile of rank bits, primes and suits, from which each
+ * five-card hand is looked up without copying any cards.	 A scorer
+ * allocates nothing after construction, so a caller that sets many
+ * hands should keep one and reuse it.	A scorer is not synchronized.
+ *
+ * @see net.ech.casino.paigow.HouseWay
+ * @see net.ech.casino.PokerScore
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class SettingScorer implements Constants
+{
+	// The indexes of the five cards in the highest hand of each setting.
+	private final static byte[] Keep = new byte [Setting.NumberOfSettings * CardsInFiveHand];
+	static
+	{
+		for (int s = 0; s < Setting.NumberOfSettings; ++s)
+		{
+			Setting setting = Setting.get (s);
+			int k = s * CardsInFiveHand;
+			for (int i = 0; i < CardsInHand; ++i)
+			{
+				if (i != setting.getIndex1 () && i != setting.getIndex2 ())
+					Keep[k++] = (byte) i;
+			}
+		}
+	}
+
+	// The hand profile.
+	private final int[] rankBits = new int [CardsInHand];
+	private final int[] primes = new int [CardsInHand];
+	private final int[] suitOr = new int [CardsInHand];
+	private final int[] suitAnd = new int [CardsInHand];
+	private final int[] jokers = new int [CardsInHand];
+
+	// Results.
+	private final int[] fiveScores = new int [Setting.NumberOfSettings];
+	private final int[] twoScores = new int [Setting.NumberOfSettings];
+	private final int[] candidates = new int [Setting.NumberOfSettings];
+	private int candidateCount;
+	private final long[] sortKeys = new long [Setting.NumberOfSettings];
+
+	private final byte[] arranged = new byte [CardsInHand];
+
+	/**
+	 * Score all settings of a hand and find the candidates.
+	 * @param hand	the seven cards
+	 * @return the number of candidates
+	 * @exception RuntimeException if every setting is a foul
+	 */
+	public int score (byte[] hand)
+	{
+		profile (hand);
+
+		// Score each setting.	Keep only the non-foul settings.
+		int n = 0;
+		for (int s = 0; s < Setting.NumberOfSettings; ++s)
+		{
+			Setting setting = Setting.get (s);
+			int five = score5 (s);
+			int two = HandInfo.score2Int (hand[setting.getIndex1 ()],
+										  hand[setting.getIndex2 ()]);
+			fiveScores[s] = five;
+			twoScores[s] = two;
+			if (five > two)
+				candidates[n++] = s;
+		}
+		if (n == 0)
+			throw new RuntimeException ("No non-foul settings!!!");
+
+		// Purge "dominated" settings.	A dominated setting is one that
+		// another setting beats or equals in both hands; of two settings
+		// that tie in both hands, the later one survives.	Order the
+		// survivors of the foul check by five-card score, then two-card
+		// score, then index, all descending.	 Each setting that beats the
+		// best two-card score seen so far is undominated.
+		//
+		for (int i = 0; i < n; ++i)
+		{
+			int s = candidates[i];
+			long key = ((long) fiveScores[s] << 32) | ((long) twoScores[s] << 8) | s;
+			int j = i;
+			for (; j > 0 && sortKeys[j - 1] < key; --j)
+				sortKeys[j] = sortKeys[j - 1];
+			sortKeys[j] = key;
+		}
+
+		int undominated = 0;
+		int bestTwo = -1;
+		for (int i = 0; i < n; ++i)
+		{
+			int s = (int) sortKeys[i] & 0xff;
+			if (twoScores[s] > bestTwo)
+			{
+				bestTwo = twoScores[s];
+				undominated |= 1 << s;
+			}
+		}
+
+		// List the survivors in the order of the enumeration.
+		candidateCount = 0;
+		for (int s = 0; s < Setting.NumberOfSettings; ++s)
+		{
+			if ((undominated & (1 << s)) != 0)
+				candidates[candidateCount++] = s;
+		}
+
+		return candidateCount;
+	}
+
+	private void profile (byte[] hand)
+	{
+		for (int i = 0; i < CardsInHand; ++i)
+		{
+			byte card = hand[i];
+			if (card == Joker)
+			{
+				rankBits[i] = 0;
+				primes[i] = 1;
+				suitOr[i] = 0;
+				suitAnd[i] = 0xff;
+				jokers[i] = 1;
+			}
+			else
+			{
+				int rank = Card.rankOf (card);
+				rankBits[i] = 1 << rank;
+				primes[i] = PokerScoreTable.primeOf (rank);
+				suitOr[i] = card;
+				suitAnd[i] = card;
+				jokers[i] = 0;
+			}
+		}
+	}
+
+	private int score5 (int setting)
+	{
+		int mask = 0;
+		int product = 1;
+		int or = 0;
+		int and = 0xff;
+		int nJokers = 0;
+		for (int k = setting * CardsInFiveHand; k < (setting + 1) * CardsInFiveHand; ++k)
+		{
+			int i = Keep[k];
+			mask |= rankBits[i];
+			product *= primes[i];
+			or |= suitOr[i];
+			and &= suitAnd[i];
+			nJokers += jokers[i];
+		}
+
+		return HandInfo.lookup5 (mask, product, ((or ^ and) & 0xf0) == 0, nJokers);
+	}
+
+	/**
+	 * Rearrange a hand according to one of its settings: the five cards
+	 * of the highest hand first, in their original order, then the two.
+	 * @param hand	the seven cards, rearranged in place
+	 * @param setting	the index of the setting
+	 */
+	public void arrange (byte[] hand, int setting)
+	{
+		System.arraycopy (hand, 0, arranged, 0, CardsInHand);
+		Setting.get (setting).set (arranged, hand);
+	}
+
+	/**
+	 * Get the number of candidates found by the last call to score.
+	 */
+	public int getCandidateCount ()
+	{
+		return candidateCount;
+	}
+
+	/**
+	 * Get a candidate found by the last call to score.  Candidates are in
+	 * the order of the enumeration of settings.
+	 * @return the index of the setting
+	 */
+	public int getCandidate (int n)
+	{
+		if (n < 0 || n >= candidateCount)
+			throw new ArrayIndexOutOfBoundsException (n);
+		return candidates[n];
+	}
+
+	/**
+	 * Get the packed score of the highest hand of a setting.
+	 * @param setting	the index of the setting
+	 */
+	public int getFiveScore (int setting)
+	{
+		return fiveScores[setting];
+	}
+
+	/**
+	 * Get the packed score of the 2nd highest hand of a setting.
+	 * @param setting	the index of the setting
+	 */
+	public int getTwoScore (int setting)
+	{
+		return twoScores[setting];
+	}
+}
@@ -9,6 +9,10 @@ import net.ech.casino.PokerScore;
 
 /**
  * An implementation of Stanford Wong's "Optimal Strategy for Pai Gow Poker."
+ * <p>
+ * The strategies work directly on the packed scores of a SettingScorer,
+ * with a setting index standing for a setting and -1 for none, so that
+ * setting a hand allocates nothing.
  * 
  * @version 1.0
  * @author James Echmalian, ech@ech.net
@@ -28,6 +32,11 @@ public class WongWay extends HouseWay
 	private final static int I_Banker = 0;
 	private final static int I_Player = 1;
 
+	private final static int JackTen = PokerScore.makeHighCard (Jack, Ten).intValue ();
+	private final static int AceJack = PokerScore.makeHighCard (Ace, Jack).intValue ();
+	private final static int QueenJack = PokerScore.makeHighCard (Queen, Jack).intValue ();
+	private final static int RoyalFlush = PokerScore.makeStraightFlush (Ace).intValue ();
+
 	/**
 	 * Table 4.  Fivecard two pair rather than split only if twocard
 	 * hand ties or beats the hand listed here.
@@ -90,12 +99,24 @@ public class WongWay extends HouseWay
             /* AK */ "   98 T9 JT JT QQ",
         }
 	};
+
+	// The tables above, parsed into packed two-card scores, indexed by
+	// banker/player.  An empty entry is -1.
+	private final static int[][][] parsedMinSingletonToFiveCardTwoPair =
+		parseTables (minSingletonToFiveCardTwoPair);
+	private final static int[][][] parsedMaxSingletonToBreakFlush =
+		parseTables (maxSingletonToBreakFlush);
+
+	// This player's rows of the parsed tables.
+	private final int[][] minToFiveCardTwoPair;
+	private final int[][] maxToBreakFlush;
 	
 	/**
 	 * Constructor.
 	 */
 	public WongWay ()
 	{
+		this (false);
 	}
 
 	/**
@@ -103,28 +124,32 @@ public class WongWay extends HouseWay
 	 */
 	public WongWay (boolean banker)
 	{
-		super (banker);
+		this (banker, null);
 	}
 
-	private int getBankerPlayerIndex ()
+	/**
+	 * Constructor.
+	 * @param banker	whether hands are set for the banker
+	 * @param cache		where to remember decisions, or null; not to be
+	 *					shared with any other house way
+	 */
+	public WongWay (boolean banker, HouseWayCache cache)
 	{
-		return isBanker () ? I_Banker : I_Player;
+		super (banker, cache);
+		int index = banker ? I_Banker : I_Player;
+		minToFiveCardTwoPair = parsedMinSingletonToFiveCardTwoPair[index];
+		maxToBreakFlush = parsedMaxSingletonToBreakFlush[index];
 	}
 
 	/**
 	 * Of all usable settings, pick the one to use.
-	 * Subclass may extend this method to apply more sophisticated
-	 * strategy.
 	 */
 	@Override
-	protected ScoredSetting applyStrategy (ScoredSetting[] ss)
+	protected int chooseSetting (byte[] hand, SettingScorer sc)
 	{
-		// Create a bitset of available 5-card hands.
-		int handSet = makeHandSet (ss);
-
 		// Jump to an applicable strategy...
-		ScoredSetting result = null;
-		switch (handSet)
+		int result = -1;
+		switch (makeHandSet (sc))
 		{
 		// 1. High card.
 		// Must implement table 3.
@@ -133,49 +158,49 @@ public class WongWay extends HouseWay
 
 		// 2. Pair
 		case H_Pair:
-			result = bestOf (ss, PokerScore.Pair);
+			result = bestOf (sc, PokerScore.Pair);
 			break;
 
 		// 3. Two pair, or
 		// 4. Three pair
 		case H_TwoPair:
 		case H_TwoPair | H_Pair:
-			result = strategy3 (ss);
+			result = strategy3 (sc);
 			break;
 
 		// 5. Three of a kind
 		case H_ThreeOfAKind | H_Pair:
-			result = strategy5 (ss);
+			result = strategy5 (sc);
 			break;
 
 		// 6. Straight but no flush and no pair
 		case H_Straight:
-			result = bestOf (ss, PokerScore.Straight);
+			result = bestOf (sc, PokerScore.Straight);
 			break;
 
 		// 7. Flush but no straight and no pair
 		case H_Flush:
-			result = bestOf (ss, PokerScore.Flush);
+			result = bestOf (sc, PokerScore.Flush);
 			break;
 
 		// 8. Straight and pair but no joker
 		case H_Straight | H_Pair:
-			if (!handContainsJoker())
+			if (!containsJoker (hand))
 			{
-				result = strategy8 (ss);
+				result = strategy8 (sc);
 			}
 			break;
 
 		// 9. Flush and a pair, but no joker
 		// 11. Joker Flush and a pair
 		case H_Flush | H_Pair:
-			if (handContainsJoker())
+			if (containsJoker (hand))
 			{
-				result = strategy11 (ss);
+				result = strategy11 (sc);
 			}
 			else
 			{
-				result = strategy9 (ss);
+				result = strategy9 (sc);
 			}
 			break;
 
@@ -183,25 +208,25 @@ public class WongWay extends HouseWay
 		// 14.  Straight and flush and pair
 		case H_Flush | H_Straight:
 		case H_Flush | H_Straight | H_Pair:
-			result = strategy13 (ss);
+			result = strategy13 (sc);
 			break;
 
 		// 15.  Straight and two pair
 		case H_Straight | H_TwoPair:
 		case H_Straight | H_TwoPair | H_Pair:
-			result = strategy15 (ss);
+			result = strategy15 (sc);
 			break;
 
 		case H_Flush | H_TwoPair | H_Pair:
-			result = strategy16 (ss);
+			result = strategy16 (sc);
 			break;
 
 		// Straight flush stopgap.
 		case H_StraightFlush:
-			result = bestOf (ss, PokerScore.StraightFlush);
+			result = bestOf (sc, PokerScore.StraightFlush);
 			break;
 		case H_StraightFlush | H_Pair:
-			result = misusedStrategy8 (ss);
+			result = misusedStrategy8 (sc);
 			break;
 
 		// 25. Four of a kind and a pair
@@ -209,26 +234,27 @@ public class WongWay extends HouseWay
 		case H_FourOfAKind | H_FullHouse | H_TwoPair:
 		case H_FourOfAKind | H_ThreeOfAKind | H_TwoPair:
 		case H_FourOfAKind | H_FullHouse | H_ThreeOfAKind | H_TwoPair:
-			result = strategy25 (ss);
+			result = strategy25 (sc);
 			break;
 
 		// 27. Five aces.
 		case H_FiveAces | H_FourOfAKind | H_FullHouse:
-			result = strategy27 (ss);
+			result = strategy27 (sc);
 			break;
 		}
 
-		// If no strategy applies, the default ain't bad...
-		return result != null ? result : super.applyStrategy (ss);
+		// If no strategy applies, the default ain't bad: the highest
+		// two-card hand.
+		return result >= 0 ? result : bestOf (sc, -1);
 	}
 
-	private int makeHandSet (ScoredSetting[] ss)
+	private static int makeHandSet (SettingScorer sc)
 	{
 		int handSet = 0;
 
-		for (int i = 0; i < ss.length; ++i)
+		for (int i = 0; i < sc.getCandidateCount (); ++i)
 		{
-			switch (ss[i].fiveScore.getPrimary ())
+			switch (PokerScore.primaryOf (sc.getFiveScore (sc.getCandidate (i))))
 			{
 			case PokerScore.FiveOfAKind:
 				handSet |= H_FiveAces;
@@ -268,16 +294,18 @@ public class WongWay extends HouseWay
 	 * what the default strategy does). In the former case, the kicker
 	 * counts.
 	 */
-	private ScoredSetting strategy3 (ScoredSetting[] ss)
+	private int strategy3 (SettingScorer sc)
 	{
 		// Strategy 4: in the case of three pairs, always two-card the
 		// high pair. 
 		//
-		ScoredSetting twoPairSetting = bestOf(ss, PokerScore.TwoPair);
-		if (twoPairSetting != null) {
-			if (twoPairSetting.twoScore.getPrimary() == PokerScore.Pair)
+		int twoPair = bestOf (sc, PokerScore.TwoPair);
+		if (twoPair >= 0)
+		{
+			int two = sc.getTwoScore (twoPair);
+			if (PokerScore.primaryOf (two) == PokerScore.Pair)
 			{
-				return twoPairSetting;
+				return twoPair;
 			}
 
 			// 
@@ -289,45 +317,44 @@ public class WongWay extends HouseWay
 			// together AND has a high enough singleton hand in the two-card
 			// hand to qualify, go with the best one.
 			//
-			PokerScore twoPair = twoPairSetting.fiveScore;
+			int five = sc.getFiveScore (twoPair);
 			
 			// Index into table.
-			PokerScore min = indexTwoCard (minSingletonToFiveCardTwoPair,
-										   twoPair.getRank (0) - MinRank,
-										   twoPair.getRank (1) - MinRank);
+			int min = indexTwoCard (minToFiveCardTwoPair,
+									PokerScore.rankOf (five, 0) - MinRank,
+									PokerScore.rankOf (five, 1) - MinRank);
 
-			if (min != null && twoPairSetting.twoScore.compareTo (min) >= 0)
+			if (min >= 0 && two >= min)
 			{
-				return twoPairSetting;
+				return twoPair;
 			}
 		}
 
 		// Let default strategy run.
-		return null;
+		return -1;
 	}
 
 	/**
 	 * Strategy 5. Three of a kind.
 	 * Fivecard either the three of a kind or just a pair.
 	 */
-	private ScoredSetting strategy5 (ScoredSetting[] ss)
+	private int strategy5 (SettingScorer sc)
 	{
 		// Find the three.
-		ScoredSetting k3 = find (ss, PokerScore.ThreeOfAKind);
+		int k3 = find (sc, PokerScore.ThreeOfAKind);
 
 		// Default strategy always twocards two highest singletons.
-		switch (k3.fiveScore.getRank (0))
+		switch (PokerScore.rankOf (sc.getFiveScore (k3), 0))
 		{
 		case Ace:
 			// Always break 3 aces.
-			return null;
+			return -1;
 		case King:
 			// If twohand is JT or better, leave the kings together.
-			PokerScore jackTen = PokerScore.makeHighCard (Jack, Ten);
-			if (k3.twoScore.compareTo (jackTen) >= 0)
+			if (sc.getTwoScore (k3) >= JackTen)
 				break;
 			// Otherwise, fivecard a pair and twocard the best leftover.
-			return bestOf (ss, PokerScore.Pair);
+			return bestOf (sc, PokerScore.Pair);
 		}
 		
 		// Fivecard the three of a kind.
@@ -339,27 +366,28 @@ public class WongWay extends HouseWay
 	 * Choose between straight and pair.  Default strategy often breaks
 	 * the straight to put the pair in the fivehand.
 	 */
-	private ScoredSetting strategy8 (ScoredSetting[] ss)
+	private int strategy8 (SettingScorer sc)
 	{
 		// In general, the straight is the better hand.
-		ScoredSetting straight = bestOf (ss, PokerScore.Straight);
-		if (straight.twoScore.getPrimary() == PokerScore.Pair)
+		int straight = bestOf (sc, PokerScore.Straight);
+		if (PokerScore.primaryOf (sc.getTwoScore (straight)) == PokerScore.Pair)
 		{
 			return straight;
 		}
 
-		ScoredSetting pair = bestOf (ss, PokerScore.Pair);
-		if (pair.twoScore.getPrimary() == PokerScore.Pair)
+		int pair = bestOf (sc, PokerScore.Pair);
+		int pairTwo = sc.getTwoScore (pair);
+		if (PokerScore.primaryOf (pairTwo) == PokerScore.Pair)
 		{
 			// Wong covers this case, in which two pair is available but
 			// dominated by straight, under strategy 15.
 			//
-			return strategy15 (ss);
+			return strategy15 (sc);
 		}
 
 		// The exceptions occur when the straight is an ace-high.
 
-		switch (pair.fiveScore.getRank(0))
+		switch (PokerScore.rankOf (sc.getFiveScore (pair), 0))
 		{
 		case Queen:
 		case Jack:
@@ -367,7 +395,7 @@ public class WongWay extends HouseWay
 			// If the queen, jack or ten is paired (leaving A-K in the twohand),
 			// fivecard the pair.
 			//
-			if (pair.twoScore.getRank(1) == King)
+			if (PokerScore.rankOf (pairTwo, 1) == King)
 			{
 				return pair;
 			}
@@ -375,7 +403,7 @@ public class WongWay extends HouseWay
 		case King:
 			// If the king is paired (leaving A-Q in the twohand),
 			// the banker should fivecard the pair.
-			if (pair.twoScore.getRank(1) == Queen && isBanker ())
+			if (PokerScore.rankOf (pairTwo, 1) == Queen && isBanker ())
 			{
 				return pair;
 			}
@@ -390,7 +418,7 @@ public class WongWay extends HouseWay
 	 * Choose between flush and pair.  Default strategy often breaks
 	 * the flush to put the pair in the fivehand.
 	 */
-	private ScoredSetting strategy9 (ScoredSetting[] ss)
+	private int strategy9 (SettingScorer sc)
 	{
 		// This strategy applies when there is one possible flush and
 		// one of the other two cards pairs a card of the flush, creating
@@ -399,25 +427,27 @@ public class WongWay extends HouseWay
 		// In the case of a fivecard flush with a twocard pair, we never
 		// make it here (due to domination).
 		//
-		ScoredSetting flush = bestOf (ss, PokerScore.Flush);
-		ScoredSetting pair = bestOf (ss, PokerScore.Pair);
+		int flush = bestOf (sc, PokerScore.Flush);
+		int pair = bestOf (sc, PokerScore.Pair);
+		int flushTwo = sc.getTwoScore (flush);
+		int pairTwo = sc.getTwoScore (pair);
 
 		// WAIT! This strategy is not meant to handle cases in which
 		// there are two pairs, e.g.: ACTH4H2HAH9H9C.  Wong covers this
 		// case under strategy 16. But some flush vs. two pair cases
 		// end up here because of domination.
 		// 
-		if (pair.twoScore.getPrimary () == PokerScore.Pair)
+		if (PokerScore.primaryOf (pairTwo) == PokerScore.Pair)
 		{
 			// Apply some of strategy 16 here.
-			if (flush.twoScore.getRank(0) == Ace &&
-				flush.twoScore.getRank(1) == Deuce)
+			if (PokerScore.rankOf (flushTwo, 0) == Ace &&
+				PokerScore.rankOf (flushTwo, 1) == Deuce)
 			{
 				return flush;
 			}
 
-			if (flush.twoScore.getRank(0) == Ace &&
-				flush.twoScore.getRank(1) == King &&
+			if (PokerScore.rankOf (flushTwo, 0) == Ace &&
+				PokerScore.rankOf (flushTwo, 1) == King &&
 				isBanker())
 			{
 				return flush;
@@ -436,7 +466,7 @@ public class WongWay extends HouseWay
 		// The test below excludes two possible flushes, in which case
 		// the hand with the better twohand is preferred.
 		//
-		if (count (ss, PokerScore.Flush) > 1)
+		if (count (sc, PokerScore.Flush) > 1)
 		{
 			return flush;
 		}
@@ -445,19 +475,18 @@ public class WongWay extends HouseWay
 		// accompanying the pair must be at least A-J, to even 
 		// consider breaking the flush.
 		//
-		byte pairRank = pair.fiveScore.getRank (0);
-		if (pairRank >= Seven &&
-			pair.twoScore.compareTo (PokerScore.makeHighCard (Ace, Jack)) >= 0)
+		int pairRank = PokerScore.rankOf (sc.getFiveScore (pair), 0);
+		if (pairRank >= Seven && pairTwo >= AceJack)
 		{
 			// Then it comes down to the rank of the pair, the rank of
 			// the lower of the twocard singletons (we know the higher is an Ace),
 			// and whether this player is the banker.
 			//
-			byte rank1 = pair.twoScore.getRank (1);
-			PokerScore max = indexTwoCard (maxSingletonToBreakFlush,
-										   rank1 - Jack,
-										   pairRank - Seven);
-			if (max != null && flush.twoScore.compareTo (max) <= 0) {
+			int rank1 = PokerScore.rankOf (pairTwo, 1);
+			int max = indexTwoCard (maxToBreakFlush,
+									rank1 - Jack,
+									pairRank - Seven);
+			if (max >= 0 && flushTwo <= max) {
 				return pair;
 			}
 		}
@@ -469,7 +498,7 @@ public class WongWay extends HouseWay
 	 * Strategy 11.  Joker Flush and pair.
 	 * A flush, a joker and a pair.
 	 */
-	private ScoredSetting strategy11 (ScoredSetting[] ss)
+	private int strategy11 (SettingScorer sc)
 	{
 		// Obviously, if the pair can be twocarded without destroying the
 		// flush, your best play is to twocard the pair.
@@ -477,9 +506,10 @@ public class WongWay extends HouseWay
 		// If the joker can be twocarded without destroying the flush,
 		// then your best play is to fivecard the flush.
 		//
-		ScoredSetting bestFlush = find (ss, PokerScore.Flush);
-		if (bestFlush.twoScore.getPrimary() == PokerScore.Pair ||
-			bestFlush.twoScore.getPrimary() == Ace)
+		int bestFlush = find (sc, PokerScore.Flush);
+		int flushTwo = sc.getTwoScore (bestFlush);
+		if (PokerScore.primaryOf (flushTwo) == PokerScore.Pair ||
+			PokerScore.primaryOf (flushTwo) == Ace)
 		{
 			return bestFlush;
 		}
@@ -489,22 +519,23 @@ public class WongWay extends HouseWay
 		// needed for the flush.  There is a narrow case in which it is
 		// advantageous to fivecard the pair.
 		//
-		ScoredSetting bestPair = bestOf (ss, PokerScore.Pair);
-		if (bestPair.fiveScore.getRank(0) == Ace)
+		int bestPair = bestOf (sc, PokerScore.Pair);
+		int pairTwo = sc.getTwoScore (bestPair);
+		if (PokerScore.rankOf (sc.getFiveScore (bestPair), 0) == Ace)
 		{
-			if (bestFlush.twoScore.getRank(0) == King)
+			if (PokerScore.rankOf (flushTwo, 0) == King)
 			{
 				return bestFlush;
 			}
 
-			if (bestPair.twoScore.getRank(0) == King)
+			if (PokerScore.rankOf (pairTwo, 0) == King)
 			{
 				return bestPair;
 			}
 
-			if (bestPair.twoScore.getRank(0) == Queen &&
-				bestPair.twoScore.getRank(1) >= Ten &&
-				bestFlush.twoScore.getRank(0) < Ten)
+			if (PokerScore.rankOf (pairTwo, 0) == Queen &&
+				PokerScore.rankOf (pairTwo, 1) >= Ten &&
+				PokerScore.rankOf (flushTwo, 0) < Ten)
 			{
 				return bestPair;
 			}
@@ -516,26 +547,28 @@ public class WongWay extends HouseWay
 		// joker and a pair are the same as shown in table 5 (strategy 9)
 		// where A must be understood to mean joker.
 		//
-		return strategy9 (ss);
+		return strategy9 (sc);
 	}
 
 	/**
 	 * Strategy 13. Straight and Flush (no pairs)
 	 * Strategy 14. Straight and Flush and Pair
 	 */
-	private ScoredSetting strategy13 (ScoredSetting[] ss)
+	private int strategy13 (SettingScorer sc)
 	{
 		// Consider the best of both.
-		ScoredSetting straight = bestOf (ss, PokerScore.Straight);
-		ScoredSetting flush = bestOf (ss, PokerScore.Flush);
+		int straight = bestOf (sc, PokerScore.Straight);
+		int flush = bestOf (sc, PokerScore.Flush);
+		int straightTwo = sc.getTwoScore (straight);
+		int flushTwo = sc.getTwoScore (flush);
 
 		// If either gives us a pair in the two-card hand, take it.
 		// (From Strategy 14)
-		if (straight.twoScore.getPrimary() == PokerScore.Pair)
+		if (PokerScore.primaryOf (straightTwo) == PokerScore.Pair)
 		{
 			return straight;
 		}
-		if (flush.twoScore.getPrimary() == PokerScore.Pair)
+		if (PokerScore.primaryOf (flushTwo) == PokerScore.Pair)
 		{
 			return flush;
 		}
@@ -543,8 +576,7 @@ public class WongWay extends HouseWay
 		// If fivecarding a flush rather than a straight means twocarding a
 		// stronger hand, then your best play is to fivecard the flush.
 		//
-		int cmp2 = flush.twoScore.compareTo (straight.twoScore);
-		if (cmp2 > 0)
+		if (flushTwo > straightTwo)
 		{
 			return flush;
 		}
@@ -553,9 +585,10 @@ public class WongWay extends HouseWay
 		// twocard a higher high card, and that card is jack or better,
 		// then fivecard the straight. Otherwise fivecard the flush.
 		//
-		if (straight.twoScore.getRank(0) > flush.twoScore.getRank(0))
+		int straightHigh = PokerScore.rankOf (straightTwo, 0);
+		if (straightHigh > PokerScore.rankOf (flushTwo, 0))
 		{
-			return (straight.twoScore.getRank(0) >= Jack) ? straight : flush;
+			return (straightHigh >= Jack) ? straight : flush;
 		}
  
 		// If we're this far, then both settings show the same rank high card
@@ -566,9 +599,9 @@ public class WongWay extends HouseWay
 		// jack, then only the banker should go with straight.Go with 
 		// flush in all other cases.
 		//
-		if (straight.twoScore.getRank(0) == Ace)
+		if (straightHigh == Ace)
 		{
-			switch (straight.twoScore.getRank(1))
+			switch (PokerScore.rankOf (straightTwo, 1))
 			{
 			case Queen: case King: case Ace:
 				return straight;
@@ -584,99 +617,98 @@ public class WongWay extends HouseWay
 		// If the high card is less than Ace, and the low twocard is 9
 		// or better, go with straight, else flush.
 
-		return (straight.twoScore.getRank(1) >= Nine) ? straight : flush;
+		return (PokerScore.rankOf (straightTwo, 1) >= Nine) ? straight : flush;
 	}
 
 	/**
 	 * Strategy 15.  Straight and two pair.
 	 */
-	private ScoredSetting strategy15 (ScoredSetting[] ss)
+	private int strategy15 (SettingScorer sc)
 	{
-		ScoredSetting straight = bestOf (ss, PokerScore.Straight);
-		if (straight.twoScore.getPrimary() == PokerScore.Pair)
+		int straight = bestOf (sc, PokerScore.Straight);
+		if (PokerScore.primaryOf (sc.getTwoScore (straight)) == PokerScore.Pair)
 		{
 			return straight;
 		}
 
-		ScoredSetting twoPair = bestOf (ss, PokerScore.TwoPair);
-		if (twoPair != null &&
-			twoPair.fiveScore.getRank(0) <= Four && 
-			twoPair.fiveScore.getRank(1) == Deuce &&
-			twoPair.twoScore.getPrimary() != Ace)
+		int twoPair = bestOf (sc, PokerScore.TwoPair);
+		if (twoPair >= 0 &&
+			PokerScore.rankOf (sc.getFiveScore (twoPair), 0) <= Four && 
+			PokerScore.rankOf (sc.getFiveScore (twoPair), 1) == Deuce &&
+			PokerScore.primaryOf (sc.getTwoScore (twoPair)) != Ace)
 		{
 			return straight;
 		}
 
-		return strategy3 (ss);
+		return strategy3 (sc);
 	}
 
 	/**
 	 * Strategy 16.  Flush and two pair.
 	 */
-	private ScoredSetting strategy16 (ScoredSetting[] ss)
+	private int strategy16 (SettingScorer sc)
 	{
 		// If you can twocard a pair and still have a flush, go for it.
-		ScoredSetting flush = bestOf (ss, PokerScore.Flush);
-		if (flush.twoScore.getPrimary() == PokerScore.Pair)
+		int flush = bestOf (sc, PokerScore.Flush);
+		if (PokerScore.primaryOf (sc.getTwoScore (flush)) == PokerScore.Pair)
 		{
 			return flush;
 		}
 
 		// Otherwise, the choice is between two pair and one pair.
-		ScoredSetting twoPair = bestOf (ss, PokerScore.TwoPair);
+		int twoPair = bestOf (sc, PokerScore.TwoPair);
+		int rank0 = PokerScore.rankOf (sc.getFiveScore (twoPair), 0);
+		int rank1 = PokerScore.rankOf (sc.getFiveScore (twoPair), 1);
 
 		// Exception: if your two pair totals seven or less, and your
 		// highest singletons are Q-10 or worse, fivecard the flush.
 
-		if (twoPair.fiveScore.getRank(0) + twoPair.fiveScore.getRank(1) <= 7)
+		if (rank0 + rank1 <= 7)
 		{
-			PokerScore minTwo = PokerScore.makeHighCard (Queen, Jack);
-			if (twoPair.twoScore.compareTo(minTwo) < 0)
+			if (sc.getTwoScore (twoPair) < QueenJack)
 			{
 				return flush;
 			}
 		}
 
 		// Another exception: if your two pair is A2, fivecard the flush.
-		if (twoPair.fiveScore.getRank(0) == Ace &&
-			twoPair.fiveScore.getRank(1) == Deuce)
+		if (rank0 == Ace && rank1 == Deuce)
 		{
 			return flush;
 		}
 
 		// Another exception: if your two pair is AK, banker fivecards the
 		// flush, while player twocards the KK.
-		if (twoPair.fiveScore.getRank(0) == Ace &&
-			twoPair.fiveScore.getRank(1) == King)
+		if (rank0 == Ace && rank1 == King)
 		{
-			return isBanker() ? flush : bestOf (ss, PokerScore.Pair);
+			return isBanker() ? flush : bestOf (sc, PokerScore.Pair);
 		}
 
-		return strategy3 (ss);
+		return strategy3 (sc);
 	}
 
 	/**
 	 * Apply strategy 8 to straight flush vs. pair.  Temporary.
 	 */
-	private ScoredSetting misusedStrategy8 (ScoredSetting[] ss)
+	private int misusedStrategy8 (SettingScorer sc)
 	{
 		// In general, the straight is the better hand.
-		ScoredSetting straight = find (ss, PokerScore.StraightFlush);
+		int straight = find (sc, PokerScore.StraightFlush);
 
 		// The exceptions occur when the straight is an ace-high.
-		if (straight.fiveScore.equals (PokerScore.makeStraightFlush (Ace)))
+		if (sc.getFiveScore (straight) == RoyalFlush)
 		{
-			switch (straight.twoScore.getRank (0))
+			switch (PokerScore.rankOf (sc.getTwoScore (straight), 0))
 			{
 			case Queen:
 			case Jack:
 			case Ten:
 				// If the queen, jack or ten is paired, fivecard the pair.
-				return null;
+				return -1;
 			case King:
 				// If the king is paired, the banker should fivecard the pair.
 				if (isBanker ())
-					return null;
+					return -1;
 			}
 		}
 
@@ -686,19 +718,19 @@ public class WongWay extends HouseWay
 	/**
 	 * Strategy 25.  Four of a kind plus a pair.
 	 */
-	private ScoredSetting strategy25 (ScoredSetting[] ss)
+	private int strategy25 (SettingScorer sc)
 	{
 		// See Table 10.
 		// The difference between the rank of the quad and the rank of
 		// the pair is the factor.
 
-		ScoredSetting quad = find (ss, PokerScore.FourOfAKind);
-		byte rank0 = quad.fiveScore.getRank (0);
-		int diff = rank0 - quad.twoScore.getPrimary ();
+		int quad = find (sc, PokerScore.FourOfAKind);
+		int rank0 = PokerScore.rankOf (sc.getFiveScore (quad), 0);
+		int diff = rank0 - PokerScore.primaryOf (sc.getTwoScore (quad));
 		if (diff >= 9 || (diff == 8 &&
 			(rank0 == Queen || rank0 == Jack ||
 				(rank0 == King && !isBanker ()))))
-			return bestOf (ss, PokerScore.TwoPair);
+			return bestOf (sc, PokerScore.TwoPair);
 
 		return quad;
 	}
@@ -706,57 +738,59 @@ public class WongWay extends HouseWay
 	/**
 	 * Strategy 27.  Five aces.
 	 */
-	private ScoredSetting strategy27 (ScoredSetting[] ss)
+	private int strategy27 (SettingScorer sc)
 	{
 		// Find the full house.
-		ScoredSetting fullHouse = find (ss, PokerScore.FullHouse);
+		int fullHouse = find (sc, PokerScore.FullHouse);
 
 		// If the other two cards are a pair of kings, fivecard the 5 aces.
-		if (fullHouse.fiveScore.getRank (1) == King)
-			return find (ss, PokerScore.FiveOfAKind);
+		if (PokerScore.rankOf (sc.getFiveScore (fullHouse), 1) == King)
+			return find (sc, PokerScore.FiveOfAKind);
 
 		// Otherwise, let the default logic twocard two of the aces.
-		return null;
+		return -1;
 	}
 
 	/**
-	 * Pick the best of the given primary type of hand.
+	 * Pick the best of the given primary type of hand (or of any type,
+	 * if primary is -1): the one with the highest 2-hand, or of equals,
+	 * the first.
+	 * @return the setting, or -1 if there is none
 	 */
-	private ScoredSetting bestOf (ScoredSetting[] ss, int primary)
+	private static int bestOf (SettingScorer sc, int primary)
 	{
-		// Collect the hands of the given primary type.
-		ScoredSetting[] tmp = new ScoredSetting[ss.length];
-		int nn = 0;
-		for (int i = 0; i < ss.length; ++i)
+		int best = -1;
+		for (int i = 0; i < sc.getCandidateCount (); ++i)
 		{
-			if (ss[i].fiveScore.getPrimary () == primary)
+			int s = sc.getCandidate (i);
+			if ((primary < 0 || PokerScore.primaryOf (sc.getFiveScore (s)) == primary) &&
+				(best < 0 || sc.getTwoScore (s) > sc.getTwoScore (best)))
 			{
-				tmp[nn++] = ss[i];
+				best = s;
 			}
 		}
-
-		// Pick the one with the highest 2-hand.
-		return best2Hand (compact(tmp));
+		return best;
 	}
 
-	private static ScoredSetting find (ScoredSetting[] ss, int primary)
+	private static int find (SettingScorer sc, int primary)
 	{
-		for (int i = 0; i < ss.length; ++i)
+		for (int i = 0; i < sc.getCandidateCount (); ++i)
 		{
-			if (ss[i].fiveScore.getPrimary () == primary)
-				return ss[i];
+			int s = sc.getCandidate (i);
+			if (PokerScore.primaryOf (sc.getFiveScore (s)) == primary)
+				return s;
 		}
 
-		return null;
+		return -1;
 	}
 
-	private static int count (ScoredSetting[] ss, int primary)
+	private static int count (SettingScorer sc, int primary)
 	{
 		int count = 0;
 
-		for (int i = 0; i < ss.length; ++i)
+		for (int i = 0; i < sc.getCandidateCount (); ++i)
 		{
-			if (ss[i].fiveScore.getPrimary () == primary)
+			if (PokerScore.primaryOf (sc.getFiveScore (sc.getCandidate (i))) == primary)
 				++count;
 		}
 
@@ -766,22 +800,39 @@ public class WongWay extends HouseWay
 	/**
 	 * Common table lookup code.
 	 */
-	private PokerScore indexTwoCard (String[][] table, int index1, int index2)
+	private static int indexTwoCard (int[][] table, int index1, int index2)
 	{
-		String str = table[getBankerPlayerIndex ()][index1];
-		int strIndex = index2 * 3;
-		if (strIndex + 1 >= str.length ()) {
-			return null;
-		}
+		int[] row = table[index1];
+		return index2 < row.length ? row[index2] : -1;
+	}
 
-		// Get the minimum two-card hand required to set hand this way.
-		int srank0 = Card.RankChars.indexOf (str.charAt (strIndex));
-		int srank1 = Card.RankChars.indexOf (str.charAt (strIndex + 1));
-		if (srank0 < 0 || srank1 < 0) {
-			return null;
+	/**
+	 * Parse a table of two-card hands, three characters per entry, into
+	 * packed scores.  An entry that does not name two ranks parses as -1.
+	 */
+	private static int[][][] parseTables (String[][] tables)
+	{
+		int[][][] result = new int [tables.length][][];
+		for (int i = 0; i < tables.length; ++i)
+		{
+			result[i] = new int [tables[i].length][];
+			for (int j = 0; j < tables[i].length; ++j)
+			{
+				String str = tables[i][j];
+				int[] row = new int [(str.length () + 1) / 3];
+				for (int k = 0; k < row.length; ++k)
+				{
+					// Get the minimum two-card hand required to set hand this way.
+					int srank0 = Card.RankChars.indexOf (str.charAt (k * 3));
+					int srank1 = Card.RankChars.indexOf (str.charAt (k * 3 + 1));
+					row[k] = srank0 >= 0 && srank1 >= 0
+						? PokerScore.makeHighCard (
+							(byte) (MinRank + srank0), (byte) (MinRank + srank1)).intValue ()
+						: -1;
+				}
+				result[i][j] = row;
+			}
 		}
-
-		return PokerScore.makeHighCard (
-			(byte) (MinRank + srank0), (byte) (MinRank + srank1));
+		return result;
 	}
-}
+}
\ No newline at end of file
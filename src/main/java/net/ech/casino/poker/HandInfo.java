@@ -19,52 +19,170 @@ import net.ech.casino.*;
 public class HandInfo implements CardConstants
 {
 	/**
-	 * Score a hand.
+	 * Score a five-card hand.
 	 */
 	public static PokerScore score (byte[] hand)
 	{
-		HandInfo info = new HandInfo (hand);
+		return PokerScore.valueOf (scoreInt (hand, 0));
+	}
 
-		if (info.hasTuple (5))
-			return PokerScore.makeFiveOfAKind (Ace);
+	/**
+	 * Score five cards of a hand by table lookup, without allocating any
+	 * objects.	 Equivalent to <code>score</code> for a five-card hand.
+	 * @param hand	the cards
+	 * @param off	the index of the first of the five cards
+	 * @return the packed score
+	 * @see net.ech.casino.PokerScore#build
+	 */
+	public static int scoreInt (byte[] hand, int off)
+	{
+		return Table.score (hand, off);
+	}
 
-		boolean flush = isFlush (hand);
-		if (flush && info.isStraight ())
-			return PokerScore.makeStraightFlush (info.getStraightRank ());
+	private final static PokerScoreTable Table =
+		new PokerScoreTable (new PokerScoreTable.Scorer ()
+		{
+			public int score (byte[] hand, int off)
+			{
+				return computeScore (hand, off);
+			}
+		});
 
-		if (info.hasTuple (4))
-			return PokerScore.makeFourOfAKind (info.getRank (4, 0));
+	//
+	// Score five cards of a hand from first principles.  This is the
+	// reference from which the lookup table is built.
+	//
+	static int computeScore (byte[] hand, int off)
+	{
+		// Rank counts are held in 4-bit fields, indexed by rank.
+		// Gather statistics used for detection of straights as in the
+		// constructor.
+		//
+		long counts = 0;
+		boolean hasJoker = false;
+		boolean anyPair = false;
+		boolean anySixThruKing = false;
+		byte highRank = NilRank;
+		byte lowRank = NilRank;
+		byte firstSuit = NilSuit;
+		boolean flush = true;
+		for (int i = off; i < off + 5; ++i)
+		{
+			byte card = hand[i];
+			byte rank = Card.rankOf (card);
+			if (rank == NilRank /* joker */)
+			{
+				hasJoker = true;
+				continue;
+			}
 
-		if (info.hasTuple (3) && info.hasTuple (2))
-			return PokerScore.makeFullHouse (info.getRank (3, 0),
-											 info.getRank (2, 0));
+			if (rank >= Six && rank <= King)
+				anySixThruKing = true;
+			if (highRank == NilRank || rank > highRank)
+				highRank = rank;
+			if (lowRank == NilRank || rank < lowRank)
+				lowRank = rank;
+			if (count (counts, rank) > 0)
+				anyPair = true;
+			counts += 1L << (rank * 4);
+
+			byte suit = Card.suitOf (card);
+			if (firstSuit == NilSuit)
+				firstSuit = suit;
+			else if (suit != firstSuit)
+				flush = false;
+		}
+
+		byte straightRank = NilRank;
+		if (!anyPair)
+		{
+			if (!anySixThruKing)		// ace-low straight.
+				straightRank = Five;
+			else
+			{
+				switch (highRank - lowRank)
+				{
+				case 3: // Joker outside the straight.
+					if (highRank != Ace)
+						highRank += 1;
+				case 4: // If there's a joker, it's inside the straight.
+					straightRank = highRank;
+				}
+			}
+		}
+
+		if (hasJoker)
+			counts += 1L << (Ace * 4);
+
+		if (findRank (counts, 5, 0) != NilRank)
+			return PokerScore.build (PokerScore.FiveOfAKind, Ace);
+
+		if (flush && straightRank != NilRank)
+			return PokerScore.build (PokerScore.StraightFlush, straightRank,
+									 straightRank - 1, straightRank - 2,
+									 straightRank - 3);
+
+		int quad = findRank (counts, 4, 0);
+		if (quad != NilRank)
+			return PokerScore.build (PokerScore.FourOfAKind, quad);
+
+		int triple = findRank (counts, 3, 0);
+		int pair = findRank (counts, 2, 0);
+		if (triple != NilRank && pair != NilRank)
+			return PokerScore.build (PokerScore.FullHouse, triple, pair,
+									 NilRank, NilRank);
 
 		if (flush)
-			return PokerScore.makeFlush (info.getRank (0), info.getRank (1),
-										 info.getRank (2), info.getRank (3));
-
-		if (info.isStraight ())
-			return PokerScore.makeStraight (info.getStraightRank ());
-
-		if (info.hasTuple (3))
-			return PokerScore.makeThreeOfAKind (info.getRank (3, 0));
-
-		if (info.getPairCount () == 2)
-			return PokerScore.makeTwoPair (info.getRank (2, 0),
-										   info.getRank (2, 1),
-										   info.getRank (1, 0));
-
-		if (info.getPairCount () > 0)
-			return PokerScore.makePair (info.getRank (2, 0),
-										info.getRank (1, 0),
-										info.getRank (1, 1),
-										info.getRank (1, 2));
-
-		return PokerScore.makeHighCard (info.getRank (0),
-										info.getRank (1),
-										info.getRank (2),
-										info.getRank (3),
-										info.getRank (4));
+			return PokerScore.build (PokerScore.Flush,
+									 findRank (counts, 0, 0),
+									 findRank (counts, 0, 1),
+									 findRank (counts, 0, 2),
+									 findRank (counts, 0, 3));
+
+		if (straightRank != NilRank)
+			return PokerScore.build (PokerScore.Straight, straightRank,
+									 straightRank - 1, straightRank - 2,
+									 straightRank - 3);
+
+		if (triple != NilRank)
+			return PokerScore.build (PokerScore.ThreeOfAKind, triple);
+
+		int pair2 = findRank (counts, 2, 1);
+		if (pair2 != NilRank)
+			return PokerScore.build (PokerScore.TwoPair, pair, pair2,
+									 findRank (counts, 1, 0), NilRank);
+
+		if (pair != NilRank)
+			return PokerScore.build (PokerScore.Pair, pair,
+									 findRank (counts, 1, 0),
+									 findRank (counts, 1, 1),
+									 findRank (counts, 1, 2));
+
+		return PokerScore.build (findRank (counts, 0, 0),
+								 findRank (counts, 0, 1),
+								 findRank (counts, 0, 2),
+								 findRank (counts, 0, 3),
+								 findRank (counts, 0, 4));
+	}
+
+	private static int count (long counts, int rank)
+	{
+		return (int) (counts >>> (rank * 4)) & 0xf;
+	}
+
+	//
+	// Return the nth highest rank that occurs exactly m times, or any
+	// number of times if m is zero.  Return NilRank if there is none.
+	//
+	private static int findRank (long counts, int m, int n)
+	{
+		for (int rank = MaxRank; rank >= MinRank; --rank)
+		{
+			int c = count (counts, rank);
+			if ((m == 0 ? c > 0 : c == m) && n-- == 0)
+				return rank;
+		}
+		return NilRank;
 	}
 
 	/**
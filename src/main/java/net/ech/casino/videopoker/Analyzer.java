@@ -0,0 +1,405 @@
+//
+// Analyzer.java
+//
+
+package net.ech.casino.videopoker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import net.ech.casino.CardSet;
+import net.ech.casino.MachineException;
+
+/**
+ * Computes the exact return of a video poker machine to a player who
+ * makes the best play on every deal.
+ * <p>
+ * Every deal is solved by a HoldSolver.  Deals that differ only by a
+ * renaming of suits play alike, so the deals are reduced to one of each
+ * suit pattern, which counts for all the deals in its pattern: 134,459 in
+ * place of 2,598,960 for a standard deck.  A pay table with a row for a
+ * flush of a given suit tells suits apart, and then every deal is solved.
+ * Deals are spread over a fork-join pool.
+ * <p>
+ * Hit counts are kept as exact integers, scaled so that every play's
+ * draws count with the same weight.
+ * <p>
+ * Usage: java net.ech.casino.videopoker.Analyzer [options]
+ * <pre>
+ *	-class name				a VideoPokerMachine class with a public
+ *							no-argument constructor
+ *	-pay label=multiple[/maxmultiple]
+ *							a pay row, top row first; repeat for each row
+ *	-deuces					deuces are wild
+ *	-jokers count			jokers in the deck (0 or 1)
+ *	-minbet					pay as for less than the maximum bet
+ * </pre>
+ * With neither -class nor -pay, the machine is 9/6 jacks or better.
+ *
+ * @see net.ech.casino.videopoker.HoldSolver
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class Analyzer implements Constants
+{
+	private final VideoPokerMachine machine;
+	private final HoldSolver solver;
+	private final boolean isMaxBet;
+
+	// The deals to solve, one of each suit pattern, and the number of
+	// deals each stands for.
+	private long[] deals;
+	private int[] weights;
+
+	// The least common multiple of the draw counts.
+	private long scale;
+
+	/**
+	 * Constructor.
+	 * @param machine	the machine; its deck may hold one joker at most
+	 * @param isMaxBet	whether to pay as for the maximum bet
+	 * @exception IllegalArgumentException if the deck holds more than one
+	 *			  joker
+	 */
+	public Analyzer (VideoPokerMachine machine, boolean isMaxBet)
+	{
+		int jokers = machine.getCardsInDeck () - CardsInStandardDeck;
+		if (jokers < 0 || jokers > 1)
+			throw new IllegalArgumentException ("cardsInDeck=" + machine.getCardsInDeck ());
+
+		this.machine = machine;
+		this.solver = new HoldSolver (machine);
+		this.isMaxBet = isMaxBet;
+
+		scale = 1;
+		for (int drawMask = 0; drawMask < (1 << CardsInHand); ++drawMask)
+			scale = lcm (scale, solver.getDrawCount (drawMask));
+
+		long deck = jokers == 0 ? CardSet.StandardDeck : CardSet.JokerDeck;
+		collectDeals (deck, isSuitBlind (machine));
+	}
+
+	private static long lcm (long a, long b)
+	{
+		long x = a;
+		long y = b;
+		while (y != 0)
+		{
+			long t = x % y;
+			x = y;
+			y = t;
+		}
+		return a / x * b;
+	}
+
+	// Whether no pay row names a suit.
+	private static boolean isSuitBlind (VideoPokerMachine machine)
+	{
+		String[] suits = { "DIAMONDS", "CLUBS", "HEARTS", "SPADES" };
+		for (int i = 0; i < machine.getPayoutCount (); ++i)
+		{
+			String label = machine.getPayout (i).getLabel ().toUpperCase ();
+			for (int s = 0; s < suits.length; ++s)
+			{
+				if (label.indexOf (suits[s]) >= 0)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	// Every deal, reduced to its suit pattern if the pay table allows,
+	// then sorted and counted.
+	private void collectDeals (long deck, boolean canonical)
+	{
+		long[] cards = new long [CardSet.size (deck)];
+		long rest = deck;
+		for (int i = 0; i < cards.length; ++i)
+		{
+			cards[i] = Long.lowestOneBit (rest);
+			rest &= rest - 1;
+		}
+
+		int n = cards.length;
+		long[] all = new long [n * (n - 1) * (n - 2) * (n - 3) / 24 * (n - 4) / 5];
+		int count = 0;
+		for (int a = 0; a < n; ++a)
+		for (int b = a + 1; b < n; ++b)
+		for (int c = b + 1; c < n; ++c)
+		for (int d = c + 1; d < n; ++d)
+		for (int e = d + 1; e < n; ++e)
+		{
+			long set = cards[a] | cards[b] | cards[c] | cards[d] | cards[e];
+			all[count++] = canonical ? CardSet.canonical (set) : set;
+		}
+		Arrays.sort (all);
+
+		int distinct = 0;
+		for (int i = 0; i < all.length; ++i)
+		{
+			if (i == 0 || all[i] != all[i - 1])
+				++distinct;
+		}
+		deals = new long [distinct];
+		weights = new int [distinct];
+		int j = -1;
+		for (int i = 0; i < all.length; ++i)
+		{
+			if (i == 0 || all[i] != all[i - 1])
+				deals[++j] = all[i];
+			++weights[j];
+		}
+	}
+
+	/**
+	 * Get the number of deals solved.
+	 */
+	public int getDealCount ()
+	{
+		return deals.length;
+	}
+
+	/**
+	 * Hit counts by pay row, scaled.
+	 */
+	public static class Tally
+	{
+		private final long[] hits;
+		private long total;
+
+		Tally (int grades)
+		{
+			hits = new long [grades];
+		}
+
+		void add (Tally that)
+		{
+			for (int g = 0; g < hits.length; ++g)
+				hits[g] += that.hits[g];
+			total += that.total;
+		}
+
+		/**
+		 * Get the hits on a pay row, scaled.
+		 */
+		public long getHits (int grade)
+		{
+			return hits[grade];
+		}
+
+		/**
+		 * Get the number of outcomes, scaled as the hits are.
+		 */
+		public long getTotal ()
+		{
+			return total;
+		}
+
+		/**
+		 * Get the chance of hitting a pay row.
+		 */
+		public double getFrequency (int grade)
+		{
+			return (double) hits[grade] / total;
+		}
+	}
+
+	/**
+	 * Solve every deal.
+	 * @return the hits of the best plays
+	 */
+	public Tally analyze ()
+	{
+		return ForkJoinPool.commonPool ().invoke (new Range (0, deals.length));
+	}
+
+	/**
+	 * Get the expected return, as a multiple of the bet.
+	 */
+	public double getReturn (Tally tally)
+	{
+		double total = 0;
+		for (int g = 0; g < machine.getPayoutCount (); ++g)
+			total += tally.getFrequency (g) * machine.getPayout (g).getMultiple (isMaxBet);
+		return total;
+	}
+
+	// Solve one suit pattern.
+	private void analyze (int index, Tally tally)
+	{
+		byte[] hand = CardSet.toCards (deals[index]);
+		int[][] wins = solver.countWins (hand);
+		int best = HoldSolver.getBestDraw (solver.getExpectedReturns (wins, isMaxBet));
+		long weight = weights[index] * (scale / solver.getDrawCount (best));
+		for (int g = 0; g < wins[best].length; ++g)
+			tally.hits[g] += wins[best][g] * weight;
+		tally.total += weights[index] * scale;
+	}
+
+	/**
+	 * A range of deals, split in halves until small, with the tallies of
+	 * the halves merged.
+	 */
+	private class Range extends RecursiveTask<Tally>
+	{
+		private final int from;
+		private final int to;
+
+		Range (int from, int to)
+		{
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Tally compute ()
+		{
+			Tally result = new Tally (machine.getPayoutCount ());
+			if (to - from <= 256)
+			{
+				for (int index = from; index < to; ++index)
+					analyze (index, result);
+			}
+			else
+			{
+				int mid = (from + to) >>> 1;
+				Range upper = new Range (mid, to);
+				upper.fork ();
+				result.add (new Range (from, mid).compute ());
+				result.add (upper.join ());
+			}
+			return result;
+		}
+	}
+
+	//=======================================================================
+	// Command line.
+	//=======================================================================
+
+	public static void main (String[] args)
+		throws Exception
+	{
+		String className = null;
+		List<Payout> payouts = new ArrayList<Payout> ();
+		boolean deucesWild = false;
+		int jokers = 0;
+		boolean isMaxBet = true;
+
+		for (int i = 0; i < args.length; ++i)
+		{
+			String arg = args[i];
+			if (arg.equalsIgnoreCase ("-class") && i + 1 < args.length)
+				className = args[++i];
+			else if (arg.equalsIgnoreCase ("-pay") && i + 1 < args.length)
+				payouts.add (parsePayout (args[++i]));
+			else if (arg.equalsIgnoreCase ("-deuces"))
+				deucesWild = true;
+			else if (arg.equalsIgnoreCase ("-jokers") && i + 1 < args.length)
+				jokers = Integer.parseInt (args[++i]);
+			else if (arg.equalsIgnoreCase ("-minbet"))
+				isMaxBet = false;
+			else
+				usage ();
+		}
+
+		VideoPokerMachine machine;
+		if (className != null)
+		{
+			machine = (VideoPokerMachine) Class.forName (className).newInstance ();
+		}
+		else
+		{
+			if (payouts.isEmpty ())
+				payouts = jacksOrBetter ();
+			machine = new VideoPokerMachine ((Payout[]) payouts.toArray (new Payout [payouts.size ()]));
+			machine.setDeucesWild (deucesWild);
+			machine.setCardsInDeck (CardsInStandardDeck + jokers);
+		}
+
+		long start = System.nanoTime ();
+		Analyzer analyzer = new Analyzer (machine, isMaxBet);
+		System.out.println ("Built tables and found " + analyzer.getDealCount () +
+			" deals in " + seconds (System.nanoTime () - start) + " s");
+
+		start = System.nanoTime ();
+		Tally tally = analyzer.analyze ();
+		System.out.println ("Solved in " + seconds (System.nanoTime () - start) + " s");
+
+		System.out.println ();
+		double hitRate = 0;
+		for (int g = 0; g < machine.getPayoutCount (); ++g)
+		{
+			Payout payout = machine.getPayout (g);
+			int multiple = payout.getMultiple (isMaxBet);
+			double frequency = tally.getFrequency (g);
+			hitRate += frequency;
+			System.out.println (pad (payout.getLabel (), 24) + pad (String.valueOf (multiple), 6) +
+				pad (String.valueOf (frequency), 26) +
+				pad (frequency == 0 ? "never" : "1 in " + Math.round (1 / frequency * 10) / 10.0, 18) +
+				percent (frequency * multiple) + "%");
+		}
+		System.out.println ();
+		System.out.println ("Hit rate:  " + percent (hitRate) + "%");
+		System.out.println ("Return:    " + percent (analyzer.getReturn (tally)) + "%");
+	}
+
+	// LABEL=multiple or LABEL=multiple/maxmultiple
+	private static Payout parsePayout (String arg)
+		throws MachineException
+	{
+		int eq = arg.lastIndexOf ('=');
+		if (eq < 0)
+			throw new MachineException (arg);
+		String label = arg.substring (0, eq).trim ();
+		String multiples = arg.substring (eq + 1);
+		int slash = multiples.indexOf ('/');
+		if (slash < 0)
+			return new Payout (label, Integer.parseInt (multiples));
+		return new Payout (label, Integer.parseInt (multiples.substring (0, slash)),
+						   Integer.parseInt (multiples.substring (slash + 1)));
+	}
+
+	private static List<Payout> jacksOrBetter ()
+	{
+		return new ArrayList<Payout> (Arrays.asList (new Payout[] {
+			new Payout ("ROYAL FLUSH", 250, 800),
+			new Payout ("STRAIGHT FLUSH", 50),
+			new Payout ("FOUR OF A KIND", 25),
+			new Payout ("FULL HOUSE", 9),
+			new Payout ("FLUSH", 6),
+			new Payout ("STRAIGHT", 4),
+			new Payout ("THREE OF A KIND", 3),
+			new Payout ("TWO PAIR", 2),
+			new Payout ("JACKS OR BETTER", 1)
+		}));
+	}
+
+	private static String pad (String s, int width)
+	{
+		StringBuilder buf = new StringBuilder (s);
+		while (buf.length () < width)
+			buf.append (' ');
+		return buf.toString ();
+	}
+
+	private static String seconds (long nanos)
+	{
+		return String.valueOf (nanos / 1000000 / 1000.0);
+	}
+
+	private static String percent (double fraction)
+	{
+		return String.valueOf (Math.round (fraction * 1e6) / 1e4);
+	}
+
+	private static void usage ()
+	{
+		System.err.println ("Usage: java net.ech.casino.videopoker.Analyzer [-class name]");
+		System.err.println ("		[-pay label=multiple[/maxmultiple] ...] [-deuces] [-jokers count]");
+		System.err.println ("		[-minbet]");
+		System.exit (2);
+	}
+}
@@ -5,6 +5,7 @@
 package net.ech.casino.videopoker;
 
 import net.ech.casino.Card;
+import net.ech.casino.WildCardEvaluator;
 
 /**
  * A HandInfo object is a digested video poker hand.
@@ -113,11 +114,10 @@ public class HandInfo implements Constants
 		//
 		if (tupleCounts[0] == 0)
 		{
-			this.straightFlag = 
-				(rankCount == 0) ||						// all wild
-				(highRank - lowRank < CardsInHand) ||	// normal straight
-				(highRank == Ace &&				// ace-low straight
-					 (rankCount == 1 || ranks[rankCount - 2] <= Five));
+			int mask = 0;
+			for (int i = 0; i < rankCount; ++i)
+				mask |= 1 << ranks[i];
+			this.straightFlag = WildCardEvaluator.completesStraight (mask);
 		}
 	}
 	
@@ -0,0 +1,316 @@
+//
+// HoldSolver.java
+//
+
+package net.ech.casino.videopoker;
+
+import net.ech.casino.Card;
+import net.ech.casino.Deck;
+
+/**
+ * A HoldSolver computes the exact expected return of each of the 32 ways
+ * to play a dealt video poker hand on a given machine.
+ * <p>
+ * The solver does not enumerate draws.  When it is built, it grades every
+ * five-card hand in the deck once and counts, for every set of up to four
+ * cards, the hands containing that set that win on each pay row.  The
+ * draws for a hold are the hands that contain the held cards and none of
+ * the discards; by inclusion and exclusion over the discards, their counts
+ * come from 243 of these tallies.  A solve takes microseconds and the
+ * tables under a second to build; they are read-only after, so one solver
+ * may be shared by any number of threads.
+ * <p>
+ * Hands are graded as the machine grades them when it is not charged, and
+ * with the cards in deck order, so a pay row that depends on the order of
+ * the cards on the screen, such as a sequential royal, does not match.
+ *
+ * @see net.ech.casino.videopoker.VideoPokerMachine
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class HoldSolver implements Constants
+{
+	private final static int AllCards = (1 << CardsInHand) - 1;
+
+	private VideoPokerMachine machine;
+	private byte[] deck;
+	private int grades;
+
+	// choose[n * (CardsInHand + 1) + k] is n choose k.
+	private int[] choose;
+
+	// For each size k less than five, and each set of k cards, given as
+	// indexes into the deck, the number of hands containing the set that
+	// win on each pay row.  Sets of a size are numbered by colex rank.
+	private int[][] tallies = new int [CardsInHand][];
+
+	/**
+	 * Constructor.  Builds the tables for the machine's deck and pay rows.
+	 */
+	public HoldSolver (VideoPokerMachine machine)
+	{
+		this.machine = machine;
+		this.deck = new Deck (machine.getCardsInDeck () - CardsInStandardDeck).copyCards ();
+		this.grades = machine.getPayoutCount ();
+
+		int n = deck.length;
+		choose = new int [(n + 1) * (CardsInHand + 1)];
+		for (int i = 0; i <= n; ++i)
+		{
+			choose[i * (CardsInHand + 1)] = 1;
+			for (int k = 1; k <= CardsInHand && k <= i; ++k)
+				choose[i * (CardsInHand + 1) + k] = choose (i - 1, k - 1) + choose (i - 1, k);
+		}
+		for (int k = 0; k < CardsInHand; ++k)
+			tallies[k] = new int [choose (n, k) * grades];
+
+		tallyHands ();
+		for (int k = CardsInHand - 2; k >= 0; --k)
+			tallySubsets (k);
+	}
+
+	private int choose (int n, int k)
+	{
+		return choose[n * (CardsInHand + 1) + k];
+	}
+
+	// The colex rank of a set of deck indexes, in ascending order, less
+	// the one at position skip, if any.
+	private int rankOf (int[] set, int size, int skip)
+	{
+		int rank = 0;
+		for (int i = 0, k = 0; i < size; ++i)
+		{
+			if (i != skip)
+				rank += choose (set[i], ++k);
+		}
+		return rank;
+	}
+
+	// Grade every hand and count it against each of its sets of four.
+	private void tallyHands ()
+	{
+		int n = deck.length;
+		int[] set = new int [CardsInHand];
+		byte[] hand = new byte [CardsInHand];
+		int[] fours = tallies[CardsInHand - 1];
+		for (set[0] = 0; set[0] < n; ++set[0])
+		for (set[1] = set[0] + 1; set[1] < n; ++set[1])
+		for (set[2] = set[1] + 1; set[2] < n; ++set[2])
+		for (set[3] = set[2] + 1; set[3] < n; ++set[3])
+		for (set[4] = set[3] + 1; set[4] < n; ++set[4])
+		{
+			for (int i = 0; i < CardsInHand; ++i)
+				hand[i] = deck[set[i]];
+			int grade = machine.grade (hand, false);
+			if (grade != NoGrade)
+			{
+				for (int skip = 0; skip < CardsInHand; ++skip)
+					++fours[rankOf (set, CardsInHand, skip) * grades + grade];
+			}
+		}
+	}
+
+	// Count the hands containing each set of k cards from the counts for
+	// sets of k + 1.  A hand holds five less k of the larger sets that
+	// contain a given set.
+	private void tallySubsets (int k)
+	{
+		int n = deck.length;
+		int[] from = tallies[k + 1];
+		int[] to = tallies[k];
+		int[] set = new int [k + 1];
+		for (int i = 0; i <= k; ++i)
+			set[i] = i;
+		while (true)
+		{
+			int base = rankOf (set, k + 1, -1) * grades;
+			for (int skip = 0; skip <= k; ++skip)
+			{
+				int sub = rankOf (set, k + 1, skip) * grades;
+				for (int g = 0; g < grades; ++g)
+					to[sub + g] += from[base + g];
+			}
+
+			// Next set in lexicographic order.
+			int i = k;
+			while (i >= 0 && set[i] == n - 1 - (k - i))
+				--i;
+			if (i < 0)
+				break;
+			++set[i];
+			for (int j = i + 1; j <= k; ++j)
+				set[j] = set[j - 1] + 1;
+		}
+
+		for (int i = 0; i < to.length; ++i)
+			to[i] /= CardsInHand - k;
+	}
+
+	/**
+	 * Get the number of pay rows, the length of each array returned by
+	 * countWins.
+	 */
+	public int getPayoutCount ()
+	{
+		return grades;
+	}
+
+	/**
+	 * Get the number of different draws for a draw mask.
+	 * @param drawMask	a bit mask of the cards to draw, low bit for the
+	 *					leftmost card, as for VideoPokerGame.draw
+	 */
+	public int getDrawCount (int drawMask)
+	{
+		return choose (deck.length - CardsInHand, Integer.bitCount (drawMask & AllCards));
+	}
+
+	/**
+	 * Count the winning draws for every way to play a hand.
+	 * @param hand	the five cards dealt
+	 * @return for each draw mask from 0 to 31, the number of draws that
+	 *		   win on each pay row
+	 * @exception IllegalArgumentException if the hand cannot be dealt from
+	 *			  the machine's deck
+	 */
+	public int[][] countWins (byte[] hand)
+	{
+		int[] set = indexesOf (hand);
+
+		// By hold mask, first the number of hands in the whole deck that
+		// contain the held cards, then the number that contain none of
+		// the others.
+		int[][] counts = new int [AllCards + 1][];
+		int[] sorted = new int [CardsInHand];
+		for (int hold = 0; hold < AllCards; ++hold)
+		{
+			int size = 0;
+			for (int i = 0; i < CardsInHand; ++i)
+			{
+				if ((hold & (1 << i)) != 0)
+					sorted[size++] = set[i];
+			}
+			java.util.Arrays.sort (sorted, 0, size);
+			int base = rankOf (sorted, size, -1) * grades;
+			counts[hold] = new int [grades];
+			System.arraycopy (tallies[size], base, counts[hold], 0, grades);
+		}
+		counts[AllCards] = new int [grades];
+		int grade = machine.grade (hand, false);
+		if (grade != NoGrade)
+			counts[AllCards][grade] = 1;
+
+		// Inclusion and exclusion, one card at a time.
+		for (int bit = 1; bit < AllCards; bit <<= 1)
+		{
+			for (int hold = 0; hold < AllCards; ++hold)
+			{
+				if ((hold & bit) == 0)
+				{
+					for (int g = 0; g < grades; ++g)
+						counts[hold][g] -= counts[hold | bit][g];
+				}
+			}
+		}
+
+		// Index by draw mask.
+		int[][] wins = new int [AllCards + 1][];
+		for (int hold = 0; hold <= AllCards; ++hold)
+			wins[AllCards & ~hold] = counts[hold];
+		return wins;
+	}
+
+	/**
+	 * Compute the expected return of every way to play a hand.
+	 * @param hand		the five cards dealt
+	 * @param isMaxBet	whether the bet is the maximum, for pay rows that
+	 *					pay more on the maximum bet
+	 * @return for each draw mask from 0 to 31, the expected return as a
+	 *		   multiple of the bet
+	 * @exception IllegalArgumentException if the hand cannot be dealt from
+	 *			  the machine's deck
+	 */
+	public double[] getExpectedReturns (byte[] hand, boolean isMaxBet)
+	{
+		return getExpectedReturns (countWins (hand), isMaxBet);
+	}
+
+	/**
+	 * Compute the expected return of every way to play a hand from its
+	 * win counts.
+	 * @param wins		the win counts, as returned by countWins
+	 * @param isMaxBet	whether the bet is the maximum
+	 * @return for each draw mask from 0 to 31, the expected return as a
+	 *		   multiple of the bet
+	 */
+	public double[] getExpectedReturns (int[][] wins, boolean isMaxBet)
+	{
+		double[] returns = new double [AllCards + 1];
+		for (int drawMask = 0; drawMask <= AllCards; ++drawMask)
+		{
+			long total = 0;
+			for (int g = 0; g < grades; ++g)
+				total += (long) wins[drawMask][g] * machine.getPayout (g).getMultiple (isMaxBet);
+			returns[drawMask] = (double) total / getDrawCount (drawMask);
+		}
+		return returns;
+	}
+
+	/**
+	 * Find the play with the highest expected return.  Of equal plays,
+	 * the one that draws the fewest cards is chosen.
+	 * @param hand		the five cards dealt
+	 * @param isMaxBet	whether the bet is the maximum
+	 * @return a draw mask, as for VideoPokerGame.draw
+	 * @exception IllegalArgumentException if the hand cannot be dealt from
+	 *			  the machine's deck
+	 */
+	public int getBestDraw (byte[] hand, boolean isMaxBet)
+	{
+		return getBestDraw (getExpectedReturns (hand, isMaxBet));
+	}
+
+	/**
+	 * Find the play with the highest expected return, as above.
+	 * @param returns	the expected returns, by draw mask
+	 * @return a draw mask
+	 */
+	public static int getBestDraw (double[] returns)
+	{
+		int best = 0;
+		for (int drawMask = 1; drawMask <= AllCards; ++drawMask)
+		{
+			if (returns[drawMask] > returns[best] ||
+				(returns[drawMask] == returns[best] &&
+				 Integer.bitCount (drawMask) < Integer.bitCount (best)))
+			{
+				best = drawMask;
+			}
+		}
+		return best;
+	}
+
+	// The deck indexes of the cards of a hand.  Jokers take the first
+	// joker indexes not already taken.
+	private int[] indexesOf (byte[] hand)
+	{
+		if (hand.length != CardsInHand)
+			throw new IllegalArgumentException ("not a five-card hand");
+
+		int[] set = new int [CardsInHand];
+		boolean[] taken = new boolean [deck.length];
+		for (int i = 0; i < CardsInHand; ++i)
+		{
+			int index = 0;
+			while (index < deck.length && (taken[index] || deck[index] != hand[i]))
+				++index;
+			if (index == deck.length)
+				throw new IllegalArgumentException ("not in deck: " + Card.toString (hand[i]));
+			taken[index] = true;
+			set[i] = index;
+		}
+		return set;
+	}
+}
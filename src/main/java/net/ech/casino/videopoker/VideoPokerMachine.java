@@ -240,6 +240,16 @@ public class VideoPokerMachine extends CreditsMachine
 	 * @return the index of the corresponding payout row, or -1 if no win.
 	 */
 	public int grade (byte[] hand, VideoPokerGame game)
+	{
+		return grade (hand, game.isCharged ());
+	}
+
+	/**
+	 * Grade a hand, apart from any game.
+	 * @param charged	whether the machine is in the charged state
+	 * @return the index of the corresponding payout row, or -1 if no win.
+	 */
+	public int grade (byte[] hand, boolean charged)
 	{
 		HandInfo handInfo = new HandInfo (hand, deucesWild);
 
@@ -248,7 +258,7 @@ public class VideoPokerMachine extends CreditsMachine
 			if (winners[i].matches (handInfo))
 			{
 				// Handle Shockwave / Flush Attack...
-				if (i == chargeablePayLine && game.isCharged ())
+				if (i == chargeablePayLine && charged)
 					return chargedPayLine;
 				return i;
 			}
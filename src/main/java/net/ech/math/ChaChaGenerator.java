@@ -0,0 +1,283 @@
+//
+// ChaChaGenerator.java
+//
+
+package net.ech.math;
+
+import java.security.SecureRandom;
+
+/**
+ * A cryptographically strong random number generator based on the
+ * ChaCha20 stream cipher of D. J. Bernstein, run in counter mode.
+ * <p>
+ * Each call to the block function produces 64 bytes of output into an
+ * internal buffer, from which <code>next</code> is served; the cipher
+ * runs only once every sixteen 32-bit values.	Every
+ * <code>reseedInterval</code> blocks the generator rekeys itself from its
+ * own output ("fast key erasure"), so that a later compromise of the
+ * state does not reveal earlier output.  A generator built with an
+ * entropy source also mixes fresh entropy into each new key.
+ * <p>
+ * A generator seeded through <code>setSeed</code> alone is deterministic,
+ * which suits testing but not play: production instances should come from
+ * the no-argument or <code>SecureRandom</code> constructors.
+ * <p>
+ * This generator is not synchronized.	To obtain a synchronized
+ * instance, call <code>RandomNumberGenerator.synchronizedInstance</code>.
+ *
+ * @author ech@codespinner.com
+ */
+public class ChaChaGenerator extends RandomNumberGenerator
+{
+	private final static int DEFAULT_RESEED_INTERVAL = 1 << 16;		// 4MB
+	private final static int BLOCK_WORDS = 16;
+	private final static int KEY_WORDS = 8;
+
+	private SecureRandom entropy;
+	private int reseedInterval = DEFAULT_RESEED_INTERVAL;
+
+	private int[] key = new int [KEY_WORDS];
+	private long counter;
+	private int[] block = new int [BLOCK_WORDS];
+	private int position;
+	private int blockCount;
+
+	/**
+	 * Constructor.	 Key the generator from a new instance of
+	 * <code>SecureRandom</code>, which also supplies fresh entropy at
+	 * each reseed.
+	 */
+	public ChaChaGenerator ()
+	{
+		this (new SecureRandom ());
+	}
+
+	/**
+	 * Constructor.	 Key the generator from the given entropy source,
+	 * which also supplies fresh entropy at each reseed.
+	 * @param	entropy	  a source of entropy
+	 */
+	public ChaChaGenerator (SecureRandom entropy)
+	{
+		this.entropy = entropy;
+		setKey (new int [KEY_WORDS]);
+	}
+
+	/**
+	 * Constructor.	 The generator is deterministic.
+	 * @param	seed   the initial seed.
+	 */
+	public ChaChaGenerator (long seed)
+	{
+		setSeed (seed);
+	}
+
+	/**
+	 * Set the seed of this random number generator using a single
+	 * <code>long</code> seed.	The key is expanded from the seed, and any
+	 * entropy source is disregarded from this point on, so that the
+	 * sequence is reproducible.
+	 * @param	seed   the initial seed.
+	 */
+	public void setSeed (long seed)
+	{
+		entropy = null;
+
+		int[] newKey = new int [KEY_WORDS];
+		LinearCongruentialGenerator expander = new LinearCongruentialGenerator (seed);
+		for (int i = 0; i < KEY_WORDS; ++i)
+		{
+			newKey[i] = expander.next (32);
+		}
+		setKey (newKey);
+	}
+
+	/**
+	 * Set the number of 64-byte blocks produced between reseeds.
+	 * @param	reseedInterval	  a positive number of blocks
+	 */
+	public void setReseedInterval (int reseedInterval)
+	{
+		if (reseedInterval < 1)
+			throw new IllegalArgumentException ("reseedInterval=" + reseedInterval);
+		this.reseedInterval = reseedInterval;
+	}
+
+	/**
+	 * @return the number of 64-byte blocks produced between reseeds.
+	 */
+	public int getReseedInterval ()
+	{
+		return reseedInterval;
+	}
+
+	//
+	// Install a new key, mixing in fresh entropy if available, and
+	// discard any buffered output.
+	//
+	private void setKey (int[] newKey)
+	{
+		if (entropy != null)
+		{
+			byte[] bytes = new byte [KEY_WORDS * 4];
+			entropy.nextBytes (bytes);
+			for (int i = 0; i < KEY_WORDS; ++i)
+			{
+				newKey[i] ^= (bytes[i*4] & 0xff) |
+							 ((bytes[i*4 + 1] & 0xff) << 8) |
+							 ((bytes[i*4 + 2] & 0xff) << 16) |
+							 ((bytes[i*4 + 3] & 0xff) << 24);
+			}
+		}
+
+		System.arraycopy (newKey, 0, key, 0, KEY_WORDS);
+		counter = 0;
+		blockCount = 0;
+		position = BLOCK_WORDS;
+	}
+
+	//
+	// Rekey from the generator's own output.
+	//
+	private void reseed ()
+	{
+		int[] newKey = new int [BLOCK_WORDS];
+		block (key, (int) counter, (int) (counter >>> 32), 0, 0, newKey);
+		setKey (newKey);
+	}
+
+	//
+	// Refill the buffer with the next block of output.
+	//
+	private void refill ()
+	{
+		if (blockCount >= reseedInterval)
+		{
+			reseed ();
+		}
+		block (key, (int) counter, (int) (counter >>> 32), 0, 0, block);
+		++counter;
+		++blockCount;
+		position = 0;
+	}
+
+	/**
+	 * The core of this random number generator.
+	 */
+	protected int next (int bits)
+	{
+		if (position == BLOCK_WORDS)
+		{
+			refill ();
+		}
+		return block[position++] >>> (32 - bits);
+	}
+
+	/**
+	 * Fill a range of an array with pseudorandom <code>int</code> values,
+	 * copying directly from the buffer.
+	 */
+	public void nextInts (int[] dst, int off, int len)
+	{
+		while (len > 0)
+		{
+			if (position == BLOCK_WORDS)
+			{
+				refill ();
+			}
+			int n = Math.min (len, BLOCK_WORDS - position);
+			System.arraycopy (block, position, dst, off, n);
+			position += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Clone this random number generator.	The clone has its own copy of
+	 * the key and buffer, but shares the entropy source.
+	 */
+	protected Object clone ()
+		throws CloneNotSupportedException
+	{
+		ChaChaGenerator clone = (ChaChaGenerator) super.clone ();
+		clone.key = (int[]) key.clone ();
+		clone.block = (int[]) block.clone ();
+		return clone;
+	}
+
+	/**
+	 * The ChaCha20 block function.	 Words 12 through 15 of the input
+	 * state are given separately; this generator uses the first two for
+	 * a 64-bit block counter and leaves the nonce at zero.
+	 */
+	static void block (int[] key, int w12, int w13, int w14, int w15, int[] out)
+	{
+		int x0 = 0x61707865, x1 = 0x3320646e, x2 = 0x79622d32, x3 = 0x6b206574;
+		int x4 = key[0], x5 = key[1], x6 = key[2], x7 = key[3];
+		int x8 = key[4], x9 = key[5], x10 = key[6], x11 = key[7];
+		int x12 = w12, x13 = w13, x14 = w14, x15 = w15;
+
+		for (int i = 0; i < 10; ++i)
+		{
+			// Column round.
+			x0 += x4; x12 = Integer.rotateLeft (x12 ^ x0, 16);
+			x8 += x12; x4 = Integer.rotateLeft (x4 ^ x8, 12);
+			x0 += x4; x12 = Integer.rotateLeft (x12 ^ x0, 8);
+			x8 += x12; x4 = Integer.rotateLeft (x4 ^ x8, 7);
+
+			x1 += x5; x13 = Integer.rotateLeft (x13 ^ x1, 16);
+			x9 += x13; x5 = Integer.rotateLeft (x5 ^ x9, 12);
+			x1 += x5; x13 = Integer.rotateLeft (x13 ^ x1, 8);
+			x9 += x13; x5 = Integer.rotateLeft (x5 ^ x9, 7);
+
+			x2 += x6; x14 = Integer.rotateLeft (x14 ^ x2, 16);
+			x10 += x14; x6 = Integer.rotateLeft (x6 ^ x10, 12);
+			x2 += x6; x14 = Integer.rotateLeft (x14 ^ x2, 8);
+			x10 += x14; x6 = Integer.rotateLeft (x6 ^ x10, 7);
+
+			x3 += x7; x15 = Integer.rotateLeft (x15 ^ x3, 16);
+			x11 += x15; x7 = Integer.rotateLeft (x7 ^ x11, 12);
+			x3 += x7; x15 = Integer.rotateLeft (x15 ^ x3, 8);
+			x11 += x15; x7 = Integer.rotateLeft (x7 ^ x11, 7);
+
+			// Diagonal round.
+			x0 += x5; x15 = Integer.rotateLeft (x15 ^ x0, 16);
+			x10 += x15; x5 = Integer.rotateLeft (x5 ^ x10, 12);
+			x0 += x5; x15 = Integer.rotateLeft (x15 ^ x0, 8);
+			x10 += x15; x5 = Integer.rotateLeft (x5 ^ x10, 7);
+
+			x1 += x6; x12 = Integer.rotateLeft (x12 ^ x1, 16);
+			x11 += x12; x6 = Integer.rotateLeft (x6 ^ x11, 12);
+			x1 += x6; x12 = Integer.rotateLeft (x12 ^ x1, 8);
+			x11 += x12; x6 = Integer.rotateLeft (x6 ^ x11, 7);
+
+			x2 += x7; x13 = Integer.rotateLeft (x13 ^ x2, 16);
+			x8 += x13; x7 = Integer.rotateLeft (x7 ^ x8, 12);
+			x2 += x7; x13 = Integer.rotateLeft (x13 ^ x2, 8);
+			x8 += x13; x7 = Integer.rotateLeft (x7 ^ x8, 7);
+
+			x3 += x4; x14 = Integer.rotateLeft (x14 ^ x3, 16);
+			x9 += x14; x4 = Integer.rotateLeft (x4 ^ x9, 12);
+			x3 += x4; x14 = Integer.rotateLeft (x14 ^ x3, 8);
+			x9 += x14; x4 = Integer.rotateLeft (x4 ^ x9, 7);
+		}
+
+		out[0] = x0 + 0x61707865;
+		out[1] = x1 + 0x3320646e;
+		out[2] = x2 + 0x79622d32;
+		out[3] = x3 + 0x6b206574;
+		out[4] = x4 + key[0];
+		out[5] = x5 + key[1];
+		out[6] = x6 + key[2];
+		out[7] = x7 + key[3];
+		out[8] = x8 + key[4];
+		out[9] = x9 + key[5];
+		out[10] = x10 + key[6];
+		out[11] = x11 + key[7];
+		out[12] = x12 + w12;
+		out[13] = x13 + w13;
+		out[14] = x14 + w14;
+		out[15] = x15 + w15;
+	}
+}
@@ -0,0 +1,297 @@
+//
+// CyclingGenerator.java
+//
+
+package net.ech.math;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A random number generator that cycles continuously in the background,
+ * as some jurisdictions require, so that the outcome of a game depends
+ * on the moment at which the player acts.
+ * <p>
+ * A daemon thread owns the backing generator.  It advances it without
+ * pause and publishes each value into a ring buffer.  Callers of
+ * <code>next</code> claim published values in sequence by advancing a
+ * read cursor with a compare-and-set, so no two callers receive the same
+ * value and none waits on a monitor.  The cursor is never allowed to lag
+ * more than half a ring behind the latest value; when it does, it skips
+ * forward, and the values passed over are simply discarded.  Which values
+ * a game receives therefore depends on the moment at which it asks.  If
+ * a caller finds every published value already claimed (an underrun), it
+ * parks briefly until the background thread catches up.
+ * <p>
+ * The cycle rate and the underrun count are available for sizing.	A
+ * high underrun count means that callers outpace the background thread.
+ * <p>
+ * Call <code>start</code> before use, and <code>stop</code> to release
+ * the background thread.
+ * <p>
+ * A serialized cycling generator holds the backing generator, taken
+ * between two batches, and any seed not yet applied.  It deserializes,
+ * like a copy, as a new generator that is stopped, and must be started
+ * again.
+ *
+ * @author ech@codespinner.com
+ */
+public class CyclingGenerator extends RandomNumberGenerator
+{
+	private final static int DEFAULT_RING_SIZE = 1024;
+	private final static int BATCH_SIZE = 16;
+	private final static long UNDERRUN_PARK_NANOS = 1000;
+
+	private final static long serialVersionUID = -5426602402045365711L;
+
+	private final RandomNumberGenerator generator;
+	private transient final AtomicIntegerArray ring;
+	private final int mask;
+	private final int window;
+	private final long pauseNanos;
+
+	// Sequence number of the latest published value.
+	private transient final AtomicLong head = new AtomicLong (-1);
+
+	// Sequence number of the next value to be claimed.
+	private transient final AtomicLong cursor = new AtomicLong ();
+
+	private transient final AtomicLong underruns = new AtomicLong ();
+
+	private transient volatile Thread thread;
+	private volatile boolean pendingSeed;
+	private volatile long seed;
+	private transient volatile long startTime;
+
+	/**
+	 * Constructor.
+	 * @param generator		the backing generator, which becomes the
+	 *						exclusive property of the background thread.
+	 */
+	public CyclingGenerator (RandomNumberGenerator generator)
+	{
+		this (generator, DEFAULT_RING_SIZE, 0);
+	}
+
+	/**
+	 * Workhorse constructor.
+	 * @param generator		the backing generator, which becomes the
+	 *						exclusive property of the background thread.
+	 * @param ringSize		the capacity of the ring, a power of two
+	 * @param pauseNanos	the time the background thread pauses after
+	 *						every batch of values, or zero to run flat out
+	 */
+	public CyclingGenerator (RandomNumberGenerator generator, int ringSize, long pauseNanos)
+	{
+		if (ringSize < 2 * BATCH_SIZE || (ringSize & (ringSize - 1)) != 0)
+			throw new IllegalArgumentException ("ringSize=" + ringSize);
+		if (pauseNanos < 0)
+			throw new IllegalArgumentException ("pauseNanos=" + pauseNanos);
+
+		this.generator = generator;
+		this.ring = new AtomicIntegerArray (ringSize);
+		this.mask = ringSize - 1;
+		this.window = ringSize / 2;
+		this.pauseNanos = pauseNanos;
+	}
+
+	/**
+	 * Start the background thread.	 Has no effect if already started.
+	 */
+	public synchronized void start ()
+	{
+		if (thread == null)
+		{
+			Thread t = new Thread (new Runnable ()
+			{
+				public void run ()
+				{
+					cycle ();
+				}
+			}, "CyclingGenerator");
+			t.setDaemon (true);
+			startTime = System.nanoTime ();
+			thread = t;
+			t.start ();
+		}
+	}
+
+	/**
+	 * Stop the background thread.	Has no effect if not started.
+	 */
+	public synchronized void stop ()
+	{
+		Thread t = thread;
+		if (t != null)
+		{
+			thread = null;
+			t.interrupt ();
+			try
+			{
+				t.join ();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread ().interrupt ();
+			}
+		}
+	}
+
+	/**
+	 * @return whether the background thread is running.
+	 */
+	public boolean isRunning ()
+	{
+		return thread != null;
+	}
+
+	/**
+	 * Reseed the backing generator.  The background thread applies the
+	 * seed before it publishes its next batch of values.
+	 * @param	seed   the new seed.
+	 */
+	public void setSeed (long seed)
+	{
+		this.seed = seed;
+		pendingSeed = true;
+	}
+
+	//
+	// The background loop.
+	//
+	private void cycle ()
+	{
+		int[] batch = new int [BATCH_SIZE];
+		long seq = head.get ();
+		Thread self = Thread.currentThread ();
+
+		while (thread == self)
+		{
+			// The lock is held only to fill the batch, so that copy
+			// sees the backing generator between batches.
+			synchronized (generator)
+			{
+				if (pendingSeed)
+				{
+					pendingSeed = false;
+					generator.setSeed (seed);
+				}
+				generator.nextInts (batch, 0, BATCH_SIZE);
+			}
+			for (int i = 0; i < BATCH_SIZE; ++i)
+			{
+				++seq;
+				ring.lazySet ((int) seq & mask, batch[i]);
+				head.lazySet (seq);
+			}
+
+			if (pauseNanos > 0)
+			{
+				LockSupport.parkNanos (pauseNanos);
+			}
+		}
+	}
+
+	/**
+	 * Claim the next unclaimed value from the ring.
+	 */
+	protected int next (int bits)
+	{
+		for (boolean underrun = false; ; )
+		{
+			long c = cursor.get ();
+			long h = head.get ();
+			if (c > h)
+			{
+				if (thread == null)
+					throw new IllegalStateException ("CyclingGenerator not running");
+
+				// Every published value has been claimed.
+				if (!underrun)
+				{
+					underrun = true;
+					underruns.incrementAndGet ();
+				}
+				LockSupport.parkNanos (UNDERRUN_PARK_NANOS);
+				continue;
+			}
+
+			// Skip values that have gone stale.
+			long seq = Math.max (c, h - window);
+			int value = ring.get ((int) seq & mask);
+
+			// The slot is safe from being overwritten until the
+			// background thread has published the sequence number just
+			// before its next use.
+			if (head.get () - seq >= mask)
+				continue;
+
+			if (cursor.compareAndSet (c, seq + 1))
+				return value >>> (32 - bits);
+		}
+	}
+
+	/**
+	 * @return the number of values the background thread has published.
+	 */
+	public long getCycleCount ()
+	{
+		return head.get () + 1;
+	}
+
+	/**
+	 * @return the average number of values published per second since
+	 * the background thread started.
+	 */
+	public double getCycleRate ()
+	{
+		long nanos = System.nanoTime () - startTime;
+		return nanos <= 0 ? 0 : getCycleCount () * 1e9 / nanos;
+	}
+
+	/**
+	 * @return the number of calls to next that found no unclaimed value.
+	 */
+	public long getUnderrunCount ()
+	{
+		return underruns.get ();
+	}
+
+	/**
+	 * The copy is a new, stopped cycling generator over a copy of the
+	 * backing generator, taken between two batches of the background
+	 * thread.
+	 */
+	public RandomNumberGenerator copy ()
+	{
+		RandomNumberGenerator snapshot;
+		synchronized (generator)
+		{
+			snapshot = generator.copy ();
+		}
+		return new CyclingGenerator (snapshot, ring.length (), pauseNanos);
+	}
+
+	// Write the backing generator between two batches, as copy does.
+	private void writeObject (ObjectOutputStream out)
+		throws IOException
+	{
+		synchronized (generator)
+		{
+			out.defaultWriteObject ();
+		}
+	}
+
+	// The ring and the thread are not serialized, so build a new, stopped
+	// generator around what was.
+	private Object readResolve ()
+	{
+		CyclingGenerator result = new CyclingGenerator (generator, mask + 1, pauseNanos);
+		if (pendingSeed)
+			result.setSeed (seed);
+		return result;
+	}
+}
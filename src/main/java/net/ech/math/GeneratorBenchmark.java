@@ -0,0 +1,126 @@
+//
+// GeneratorBenchmark.java
+//
+
+package net.ech.math;
+
+import java.security.SecureRandom;
+
+/**
+ * Throughput benchmark for the random number generators of this package.
+ * For each generator, reports the rate of single <code>nextInt</code>
+ * calls and of bulk <code>nextInts</code> calls, in millions of 32-bit
+ * values per second.  A generator that calls
+ * <code>java.security.SecureRandom</code> once per value is included
+ * for comparison.
+ * <p>
+ * Usage: java net.ech.math.GeneratorBenchmark [millions-of-values]
+ */
+public class GeneratorBenchmark
+{
+	private final static int BLOCK_SIZE = 1024;
+
+	public static void main (String[] args)
+	{
+		int millions = args.length > 0 ? Integer.parseInt (args[0]) : 20;
+		long count = millions * 1000000L;
+
+		RandomNumberGenerator[] generators = {
+			new LinearCongruentialGenerator (),
+			new KISSGenerator (),
+			new XoshiroGenerator (),
+			new MultiRandomGenerator (),
+			new ChaChaGenerator (),
+			RandomNumberGenerator.synchronizedInstance (new ChaChaGenerator ()),
+			new SecureRandomGenerator ()
+		};
+		String[] names = {
+			"LinearCongruentialGenerator",
+			"KISSGenerator",
+			"XoshiroGenerator",
+			"MultiRandomGenerator",
+			"ChaChaGenerator",
+			"ChaChaGenerator (synchronized)",
+			"SecureRandom per call"
+		};
+
+		System.out.println (count + " values per run");
+		System.out.println ();
+		System.out.println (pad ("generator", 32) + pad ("single M/s", 14) + "bulk M/s");
+
+		for (int i = 0; i < generators.length; ++i)
+		{
+			// Warm up, then measure.
+			runSingle (generators[i], count / 10);
+			runBulk (generators[i], count / 10);
+			double single = rate (count, runSingle (generators[i], count));
+			double bulk = rate (count, runBulk (generators[i], count));
+
+			System.out.println (pad (names[i], 32) + pad (format (single), 14) + format (bulk));
+		}
+	}
+
+	private static long sink;
+
+	private static long runSingle (RandomNumberGenerator rng, long count)
+	{
+		long start = System.nanoTime ();
+		int acc = 0;
+		for (long n = 0; n < count; ++n)
+		{
+			acc += rng.nextInt ();
+		}
+		sink += acc;
+		return System.nanoTime () - start;
+	}
+
+	private static long runBulk (RandomNumberGenerator rng, long count)
+	{
+		int[] block = new int [BLOCK_SIZE];
+		long start = System.nanoTime ();
+		int acc = 0;
+		for (long n = 0; n < count; n += BLOCK_SIZE)
+		{
+			rng.nextInts (block, 0, BLOCK_SIZE);
+			acc += block[0];
+		}
+		sink += acc;
+		return System.nanoTime () - start;
+	}
+
+	private static double rate (long count, long nanos)
+	{
+		return count * 1000.0 / Math.max (nanos, 1);
+	}
+
+	private static String format (double n)
+	{
+		return String.valueOf (Math.round (n * 10) / 10.0);
+	}
+
+	private static String pad (String s, int width)
+	{
+		StringBuilder buf = new StringBuilder (s);
+		while (buf.length () < width)
+			buf.append (' ');
+		return buf.toString ();
+	}
+
+	//
+	// The slow alternative: one SecureRandom call per value.
+	//
+	private static class SecureRandomGenerator extends RandomNumberGenerator
+	{
+		private SecureRandom random = new SecureRandom ();
+
+		public void setSeed (long seed)
+		{
+			random.setSeed (seed);
+		}
+
+		protected int next (int bits)
+		{
+			return random.nextInt () >>> (32 - bits);
+		}
+	}
+}
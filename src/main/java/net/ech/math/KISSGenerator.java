@@ -75,6 +75,36 @@ public class KISSGenerator extends RandomNumberGenerator
 				return rnd;
 		}
 		
+		/**
+		 * Fill a range of an array with pseudorandom <code>int</code>
+		 * values, keeping the four seeds in local variables for the
+		 * duration.
+		 */
+		public void nextInts (int[] dst, int off, int len)
+		{
+				int w = seed_w, x = seed_x, y = seed_y, z = seed_z;
+
+				for (int end = off + len; off < end; ++off)
+				{
+						w = 30903 * (w & 0xFFFF) + (w >>> 16);
+						x = 69069 * x + 1327217885;
+						y ^= (y << 13);
+						y ^= (y >>> 17);
+						y ^= (y << 5);
+						z = 18000 * (z & 0xFFFF) + (z >>> 16);
+						dst[off] = (w << 16) + x + y + (z & 0xFFFF);
+				}
+
+				// GENERATE FAULT ON ZERO VALUE
+				if (y == 0)
+						throw new RuntimeException ();
+
+				seed_w = w;
+				seed_x = x;
+				seed_y = y;
+				seed_z = z;
+		}
+
 		private void update_seed_y()
 		{
 				seed_y ^= (seed_y << 13);
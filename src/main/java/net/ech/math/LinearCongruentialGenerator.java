@@ -70,4 +70,36 @@ public class LinearCongruentialGenerator extends RandomNumberGenerator
 		seed = nextseed;
 		return (int)(nextseed >>> (48 - bits));
 	}
+
+	/**
+	 * Fill a range of an array with pseudorandom <code>int</code> values,
+	 * keeping the seed in a local variable for the duration.
+	 */
+	public void nextInts (int[] dst, int off, int len)
+	{
+		long s = seed;
+		for (int end = off + len; off < end; ++off)
+		{
+			s = (s * MULTIPLIER + ADDEND) & MASK;
+			dst[off] = (int)(s >>> 16);
+		}
+		seed = s;
+	}
+
+	/**
+	 * Fill a range of an array with pseudorandom <code>long</code> values,
+	 * keeping the seed in a local variable for the duration.
+	 */
+	public void nextLongs (long[] dst, int off, int len)
+	{
+		long s = seed;
+		for (int end = off + len; off < end; ++off)
+		{
+			s = (s * MULTIPLIER + ADDEND) & MASK;
+			long hi = (long)(int)(s >>> 16) << 32;
+			s = (s * MULTIPLIER + ADDEND) & MASK;
+			dst[off] = hi + (int)(s >>> 16);
+		}
+		seed = s;
+	}
 }	  
@@ -126,6 +126,42 @@ public abstract class RandomNumberGenerator
 		return l / (double)(1L << 53);
 	}
 
+	/**
+	 * Fill a range of an array with pseudorandom, uniformly distributed
+	 * <code>int</code> values.	 The values are those that the same number
+	 * of successive calls to <code>nextInt</code> would return.  Subclasses
+	 * may override with a tighter loop.
+	 *
+	 * @param	dst		the array to fill
+	 * @param	off		the index of the first element to fill
+	 * @param	len		the number of elements to fill
+	 */
+	public void nextInts (int[] dst, int off, int len)
+	{
+		for (int end = off + len; off < end; ++off)
+		{
+			dst[off] = next(32);
+		}
+	}
+
+	/**
+	 * Fill a range of an array with pseudorandom, uniformly distributed
+	 * <code>long</code> values.  The values are those that the same number
+	 * of successive calls to <code>nextLong</code> would return.  Subclasses
+	 * may override with a tighter loop.
+	 *
+	 * @param	dst		the array to fill
+	 * @param	off		the index of the first element to fill
+	 * @param	len		the number of elements to fill
+	 */
+	public void nextLongs (long[] dst, int off, int len)
+	{
+		for (int end = off + len; off < end; ++off)
+		{
+			dst[off] = ((long)(next(32)) << 32) + next(32);
+		}
+	}
+
 	/**
 	 * This template method is the core of the random number generator. 
 	 * Its function is to generate the next pseudo-random number of the
@@ -160,6 +196,16 @@ public abstract class RandomNumberGenerator
 			{
 				return random.next (bits);
 			}
+
+			public synchronized void nextInts (int[] dst, int off, int len)
+			{
+				random.nextInts (dst, off, len);
+			}
+
+			public synchronized void nextLongs (long[] dst, int off, int len)
+			{
+				random.nextLongs (dst, off, len);
+			}
 		};
 	}
 
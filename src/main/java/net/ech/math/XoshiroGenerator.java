@@ -0,0 +1,209 @@
+//
+// XoshiroGenerator.java
+//
+
+package net.ech.math;
+
+/**
+ * Implementation of the xoshiro256** random number generator of
+ * David Blackman and Sebastiano Vigna.	 The generator has 256 bits of
+ * state and a period of 2^256-1.
+ * <p>
+ * The generator supports jumping ahead in its sequence.
+ * <code>jump</code> advances the state by 2^128 steps and
+ * <code>longJump</code> by 2^192 steps, so a single master seed yields
+ * a family of non-overlapping streams.	 <code>split</code> hands off the
+ * current stream to a new generator and jumps this one ahead, so that
+ * each table or worker thread may own a generator of its own and draw
+ * from it without locking:
+ * <pre>
+ *	   XoshiroGenerator master = new XoshiroGenerator (seed);
+ *	   for (int i = 0; i &lt; n; ++i)
+ *		   randomizers[i] = new Randomizer (master.split ());
+ * </pre>
+ * This generator is not synchronized.	To obtain a synchronized
+ * instance, call <code>RandomNumberGenerator.synchronizedInstance</code>.
+ *
+ * @author ech@codespinner.com
+ */
+public class XoshiroGenerator extends RandomNumberGenerator
+{
+	private long s0, s1, s2, s3;
+
+	private final static long[] JUMP = {
+		0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL,
+		0xa9582618e03fc9aaL, 0x39abdc4529b1661cL
+	};
+
+	private final static long[] LONG_JUMP = {
+		0x76e15d3efefdcbbfL, 0xc5004e441c522fb3L,
+		0x77710069854ee241L, 0x39109bb02acbe635L
+	};
+
+	/**
+	 * Constructor.	 Seed is initialized to a value based on the
+	 * current time.
+	 */
+	public XoshiroGenerator ()
+	{
+		setSeed (System.currentTimeMillis ());
+	}
+
+	/**
+	 * Constructor.
+	 * @param	seed   the initial seed.
+	 */
+	public XoshiroGenerator (long seed)
+	{
+		setSeed (seed);
+	}
+
+	/**
+	 * Set the seed of this random number generator using a single
+	 * <code>long</code> seed.	The 256-bit state is expanded from the
+	 * seed by the SplitMix64 generator, as the authors recommend.
+	 * @param	seed   the initial seed.
+	 */
+	public void setSeed (long seed)
+	{
+		s0 = splitMix (seed += 0x9e3779b97f4a7c15L);
+		s1 = splitMix (seed += 0x9e3779b97f4a7c15L);
+		s2 = splitMix (seed += 0x9e3779b97f4a7c15L);
+		s3 = splitMix (seed += 0x9e3779b97f4a7c15L);
+
+		// The all-zero state is a fixed point.
+		if ((s0 | s1 | s2 | s3) == 0)
+			s0 = 1;
+	}
+
+	private static long splitMix (long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * The core of this random number generator.  Take the high bits of
+	 * the 64-bit output, which are the strongest.
+	 */
+	protected int next (int bits)
+	{
+		return (int) (next64 () >>> (64 - bits));
+	}
+
+	//
+	// Advance the state by one step and return a 64-bit output.
+	//
+	final long next64 ()
+	{
+		long result = Long.rotateLeft (s1 * 5, 7) * 9;
+		long t = s1 << 17;
+
+		s2 ^= s0;
+		s3 ^= s1;
+		s1 ^= s2;
+		s0 ^= s3;
+		s2 ^= t;
+		s3 = Long.rotateLeft (s3, 45);
+
+		return result;
+	}
+
+	/**
+	 * Fill a range of an array with pseudorandom <code>int</code> values,
+	 * keeping the state in local variables for the duration.
+	 */
+	public void nextInts (int[] dst, int off, int len)
+	{
+		long a = s0, b = s1, c = s2, d = s3;
+
+		for (int end = off + len; off < end; ++off)
+		{
+			dst[off] = (int) ((Long.rotateLeft (b * 5, 7) * 9) >>> 32);
+			long t = b << 17;
+			c ^= a;
+			d ^= b;
+			b ^= c;
+			a ^= d;
+			c ^= t;
+			d = Long.rotateLeft (d, 45);
+		}
+
+		s0 = a;
+		s1 = b;
+		s2 = c;
+		s3 = d;
+	}
+
+	/**
+	 * Fill a range of an array with pseudorandom <code>long</code> values.
+	 */
+	public void nextLongs (long[] dst, int off, int len)
+	{
+		for (int end = off + len; off < end; ++off)
+		{
+			long hi = next64 () >>> 32;
+			dst[off] = (hi << 32) + (int) (next64 () >>> 32);
+		}
+	}
+
+	/**
+	 * Advance this generator by 2^128 steps.  Equivalent to 2^128 calls
+	 * to <code>next</code>.	Up to 2^128 non-overlapping streams may be
+	 * obtained by repeated jumps.
+	 */
+	public void jump ()
+	{
+		jump (JUMP);
+	}
+
+	/**
+	 * Advance this generator by 2^192 steps.  Up to 2^64 starting points,
+	 * each of which may be further divided by <code>jump</code>, may be
+	 * obtained by repeated long jumps.
+	 */
+	public void longJump ()
+	{
+		jump (LONG_JUMP);
+	}
+
+	private void jump (long[] poly)
+	{
+		long t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+
+		for (int i = 0; i < poly.length; ++i)
+		{
+			for (int b = 0; b < 64; ++b)
+			{
+				if ((poly[i] & (1L << b)) != 0)
+				{
+					t0 ^= s0;
+					t1 ^= s1;
+					t2 ^= s2;
+					t3 ^= s3;
+				}
+				next64 ();
+			}
+		}
+
+		s0 = t0;
+		s1 = t1;
+		s2 = t2;
+		s3 = t3;
+	}
+
+	/**
+	 * Split off a new generator.  The new generator continues this
+	 * generator's sequence from the current position; this generator
+	 * then jumps 2^128 steps ahead.	The two sequences will not overlap
+	 * for any practical length of play.
+	 * @return a new, independent generator
+	 */
+	public XoshiroGenerator split ()
+	{
+		XoshiroGenerator child = (XoshiroGenerator) copy ();
+		jump ();
+		return child;
+	}
+}
@@ -0,0 +1,105 @@
+//
+// CardSetTest.java
+//
+
+package net.ech.casino;
+
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for CardSet.
+ *
+ * @see net.ech.casino.CardSet
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class CardSetTest implements CardConstants
+{
+	@Test
+	public void testStandardDeck ()
+	{
+		byte[] cards = new byte [CardsInStandardDeck];
+		Shoe.compose (new Deck (), 1, cards);
+		long deck = CardSet.valueOf (cards);
+		assertEquals (CardSet.StandardDeck, deck);
+		assertEquals (CardsInStandardDeck, CardSet.size (deck));
+		assertFalse (CardSet.hasJoker (deck));
+		assertEquals (CardsInStandardDeck + 1, CardSet.size (CardSet.JokerDeck));
+		for (int i = 0; i < cards.length; ++i)
+		{
+			assertEquals (1, CardSet.size (CardSet.of (cards[i])));
+			assertTrue (CardSet.contains (deck, cards[i]));
+		}
+	}
+
+	@Test
+	public void testRoundTrip ()
+	{
+		long set = CardSet.parse ("jo2DASKH9C9H2S");
+		assertEquals (7, CardSet.size (set));
+		assertTrue (CardSet.hasJoker (set));
+		assertEquals ("jo2D9C9HKH2SAS", CardSet.toString (set));
+		assertEquals (set, CardSet.valueOf (CardSet.toCards (set)));
+	}
+
+	@Test
+	public void testInvalidCards ()
+	{
+		assertEquals (CardSet.Empty, CardSet.of (NilCard));
+		assertEquals (CardSet.Empty, CardSet.of ((byte) 0x6f));
+		assertFalse (CardSet.contains (CardSet.JokerDeck, NilCard));
+	}
+
+	@Test
+	public void testSetOperations ()
+	{
+		long a = CardSet.parse ("ASKSQS");
+		long b = CardSet.parse ("QSJSTS");
+		assertEquals (CardSet.parse ("ASKSQSJSTS"), CardSet.union (a, b));
+		assertEquals (CardSet.parse ("QS"), CardSet.intersection (a, b));
+		assertEquals (CardSet.parse ("ASKS"), CardSet.difference (a, b));
+		assertTrue (CardSet.containsAll (CardSet.union (a, b), a));
+		assertFalse (CardSet.containsAll (a, b));
+		assertEquals (a, CardSet.add (CardSet.remove (a, Card.valueOf ("KS")), Card.valueOf ("KS")));
+	}
+
+	@Test
+	public void testRanksAndSuits ()
+	{
+		long set = CardSet.parse ("AS9S9H9C2DjoKS");
+		assertEquals ((1 << Ace) | (1 << King) | (1 << Nine), CardSet.suitRanks (set, Spades));
+		assertEquals (1 << Nine, CardSet.suitRanks (set, Hearts));
+		assertEquals (1 << Deuce, CardSet.suitRanks (set, Diamonds));
+		assertEquals (3, CardSet.suitCount (set, Spades));
+		assertEquals (1, CardSet.suitCount (set, Diamonds));
+		assertEquals ((1 << Ace) | (1 << King) | (1 << Nine) | (1 << Deuce), CardSet.ranks (set));
+		assertEquals (3, CardSet.rankCount (set, Nine));
+		assertEquals (1, CardSet.rankCount (set, Ace));
+		assertEquals (0, CardSet.rankCount (set, Ten));
+		assertEquals (4, CardSet.rankCount (CardSet.StandardDeck, Ten));
+		assertEquals (CardSet.parse ("TDTCTHTS"), CardSet.lanes (1 << Ten));
+	}
+
+	@Test
+	public void testCanonical ()
+	{
+		long set = CardSet.parse ("AS9S9H9C2DjoKS");
+		long canonical = CardSet.canonical (set);
+		assertEquals (CardSet.size (set), CardSet.size (canonical));
+		assertEquals (CardSet.ranks (set), CardSet.ranks (canonical));
+		assertTrue (CardSet.hasJoker (canonical));
+
+		// Every renaming of suits gives the same canonical set.
+		assertEquals (canonical, CardSet.canonical (CardSet.parse ("AH9H9S9D2CjoKH")));
+		assertEquals (canonical, CardSet.canonical (CardSet.parse ("AD9D9C9S2HjoKD")));
+		assertEquals (canonical, CardSet.canonical (canonical));
+
+		// Different suit patterns give different canonical sets.
+		assertFalse (canonical == CardSet.canonical (CardSet.parse ("AS9S9H9C2DjoKH")));
+		assertFalse (canonical == CardSet.canonical (CardSet.parse ("AS9S9H9C2D3DKS")));
+	}
+}
@@ -0,0 +1,103 @@
+//
+// PokerScoreTest.java
+//
+
+package net.ech.casino;
+
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for PokerScore.
+ *
+ * @see net.ech.casino.PokerScore
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class PokerScoreTest implements CardConstants
+{
+	// In increasing order.
+	private final static PokerScore[] Scores =
+	{
+		PokerScore.makeHighCard (Three, Deuce),
+		PokerScore.makeHighCard (Ace, Eight),
+		PokerScore.makeHighCard (Ace, King, Queen, Ten, Seven),
+		PokerScore.makeHighCard (Ace, King, Queen, Ten, Eight),
+		PokerScore.makePair (Deuce),
+		PokerScore.makePair (King, Jack, Eight, Seven),
+		PokerScore.makePair (Ace),
+		PokerScore.makePair (Ace, Queen, Ten, Eight),
+		PokerScore.makeTwoPair (Nine, Eight, King),
+		PokerScore.makeTwoPair (Ace, Ten, Eight),
+		PokerScore.makeThreeOfAKind (Four),
+		PokerScore.makeThreeOfAKind (Ace),
+		PokerScore.makeStraight (Five),
+		PokerScore.makeStraight (King),
+		PokerScore.makeAceLowStraight (),
+		PokerScore.makeStraight (Ace),
+		PokerScore.makeFlush (Ace, Ten, Six, Five),
+		PokerScore.makeFlush (Ace, King, Ten, Six),
+		PokerScore.makeFullHouse (Eight, Deuce),
+		PokerScore.makeFullHouse (Ace, Ten),
+		PokerScore.makeFourOfAKind (Queen),
+		PokerScore.makeFourOfAKind (Ace),
+		PokerScore.makeStraightFlush (King),
+		PokerScore.makeAceLowStraightFlush (),
+		PokerScore.makeStraightFlush (Ace),
+		PokerScore.makeFiveOfAKind (Ace)
+	};
+
+	@Test
+	public void testOrder ()
+	{
+		for (int i = 0; i < Scores.length; ++i)
+		{
+			for (int j = 0; j < Scores.length; ++j)
+			{
+				int cmp = Scores[i].compareTo (Scores[j]);
+				assertEquals (Integer.signum (i - j), Integer.signum (cmp));
+				assertEquals (Integer.signum (i - j),
+					Integer.signum (Scores[i].intValue () - Scores[j].intValue ()));
+				assertEquals (i == j, Scores[i].equals (Scores[j]));
+			}
+		}
+	}
+
+	@Test
+	public void testDecode ()
+	{
+		int score = PokerScore.build (PokerScore.TwoPair, Ace, Ten, Eight, NilRank);
+		assertEquals (PokerScore.TwoPair, PokerScore.primaryOf (score));
+		assertEquals (Ace, PokerScore.rankOf (score, 0));
+		assertEquals (Ten, PokerScore.rankOf (score, 1));
+		assertEquals (Eight, PokerScore.rankOf (score, 2));
+		assertEquals (NilRank, PokerScore.rankOf (score, 3));
+
+		score = PokerScore.build (King, Queen);
+		assertEquals (King, PokerScore.primaryOf (score));
+		assertEquals (King, PokerScore.rankOf (score, 0));
+		assertEquals (Queen, PokerScore.rankOf (score, 1));
+		assertEquals (NilRank, PokerScore.rankOf (score, 2));
+
+		PokerScore view = PokerScore.valueOf (score);
+		assertEquals (PokerScore.makeHighCard (King, Queen), view);
+		assertEquals (King, view.getPrimary ());
+		assertEquals (Queen, view.getRank (1));
+	}
+
+	@Test
+	public void testFormat ()
+	{
+		assertEquals ("aces over tens, eight kicker",
+			PokerScore.format (PokerScore.build (PokerScore.TwoPair, Ace, Ten, Eight, NilRank), 4));
+		assertEquals ("king high, queen kicker",
+			PokerScore.toString (PokerScore.build (King, Queen)));
+		assertEquals ("ace-low straight",
+			PokerScore.makeAceLowStraight ().toString ());
+		assertEquals ("royal flush",
+			PokerScore.makeStraightFlush (Ace).toString ());
+		assertTrue (PokerScore.makeFlush (Ace, King, Six, Deuce).format (5).endsWith ("deuce high"));
+	}
+}
@@ -0,0 +1,188 @@
+//
+// RandomizerTest.java
+//
+
+package net.ech.casino;
+
+import net.ech.math.*;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for Randomizer and the bulk generation methods of
+ * RandomNumberGenerator.
+ *
+ * @see net.ech.casino.Randomizer
+ * @see net.ech.math.RandomNumberGenerator
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class RandomizerTest
+{
+	private static RandomNumberGenerator[] generators (long seed)
+	{
+		MultiRandomGenerator multi = new MultiRandomGenerator (3, new XoshiroGenerator ());
+		multi.setSeed (seed);
+		return new RandomNumberGenerator[] {
+			new LinearCongruentialGenerator (seed),
+			new KISSGenerator (seed),
+			new XoshiroGenerator (seed),
+			new ChaChaGenerator (seed),
+			RandomNumberGenerator.synchronizedInstance (new XoshiroGenerator (seed)),
+			multi
+		};
+	}
+
+	@Test
+	public void testNextIntsMatchesNextInt ()
+	{
+		RandomNumberGenerator[] bulk = generators (42);
+		RandomNumberGenerator[] single = generators (42);
+		for (int g = 0; g < bulk.length; ++g)
+		{
+			int[] words = new int [100];
+			bulk[g].nextInts (words, 10, 80);
+			for (int i = 10; i < 90; ++i)
+			{
+				assertEquals (single[g].nextInt (), words[i]);
+			}
+			assertEquals (0, words[0]);
+			assertEquals (0, words[99]);
+		}
+	}
+
+	@Test
+	public void testNextLongsMatchesNextLong ()
+	{
+		RandomNumberGenerator[] bulk = generators (43);
+		RandomNumberGenerator[] single = generators (43);
+		for (int g = 0; g < bulk.length; ++g)
+		{
+			long[] words = new long [50];
+			bulk[g].nextLongs (words, 0, words.length);
+			for (int i = 0; i < words.length; ++i)
+			{
+				assertEquals (single[g].nextLong (), words[i]);
+			}
+		}
+	}
+
+	@Test
+	public void testRollManyMatchesRoll ()
+	{
+		Randomizer bulk = new Randomizer (new LinearCongruentialGenerator (44));
+		Randomizer single = new Randomizer (new LinearCongruentialGenerator (44));
+		int[] rolls = new int [1000];
+		bulk.rollMany (1, 6, rolls);
+		for (int i = 0; i < rolls.length; ++i)
+		{
+			assertEquals (single.roll (1, 6), rolls[i]);
+		}
+	}
+
+	@Test
+	public void testShuffleIsPermutation ()
+	{
+		Randomizer random = new Randomizer (new XoshiroGenerator (45));
+		byte[] cards = new Deck ().copyCards ();
+		random.shuffle (cards);
+		boolean[] seen = new boolean [256];
+		for (int i = 0; i < cards.length; ++i)
+		{
+			assertTrue (!seen[cards[i] & 0xff]);
+			seen[cards[i] & 0xff] = true;
+		}
+	}
+
+	@Test
+	public void testPartialShuffleMatchesFullShuffle ()
+	{
+		Randomizer partial = new Randomizer (new LinearCongruentialGenerator (46));
+		Randomizer full = new Randomizer (new LinearCongruentialGenerator (46));
+		int[] a = new int [80];
+		int[] b = new int [80];
+		for (int i = 0; i < a.length; ++i)
+			a[i] = b[i] = i;
+		partial.shuffle (a, 20);
+		full.shuffle (b);
+		for (int i = 0; i < 20; ++i)
+		{
+			assertEquals (b[i], a[i]);
+		}
+	}
+	@Test
+	public void testRollFullIntRange ()
+	{
+		Randomizer random = new Randomizer (new XoshiroGenerator (47));
+		boolean sawNegative = false, sawPositive = false;
+		for (int i = 0; i < 100; ++i)
+		{
+			int n = random.roll (Integer.MIN_VALUE, Integer.MAX_VALUE);
+			sawNegative |= n < 0;
+			sawPositive |= n > 0;
+		}
+		assertTrue (sawNegative && sawPositive);
+	}
+
+	@Test
+	public void testRollLargeRange ()
+	{
+		Randomizer random = new Randomizer (new XoshiroGenerator (48));
+		int hi = 0;
+		for (int i = 0; i < 1000; ++i)
+		{
+			int n = random.roll (0, 999999);
+			assertTrue (n >= 0 && n <= 999999);
+			hi = Math.max (hi, n);
+		}
+		assertTrue (hi > 65535);
+	}
+
+	@Test
+	public void testRollIsUniform ()
+	{
+		Randomizer random = new Randomizer (new XoshiroGenerator (49));
+		int[] counts = new int [7];
+		for (int i = 0; i < 70000; ++i)
+		{
+			++counts[random.roll (0, 6)];
+		}
+		for (int i = 0; i < counts.length; ++i)
+		{
+			assertTrue (Math.abs (counts[i] - 10000) < 500);
+		}
+	}
+
+	@Test
+	public void testRollLong ()
+	{
+		Randomizer random = new Randomizer (new XoshiroGenerator (50));
+		int[] counts = new int [3];
+		for (int i = 0; i < 30000; ++i)
+		{
+			long n = random.rollLong (-1, 1);
+			assertTrue (n >= -1 && n <= 1);
+			++counts[(int) n + 1];
+		}
+		for (int i = 0; i < counts.length; ++i)
+		{
+			assertTrue (Math.abs (counts[i] - 10000) < 500);
+		}
+
+		long lo = 1L << 40, hi = (1L << 62) + 12345;
+		for (int i = 0; i < 1000; ++i)
+		{
+			long n = random.rollLong (lo, hi);
+			assertTrue (n >= lo && n <= hi);
+		}
+		random.rollLong (Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRollBadRange ()
+	{
+		new Randomizer ().roll (2, 1);
+	}
+}
@@ -0,0 +1,114 @@
+//
+// ShoeSupplyTest.java
+//
+
+package net.ech.casino;
+
+import net.ech.math.*;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for ShoeSupply.
+ *
+ * @see net.ech.casino.ShoeSupply
+ * @see net.ech.casino.Shoe
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class ShoeSupplyTest implements CardConstants
+{
+	@Test
+	public void testShuffleFromSupply () throws Exception
+	{
+		XoshiroGenerator master = new XoshiroGenerator (1);
+		ShoeSupply supply = new ShoeSupply (8, new Deck (), 4,
+			new Randomizer (master.split ()), new Randomizer (master.split ()));
+		supply.start ();
+		try
+		{
+			for (int i = 0; i < 500 && supply.getAvailable () == 0; ++i)
+				Thread.sleep (10);
+
+			Shoe shoe = new Shoe (8);
+			shoe.setSupply (supply);
+			shoe.shuffle (new Randomizer (master.split ()));
+			assertEquals (1, supply.getHitCount ());
+			assertComplete (shoe);
+		}
+		finally
+		{
+			supply.stop ();
+		}
+	}
+
+	@Test
+	public void testEmptySupplyShufflesInline ()
+	{
+		ShoeSupply supply = new ShoeSupply (2, new Deck (), 1, new Randomizer ());
+		Shoe shoe = new Shoe (2);
+		shoe.setSupply (supply);
+		shoe.shuffle (new Randomizer ());
+		assertEquals (0, supply.getHitCount ());
+		assertEquals (1, supply.getMissCount ());
+		assertComplete (shoe);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMismatch ()
+	{
+		new Shoe (6).setSupply (new ShoeSupply (8, new Deck (), 1, new Randomizer ()));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMismatchedCards ()
+	{
+		// Same class, same size, different cards.
+		Deck aces = new Deck ()
+		{
+			public byte[] copyCards (byte[] outCards, int startIndex)
+			{
+				for (int i = 0; i < getSize (); ++i)
+					outCards[startIndex + i] = Card.value (Ace, (byte) (MinSuit + i % NumberOfSuits));
+				return outCards;
+			}
+		};
+		new Shoe (2, aces).setSupply (new ShoeSupply (2, new Deck (), 1, new Randomizer ()));
+	}
+
+	@Test
+	public void testCustomShuffleBypassesSupply ()
+	{
+		final boolean[] called = new boolean [1];
+		Shoe shoe = new Shoe (2)
+		{
+			protected void shuffle (byte[] array, int n, Randomizer random)
+			{
+				called[0] = true;
+				super.shuffle (array, n, random);
+			}
+		};
+		ShoeSupply supply = new ShoeSupply (2, new Deck (), 1, new Randomizer ());
+		shoe.setSupply (supply);
+		shoe.shuffle (new Randomizer ());
+		assertTrue (called[0]);
+		assertEquals (0, supply.getHitCount () + supply.getMissCount ());
+		assertComplete (shoe);
+	}
+
+	private static void assertComplete (Shoe shoe)
+	{
+		int[] counts = new int [256];
+		for (int i = 0; i < shoe.getSize (); ++i)
+		{
+			++counts[shoe.draw () & 0xff];
+		}
+		byte[] deck = new Deck ().copyCards ();
+		for (int i = 0; i < deck.length; ++i)
+		{
+			assertEquals (shoe.getNumberOfDecks (), counts[deck[i] & 0xff]);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+//
+// ShoeTest.java
+//
+
+package net.ech.casino;
+
+import net.ech.math.*;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for Shoe.
+ *
+ * @see net.ech.casino.Shoe
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class ShoeTest implements CardConstants
+{
+	@Test
+	public void testLazyMatchesEager ()
+	{
+		Shoe eager = new Shoe (6);
+		Shoe lazy = new Shoe (6);
+		lazy.setLazy (true);
+		eager.shuffle (new Randomizer (new LinearCongruentialGenerator (1)));
+		lazy.shuffle (new Randomizer (new LinearCongruentialGenerator (1)));
+		for (int i = 0; i < eager.getSize (); ++i)
+		{
+			assertEquals (eager.draw (), lazy.draw ());
+		}
+	}
+
+	@Test
+	public void testLazyReshuffleIsComplete ()
+	{
+		Randomizer random = new Randomizer (new XoshiroGenerator (2));
+		Shoe shoe = new Shoe (2);
+		shoe.setLazy (true);
+		shoe.setCutRange (0.5, 0.7);
+		for (int round = 0; round < 5; ++round)
+		{
+			shoe.shuffle (random);
+			for (int i = 0; i < 30; ++i)
+				shoe.draw ();
+
+			// Dealing from a copy leaves the original alone.
+			Shoe copy = shoe.copy ();
+			for (int i = 0; i < 10; ++i)
+				copy.draw ();
+			assertEquals (30, shoe.getNumberOfCardsDealt ());
+		}
+
+		shoe.shuffle (random);
+		int[] counts = new int [256];
+		for (int i = 0; i < shoe.getSize (); ++i)
+			++counts[shoe.draw () & 0xff];
+		byte[] deck = new Deck ().copyCards ();
+		for (int i = 0; i < deck.length; ++i)
+			assertEquals (2, counts[deck[i] & 0xff]);
+	}
+
+	@Test
+	public void testLazyStackedCards ()
+	{
+		Randomizer random = new Randomizer (new XoshiroGenerator (3));
+		Shoe shoe = new Shoe (1);
+		shoe.setLazy (true);
+		shoe.setStackedCards ("AS--KH");
+
+		// Enough shuffles that the random card would often be KH, were
+		// it not held back for the third position.
+		for (int round = 0; round < 200; ++round)
+		{
+			shoe.shuffle (random);
+			assertEquals (Card.valueOf ("AS"), shoe.draw ());
+			byte second = shoe.draw ();
+			assertTrue (second != Card.valueOf ("AS") && second != Card.valueOf ("KH"));
+			assertEquals (Card.valueOf ("KH"), shoe.draw ());
+		}
+	}
+}
@@ -0,0 +1,166 @@
+//
+// WildCardEvaluatorTest.java
+//
+
+package net.ech.casino;
+
+import net.ech.math.XoshiroGenerator;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for WildCardEvaluator.
+ *
+ * @see net.ech.casino.WildCardEvaluator
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class WildCardEvaluatorTest implements CardConstants
+{
+	@Test
+	public void testPaiGowJoker ()
+	{
+		// An ace, even in a flush that holds the ace.
+		assertScore (WildCardEvaluator.PaiGow, PokerScore.build (PokerScore.Flush, Ace, King, Nine, Five),
+					 "AS KS 9S 5S JO");
+		assertScore (WildCardEvaluator.PaiGow, PokerScore.build (PokerScore.Pair, Ace, King, Nine, Five),
+					 "AD KS 9S 5H JO");
+
+		// Not a wild card: a pair of kings and an ace kicker.
+		assertScore (WildCardEvaluator.PaiGow, PokerScore.build (PokerScore.Pair, King, Ace, Nine, Five),
+					 "KD KS 9S 5H JO");
+
+		// A straight or a straight flush.
+		assertScore (WildCardEvaluator.PaiGow, PokerScore.build (PokerScore.Straight, Nine, Eight, Seven, Six),
+					 "9D 8S 6S 5H JO");
+		assertScore (WildCardEvaluator.PaiGow, PokerScore.build (PokerScore.StraightFlush, Nine, Eight, Seven, Six),
+					 "9S 8S 6S 5S JO");
+
+		// The wheel ranks just below the ace-high straight.
+		assertScore (WildCardEvaluator.PaiGow, PokerScore.build (PokerScore.Straight, Ace, Five, Four, Three),
+					 "5D 4S 3S 2H JO");
+
+		assertScore (WildCardEvaluator.PaiGow, PokerScore.build (PokerScore.FiveOfAKind, Ace),
+					 "AD AS AH AC JO");
+	}
+
+	@Test
+	public void testStandardWild ()
+	{
+		assertScore (WildCardEvaluator.Standard, PokerScore.build (PokerScore.FiveOfAKind, Seven),
+					 "7D 7S 7H 7C JO");
+		assertScore (WildCardEvaluator.Standard, PokerScore.build (PokerScore.StraightFlush, Ace, King, Queen, Jack),
+					 "AS KS QS JS JO");
+		assertScore (WildCardEvaluator.Standard, PokerScore.build (PokerScore.Flush, Ace, King, Nine, Five),
+					 "KS 9S 5S 3S JO");
+		assertScore (WildCardEvaluator.Standard, PokerScore.build (PokerScore.Straight, Five, Four, Three, Deuce),
+					 "AD 4S 3S 2H JO");
+		assertScore (WildCardEvaluator.Standard, PokerScore.build (PokerScore.ThreeOfAKind, King),
+					 "KD KS 9S 5H JO");
+	}
+
+	@Test
+	public void testDeucesWild ()
+	{
+		byte[] hand = Card.parseHand ("ASKS2D2H2C");
+		assertEquals (PokerScore.build (PokerScore.StraightFlush, Ace, King, Queen, Jack),
+					  WildCardEvaluator.Standard.score (hand, 0, true));
+		hand = Card.parseHand ("2S2D2H2C9D");
+		assertEquals (PokerScore.build (PokerScore.FiveOfAKind, Nine),
+					  WildCardEvaluator.Standard.score (hand, 0, true));
+
+		// Natural deuces.
+		assertEquals (PokerScore.build (PokerScore.FourOfAKind, Deuce),
+					  WildCardEvaluator.Standard.score (hand, 0));
+	}
+
+	/**
+	 * Natural hands score alike under both rules, but for the wheel.
+	 */
+	@Test
+	public void testNaturalHands ()
+	{
+		Randomizer random = new Randomizer (new XoshiroGenerator (18));
+		byte[] deck = java.util.Arrays.copyOf (deck (), CardsInStandardDeck);
+		for (int trial = 0; trial < 20000; ++trial)
+		{
+			random.shuffle (deck);
+			int standard = WildCardEvaluator.Standard.score (deck, 0);
+			int paiGow = WildCardEvaluator.PaiGow.score (deck, 0);
+			if (PokerScore.rankOf (standard, 0) != Five ||
+				(PokerScore.primaryOf (standard) != PokerScore.Straight &&
+				 PokerScore.primaryOf (standard) != PokerScore.StraightFlush))
+			{
+				assertEquals (Card.toString (java.util.Arrays.copyOf (deck, 5)), standard, paiGow);
+			}
+		}
+	}
+
+	/**
+	 * A hand scores the same as cards or as a CardSet.
+	 */
+	@Test
+	public void testCardSet ()
+	{
+		Randomizer random = new Randomizer (new XoshiroGenerator (180));
+		byte[] deck = deck ();
+		for (int trial = 0; trial < 20000; ++trial)
+		{
+			random.shuffle (deck);
+			long naturals = CardSet.Empty;
+			int wilds = 0;
+			for (int i = 0; i < 5; ++i)
+			{
+				if (deck[i] == Joker)
+					++wilds;
+				else
+					naturals = CardSet.add (naturals, deck[i]);
+			}
+			assertEquals (Card.toString (java.util.Arrays.copyOf (deck, 5)), WildCardEvaluator.Standard.score (deck, 0),
+						  WildCardEvaluator.Standard.score (naturals, wilds));
+			assertEquals (Card.toString (java.util.Arrays.copyOf (deck, 5)), WildCardEvaluator.PaiGow.score (deck, 0),
+						  WildCardEvaluator.PaiGow.score (naturals, wilds));
+		}
+	}
+
+	/**
+	 * Wild cards complete a straight from distinct ranks that span no
+	 * more than five, counting the ace as high or low.
+	 */
+	@Test
+	public void testCompletesStraight ()
+	{
+		for (int mask = 0; mask < (1 << (MaxRank + 1)); mask += 1 << MinRank)
+		{
+			int n = Integer.bitCount (mask);
+			if (n > 5)
+				continue;
+			int high = n == 0 ? 0 : 31 - Integer.numberOfLeadingZeros (mask);
+			int low = n == 0 ? 0 : Integer.numberOfTrailingZeros (mask);
+			int second = n < 2 ? 0 : 31 - Integer.numberOfLeadingZeros (mask & ~(1 << high));
+			boolean expected = n == 0 || high - low < 5 ||
+				(high == Ace && (n == 1 || second <= Five));
+			assertEquals (Integer.toHexString (mask), expected, WildCardEvaluator.completesStraight (mask));
+		}
+	}
+
+	private static void assertScore (WildCardEvaluator evaluator, int expected, String cards)
+	{
+		int actual = evaluator.score (Card.parseHand (cards.replace (" ", "").replace ("JO", JokerString)), 0);
+		assertEquals (cards, PokerScore.toString (expected), PokerScore.toString (actual));
+		assertEquals (cards, expected, actual);
+	}
+
+	private static byte[] deck ()
+	{
+		byte[] deck = new byte [53];
+		int n = 0;
+		for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+			for (byte rank = MinRank; rank <= MaxRank; ++rank)
+				deck[n++] = Card.value (rank, suit);
+		deck[n] = Joker;
+		return deck;
+	}
+}
@@ -0,0 +1,42 @@
+//
+// BaccaratTest.java
+//
+
+package net.ech.casino.baccarat;
+
+import net.ech.casino.*;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for BaccaratGame.
+ *
+ * @see net.ech.casino.baccarat.BaccaratGame
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class BaccaratTest
+{
+	@Test
+	public void testContinuousShuffler ()
+		throws Exception
+	{
+		BaccaratMachine machine = new BaccaratMachine ();
+		ContinuousShoe shoe = new ContinuousShoe (machine.getNumberOfDecks ());
+		BaccaratGame game = new BaccaratGame (new TestCasino (machine), machine);
+		game.setShoe (shoe);
+		assertTrue (game.seatPlayer ("test"));
+
+		// The cards of the last hand go back in before the next deal.
+		int bet = Math.max (1, game.getMinimumBet ());
+		for (int i = 0; i < 10; ++i)
+		{
+			game.play (bet, 0, 0, false);
+			int dealt = game.getPlayerHand ().getSize () + game.getBankHand ().getSize ();
+			assertEquals (shoe.getSize () - dealt, shoe.getNumberOfCardsInMachine ());
+			assertTrue (!game.mustShuffle ());
+		}
+	}
+}
@@ -164,6 +164,33 @@ public final class BlackjackTest implements Constants
         testReturns (game, 7);
     }
 
+	@Test
+    public void testContinuousShuffler ()
+        throws Exception
+    {
+        CasinoBlackjack machine = new CasinoBlackjack ();
+        ContinuousShoe shoe = new ContinuousShoe (6);
+        shoe.setStackedCards ("THAHADTD");
+        BlackjackGame game = new BlackjackGame (new TestCasino (machine), machine);
+        game.setShoe (shoe);
+        assertTrue (game.seatPlayer ("test"));
+
+        game.deal (1);
+        testReturns (game, 1);
+        assertEquals (shoe.getSize () - 4, shoe.getNumberOfCardsInMachine ());
+
+        // The cards of the last round go back in before the next deal.
+        for (int i = 0; i < 10; ++i)
+        {
+            if (!game.isDealOk ())
+                game.stand ();
+            int dealt = game.getPlayerHand (0).getSize () + game.getDealerHand ().getSize ();
+            assertEquals (shoe.getSize () - dealt, shoe.getNumberOfCardsInMachine ());
+            assertTrue (!shoe.isShufflePending ());
+            game.deal (1);
+        }
+    }
+
     static BlackjackGame stackTheDeck (
         BlackjackMachine machine,
         String playerCards,
@@ -0,0 +1,120 @@
+//
+// CardObserverTest.java
+//
+
+package net.ech.casino.blackjack;
+
+import net.ech.casino.*;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test program for card observers: several counters on one table.
+ *
+ * @see net.ech.casino.blackjack.CardObserver
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class CardObserverTest implements Constants
+{
+	@Test
+	public void testManyObservers ()
+		throws Exception
+	{
+		CasinoBlackjack machine = new CasinoBlackjack ();
+		BlackjackGame game = BlackjackTest.stackTheDeck (machine, "7H7S7D", "THJH");
+
+		ShoeHistogram histogram = new ShoeHistogram (machine.createNewShoe ());
+		PointCounter hiLo = PointCounter.hiLo ();
+		PointCounter omega = PointCounter.omegaII ();
+		SimpleCardCounter listener1 = new SimpleCardCounter ();
+		SimpleCardCounter listener2 = new SimpleCardCounter ();
+		Recorder recorder = new Recorder ();
+		game.addCardObserver (histogram);
+		game.addCardObserver (hiLo);
+		game.addCardObserver (omega);
+		game.addCardObserver (recorder);
+		game.addCardListener (listener1);
+		game.addCardListener (listener2);
+
+		game.deal (1);
+		game.hit ();
+		BlackjackTest.testReturns (game, 2);
+
+		// 7H 7S JH, then 7D, then the hole card TH.
+		assertEquals ("7H7SJH7DTH", recorder.round);
+		assertEquals (5, recorder.shown);
+		assertEquals (47, histogram.getRemainingCards ());
+		assertEquals (5, histogram.getCardsSeen ());
+		assertEquals (1, histogram.getRemaining (Seven));
+		assertEquals (3, histogram.getRemaining (Ten));
+		assertEquals (14, histogram.getRemainingOfValue (10));
+		assertEquals (-2, hiLo.getRunningCount ());
+		assertEquals (-2 * 52 / 47.0, hiLo.getTrueCount (histogram), 1e-12);
+		assertEquals (-1, omega.getRunningCount ());
+		assertEquals (-2, listener1.getCount ());
+		assertEquals (-2, listener2.getCount ());
+
+		game.removeCardListener (listener2);
+		game.removeCardObserver (hiLo);
+		game.clearTable ();
+		game.deal (1);
+		assertEquals (-2, hiLo.getRunningCount ());
+		assertEquals (-2, listener2.getCount ());
+		assertEquals (recorder.shown, 52 - histogram.getRemainingCards ());
+	}
+
+	@Test
+	public void testMultiplexer ()
+	{
+		CardMultiplexer multiplexer = new CardMultiplexer ();
+		PointCounter ko = PointCounter.knockOut (2);
+		ShoeHistogram histogram = new ShoeHistogram (new Shoe (2));
+		multiplexer.add (ko);
+		multiplexer.add (histogram);
+		assertEquals (2, multiplexer.size ());
+		assertEquals (-4, ko.getRunningCount ());
+
+		byte[] cards = Card.parseHand ("2D7C8HAS");
+		for (int i = 0; i < cards.length; ++i)
+			multiplexer.cardShown (cards[i]);
+		assertEquals (-3, ko.getRunningCount ());
+		assertEquals (100, histogram.getRemainingCards ());
+		assertEquals (7, histogram.getRemaining (Ace));
+
+		multiplexer.shuffle ();
+		assertEquals (-4, ko.getRunningCount ());
+		assertEquals (104, histogram.getRemainingCards ());
+
+		multiplexer.remove (ko);
+		multiplexer.cardShown (cards[0]);
+		assertEquals (-4, ko.getRunningCount ());
+		assertEquals (1, multiplexer.size ());
+	}
+
+	// Keeps the cards of the last round, and counts every card shown.
+	private static class Recorder implements CardObserver
+	{
+		String round;
+		int shown;
+
+		public void shuffle ()
+		{
+			shown = 0;
+		}
+
+		public void cardShown (byte card)
+		{
+			++shown;
+		}
+
+		public void roundOver (byte[] cards, int count)
+		{
+			StringBuilder buf = new StringBuilder ();
+			for (int i = 0; i < count; ++i)
+				buf.append (Card.toString (cards[i]));
+			round = buf.toString ();
+		}
+	}
+}
@@ -0,0 +1,175 @@
+//
+// EvaluatorTest.java
+//
+
+package net.ech.casino.blackjack;
+
+import net.ech.casino.*;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for class Evaluator.
+ *
+ * @see net.ech.casino.blackjack.Evaluator
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class EvaluatorTest implements Constants
+{
+	private static Evaluator sixDecks;
+
+	@BeforeClass
+	public static void setUp ()
+		throws Exception
+	{
+		sixDecks = new Evaluator (new CasinoBlackjack (6));
+	}
+
+	@Test
+	public void testDealerProbabilities ()
+		throws Exception
+	{
+		int[] deck = Evaluator.compositionOf (new CasinoBlackjack (1).createNewShoe ());
+		Evaluator evaluator = new Evaluator (new CasinoBlackjack (1), deck);
+		byte[] seen = Card.parseHand ("9H7C");
+		for (int up = 1; up <= 10; ++up)
+		{
+			byte upCard = Card.value (up == 1 ? Ace : (byte) up, Spades);
+			double[] chances = evaluator.getDealerProbabilities (upCard, seen);
+
+			int[] counts = (int[]) deck.clone ();
+			--counts[9];
+			--counts[7];
+			--counts[up];
+			double[] expected = new double [22];
+			int excluded = up == 1 ? 10 : up == 10 ? 1 : 0;
+			int n = sum (counts) - (excluded == 0 ? 0 : counts[excluded]);
+			for (int v = 1; v <= 10; ++v)
+			{
+				if (v != excluded && counts[v] > 0)
+				{
+					double chance = (double) counts[v] / n;
+					--counts[v];
+					dealOut (counts, up + v, up == 1 || v == 1, chance, expected);
+					++counts[v];
+				}
+			}
+
+			double total = 0;
+			for (int score = 0; score < chances.length; ++score)
+			{
+				assertEquals ("up " + up + " score " + score, expected[score], chances[score], 1e-12);
+				total += chances[score];
+			}
+			assertEquals (1.0, total, 1e-12);
+		}
+	}
+
+	// The dealer stands on all 17s.
+	private static void dealOut (int[] counts, int low, boolean soft, double chance, double[] outcomes)
+	{
+		int high = soft && low <= 11 ? low + 10 : low;
+		if (high >= 17)
+		{
+			outcomes[high > 21 ? 0 : high] += chance;
+			return;
+		}
+		int n = sum (counts);
+		for (int v = 1; v <= 10; ++v)
+		{
+			if (counts[v] > 0)
+			{
+				double next = chance * counts[v] / n;
+				--counts[v];
+				dealOut (counts, low + v, soft || v == 1, next, outcomes);
+				++counts[v];
+			}
+		}
+	}
+
+	private static int sum (int[] counts)
+	{
+		int n = 0;
+		for (int v = 1; v < counts.length; ++v)
+			n += counts[v];
+		return n;
+	}
+
+	/**
+	 * Against a ten, the player's double-down card must be weighed given
+	 * that the hole card is not an ace: enumerate the hole card and the
+	 * player's card together.
+	 */
+	@Test
+	public void testDoubleDownGivenNoBlackjack ()
+	{
+		int[] counts = Evaluator.compositionOf (new CasinoBlackjack (1).createNewShoe ());
+		Evaluator evaluator = new Evaluator (new CasinoBlackjack (1), (int[]) counts.clone ());
+		double value = evaluator.getValues (Card.parseHand ("5H6C"), Card.parseHand ("TS")[0])[DoubleDown];
+
+		--counts[5];
+		--counts[6];
+		--counts[10];
+		int n = sum (counts);
+		double expected = 0;
+		for (int hole = 2; hole <= 10; ++hole)
+		{
+			double holeChance = (double) counts[hole] / (n - counts[1]);
+			--counts[hole];
+			for (int v = 1; v <= 10; ++v)
+			{
+				if (counts[v] == 0)
+					continue;
+				double chance = holeChance * counts[v] / (n - 1);
+				--counts[v];
+				double[] dealer = new double [22];
+				dealOut (counts, 10 + hole, false, 1.0, dealer);
+				int player = 11 + v;
+				for (int score = 0; score < dealer.length; ++score)
+				{
+					int net = score == 0 || player > score ? 2 : player == score ? 0 : -2;
+					expected += chance * dealer[score] * net;
+				}
+				++counts[v];
+			}
+			++counts[hole];
+		}
+		assertEquals (expected, value, 1e-12);
+	}
+
+	@Test
+	public void testBasicStrategy ()
+	{
+		assertMove (Surrender, "TH6C", "TS");
+		assertMove (DoubleDown, "5H6C", "6S");
+		assertMove (Stand, "TH3C", "2S");
+		assertMove (Hit, "TH2C", "2S");
+		assertMove (Hit, "AH7C", "9S");
+		assertMove (DoubleDown, "AH7C", "5S");
+		assertMove (Split, "AHAC", "TS");
+		assertMove (Split, "8H8C", "9S");
+		assertMove (Stand, "THTC", "6S");
+		assertMove (Stand, "9H9C", "7S");
+	}
+
+	@Test
+	public void testValues ()
+	{
+		double[] values = sixDecks.getValues (Card.parseHand ("THTC"), Card.parseHand ("6S")[0]);
+		assertTrue (values[Stand] > 0.6);
+		assertEquals (-0.5, values[Surrender], 0.0);
+		assertTrue (Double.isNaN (values[Deal]));
+
+		// Hard 20 doubled can only be worse than hard 20 stood.
+		assertTrue (values[DoubleDown] < values[Stand]);
+	}
+
+	private static void assertMove (int move, String cards, String up)
+	{
+		assertEquals (cards + " v " + up, move,
+					  sixDecks.getBestMove (Card.parseHand (cards), Card.parseHand (up)[0]));
+	}
+}
@@ -0,0 +1,74 @@
+//
+// HandTest.java
+//
+
+package net.ech.casino.blackjack;
+
+import net.ech.casino.*;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for class Hand.
+ *
+ * @see net.ech.casino.blackjack.Hand
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class HandTest implements Constants
+{
+	@Test
+	public void testTotals ()
+	{
+		Hand hand = hand ("AS6D");
+		assertEquals (7, hand.getLowTotal ());
+		assertEquals (17, hand.getHighTotal ());
+		assertTrue (hand.isSoft ());
+		assertEquals (17, hand.getScore ());
+
+		hand.hit (Card.parseHand ("AH")[0]);
+		assertEquals (18, hand.getScore ());
+		assertTrue (hand.isSoft ());
+
+		hand.hit (Card.parseHand ("KC")[0]);
+		assertEquals (18, hand.getScore ());
+		assertFalse (hand.isSoft ());
+
+		hand.hit (Card.parseHand ("5C")[0]);
+		assertEquals (BUST, hand.getScore ());
+		assertEquals (23, hand.getHighTotal ());
+
+		assertEquals (BLACKJACK, hand ("QDAC").getScore ());
+		assertEquals (21, hand ("7D7C7H").getScore ());
+	}
+
+	@Test
+	public void testCopyAndReset ()
+	{
+		PlayerHand hand = new PlayerHand (null);
+		hand.hit (Card.parseHand ("AS")[0]);
+		hand.hit (Card.parseHand ("TD")[0]);
+		Hand copy = hand.copy ();
+		assertEquals (BLACKJACK, copy.getScore ());
+
+		hand.reset (0, true);
+		assertEquals (0, hand.getLowTotal ());
+		assertFalse (hand.isSoft ());
+		hand.hit (Card.parseHand ("AS")[0]);
+		hand.hit (Card.parseHand ("TD")[0]);
+		assertEquals (21, hand.getScore ());
+		assertEquals (BLACKJACK, copy.getScore ());
+	}
+
+	private static Hand hand (String cards)
+	{
+		Hand hand = new Hand ();
+		byte[] values = Card.parseHand (cards);
+		for (int i = 0; i < values.length; ++i)
+			hand.hit (values[i]);
+		return hand;
+	}
+}
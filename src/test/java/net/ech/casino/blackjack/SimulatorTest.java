@@ -0,0 +1,58 @@
+//
+// SimulatorTest.java
+//
+
+package net.ech.casino.blackjack;
+
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for class Simulator.
+ *
+ * @see net.ech.casino.blackjack.Simulator
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class SimulatorTest implements Constants
+{
+	@Test
+	public void testRepeatable ()
+		throws Exception
+	{
+		Simulator simulator = new Simulator (new CasinoBlackjack (6), new Strategy ());
+		Simulator.Tally a = simulator.run (100001, 3, 22);
+		Simulator.Tally b = simulator.run (100001, 3, 22);
+		assertEquals (100001, a.getRounds ());
+		assertEquals (a.getNet (), b.getNet (), 0.0);
+		for (int move = Stand; move <= Surrender; ++move)
+			assertEquals (a.getMoveCount (move), b.getMoveCount (move));
+	}
+
+	@Test
+	public void testCasinoBlackjack ()
+		throws Exception
+	{
+		Simulator.Tally tally = new Simulator (new CasinoBlackjack (6), new Strategy ()).run (1000000, 2, 23);
+		assertEquals (tally.getHands (), tally.getWins () + tally.getPushes () + tally.getLosses ());
+		assertEquals (tally.getHands () - tally.getRounds (), tally.getMoveCount (Split));
+		assertTrue (tally.getWagered () > tally.getHands ());
+
+		// The book strategy gives up under one percent.
+		assertTrue (tally.getHouseEdge () > 0.0);
+		assertTrue (tally.getHouseEdge () < 0.015);
+		assertEquals (1.14, tally.getStandardDeviation (), 0.05);
+		assertTrue (tally.getConfidence (1.96) < 0.003);
+	}
+
+	@Test
+	public void testSuperFun21 ()
+		throws Exception
+	{
+		Simulator.Tally tally = new Simulator (new SuperFun21 (), new SuperFun21Strategy ()).run (200000, 2, 24);
+		assertEquals (200000, tally.getRounds ());
+		assertTrue (tally.getMoveCount (Surrender) > 0);
+	}
+}
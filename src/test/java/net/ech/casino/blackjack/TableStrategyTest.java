@@ -0,0 +1,94 @@
+//
+// TableStrategyTest.java
+//
+
+package net.ech.casino.blackjack;
+
+import net.ech.casino.*;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for class TableStrategy, against the published basic
+ * strategy for six decks, dealer stands on soft 17, double after split,
+ * late surrender.
+ *
+ * @see net.ech.casino.blackjack.TableStrategy
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class TableStrategyTest implements Constants
+{
+	private final static int All = StandOk | HitOk | SplitOk | DoubleDownOk | SurrenderOk;
+
+	private static CasinoBlackjack machine;
+	private static TableStrategy strategy;
+
+	@BeforeClass
+	public static void setUp ()
+	{
+		machine = new CasinoBlackjack (6);
+		strategy = new TableStrategy (machine);
+	}
+
+	@Test
+	public void testHardTotals ()
+	{
+		assertEquals (Stand, strategy.getMove (12, false, false, 4, All));
+		assertEquals (Hit, strategy.getMove (12, false, false, 3, All));
+		assertEquals (Surrender, strategy.getMove (16, false, false, King, All));
+		assertEquals (Hit, strategy.getMove (16, false, false, King, StandOk | HitOk));
+		assertEquals (DoubleDown, strategy.getMove (11, false, false, 6, All));
+		assertEquals (Hit, strategy.getMove (11, false, false, Ace, All));
+		assertEquals (Stand, strategy.getMove (17, false, false, Ace, All));
+	}
+
+	@Test
+	public void testSoftTotals ()
+	{
+		assertEquals (DoubleDown, strategy.getMove (18, true, false, 6, All));
+		assertEquals (Stand, strategy.getMove (18, true, false, 6, StandOk | HitOk));
+		assertEquals (Hit, strategy.getMove (18, true, false, 9, All));
+		assertEquals (Stand, strategy.getMove (18, true, false, 7, All));
+	}
+
+	@Test
+	public void testPairs ()
+	{
+		assertEquals (Split, strategy.getMove (11, false, true, Ten, All));
+		assertEquals (Split, strategy.getMove (8, false, true, Ace, All));
+		assertEquals (Stand, strategy.getMove (9, false, true, 7, All));
+		assertEquals (Split, strategy.getMove (9, false, true, 8, All));
+		assertEquals (DoubleDown, strategy.getMove (5, false, true, 9, All));
+	}
+
+	@Test
+	public void testNextMove ()
+	{
+		assertEquals (Split, nextMove ("8H8D", "TS", All));
+		assertEquals (Surrender, nextMove ("8H8D", "TS", All & ~SplitOk));
+		assertEquals (Stand, nextMove ("KHQD", "6S", StandOk | HitOk | DoubleDownOk | SurrenderOk));
+		assertEquals (Hit, nextMove ("5H2D4C", "6S", StandOk | HitOk));
+		assertEquals (Stand, nextMove ("AH3D4C", "7S", StandOk | HitOk));
+	}
+
+	@Test
+	public void testSimulation ()
+		throws Exception
+	{
+		Simulator.Tally tally = new Simulator (machine, strategy).run (1000000, 2, 25);
+		assertTrue (tally.getHouseEdge () < 0.01);
+		assertTrue (tally.getMoveCount (Surrender) > 0);
+	}
+
+	private static int nextMove (String cards, String up, int moveFlags)
+	{
+		PlayerHand hand = new PlayerHand (null);
+		byte[] hcards = Card.parseHand (cards);
+		for (int i = 0; i < hcards.length; ++i)
+			hand.hit (hcards[i]);
+		return strategy.nextMove (hand, Card.rankOf (Card.parseHand (up)[0]), moveFlags);
+	}
+}
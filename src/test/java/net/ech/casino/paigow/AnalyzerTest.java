@@ -0,0 +1,194 @@
+//
+// AnalyzerTest.java
+//
+
+package net.ech.casino.paigow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.ech.casino.Card;
+import net.ech.casino.CardSet;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test program for class Analyzer.  A full analysis takes far too long
+ * here, so these tests use a deck of aces through jacks and the joker, in
+ * which every pair of hands can also be played out directly.
+ *
+ * @see net.ech.casino.paigow.Analyzer
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class AnalyzerTest implements Constants
+{
+	private final static long Deck = CardSet.lanes ((1 << Ace) | (1 << King) | (1 << Queen) | (1 << Jack)) |
+		CardSet.JokerBit;
+
+	@Test
+	public void testPlayer ()
+	{
+		testAgainstBruteForce (new WongWay (false), new WongWay (true), false);
+	}
+
+	@Test
+	public void testBanker ()
+	{
+		testAgainstBruteForce (new WongWay (true), new WongWay (false), true);
+	}
+
+	/**
+	 * With five ranks a dealer hand can hold five cards of a suit, which
+	 * the smaller deck cannot show.  A full brute force takes too long, so
+	 * check some of the player hands one at a time.
+	 */
+	@Test
+	public void testFlushes ()
+	{
+		long deck = Deck | CardSet.lanes (1 << Ten);
+		HouseWay playersWay = new WongWay (false);
+		HouseWay dealersWay = new WongWay (true);
+		Analyzer analyzer = new Analyzer (playersWay, dealersWay, false, deck);
+		analyzer.prepare ();
+
+		byte[] cards = CardSet.toCards (deck);
+		Map<Long, int[]> playerScores = new HashMap<Long, int[]> ();
+		Map<Long, int[]> dealerScores = new HashMap<Long, int[]> ();
+		settleAll (cards, playersWay, dealersWay, playerScores, dealerScores);
+
+		Set<Integer> seen = new HashSet<Integer> ();
+		for (long playerSet : handsOf (cards))
+		{
+			int index = CanonicalHand.indexOf (playerSet);
+			if (!seen.add (index) || seen.size () % 16 != 0)
+				continue;
+
+			int[] p = playerScores.get (playerSet);
+			long wins = 0;
+			long losses = 0;
+			long pushes = 0;
+			for (long dealerSet : handsOf (CardSet.toCards (CardSet.difference (deck, playerSet))))
+			{
+				int[] d = dealerScores.get (dealerSet);
+				int five = compare (p[0], d[0], false);
+				int two = compare (p[1], d[1], false);
+				if (five > 0 && two > 0)
+					++wins;
+				else if (five < 0 && two < 0)
+					++losses;
+				else
+					++pushes;
+			}
+
+			Analyzer.Tally actual = analyzer.analyze (index);
+			int orbit = CanonicalHand.orbitSize (index);
+			assertEquals (wins * orbit, actual.getWins ());
+			assertEquals (losses * orbit, actual.getLosses ());
+			assertEquals (pushes * orbit, actual.getPushes ());
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAsymmetricDeck ()
+	{
+		new Analyzer (new HouseWay (false), new HouseWay (true), false,
+					  CardSet.remove (Deck, Card.value (Ace, Spades)));
+	}
+
+	@Test
+	public void testHouseEdge ()
+	{
+		Analyzer.Tally tally = new Analyzer.Tally (30, 40, 30);
+		assertEquals (0.015, tally.getCommission (0.05), 1e-12);
+		assertEquals (0.115, tally.getHouseEdge (0.05), 1e-12);
+	}
+
+	private void testAgainstBruteForce (HouseWay playersWay, HouseWay dealersWay, boolean banker)
+	{
+		Analyzer analyzer = new Analyzer (playersWay, dealersWay, banker, Deck);
+		analyzer.prepare ();
+		Analyzer.Tally actual = analyzer.analyze (0, CanonicalHand.Size);
+
+		byte[] cards = CardSet.toCards (Deck);
+		Map<Long, int[]> playerScores = new HashMap<Long, int[]> ();
+		Map<Long, int[]> dealerScores = new HashMap<Long, int[]> ();
+		settleAll (cards, playersWay, dealersWay, playerScores, dealerScores);
+
+		long wins = 0;
+		long losses = 0;
+		long pushes = 0;
+		for (Map.Entry<Long, int[]> player : playerScores.entrySet ())
+		{
+			int[] p = player.getValue ();
+			byte[] rest = CardSet.toCards (CardSet.difference (Deck, player.getKey ()));
+			for (long dealerSet : handsOf (rest))
+			{
+				int[] d = dealerScores.get (dealerSet);
+				int five = compare (p[0], d[0], banker);
+				int two = compare (p[1], d[1], banker);
+				if (five > 0 && two > 0)
+					++wins;
+				else if (five < 0 && two < 0)
+					++losses;
+				else
+					++pushes;
+			}
+		}
+
+		assertEquals (wins, actual.getWins ());
+		assertEquals (losses, actual.getLosses ());
+		assertEquals (pushes, actual.getPushes ());
+	}
+
+	// Set every hand of seven of the cards both ways.
+	private static void settleAll (byte[] cards, HouseWay playersWay, HouseWay dealersWay,
+								   Map<Long, int[]> playerScores, Map<Long, int[]> dealerScores)
+	{
+		for (long set : handsOf (cards))
+		{
+			playerScores.put (set, settle (set, playersWay));
+			dealerScores.put (set, settle (set, dealersWay));
+		}
+	}
+
+	// Every hand of seven of the cards.
+	private static List<Long> handsOf (byte[] cards)
+	{
+		List<Long> hands = new ArrayList<Long> ();
+		addHands (cards, 0, CardsInHand, CardSet.Empty, hands);
+		return hands;
+	}
+
+	private static void addHands (byte[] cards, int start, int left, long set, List<Long> hands)
+	{
+		if (left == 0)
+		{
+			hands.add (set);
+			return;
+		}
+		for (int i = start; i <= cards.length - left; ++i)
+			addHands (cards, i + 1, left - 1, CardSet.add (set, cards[i]), hands);
+	}
+
+	private static int[] settle (long set, HouseWay houseWay)
+	{
+		byte[] hand = CardSet.toCards (set);
+		houseWay.set (hand);
+		return new int[] {
+			HandInfo.score5Int (hand, 0),
+			HandInfo.score2Int (hand[CardsInFiveHand], hand[CardsInFiveHand + 1])
+		};
+	}
+
+	private static int compare (int player, int dealer, boolean banker)
+	{
+		if (player != dealer)
+			return player > dealer ? 1 : -1;
+		return banker ? 1 : -1;
+	}
+}
@@ -0,0 +1,106 @@
+//
+// CanonicalHandTest.java
+//
+
+package net.ech.casino.paigow;
+
+import net.ech.casino.Card;
+import net.ech.casino.CardSet;
+import net.ech.casino.Randomizer;
+import net.ech.math.XoshiroGenerator;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for class CanonicalHand.
+ *
+ * @see net.ech.casino.paigow.CanonicalHand
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class CanonicalHandTest implements Constants
+{
+	/**
+	 * 6,009,159 seven-card hands of a standard deck up to a renaming of
+	 * suits, plus 962,988 six-card hands with the joker.
+	 */
+	@Test
+	public void testSize ()
+	{
+		assertEquals (6009159 + 962988, CanonicalHand.Size);
+	}
+
+	@Test
+	public void testRandomHands ()
+	{
+		byte[] deck = new byte [CardsInStandardDeck + 1];
+		int n = 0;
+		for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+			for (byte rank = MinRank; rank <= MaxRank; ++rank)
+				deck[n++] = Card.value (rank, suit);
+		deck[n] = Joker;
+
+		Randomizer random = new Randomizer (new XoshiroGenerator (5));
+		byte[] hand = new byte [CardsInHand];
+		byte[] canonical = new byte [CardsInHand];
+		byte[] suitMap = new byte [Spades + 1];
+		for (int trial = 0; trial < 20000; ++trial)
+		{
+			random.shuffle (deck);
+			System.arraycopy (deck, 0, hand, 0, CardsInHand);
+			int index = CanonicalHand.indexOf (hand, suitMap);
+			assertTrue (index >= 0 && index < CanonicalHand.Size);
+
+			// The canonical hand is the hand with its suits renamed.
+			CanonicalHand.valueOf (index, canonical);
+			long renamed = CardSet.Empty;
+			for (int i = 0; i < CardsInHand; ++i)
+			{
+				byte card = hand[i];
+				if (card != Joker)
+					card = Card.value (Card.rankOf (card), suitMap[Card.suitOf (card)]);
+				renamed = CardSet.add (renamed, card);
+			}
+			assertEquals (Card.toString (hand), CardSet.toString (renamed),
+						  CardSet.toString (CardSet.valueOf (canonical)));
+			assertEquals (index, CanonicalHand.indexOf (canonical));
+		}
+	}
+
+	@Test
+	public void testEveryIndex ()
+	{
+		byte[] hand = new byte [CardsInHand];
+		for (int index = 0; index < CanonicalHand.Size; index += 97)
+		{
+			CanonicalHand.valueOf (index, hand);
+			assertEquals (Card.toString (hand), index, CanonicalHand.indexOf (hand));
+		}
+	}
+
+	/**
+	 * The orbits of the canonical hands cover every hand exactly once: 53
+	 * choose 7 in all.
+	 */
+	@Test
+	public void testOrbitSizes ()
+	{
+		long total = 0;
+		for (int index = 0; index < CanonicalHand.Size; ++index)
+			total += CanonicalHand.orbitSize (index);
+		assertEquals (154143080L, total);
+	}
+
+	@Test
+	public void testIndexOfCardSet ()
+	{
+		byte[] hand = new byte [CardsInHand];
+		for (int index = 0; index < CanonicalHand.Size; index += 101)
+		{
+			CanonicalHand.valueOf (index, hand);
+			assertEquals (index, CanonicalHand.indexOf (CardSet.valueOf (hand)));
+		}
+	}
+}
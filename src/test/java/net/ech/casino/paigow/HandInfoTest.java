@@ -52,6 +52,119 @@ public class HandInfoTest implements Constants
 		scoreAndAssert("jo5H4D3S2C", PokerScore.makeAceLowStraight ());
 	 }
 
+	/**
+	 * Check the packed and table-driven scores of all two- and five-card
+	 * hands from the pai gow deck against scores built from the digested
+	 * hand.
+	 */
+	@Test
+	public void testScoreIntAllHands()
+		throws Exception
+	{
+		byte[] deck = new byte [CardsInStandardDeck + 1];
+		int n = 0;
+		for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+			for (byte rank = MinRank; rank <= MaxRank; ++rank)
+				deck[n++] = Card.value (rank, suit);
+		deck[n] = Joker;
+
+		byte[] hand = new byte [5];
+		for (int a = 0; a < deck.length; ++a)
+		for (int b = a + 1; b < deck.length; ++b)
+		{
+			hand[0] = deck[a];
+			hand[1] = deck[b];
+			assertEquals (referenceScore2 (hand).intValue (), HandInfo.score2Int (hand, 0));
+
+			for (int c = b + 1; c < deck.length; ++c)
+			for (int d = c + 1; d < deck.length; ++d)
+			for (int e = d + 1; e < deck.length; ++e)
+			{
+				hand[2] = deck[c];
+				hand[3] = deck[d];
+				hand[4] = deck[e];
+				int score = HandInfo.score5Int (hand, 0);
+				if (score != referenceScore5 (hand).intValue ())
+					assertEquals (Card.toString (hand), referenceScore5 (hand), PokerScore.valueOf (score));
+			}
+		}
+	}
+
+	//
+	// Score a two-card hand from first principles.
+	//
+	private static PokerScore referenceScore2 (byte[] hand)
+	{
+		byte rank0 = Card.rankOf (hand[0]);
+		byte rank1 = Card.rankOf (hand[1]);
+
+		if (rank0 == NilRank /* joker */) rank0 = Ace;
+		if (rank1 == NilRank /* joker */) rank1 = Ace;
+
+		if (rank0 == rank1)
+			return PokerScore.makePair (rank0);
+		else if (rank0 > rank1)
+			return PokerScore.makeHighCard (rank0, rank1);
+		else 
+			return PokerScore.makeHighCard (rank1, rank0);
+	}
+
+	//
+	// Score a five-card hand through the HandInfo query methods.
+	//
+	private static PokerScore referenceScore5 (byte[] hand)
+	{
+		HandInfo info = new HandInfo (hand, 0);
+
+		if (info.hasTuple (5))
+			return PokerScore.makeFiveOfAKind (Ace);
+
+		if (HandInfo.isFlush (hand, 0))
+		{
+			if (info.isAceLowStraight ())
+				return PokerScore.makeAceLowStraightFlush ();
+
+			if (info.isStraight ())
+				return PokerScore.makeStraightFlush (info.getStraightRank ());
+
+			return PokerScore.makeFlush (info.getRank (0), info.getRank(1),
+										 info.getRank (2), info.getRank(3));
+		}
+
+		if (info.hasTuple (4))
+			return PokerScore.makeFourOfAKind (info.getRank (4, 0));
+
+		if (info.hasTuple (3) && info.hasTuple (2))
+			return PokerScore.makeFullHouse (info.getRank (3, 0),
+											 info.getRank (2, 0));
+
+		if (info.isAceLowStraight ())
+			return PokerScore.makeAceLowStraight ();
+
+		if (info.isStraight ())
+			return PokerScore.makeStraight (info.getStraightRank ());
+
+		if (info.hasTuple (3))
+			return PokerScore.makeThreeOfAKind (info.getRank (3, 0));
+
+		if (info.getPairCount () == 2)
+			return PokerScore.makeTwoPair (info.getRank (2, 0),
+										   info.getRank (2, 1),
+										   info.getRank (1, 0));
+
+		if (info.getPairCount () > 0)
+			return PokerScore.makePair (info.getRank (2, 0),
+										info.getRank (1, 0),
+										info.getRank (1, 1),
+										info.getRank (1, 2));
+
+		return PokerScore.makeHighCard (info.getRank (0),
+										info.getRank (1),
+										info.getRank (2),
+										info.getRank (3),
+										info.getRank (4));
+	}
+
     private static void scoreAndAssert (String cardString, PokerScore expected)
         throws Exception
     {
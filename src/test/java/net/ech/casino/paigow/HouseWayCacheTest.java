@@ -0,0 +1,112 @@
+//
+// HouseWayCacheTest.java
+//
+
+package net.ech.casino.paigow;
+
+import net.ech.casino.Card;
+import net.ech.casino.CardSet;
+import net.ech.casino.Randomizer;
+import net.ech.math.XoshiroGenerator;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for class HouseWayCache.
+ *
+ * @see net.ech.casino.paigow.HouseWayCache
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class HouseWayCacheTest implements Constants
+{
+	@Test
+	public void testEviction ()
+	{
+		HouseWayCache cache = new HouseWayCache (3);
+		assertEquals (4, cache.getCapacity ());
+
+		for (long key = 1; key <= 4; ++key)
+			cache.put (key, (int) key * 10);
+		assertEquals (10, cache.get (1));		// now most recently used
+		cache.put (5, 50);						// evicts 2
+		assertEquals (HouseWayCache.Missing, cache.get (2));
+		assertEquals (30, cache.get (3));
+		assertEquals (50, cache.get (5));
+		cache.put (5, 55);						// replaces, evicts nothing
+		assertEquals (55, cache.get (5));
+
+		assertEquals (1, cache.getEvictionCount ());
+		assertEquals (4, cache.getHitCount ());
+		assertEquals (1, cache.getMissCount ());
+		assertEquals (0.8, cache.getHitRate (), 1e-9);
+
+		cache.clear ();
+		assertEquals (HouseWayCache.Missing, cache.get (1));
+	}
+
+	/**
+	 * Set random hands, each with and without a cache, and then again with
+	 * the suits renamed.  The cache must change no decision.
+	 */
+	@Test
+	public void testSameAsUncached ()
+	{
+		byte[] deck = new byte [CardsInStandardDeck + 1];
+		int n = 0;
+		for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+			for (byte rank = MinRank; rank <= MaxRank; ++rank)
+				deck[n++] = Card.value (rank, suit);
+		deck[n] = Joker;
+
+		for (int banker = 0; banker < 2; ++banker)
+		{
+			WongWay uncached = new WongWay (banker != 0);
+			WongWay cached = new WongWay (banker != 0, new HouseWayCache (1 << 12));
+			Randomizer random = new Randomizer (new XoshiroGenerator (11 + banker));
+			byte[] hand = new byte [CardsInHand];
+			for (int trial = 0; trial < 5000; ++trial)
+			{
+				random.shuffle (deck);
+				System.arraycopy (deck, 0, hand, 0, CardsInHand);
+				checkHand (uncached, cached, hand);
+				checkHand (uncached, cached, renameSuits (hand));
+			}
+
+			HouseWayCache cache = cached.getCache ();
+			assertTrue (cache.getHitCount () > 0);
+			assertTrue (cache.getMissCount () > 0);
+		}
+	}
+
+	private static void checkHand (HouseWay uncached, HouseWay cached, byte[] hand)
+	{
+		byte[] expected = (byte[]) hand.clone ();
+		uncached.set (expected);
+		byte[] result = (byte[]) hand.clone ();
+		cached.set (result);
+		assertEquals (Card.toString (hand), Card.toString (expected), Card.toString (result));
+	}
+
+	// Diamonds to clubs to hearts to spades to diamonds.
+	private static byte[] renameSuits (byte[] hand)
+	{
+		byte[] result = new byte [hand.length];
+		for (int i = 0; i < hand.length; ++i)
+		{
+			byte card = hand[i];
+			if (card == Joker)
+				result[i] = card;
+			else
+			{
+				byte suit = (byte) (MinSuit + (Card.suitOf (card) - MinSuit + 1) % NumberOfSuits);
+				result[i] = Card.value (Card.rankOf (card), suit);
+			}
+		}
+		assertEquals (CardSet.canonical (CardSet.valueOf (hand)),
+					  CardSet.canonical (CardSet.valueOf (result)));
+		return result;
+	}
+}
@@ -0,0 +1,117 @@
+//
+// HouseWayTableTest.java
+//
+
+package net.ech.casino.paigow;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import net.ech.casino.Card;
+import net.ech.casino.Randomizer;
+import net.ech.math.XoshiroGenerator;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test program for class HouseWayTable.  The full table takes too long
+ * to build here; these tests fill in only the entries they use.
+ *
+ * @see net.ech.casino.paigow.HouseWayTable
+ * @see net.ech.casino.paigow.HouseWayTableGenerator
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class HouseWayTableTest implements Constants
+{
+	private HouseWayTableGenerator generator = new HouseWayTableGenerator ();
+
+	/**
+	 * Set random hands by table and by WongWay.  The hand is renamed to its
+	 * canonical form before lookup, so when two cards are interchangeable
+	 * the two may not pick the same one; but the scores must agree.
+	 */
+	@Test
+	public void testRandomHands ()
+	{
+		byte[] deck = new byte [CardsInStandardDeck + 1];
+		int n = 0;
+		for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+			for (byte rank = MinRank; rank <= MaxRank; ++rank)
+				deck[n++] = Card.value (rank, suit);
+		deck[n] = Joker;
+
+		byte[][] hands = new byte [1000][];
+		byte[] image = HouseWayTable.newImage ();
+		Randomizer random = new Randomizer (new XoshiroGenerator (17));
+		for (int i = 0; i < hands.length; ++i)
+		{
+			random.shuffle (deck);
+			hands[i] = new byte [CardsInHand];
+			System.arraycopy (deck, 0, hands[i], 0, CardsInHand);
+			generator.decide (CanonicalHand.indexOf (hands[i]), image);
+		}
+
+		HouseWayTable table = new HouseWayTable (ByteBuffer.wrap (image));
+		for (int banker = 0; banker < 2; ++banker)
+		{
+			HouseWay wongWay = new WongWay (banker != 0);
+			for (int i = 0; i < hands.length; ++i)
+			{
+				byte[] expected = (byte[]) hands[i].clone ();
+				wongWay.set (expected);
+				byte[] actual = (byte[]) hands[i].clone ();
+				table.getHouseWay (banker != 0).set (actual);
+				String message = Card.toString (hands[i]) + ": expected " +
+					Card.toString (expected) + ", got " + Card.toString (actual);
+				assertEquals (message, HandInfo.score5Int (expected, 0), HandInfo.score5Int (actual, 0));
+				assertEquals (message, HandInfo.score2Int (expected[CardsInFiveHand], expected[CardsInFiveHand + 1]),
+							  HandInfo.score2Int (actual[CardsInFiveHand], actual[CardsInFiveHand + 1]));
+			}
+		}
+	}
+
+	/**
+	 * Write part of a table to a file, map it, and check it.
+	 */
+	@Test
+	public void testFileRoundTrip ()
+		throws IOException
+	{
+		byte[] image = HouseWayTable.newImage ();
+		int from = CanonicalHand.Size - 2000;
+		for (int index = from; index < CanonicalHand.Size; ++index)
+			generator.decide (index, image);
+
+		File file = File.createTempFile ("housewaytable", ".bin");
+		try
+		{
+			FileOutputStream out = new FileOutputStream (file);
+			try
+			{
+				out.write (image);
+			}
+			finally
+			{
+				out.close ();
+			}
+
+			HouseWayTable table = HouseWayTable.open (file);
+			assertEquals (0, generator.verify (table, from, CanonicalHand.Size));
+		}
+		finally
+		{
+			file.delete ();
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testBadHeader ()
+	{
+		byte[] image = HouseWayTable.newImage ();
+		image[0] = 0;
+		new HouseWayTable (ByteBuffer.wrap (image));
+	}
+}
@@ -0,0 +1,103 @@
+//
+// SettingScorerTest.java
+//
+
+package net.ech.casino.paigow;
+
+import net.ech.casino.Card;
+import net.ech.casino.PokerScore;
+import net.ech.casino.Randomizer;
+import net.ech.math.XoshiroGenerator;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test program for class SettingScorer.
+ *
+ * @see net.ech.casino.paigow.SettingScorer
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class SettingScorerTest implements Constants
+{
+	/**
+	 * Compare the scores and candidates of random hands against those
+	 * found by setting and scoring each hand separately.
+	 */
+	@Test
+	public void testRandomHands ()
+	{
+		byte[] deck = new byte [CardsInStandardDeck + 1];
+		int n = 0;
+		for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+			for (byte rank = MinRank; rank <= MaxRank; ++rank)
+				deck[n++] = Card.value (rank, suit);
+		deck[n] = Joker;
+
+		Randomizer random = new Randomizer (new XoshiroGenerator (7));
+		SettingScorer scorer = new SettingScorer ();
+		byte[] hand = new byte [CardsInHand];
+		for (int trial = 0; trial < 20000; ++trial)
+		{
+			random.shuffle (deck);
+			System.arraycopy (deck, 0, hand, 0, CardsInHand);
+			scorer.score (hand);
+			checkHand (scorer, hand);
+		}
+	}
+
+	@Test
+	public void testFiveAces ()
+	{
+		byte[] hand = Card.parseHand ("ACASjoAHADKCKD");
+		SettingScorer scorer = new SettingScorer ();
+		scorer.score (hand);
+		checkHand (scorer, hand);
+	}
+
+	private static void checkHand (SettingScorer scorer, byte[] hand)
+	{
+		Setting[] settings = Setting.getAllSettings ();
+		int[] five = new int [settings.length];
+		int[] two = new int [settings.length];
+		boolean[] keep = new boolean [settings.length];
+		for (int s = 0; s < settings.length; ++s)
+		{
+			byte[] setHand = settings[s].set (hand);
+			PokerScore fiveScore = HandInfo.score5 (setHand, 0);
+			PokerScore twoScore = HandInfo.score2 (setHand, CardsInFiveHand);
+			five[s] = fiveScore.intValue ();
+			two[s] = twoScore.intValue ();
+			keep[s] = fiveScore.compareTo (twoScore) > 0;
+			assertEquals (Card.toString (hand), five[s], scorer.getFiveScore (s));
+			assertEquals (Card.toString (hand), two[s], scorer.getTwoScore (s));
+		}
+
+		for (int i = 0; i < settings.length; ++i)
+		{
+			if (!keep[i])
+				continue;
+			for (int j = i + 1; j < settings.length; ++j)
+			{
+				if (!keep[j])
+					continue;
+				if (five[j] >= five[i] && two[j] >= two[i])
+				{
+					keep[i] = false;
+					break;
+				}
+				if (five[j] <= five[i] && two[j] <= two[i])
+					keep[j] = false;
+			}
+		}
+
+		int n = 0;
+		for (int s = 0; s < settings.length; ++s)
+		{
+			if (keep[s])
+				assertEquals (Card.toString (hand), s, scorer.getCandidate (n++));
+		}
+		assertEquals (Card.toString (hand), n, scorer.getCandidateCount ());
+	}
+}
@@ -5,6 +5,7 @@
 package net.ech.casino.paigow;
 
 import net.ech.casino.*;
+import net.ech.math.XoshiroGenerator;
 import org.junit.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -178,6 +179,73 @@ public class WongWayTest implements Constants
         testWongWay("KHQDJSTH9H5D3S",       "K?Q?J?T?9?5?3?");
 	}
 
+	/**
+	 * Every 97th canonical hand, as banker and as player, must be set as
+	 * it was when WongWay chose from ScoredSettings.  HouseWayBenchmark
+	 * checks the full set of hands.
+	 */
+	@Test
+	public void testCanonicalDigest ()
+	{
+		HouseWay[] ways = { bankersWay, playersWay };
+		assertEquals (0x81b41e1fL, HouseWayBenchmark.digest (ways, 97, new SettingScorer ()));
+	}
+
+	@Test
+	public void testSharedAcrossThreads () throws Exception
+	{
+		byte[] deck = new byte [CardsInStandardDeck + 1];
+		int n = 0;
+		for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+			for (byte rank = MinRank; rank <= MaxRank; ++rank)
+				deck[n++] = Card.value (rank, suit);
+		deck[n] = Joker;
+
+		// Set some hands on this thread, with scratch space of our own.
+		Randomizer random = new Randomizer (new XoshiroGenerator (13));
+		SettingScorer scorer = new SettingScorer ();
+		final byte[][] hands = new byte [2000][];
+		byte[][] expected = new byte [hands.length][];
+		for (int i = 0; i < hands.length; ++i)
+		{
+			random.shuffle (deck);
+			hands[i] = new byte [CardsInHand];
+			System.arraycopy (deck, 0, hands[i], 0, CardsInHand);
+			expected[i] = (byte[]) hands[i].clone ();
+			bankersWay.set (expected[i], scorer);
+		}
+
+		// Set them all again on several threads at once.
+		final byte[][][] results = new byte [4][hands.length][];
+		Thread[] threads = new Thread [results.length];
+		for (int t = 0; t < threads.length; ++t)
+		{
+			final byte[][] out = results[t];
+			threads[t] = new Thread (new Runnable ()
+			{
+				public void run ()
+				{
+					for (int i = 0; i < hands.length; ++i)
+					{
+						out[i] = (byte[]) hands[i].clone ();
+						bankersWay.set (out[i]);
+					}
+				}
+			});
+			threads[t].start ();
+		}
+		for (int t = 0; t < threads.length; ++t)
+		{
+			threads[t].join ();
+		}
+
+		for (int t = 0; t < results.length; ++t)
+		{
+			for (int i = 0; i < hands.length; ++i)
+				assertEquals (Card.toString (expected[i]), Card.toString (results[t][i]));
+		}
+	}
+
     private void testWongWay(String cardString, String expectedString)
     {
 		testWongWay(cardString, expectedString, expectedString);
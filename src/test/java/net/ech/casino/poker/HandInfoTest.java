@@ -51,6 +51,111 @@ public class HandInfoTest implements CardConstants
 	    scoreAndAssert ("9C9SASKSQS", PokerScore.makePair (Nine, Ace, King, Queen));
     }
 
+	@Test
+	public void testAceLowStraight() throws Exception
+	{
+	    scoreAndAssert ("3C5DAS4D2H", PokerScore.makeStraight (Five));
+	    scoreAndAssert ("3C5DjoAD2H", PokerScore.makeStraight (Five));
+	}
+
+	@Test
+	public void testFiveAces() throws Exception
+	{
+	    scoreAndAssert ("ACjoASAHAD", PokerScore.makeFiveOfAKind (Ace));
+	}
+
+	@Test
+	public void testPairedFlush() throws Exception
+	{
+		// Possible only with more than one deck.
+		byte[] hand = Card.parseHand ("AHAHKHQHJH");
+		assertEquals (referenceScore (hand), HandInfo.score (hand));
+	}
+
+	/**
+	 * Check the table-driven scores of all five-card hands from a deck
+	 * with a joker against scores built from the digested hand.
+	 */
+	@Test
+	public void testScoreIntAllHands() throws Exception
+	{
+		byte[] deck = new byte [CardsInStandardDeck + 1];
+		int n = 0;
+		for (byte suit = MinSuit; suit < MinSuit + NumberOfSuits; ++suit)
+			for (byte rank = MinRank; rank <= MaxRank; ++rank)
+				deck[n++] = Card.value (rank, suit);
+		deck[n] = Joker;
+
+		byte[] hand = new byte [5];
+		int count = 0;
+		for (int a = 0; a < deck.length; ++a)
+		for (int b = a + 1; b < deck.length; ++b)
+		for (int c = b + 1; c < deck.length; ++c)
+		for (int d = c + 1; d < deck.length; ++d)
+		for (int e = d + 1; e < deck.length; ++e)
+		{
+			hand[0] = deck[a];
+			hand[1] = deck[b];
+			hand[2] = deck[c];
+			hand[3] = deck[d];
+			hand[4] = deck[e];
+			int score = HandInfo.scoreInt (hand, 0);
+			if (score != referenceScore (hand).intValue ())
+				assertEquals (Card.toString (hand), referenceScore (hand), PokerScore.valueOf (score));
+			++count;
+		}
+		assertEquals (2869685, count);
+	}
+
+	//
+	// Score a hand through the HandInfo query methods.
+	//
+	private static PokerScore referenceScore (byte[] hand)
+	{
+		HandInfo info = new HandInfo (hand);
+
+		if (info.hasTuple (5))
+			return PokerScore.makeFiveOfAKind (Ace);
+
+		boolean flush = info.isFlush ();
+		if (flush && info.isStraight ())
+			return PokerScore.makeStraightFlush (info.getStraightRank ());
+
+		if (info.hasTuple (4))
+			return PokerScore.makeFourOfAKind (info.getRank (4, 0));
+
+		if (info.hasTuple (3) && info.hasTuple (2))
+			return PokerScore.makeFullHouse (info.getRank (3, 0),
+											 info.getRank (2, 0));
+
+		if (flush)
+			return PokerScore.makeFlush (info.getRank (0), info.getRank (1),
+										 info.getRank (2), info.getRank (3));
+
+		if (info.isStraight ())
+			return PokerScore.makeStraight (info.getStraightRank ());
+
+		if (info.hasTuple (3))
+			return PokerScore.makeThreeOfAKind (info.getRank (3, 0));
+
+		if (info.getPairCount () == 2)
+			return PokerScore.makeTwoPair (info.getRank (2, 0),
+										   info.getRank (2, 1),
+										   info.getRank (1, 0));
+
+		if (info.getPairCount () > 0)
+			return PokerScore.makePair (info.getRank (2, 0),
+										info.getRank (1, 0),
+										info.getRank (1, 1),
+										info.getRank (1, 2));
+
+		return PokerScore.makeHighCard (info.getRank (0),
+										info.getRank (1),
+										info.getRank (2),
+										info.getRank (3),
+										info.getRank (4));
+	}
+
 	private void scoreAndAssert(String handString, PokerScore expected) throws Exception
 	{
 		assertEquals (expected, HandInfo.score(Card.parseHand(handString)));
@@ -0,0 +1,64 @@
+//
+// AnalyzerTest.java
+//
+
+package net.ech.casino.videopoker;
+
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test program for class Analyzer.  The returns are the published
+ * returns of the pay tables under optimal play.
+ *
+ * @see net.ech.casino.videopoker.Analyzer
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class AnalyzerTest implements Constants
+{
+	@Test
+	public void testJacksOrBetter ()
+		throws Exception
+	{
+		VideoPokerMachine machine = new VideoPokerMachine (new Payout[] {
+			new Payout ("ROYAL FLUSH", 250, 800),
+			new Payout ("STRAIGHT FLUSH", 50),
+			new Payout ("FOUR OF A KIND", 25),
+			new Payout ("FULL HOUSE", 9),
+			new Payout ("FLUSH", 6),
+			new Payout ("STRAIGHT", 4),
+			new Payout ("THREE OF A KIND", 3),
+			new Payout ("TWO PAIR", 2),
+			new Payout ("JACKS OR BETTER", 1)
+		});
+		Analyzer analyzer = new Analyzer (machine, true);
+		assertEquals (134459, analyzer.getDealCount ());
+
+		Analyzer.Tally tally = analyzer.analyze ();
+		assertEquals (0.995439, analyzer.getReturn (tally), 5e-7);
+		assertEquals (2598960L * 7669695L, tally.getTotal ());
+	}
+
+	@Test
+	public void testDeucesWild ()
+		throws Exception
+	{
+		VideoPokerMachine machine = new VideoPokerMachine (new Payout[] {
+			new Payout ("ROYAL FLUSH", 250, 800),
+			new Payout ("FOUR DEUCES", 200),
+			new Payout ("WILD ROYAL FLUSH", 25),
+			new Payout ("FIVE OF A KIND", 15),
+			new Payout ("STRAIGHT FLUSH", 9),
+			new Payout ("FOUR OF A KIND", 5),
+			new Payout ("FULL HOUSE", 3),
+			new Payout ("FLUSH", 2),
+			new Payout ("STRAIGHT", 2),
+			new Payout ("THREE OF A KIND", 1)
+		});
+		machine.setDeucesWild (true);
+		Analyzer analyzer = new Analyzer (machine, true);
+		assertEquals (1.007620, analyzer.getReturn (analyzer.analyze ()), 5e-7);
+	}
+}
@@ -0,0 +1,165 @@
+//
+// HoldSolverTest.java
+//
+
+package net.ech.casino.videopoker;
+
+import net.ech.casino.*;
+import net.ech.math.XoshiroGenerator;
+import org.junit.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test program for class HoldSolver.
+ *
+ * @see net.ech.casino.videopoker.HoldSolver
+ *
+ * @author James Echmalian, ech@ech.net
+ * @version 1.0
+ */
+public class HoldSolverTest implements Constants
+{
+	private static VideoPokerMachine jacksOrBetter;
+	private static VideoPokerMachine deucesWild;
+	private static HoldSolver jacksOrBetterSolver;
+	private static HoldSolver deucesWildSolver;
+
+	@BeforeClass
+	public static void setUp ()
+		throws Exception
+	{
+		jacksOrBetter = new VideoPokerMachine (new Payout[] {
+			new Payout ("ROYAL FLUSH", 250, 800),
+			new Payout ("STRAIGHT FLUSH", 50),
+			new Payout ("FOUR OF A KIND", 25),
+			new Payout ("FULL HOUSE", 9),
+			new Payout ("FLUSH", 6),
+			new Payout ("STRAIGHT", 4),
+			new Payout ("THREE OF A KIND", 3),
+			new Payout ("TWO PAIR", 2),
+			new Payout ("JACKS OR BETTER", 1)
+		});
+		jacksOrBetterSolver = new HoldSolver (jacksOrBetter);
+
+		deucesWild = new VideoPokerMachine (new Payout[] {
+			new Payout ("ROYAL FLUSH", 250, 800),
+			new Payout ("FOUR DEUCES", 200),
+			new Payout ("WILD ROYAL FLUSH", 25),
+			new Payout ("FIVE OF A KIND", 15),
+			new Payout ("STRAIGHT FLUSH", 9),
+			new Payout ("FOUR OF A KIND", 5),
+			new Payout ("FULL HOUSE", 3),
+			new Payout ("FLUSH", 2),
+			new Payout ("STRAIGHT", 2),
+			new Payout ("THREE OF A KIND", 1)
+		});
+		deucesWild.setDeucesWild (true);
+		deucesWildSolver = new HoldSolver (deucesWild);
+	}
+
+	@Test
+	public void testDealtRoyal ()
+	{
+		byte[] hand = Card.parseHand ("ASKSQSJSTS");
+		assertEquals (0, jacksOrBetterSolver.getBestDraw (hand, true));
+		assertEquals (800.0, jacksOrBetterSolver.getExpectedReturns (hand, true)[0], 0.0);
+		assertEquals (250.0, jacksOrBetterSolver.getExpectedReturns (hand, false)[0], 0.0);
+	}
+
+	/**
+	 * Drawing one card to a four-card inside straight: four outs in 47.
+	 */
+	@Test
+	public void testInsideStraight ()
+	{
+		byte[] hand = Card.parseHand ("9D8C6H5S2D");
+		int[][] wins = jacksOrBetterSolver.countWins (hand);
+		assertEquals (4, wins[0x10][5]);
+		assertEquals (47, jacksOrBetterSolver.getDrawCount (0x10));
+		assertEquals (1533939, jacksOrBetterSolver.getDrawCount (0x1f));
+	}
+
+	@Test
+	public void testJacksOrBetter ()
+	{
+		compareWithDraws (jacksOrBetter, jacksOrBetterSolver, 190);
+	}
+
+	@Test
+	public void testDeucesWild ()
+	{
+		compareWithDraws (deucesWild, deucesWildSolver, 191);
+	}
+
+	@Test
+	public void testJoker ()
+		throws Exception
+	{
+		VideoPokerMachine jokerPoker = new VideoPokerMachine (new Payout[] {
+			new Payout ("ROYAL FLUSH", 250, 800),
+			new Payout ("FIVE OF A KIND", 200),
+			new Payout ("WILD ROYAL FLUSH", 100),
+			new Payout ("STRAIGHT FLUSH", 50),
+			new Payout ("FOUR OF A KIND", 20),
+			new Payout ("FULL HOUSE", 7),
+			new Payout ("FLUSH", 5),
+			new Payout ("STRAIGHT", 3),
+			new Payout ("THREE OF A KIND", 2),
+			new Payout ("TWO PAIR", 1),
+			new Payout ("KINGS OR BETTER", 1)
+		});
+		jokerPoker.setCardsInDeck (CardsInStandardDeck + 1);
+		compareWithDraws (jokerPoker, new HoldSolver (jokerPoker), 192);
+	}
+
+	// Count the wins of every play that draws up to three cards, and of
+	// one play that draws four, by dealing every draw.
+	private static void compareWithDraws (VideoPokerMachine machine, HoldSolver solver, long seed)
+	{
+		byte[] deck = new Deck (machine.getCardsInDeck () - CardsInStandardDeck).copyCards ();
+		Randomizer random = new Randomizer (new XoshiroGenerator (seed));
+		for (int trial = 0; trial < 2; ++trial)
+		{
+			random.shuffle (deck);
+			byte[] hand = new byte [CardsInHand];
+			System.arraycopy (deck, 0, hand, 0, CardsInHand);
+			int[][] wins = solver.countWins (hand);
+			for (int drawMask = 0; drawMask < (1 << CardsInHand); ++drawMask)
+			{
+				if (Integer.bitCount (drawMask) <= 3 || drawMask == 0x1e)
+				{
+					int[] expected = new int [machine.getPayoutCount ()];
+					byte[] drawn = (byte[]) hand.clone ();
+					int draws = deal (machine, deck, drawMask, 0, CardsInHand, drawn, expected);
+					assertEquals (solver.getDrawCount (drawMask), draws);
+					assertArrayEquals (Card.toString (hand) + " " + drawMask, expected, wins[drawMask]);
+				}
+			}
+		}
+	}
+
+	// Replace the cards of the draw mask from position i onward with
+	// cards from the deck after index next, in every way.
+	private static int deal (VideoPokerMachine machine, byte[] deck, int drawMask,
+							 int i, int next, byte[] drawn, int[] wins)
+	{
+		while (i < CardsInHand && (drawMask & (1 << i)) == 0)
+			++i;
+		if (i == CardsInHand)
+		{
+			int grade = machine.grade (drawn, false);
+			if (grade != NoGrade)
+				++wins[grade];
+			return 1;
+		}
+
+		int draws = 0;
+		for (int j = next; j < deck.length; ++j)
+		{
+			drawn[i] = deck[j];
+			draws += deal (machine, deck, drawMask, i + 1, j + 1, drawn, wins);
+		}
+		return draws;
+	}
+}
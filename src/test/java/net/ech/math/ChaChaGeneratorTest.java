@@ -0,0 +1,103 @@
+//
+// ChaChaGeneratorTest.java
+//
+
+package net.ech.math;
+
+import net.ech.casino.Randomizer;
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for ChaChaGenerator.
+ *
+ * @see net.ech.math.ChaChaGenerator
+ *
+ * @author ech@codespinner.com
+ */
+public class ChaChaGeneratorTest
+{
+	/**
+	 * The block function test vector of RFC 7539, section 2.3.2.
+	 */
+	@Test
+	public void testBlockFunction ()
+	{
+		int[] key = new int [8];
+		for (int i = 0; i < key.length; ++i)
+		{
+			int b = i * 4;
+			key[i] = b | ((b + 1) << 8) | ((b + 2) << 16) | ((b + 3) << 24);
+		}
+
+		int[] out = new int [16];
+		ChaChaGenerator.block (key, 1, 0x09000000, 0x4a000000, 0, out);
+
+		int[] expected = {
+			0xe4e7f110, 0x15593bd1, 0x1fdd0f50, 0xc47120a3,
+			0xc7f4d1c7, 0x0368c033, 0x9aaa2204, 0x4e6cd4c3,
+			0x466482d2, 0x09aa9f07, 0x05d7c214, 0xa2028bd9,
+			0xd19c12b5, 0xb94e16de, 0xe883d0cb, 0x4e3c50a2
+		};
+		for (int i = 0; i < expected.length; ++i)
+		{
+			assertEquals (expected[i], out[i]);
+		}
+	}
+
+	@Test
+	public void testSameSeedSameSequence ()
+	{
+		ChaChaGenerator a = new ChaChaGenerator (12345);
+		ChaChaGenerator b = new ChaChaGenerator (12345);
+		a.setReseedInterval (3);
+		b.setReseedInterval (3);
+		for (int i = 0; i < 1000; ++i)
+		{
+			assertEquals (a.nextInt (), b.nextInt ());
+		}
+	}
+
+	@Test
+	public void testReseedChangesSequence ()
+	{
+		ChaChaGenerator a = new ChaChaGenerator (12345);
+		ChaChaGenerator b = new ChaChaGenerator (12345);
+		b.setReseedInterval (1);
+		for (int i = 0; i < 16; ++i)
+		{
+			assertEquals (a.nextInt (), b.nextInt ());
+		}
+		int same = 0;
+		for (int i = 0; i < 16; ++i)
+		{
+			if (a.nextInt () == b.nextInt ())
+				++same;
+		}
+		assertTrue (same < 2);
+	}
+
+	@Test
+	public void testCopyIsIndependent ()
+	{
+		ChaChaGenerator a = new ChaChaGenerator (99);
+		a.nextInt ();
+		ChaChaGenerator b = (ChaChaGenerator) a.copy ();
+		for (int i = 0; i < 100; ++i)
+		{
+			assertEquals (a.nextInt (), b.nextInt ());
+		}
+	}
+
+	@Test
+	public void testEntropySeeded ()
+	{
+		Randomizer random = new Randomizer (new ChaChaGenerator ());
+		for (int i = 0; i < 1000; ++i)
+		{
+			int n = random.roll (1, 6);
+			assertTrue (n >= 1 && n <= 6);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+//
+// CyclingGeneratorTest.java
+//
+
+package net.ech.math;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.*;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for CyclingGenerator.
+ *
+ * @see net.ech.math.CyclingGenerator
+ *
+ * @author ech@codespinner.com
+ */
+public class CyclingGeneratorTest
+{
+	@Test(expected=IllegalStateException.class)
+	public void testNotStarted ()
+	{
+		new CyclingGenerator (new XoshiroGenerator (1)).nextInt ();
+	}
+
+	@Test
+	public void testSerialize () throws Exception
+	{
+		CyclingGenerator rng = new CyclingGenerator (new XoshiroGenerator (3));
+		rng.start ();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+		try
+		{
+			rng.nextInt ();
+			ObjectOutputStream out = new ObjectOutputStream (bytes);
+			out.writeObject (rng);
+			out.close ();
+		}
+		finally
+		{
+			rng.stop ();
+		}
+
+		ObjectInputStream in = new ObjectInputStream (new ByteArrayInputStream (bytes.toByteArray ()));
+		CyclingGenerator copy = (CyclingGenerator) in.readObject ();
+		assertFalse (copy.isRunning ());
+		copy.start ();
+		try
+		{
+			for (int i = 0; i < 100; ++i)
+				assertTrue (copy.next (31) >= 0);
+		}
+		finally
+		{
+			copy.stop ();
+		}
+	}
+
+	@Test
+	public void testConcurrentConsumers () throws Exception
+	{
+		final CyclingGenerator rng = new CyclingGenerator (new XoshiroGenerator (2));
+		rng.start ();
+		try
+		{
+			final int perThread = 10000;
+			final int[][] results = new int [4][perThread];
+			Thread[] threads = new Thread [results.length];
+			for (int i = 0; i < threads.length; ++i)
+			{
+				final int[] out = results[i];
+				threads[i] = new Thread (new Runnable ()
+				{
+					public void run ()
+					{
+						for (int j = 0; j < perThread; ++j)
+							out[j] = rng.next (31);
+					}
+				});
+				threads[i].start ();
+			}
+			for (int i = 0; i < threads.length; ++i)
+			{
+				threads[i].join ();
+			}
+
+			for (int i = 0; i < results.length; ++i)
+			{
+				for (int j = 0; j < perThread; ++j)
+					assertTrue (results[i][j] >= 0);
+			}
+			assertTrue (rng.getCycleCount () >= results.length * perThread);
+			assertTrue (rng.getCycleRate () > 0);
+
+			CyclingGenerator copy = (CyclingGenerator) rng.copy ();
+			assertTrue (!copy.isRunning ());
+		}
+		finally
+		{
+			rng.stop ();
+		}
+		assertTrue (!rng.isRunning ());
+	}
+}
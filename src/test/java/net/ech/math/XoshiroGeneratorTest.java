@@ -0,0 +1,83 @@
+//
+// XoshiroGeneratorTest.java
+//
+
+package net.ech.math;
+
+import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for XoshiroGenerator.
+ *
+ * @see net.ech.math.XoshiroGenerator
+ *
+ * @author ech@codespinner.com
+ */
+public class XoshiroGeneratorTest
+{
+	@Test
+	public void testSameSeedSameSequence ()
+	{
+		XoshiroGenerator a = new XoshiroGenerator (12345);
+		XoshiroGenerator b = new XoshiroGenerator (12345);
+		for (int i = 0; i < 1000; ++i)
+		{
+			assertEquals (a.nextInt (), b.nextInt ());
+		}
+	}
+
+	@Test
+	public void testSplitContinuesSequence ()
+	{
+		XoshiroGenerator master = new XoshiroGenerator (99);
+		XoshiroGenerator reference = (XoshiroGenerator) master.copy ();
+		XoshiroGenerator child = master.split ();
+		for (int i = 0; i < 1000; ++i)
+		{
+			assertEquals (reference.nextInt (), child.nextInt ());
+		}
+	}
+
+	@Test
+	public void testSplitStreamsDiffer ()
+	{
+		XoshiroGenerator master = new XoshiroGenerator (99);
+		XoshiroGenerator child1 = master.split ();
+		XoshiroGenerator child2 = master.split ();
+		int same = 0;
+		for (int i = 0; i < 1000; ++i)
+		{
+			if (child1.nextInt () == child2.nextInt ())
+				++same;
+		}
+		assertTrue (same < 5);
+	}
+
+	@Test
+	public void testJumpCommutesWithNext ()
+	{
+		XoshiroGenerator a = new XoshiroGenerator (7);
+		XoshiroGenerator b = new XoshiroGenerator (7);
+		a.nextLong ();
+		a.jump ();
+		b.jump ();
+		b.nextLong ();
+		for (int i = 0; i < 100; ++i)
+		{
+			assertEquals (a.nextLong (), b.nextLong ());
+		}
+	}
+
+	@Test
+	public void testBitsInRange ()
+	{
+		XoshiroGenerator rng = new XoshiroGenerator (1);
+		for (int i = 0; i < 1000; ++i)
+		{
+			float f = rng.nextFloat ();
+			assertTrue (f >= 0 && f < 1);
+		}
+	}
+}